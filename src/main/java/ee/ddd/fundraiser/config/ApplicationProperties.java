@@ -1,6 +1,11 @@
 package ee.ddd.fundraiser.config;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Fundraiser.
@@ -10,7 +15,627 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Image image = new Image();
+
+    private final Inventory inventory = new Inventory();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Live live = new Live();
+
+    private final Sales sales = new Sales();
+
+    private final Rollup rollup = new Rollup();
+
+    private final Cache cache = new Cache();
+
     // jhipster-needle-application-properties-property
+
+    public Image getImage() {
+        return image;
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Live getLive() {
+        return live;
+    }
+
+    public Sales getSales() {
+        return sales;
+    }
+
+    public Rollup getRollup() {
+        return rollup;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
     // jhipster-needle-application-properties-property-getter
+
+    public static class Image {
+
+        /**
+         * Largest accepted sale item image upload.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(5);
+
+        private final Store store = new Store();
+
+        private final Rendition rendition = new Rendition();
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Store getStore() {
+            return store;
+        }
+
+        public Rendition getRendition() {
+            return rendition;
+        }
+
+        public static class Store {
+
+            /**
+             * Directory of the image files, which must survive restarts and be backed up with the database.
+             */
+            private String directory = "data/images";
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+        }
+
+        public static class Rendition {
+
+            /**
+             * Widths, in pixels, of the downscaled copies generated for every image.
+             */
+            private List<Integer> widths = List.of(128, 256, 512);
+
+            /**
+             * Number of threads generating renditions.
+             */
+            private int poolSize = 2;
+
+            /**
+             * Number of pending images; when full, the submitting thread generates the renditions itself.
+             */
+            private int queueCapacity = 100;
+
+            public List<Integer> getWidths() {
+                return widths;
+            }
+
+            public void setWidths(List<Integer> widths) {
+                this.widths = widths;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+    }
+
+    public static class Inventory {
+
+        /**
+         * Delay between two writes of the reserved quantities to the database.
+         */
+        private Duration flushInterval = Duration.ofSeconds(1);
+
+        /**
+         * Directory of the journal of the reservations not written to the database yet, which must survive restarts.
+         */
+        private String journalDirectory = "data/inventory";
+
+        private final LowStock lowStock = new LowStock();
+
+        private final Admission admission = new Admission();
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public String getJournalDirectory() {
+            return journalDirectory;
+        }
+
+        public void setJournalDirectory(String journalDirectory) {
+            this.journalDirectory = journalDirectory;
+        }
+
+        public LowStock getLowStock() {
+            return lowStock;
+        }
+
+        public Admission getAdmission() {
+            return admission;
+        }
+
+        public static class LowStock {
+
+            /**
+             * Delay without new low-stock alerts after which they are sent together, in a single digest.
+             */
+            private Duration quietPeriod = Duration.ofSeconds(30);
+
+            /**
+             * Longest delay before an alert is sent, however many follow it.
+             */
+            private Duration maxDelay = Duration.ofMinutes(5);
+
+            public Duration getQuietPeriod() {
+                return quietPeriod;
+            }
+
+            public void setQuietPeriod(Duration quietPeriod) {
+                this.quietPeriod = quietPeriod;
+            }
+
+            public Duration getMaxDelay() {
+                return maxDelay;
+            }
+
+            public void setMaxDelay(Duration maxDelay) {
+                this.maxDelay = maxDelay;
+            }
+        }
+
+        public static class Admission {
+
+            /**
+             * Number of checkouts of a sale item on flash sale waiting to be admitted; the others are turned away.
+             */
+            private int queueCapacity = 256;
+
+            /**
+             * Longest wait of a checkout to be admitted, after which it is turned away.
+             */
+            private Duration timeout = Duration.ofSeconds(2);
+
+            /**
+             * Number of threads admitting checkouts, each serving one sale item on flash sale at a time.
+             */
+            private int poolSize = 2;
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+        }
+    }
+
+    public static class Idempotency {
+
+        /**
+         * How long the response to a request with an {@code Idempotency-Key} is replayed to its retries.
+         */
+        private Duration timeToLive = Duration.ofHours(24);
+
+        /**
+         * Number of responses kept in memory; the others are read back from the database.
+         */
+        private int maxEntries = 1000;
+
+        /**
+         * Largest body of a request sent with an {@code Idempotency-Key}, which is read in memory to be compared with
+         * its retries; it must leave room for a sale item image encoded in base64.
+         */
+        private DataSize maxRequestSize = DataSize.ofMegabytes(8);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxRequestSize() {
+            return maxRequestSize;
+        }
+
+        public void setMaxRequestSize(DataSize maxRequestSize) {
+            this.maxRequestSize = maxRequestSize;
+        }
+    }
+
+    public static class Live {
+
+        /**
+         * Window over which the changes are coalesced into a single update, sent to all the connections.
+         */
+        private Duration coalesceWindow = Duration.ofMillis(250);
+
+        /**
+         * Delay without updates after which a comment is sent, so that proxies do not close idle connections.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Lifetime of a connection, after which the client reconnects.
+         */
+        private Duration connectionTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Number of updates queued for a connection not keeping up.
+         */
+        private int bufferSize = 64;
+
+        /**
+         * What happens to a connection whose queue is full.
+         */
+        private Overflow overflow = Overflow.DISCONNECT;
+
+        /**
+         * Number of threads sending the updates to the connections.
+         */
+        private int poolSize = 4;
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getConnectionTimeout() {
+            return connectionTimeout;
+        }
+
+        public void setConnectionTimeout(Duration connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public Overflow getOverflow() {
+            return overflow;
+        }
+
+        public void setOverflow(Overflow overflow) {
+            this.overflow = overflow;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public enum Overflow {
+            /**
+             * Drop the oldest queued update: the client stays connected, but may show stale stock until it changes again.
+             */
+            DROP_OLDEST,
+
+            /**
+             * Close the connection: the client reconnects and gets the current stock and totals again.
+             */
+            DISCONNECT,
+        }
+    }
+
+    public static class Sales {
+
+        /**
+         * Largest accepted batch of till sales, once decompressed.
+         */
+        private DataSize maxBatchSize = DataSize.ofMegabytes(1);
+
+        public DataSize getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(DataSize maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    public static class Rollup {
+
+        /**
+         * Delay between two refreshes of the sales rollups; a sale is rolled up one to two delays after it is
+         * recorded.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(10);
+
+        /**
+         * Number of ledger entries rolled up per transaction.
+         */
+        private int batchSize = 1000;
+
+        public Duration getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Settings of the cache regions, by cache name; the others hold {@code jhipster.cache.ehcache.max-entries}
+         * entries on heap, for {@code jhipster.cache.ehcache.time-to-live-seconds}.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Longest wait for a cache entry being loaded by another thread, after which the waiting thread loads it itself.
+         */
+        private Duration loadTimeout = Duration.ofSeconds(5);
+
+        private final WarmUp warmUp = new WarmUp();
+
+        private final UnknownUsers unknownUsers = new UnknownUsers();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public Duration getLoadTimeout() {
+            return loadTimeout;
+        }
+
+        public void setLoadTimeout(Duration loadTimeout) {
+            this.loadTimeout = loadTimeout;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public UnknownUsers getUnknownUsers() {
+            return unknownUsers;
+        }
+
+        public static class Region {
+
+            /**
+             * Size of the entries kept on heap, as measured by Ehcache, instead of a number of entries.
+             */
+            private DataSize heap;
+
+            /**
+             * Size of the entries kept off heap, outside of the reach of the garbage collector, when they no longer fit
+             * on heap; it must be larger than the heap size.
+             */
+            private DataSize offHeap;
+
+            /**
+             * How long an entry is kept after it was written.
+             */
+            private Duration timeToLive;
+
+            /**
+             * How long an entry is kept after it was last read or written, instead of the time-to-live.
+             */
+            private Duration timeToIdle;
+
+            public DataSize getHeap() {
+                return heap;
+            }
+
+            public void setHeap(DataSize heap) {
+                this.heap = heap;
+            }
+
+            public DataSize getOffHeap() {
+                return offHeap;
+            }
+
+            public void setOffHeap(DataSize offHeap) {
+                this.offHeap = offHeap;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public Duration getTimeToIdle() {
+                return timeToIdle;
+            }
+
+            public void setTimeToIdle(Duration timeToIdle) {
+                this.timeToIdle = timeToIdle;
+            }
+        }
+
+        public static class UnknownUsers {
+
+            /**
+             * How long a login or email no user was found by is rejected without querying the database, unless a user
+             * is created with it.
+             */
+            private Duration timeToLive = Duration.ofMinutes(1);
+
+            /**
+             * Number of logins and emails kept; the oldest are looked up in the database again.
+             */
+            private int maxEntries = 10000;
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+
+        public static class WarmUp {
+
+            /**
+             * Whether the caches are loaded once the application has started, before it is reported ready.
+             */
+            private boolean enabled = true;
+
+            /**
+             * Longest delay before the application is reported ready, even if the caches are still being loaded.
+             */
+            private Duration timeout = Duration.ofMinutes(1);
+
+            /**
+             * Number of entries loaded per query.
+             */
+            private int batchSize = 100;
+
+            /**
+             * Number of users loaded, the most recently modified first.
+             */
+            private int users = 1000;
+
+            /**
+             * Number of threads loading the batches.
+             */
+            private int poolSize = 2;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getTimeout() {
+                return timeout;
+            }
+
+            public void setTimeout(Duration timeout) {
+                this.timeout = timeout;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getUsers() {
+                return users;
+            }
+
+            public void setUsers(int users) {
+                this.users = users;
+            }
+
+            public int getPoolSize() {
+                return poolSize;
+            }
+
+            public void setPoolSize(int poolSize) {
+                this.poolSize = poolSize;
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
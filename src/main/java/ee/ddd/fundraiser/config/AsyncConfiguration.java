@@ -1,5 +1,9 @@
 package ee.ddd.fundraiser.config;
 
+import ee.ddd.fundraiser.service.CacheWarmUpService;
+import ee.ddd.fundraiser.service.SaleItemImageRenditionService;
+import ee.ddd.fundraiser.service.inventory.AdmissionService;
+import ee.ddd.fundraiser.web.sse.LiveUpdateBroadcaster;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,8 +29,11 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -41,6 +48,66 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * A small pool kept apart from {@code taskExecutor}, so that decoding and scaling images cannot starve mails and
+     * other asynchronous tasks. The queue is bounded and rejects the images it has no room for, which are then left to
+     * the next bulk regeneration; a bulk regeneration only ever queues one image per thread.
+     */
+    @Bean(name = SaleItemImageRenditionService.EXECUTOR)
+    public Executor imageRenditionExecutor() {
+        log.debug("Creating Image Rendition Executor");
+        ApplicationProperties.Image.Rendition rendition = applicationProperties.getImage().getRendition();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(rendition.getPoolSize());
+        executor.setMaxPoolSize(rendition.getPoolSize());
+        executor.setQueueCapacity(rendition.getQueueCapacity());
+        executor.setThreadNamePrefix("fundraiser-image-");
+        return executor;
+    }
+
+    /**
+     * The threads sending the live updates, which may block on the connections of slow clients. A connection never
+     * has more than one pending task, so the queue is only as long as there are connections.
+     */
+    @Bean(name = LiveUpdateBroadcaster.EXECUTOR)
+    public Executor liveUpdateExecutor() {
+        log.debug("Creating Live Update Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationProperties.getLive().getPoolSize());
+        executor.setMaxPoolSize(applicationProperties.getLive().getPoolSize());
+        executor.setThreadNamePrefix("fundraiser-live-");
+        return executor;
+    }
+
+    /**
+     * The threads admitting the checkouts of the sale items on flash sale. A sale item never has more than one pending
+     * task, so the queue is only as long as there are sale items on flash sale.
+     */
+    @Bean(name = AdmissionService.EXECUTOR)
+    public Executor admissionExecutor() {
+        log.debug("Creating Admission Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationProperties.getInventory().getAdmission().getPoolSize());
+        executor.setMaxPoolSize(applicationProperties.getInventory().getAdmission().getPoolSize());
+        executor.setThreadNamePrefix("fundraiser-admission-");
+        return executor;
+    }
+
+    /**
+     * The threads loading the caches on startup, kept apart so that the warm-up does not delay the first requests'
+     * tasks. They are not kept once it is over.
+     */
+    @Bean(name = CacheWarmUpService.EXECUTOR)
+    public Executor cacheWarmUpExecutor() {
+        log.debug("Creating Cache Warm-up Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationProperties.getCache().getWarmUp().getPoolSize());
+        executor.setMaxPoolSize(applicationProperties.getCache().getWarmUp().getPoolSize());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("fundraiser-cache-warm-up-");
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
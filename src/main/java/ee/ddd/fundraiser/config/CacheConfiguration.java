@@ -1,17 +1,40 @@
 package ee.ddd.fundraiser.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.cache.Caching;
+import java.net.URI;
 import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.core.config.DefaultConfiguration;
+import org.ehcache.core.internal.statistics.DefaultStatisticsService;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.expiry.ExpiryPolicy;
 import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.jcache.JCacheCache;
 import org.springframework.context.annotation.*;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
 
@@ -21,18 +44,18 @@ public class CacheConfiguration {
 
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties.Idempotency idempotency;
+    private final Map<String, ApplicationProperties.Cache.Region> regions;
+    private final Duration loadTimeout;
+    private final ApplicationProperties.Cache.UnknownUsers unknownUsers;
 
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
-
-        jcacheConfiguration =
-            Eh107Configuration.fromEhcacheCacheConfiguration(
-                CacheConfigurationBuilder
-                    .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(ehcache.getMaxEntries()))
-                    .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                    .build()
-            );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.idempotency = applicationProperties.getIdempotency();
+        this.regions = applicationProperties.getCache().getRegions();
+        this.loadTimeout = applicationProperties.getCache().getLoadTimeout();
+        this.unknownUsers = applicationProperties.getCache().getUnknownUsers();
     }
 
     @Bean
@@ -40,26 +63,176 @@ public class CacheConfiguration {
         return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
+    /**
+     * Keep the statistics of every cache region, as the statistics service of the {@link #jCacheCacheManager}.
+     *
+     * @return the statistics service.
+     */
+    @Bean
+    public StatisticsService ehcacheStatisticsService() {
+        return new DefaultStatisticsService();
+    }
+
+    /**
+     * Create the cache manager in place of Spring Boot, so that its configuration gives it the statistics service read
+     * by the {@link EhcacheMetrics}, then customize it as Spring Boot does.
+     *
+     * @param statisticsService the statistics service of the cache manager.
+     * @param customizers the customizers of the cache manager.
+     * @return the cache manager.
+     */
+    @Bean
+    public javax.cache.CacheManager jCacheCacheManager(
+        StatisticsService statisticsService,
+        ObjectProvider<JCacheManagerCustomizer> customizers
+    ) {
+        EhcacheCachingProvider cachingProvider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // A cache manager of its own, as the one of the default URI may have been created without the statistics service
+        javax.cache.CacheManager cacheManager = cachingProvider.getCacheManager(
+            URI.create("urn:X-fundraiser:" + UUID.randomUUID()),
+            new DefaultConfiguration(
+                cachingProvider.getDefaultClassLoader(),
+                new EhcacheStatisticsServiceFactory.StatisticsServiceConfiguration(statisticsService)
+            )
+        );
+        customizers.orderedStream().forEach(customizer -> customizer.customize(cacheManager));
+        return cacheManager;
+    }
+
+    /**
+     * Report the metrics of every cache region, including the Hibernate ones, ahead of Spring Boot's JCache metrics.
+     *
+     * @param statisticsService the statistics of the cache regions.
+     * @return the provider of the {@link EhcacheMetrics}.
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CacheMeterBinderProvider<JCacheCache> ehcacheMeterBinderProvider(StatisticsService statisticsService) {
+        return (cache, tags) -> new EhcacheMetrics(cache.getNativeCache(), statisticsService, tags);
+    }
+
+    /**
+     * Resolve the caches of the {@code @Cacheable(sync = true)} methods naming it to {@link SingleFlightCache}s.
+     *
+     * @param cacheManager the cache manager of the caches.
+     * @param meterRegistry the registry of the load metrics.
+     * @return the cache resolver.
+     */
+    @Bean(name = ee.ddd.fundraiser.repository.UserRepository.SINGLE_FLIGHT_CACHE_RESOLVER)
+    public CacheResolver singleFlightCacheResolver(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+        return context ->
+            context
+                .getOperation()
+                .getCacheNames()
+                .stream()
+                .map(cacheName ->
+                    caches.computeIfAbsent(
+                        cacheName,
+                        name -> new SingleFlightCache(Objects.requireNonNull(cacheManager.getCache(name)), loadTimeout, meterRegistry)
+                    )
+                )
+                .collect(Collectors.toList());
+    }
+
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
-            createCache(cm, ee.ddd.fundraiser.repository.UserRepository.USERS_BY_LOGIN_CACHE);
-            createCache(cm, ee.ddd.fundraiser.repository.UserRepository.USERS_BY_EMAIL_CACHE);
-            createCache(cm, ee.ddd.fundraiser.domain.User.class.getName());
-            createCache(cm, ee.ddd.fundraiser.domain.Authority.class.getName());
-            createCache(cm, ee.ddd.fundraiser.domain.User.class.getName() + ".authorities");
-            createCache(cm, ee.ddd.fundraiser.domain.SaleItem.class.getName());
+            Set<String> unknownRegions = new TreeSet<>(regions.keySet());
+            createCache(cm, ee.ddd.fundraiser.repository.UserRepository.USERS_BY_LOGIN_CACHE, unknownRegions);
+            createCache(cm, ee.ddd.fundraiser.repository.UserRepository.USERS_BY_EMAIL_CACHE, unknownRegions);
+            createUnknownUsersCache(cm, ee.ddd.fundraiser.repository.UserRepository.UNKNOWN_USERS_CACHE, unknownRegions);
+            createCache(cm, ee.ddd.fundraiser.domain.User.class.getName(), unknownRegions);
+            createCache(cm, ee.ddd.fundraiser.domain.Authority.class.getName(), unknownRegions);
+            createCache(cm, ee.ddd.fundraiser.domain.User.class.getName() + ".authorities", unknownRegions);
+            createCache(cm, ee.ddd.fundraiser.domain.SaleItem.class.getName(), unknownRegions);
+            createIdempotencyCache(cm, ee.ddd.fundraiser.service.IdempotencyService.IDEMPOTENT_RESPONSES_CACHE, unknownRegions);
             // jhipster-needle-ehcache-add-entry
+            if (!unknownRegions.isEmpty()) {
+                throw new IllegalStateException("Unknown cache regions in application.cache.regions: " + unknownRegions);
+            }
         };
     }
 
-    private void createCache(javax.cache.CacheManager cm, String cacheName) {
+    private void createCache(javax.cache.CacheManager cm, String cacheName, Set<String> unknownRegions) {
+        unknownRegions.remove(cacheName);
+        createCache(
+            cm,
+            cacheName,
+            jcacheConfiguration(regions.get(cacheName), ehcache.getMaxEntries(), Duration.ofSeconds(ehcache.getTimeToLiveSeconds()))
+        );
+    }
+
+    private void createUnknownUsersCache(javax.cache.CacheManager cm, String cacheName, Set<String> unknownRegions) {
+        unknownRegions.remove(cacheName);
+        // Short lived, so that a user created on another instance can log in soon after
+        createCache(
+            cm,
+            cacheName,
+            jcacheConfiguration(regions.get(cacheName), unknownUsers.getMaxEntries(), unknownUsers.getTimeToLive())
+        );
+    }
+
+    private void createIdempotencyCache(javax.cache.CacheManager cm, String cacheName, Set<String> unknownRegions) {
+        unknownRegions.remove(cacheName);
+        // Idempotent responses must be replayed for as long as their records are, however long the other entries are cached
+        ApplicationProperties.Cache.Region region = regions.get(cacheName);
+        if (region != null && (region.getTimeToLive() != null || region.getTimeToIdle() != null)) {
+            throw new IllegalStateException(
+                "Set application.idempotency.time-to-live instead of the expiry of the " + cacheName + " cache region"
+            );
+        }
+        createCache(cm, cacheName, jcacheConfiguration(region, idempotency.getMaxEntries(), idempotency.getTimeToLive()));
+    }
+
+    private void createCache(
+        javax.cache.CacheManager cm,
+        String cacheName,
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, configuration);
+        }
+    }
+
+    /**
+     * Build the configuration of a cache region.
+     * <p>
+     * A region sized in bytes is measured by Ehcache's sizeOf engine on every write, which costs more than counting its
+     * entries but lets regions holding large values be given a budget they cannot exceed. Entries moved off heap are
+     * serialized, so they no longer weigh on the garbage collector, but must be deserialized again on every read.
+     *
+     * @param region the settings of the region, or {@code null} for the defaults.
+     * @param defaultMaxEntries the number of entries kept on heap, unless the region is sized in bytes.
+     * @param defaultTimeToLive how long entries are kept, unless the region sets its own expiry.
+     * @return the configuration.
+     */
+    static javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(
+        ApplicationProperties.Cache.Region region,
+        long defaultMaxEntries,
+        Duration defaultTimeToLive
+    ) {
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(defaultMaxEntries);
+        ExpiryPolicy<Object, Object> expiry = ExpiryPolicyBuilder.timeToLiveExpiration(defaultTimeToLive);
+        if (region != null) {
+            if (region.getHeap() != null) {
+                resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder().heap(region.getHeap().toKilobytes(), MemoryUnit.KB);
+            }
+            if (region.getOffHeap() != null) {
+                resourcePools = resourcePools.offheap(region.getOffHeap().toMegabytes(), MemoryUnit.MB);
+            }
+            if (region.getTimeToIdle() != null) {
+                expiry = ExpiryPolicyBuilder.timeToIdleExpiration(region.getTimeToIdle());
+            } else if (region.getTimeToLive() != null) {
+                expiry = ExpiryPolicyBuilder.timeToLiveExpiration(region.getTimeToLive());
+            }
         }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools).withExpiry(expiry).build()
+        );
     }
 
     @Autowired(required = false)
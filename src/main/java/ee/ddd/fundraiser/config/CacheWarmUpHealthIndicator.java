@@ -0,0 +1,31 @@
+package ee.ddd.fundraiser.config;
+
+import ee.ddd.fundraiser.service.CacheWarmUpService;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health of the cache warm-up, part of the {@code readiness} group: out of service until the caches are loaded, or
+ * until {@code application.cache.warm-up.timeout} has passed.
+ */
+@Component
+public class CacheWarmUpHealthIndicator extends AbstractHealthIndicator {
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService) {
+        super("Cache warm-up health check failed");
+        this.cacheWarmUpService = cacheWarmUpService;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        if (cacheWarmUpService.isOver()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("entries", cacheWarmUpService.getEntries());
+    }
+}
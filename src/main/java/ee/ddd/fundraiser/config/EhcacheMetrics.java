@@ -0,0 +1,90 @@
+package ee.ddd.fundraiser.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.core.statistics.CacheStatistics;
+import org.ehcache.core.statistics.TierStatistics;
+
+/**
+ * Metrics of an Ehcache cache region, read from the statistics Ehcache keeps anyway, through the
+ * {@link StatisticsService} the cache manager is configured with, rather than from the JSR-107 statistics MBeans,
+ * which must be enabled and are published through JMX.
+ * <p>
+ * Besides the common cache metrics, the entries of each tier are reported, and the bytes of the tiers sized in bytes,
+ * as Ehcache only measures those: a region sized by its number of entries must be sized in bytes, through
+ * {@code application.cache.regions}, to report them. The Hibernate second-level cache regions are reported the same
+ * way, as each is a cache region, so {@code hibernate.generate_statistics} can stay off.
+ */
+public class EhcacheMetrics extends CacheMeterBinder<javax.cache.Cache<?, ?>> {
+
+    private final CacheStatistics statistics;
+
+    public EhcacheMetrics(javax.cache.Cache<?, ?> cache, StatisticsService statisticsService, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+        this.statistics = statisticsService.getCacheStatistics(cache.getName());
+    }
+
+    @Override
+    protected Long size() {
+        // The lowest tier holds every entry, the others a copy of the most used ones
+        return statistics.getTierStatistics().values().stream().mapToLong(TierStatistics::getMappings).max().orElse(0);
+    }
+
+    @Override
+    protected long hitCount() {
+        return statistics.getCacheHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return statistics.getCacheMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return statistics.getCacheEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return statistics.getCachePuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter
+            .builder("cache.removals", statistics, CacheStatistics::getCacheRemovals)
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache")
+            .register(registry);
+        FunctionCounter
+            .builder("cache.expirations", statistics, CacheStatistics::getCacheExpirations)
+            .tags(getTagsWithCacheName())
+            .description("The number of entries removed from the cache once expired")
+            .register(registry);
+        statistics
+            .getTierStatistics()
+            .forEach((tier, tierStatistics) -> {
+                Tags tags = Tags.of(getTagsWithCacheName()).and("tier", tier);
+                Gauge
+                    .builder("cache.tier.entries", tierStatistics, TierStatistics::getMappings)
+                    .tags(tags)
+                    .description("The number of entries in the tier")
+                    .register(registry);
+                // Tiers sized by their number of entries do not measure their bytes
+                if (tierStatistics.getOccupiedByteSize() >= 0) {
+                    Gauge
+                        .builder("cache.tier.bytes", tierStatistics, TierStatistics::getOccupiedByteSize)
+                        .tags(tags)
+                        .description("The size of the entries in the tier, as estimated by Ehcache")
+                        .baseUnit("bytes")
+                        .register(registry);
+                }
+            });
+    }
+}
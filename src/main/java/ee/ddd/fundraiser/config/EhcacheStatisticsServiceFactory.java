@@ -0,0 +1,59 @@
+package ee.ddd.fundraiser.config;
+
+import org.ehcache.core.spi.service.ServiceFactory;
+import org.ehcache.core.spi.service.StatisticsService;
+import org.ehcache.spi.service.ServiceCreationConfiguration;
+
+/**
+ * Ehcache factory of the {@link StatisticsService} given to a cache manager by a {@link StatisticsServiceConfiguration}
+ * of its configuration, so that the {@link EhcacheMetrics} read the statistics the cache manager keeps. It is found by
+ * Ehcache through {@code META-INF/services}, and only used by the cache managers configured so: the others keep their
+ * default statistics service.
+ */
+@ServiceFactory.RequiresConfiguration
+public class EhcacheStatisticsServiceFactory implements ServiceFactory<StatisticsService> {
+
+    @Override
+    public int rank() {
+        // Ahead of the default factory
+        return 2;
+    }
+
+    @Override
+    public StatisticsService create(ServiceCreationConfiguration<StatisticsService, ?> configuration) {
+        // Not cast to StatisticsServiceConfiguration, which may have been loaded by another class loader, e.g. devtools' one
+        return (StatisticsService) configuration.derive();
+    }
+
+    @Override
+    public Class<StatisticsService> getServiceType() {
+        return StatisticsService.class;
+    }
+
+    /**
+     * Configuration giving a statistics service to a cache manager.
+     */
+    public static class StatisticsServiceConfiguration implements ServiceCreationConfiguration<StatisticsService, StatisticsService> {
+
+        private final StatisticsService statisticsService;
+
+        public StatisticsServiceConfiguration(StatisticsService statisticsService) {
+            this.statisticsService = statisticsService;
+        }
+
+        @Override
+        public Class<StatisticsService> getServiceType() {
+            return StatisticsService.class;
+        }
+
+        @Override
+        public StatisticsService derive() {
+            return statisticsService;
+        }
+
+        @Override
+        public StatisticsServiceConfiguration build(StatisticsService statisticsService) {
+            return new StatisticsServiceConfiguration(statisticsService);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ee.ddd.fundraiser.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache loading each missing entry only once, however many threads miss it at the same time: the first one loads it
+ * while the others wait for its value, instead of all running the same query. It serves the
+ * {@code @Cacheable(sync = true)} methods resolving their cache with the
+ * {@link ee.ddd.fundraiser.repository.UserRepository#SINGLE_FLIGHT_CACHE_RESOLVER}.
+ * <p>
+ * Unlike {@code JCacheCache}, no lock of the cache is held while the entry is loaded. A thread waits for it at most
+ * {@code application.cache.load-timeout}, then loads it itself. The loads are counted by {@code cache.loads}, tagged
+ * by cache name and by whether the thread loaded the entry, waited for it, or gave up waiting.
+ * <p>
+ * Evicting an entry, or clearing the cache, drops the loads in progress: the values they read are returned to the
+ * threads already waiting for them, but no longer cached, and the next miss loads the entry again.
+ * <p>
+ * A missing value is not cached, so that lookups of unknown keys do not evict the known ones: the users not found are
+ * kept in the smaller, shorter lived {@link ee.ddd.fundraiser.repository.UserRepository#UNKNOWN_USERS_CACHE} instead.
+ */
+public class SingleFlightCache implements Cache {
+
+    public static final String METER_NAME = "cache.loads";
+
+    private final Cache cache;
+
+    private final Duration timeout;
+
+    private final Map<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    private final Counter loadedCounter;
+
+    private final Counter coalescedCounter;
+
+    private final Counter timedOutCounter;
+
+    public SingleFlightCache(Cache cache, Duration timeout, MeterRegistry meterRegistry) {
+        this.cache = cache;
+        this.timeout = timeout;
+        this.loadedCounter = loadCounter("loaded").register(meterRegistry);
+        this.coalescedCounter = loadCounter("coalesced").register(meterRegistry);
+        this.timedOutCounter = loadCounter("timeout").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return cache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return cache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return cache.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return cache.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> otherLoad = loading.putIfAbsent(key, load);
+        if (otherLoad == null) {
+            try {
+                T value = load(key, valueLoader);
+                cacheIfLoading(key, load, value);
+                loadedCounter.increment();
+                load.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                load.completeExceptionally(e);
+                throw e;
+            } finally {
+                loading.remove(key, load);
+            }
+        }
+        try {
+            T value = (T) otherLoad.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            coalescedCounter.increment();
+            return value;
+        } catch (TimeoutException e) {
+            timedOutCounter.increment();
+            T value = load(key, valueLoader);
+            cacheIfLoading(key, otherLoad, value);
+            return value;
+        } catch (ExecutionException e) {
+            // The loading thread failed, and so would this one
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return cache.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        loading.remove(key);
+        cache.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        loading.remove(key);
+        return cache.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        loading.clear();
+        cache.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        loading.clear();
+        return cache.invalidate();
+    }
+
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    /**
+     * Cache a loaded value, unless the entry was evicted while it was loaded, in which case the value may predate the
+     * change that evicted it. The check and the put are made under the lock the eviction takes to remove the load.
+     */
+    private void cacheIfLoading(Object key, CompletableFuture<Object> load, Object value) {
+        if (value != null) {
+            loading.computeIfPresent(
+                key,
+                (k, current) -> {
+                    if (current == load) {
+                        cache.put(k, value);
+                    }
+                    return current;
+                }
+            );
+        }
+    }
+
+    private Counter.Builder loadCounter(String result) {
+        return Counter
+            .builder(METER_NAME)
+            .description("Loads of missing cache entries")
+            .tag("cache", cache.getName())
+            .tag("result", result);
+    }
+}
@@ -2,13 +2,17 @@ package ee.ddd.fundraiser.config;
 
 import static java.net.URLDecoder.decode;
 
+import ee.ddd.fundraiser.service.IdempotencyService;
+import ee.ddd.fundraiser.web.filter.IdempotencyFilter;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import javax.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +23,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -87,6 +92,32 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return extractedPath.substring(0, extractionEndIndex);
     }
 
+    /**
+     * Replaces the default {@link org.springframework.http.converter.ResourceHttpMessageConverter}, so that images kept
+     * on disk are sent without copying them through the heap.
+     */
+    @Bean
+    public ZeroCopyResourceHttpMessageConverter resourceHttpMessageConverter() {
+        return new ZeroCopyResourceHttpMessageConverter();
+    }
+
+    /**
+     * Runs the retries of the {@code POST} requests creating something only once, when sent with an
+     * {@code Idempotency-Key}. Registered after Spring Security, so that keys apply to the user that sent them.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+        IdempotencyService idempotencyService,
+        @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+        ApplicationProperties applicationProperties
+    ) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+            new IdempotencyFilter(idempotencyService, handlerExceptionResolver, applicationProperties)
+        );
+        registration.addUrlPatterns("/api/sale-items", "/api/checkout");
+        return registration;
+    }
+
     @Bean
     public CorsFilter corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
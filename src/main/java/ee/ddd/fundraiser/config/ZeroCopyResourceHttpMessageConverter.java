@@ -0,0 +1,66 @@
+package ee.ddd.fundraiser.config;
+
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import javax.servlet.ServletResponse;
+import javax.servlet.ServletResponseWrapper;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+/**
+ * {@link ResourceHttpMessageConverter} sending file resources without copying them through the heap.
+ * <p>
+ * On Undertow, the file is handed to {@link ServletOutputStreamImpl#transferFrom(FileChannel)}, which uses
+ * {@code sendfile} where the operating system supports it. Elsewhere, it is copied with
+ * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. Other resources, and ranges of resources, are
+ * written as usual.
+ */
+public class ZeroCopyResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    public ZeroCopyResourceHttpMessageConverter() {
+        super(true);
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+        if (!resource.isFile()) {
+            super.writeContent(resource, outputMessage);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+            OutputStream body = outputMessage.getBody();
+            OutputStream servletBody = servletOutputStream(outputMessage);
+            if (servletBody instanceof ServletOutputStreamImpl) {
+                // Commits the response through the wrapping filters first, as they may still add headers
+                body.flush();
+                ((ServletOutputStreamImpl) servletBody).transferFrom(file);
+            } else {
+                WritableByteChannel target = Channels.newChannel(body);
+                long position = 0;
+                long size = file.size();
+                while (position < size) {
+                    position += file.transferTo(position, size - position, target);
+                }
+            }
+            body.flush();
+        }
+    }
+
+    private static OutputStream servletOutputStream(HttpOutputMessage outputMessage) throws IOException {
+        if (!(outputMessage instanceof ServletServerHttpResponse)) {
+            return null;
+        }
+        ServletResponse response = ((ServletServerHttpResponse) outputMessage).getServletResponse();
+        while (response instanceof ServletResponseWrapper) {
+            response = ((ServletResponseWrapper) response).getResponse();
+        }
+        return response.getOutputStream();
+    }
+}
@@ -0,0 +1,132 @@
+package ee.ddd.fundraiser.domain;
+
+import ee.ddd.fundraiser.domain.enumeration.TotalDimension;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import javax.persistence.*;
+
+/**
+ * The running total of the {@link SaleLedgerEntry}s of one key of a {@link TotalDimension}, such as one sale item.
+ * <p>
+ * Updated by every checkout, in the same transaction as its ledger entries, so the totals never need to be computed
+ * from the ledger.
+ */
+@Entity
+@Table(name = "fundraiser_total")
+public class FundraiserTotal implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false)
+    private TotalDimension dimension;
+
+    @Column(name = "dimension_key", length = 64, nullable = false)
+    private String key;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Column(name = "revenue", precision = 21, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public FundraiserTotal id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public TotalDimension getDimension() {
+        return this.dimension;
+    }
+
+    public FundraiserTotal dimension(TotalDimension dimension) {
+        this.setDimension(dimension);
+        return this;
+    }
+
+    public void setDimension(TotalDimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public FundraiserTotal key(String key) {
+        this.setKey(key);
+        return this;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Long getQuantity() {
+        return this.quantity;
+    }
+
+    public FundraiserTotal quantity(Long quantity) {
+        this.setQuantity(quantity);
+        return this;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return this.revenue;
+    }
+
+    public FundraiserTotal revenue(BigDecimal revenue) {
+        this.setRevenue(revenue);
+        return this;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FundraiserTotal)) {
+            return false;
+        }
+        return id != null && id.equals(((FundraiserTotal) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FundraiserTotal{" +
+            "id=" + getId() +
+            ", dimension='" + getDimension() + "'" +
+            ", key='" + getKey() + "'" +
+            ", quantity=" + getQuantity() +
+            ", revenue=" + getRevenue() +
+            "}";
+    }
+}
@@ -0,0 +1,191 @@
+package ee.ddd.fundraiser.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.Type;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * The response to a request sent with an {@code Idempotency-Key}, replayed to the retries of the request.
+ * <p>
+ * Created without a response before the request is processed, so that its key stays taken if the response is never
+ * kept. Only read when the response is no longer in the cache, such as after a restart.
+ */
+@Entity
+@Table(name = "idempotency_record")
+public class IdempotencyRecord implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * SHA-256 hash of the key, together with the user, method and path it was sent with.
+     */
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    /**
+     * SHA-256 hash of the request body, to tell a retry from another request reusing the key.
+     */
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    /**
+     * Response status, {@code null} until the response is kept.
+     */
+    @Column(name = "status")
+    private Integer status;
+
+    /**
+     * Response headers, as a JSON object of lists of values.
+     */
+    @Lob
+    @Type(type = "org.hibernate.type.TextType")
+    @Column(name = "headers")
+    private String headers;
+
+    @Lob
+    @Column(name = "body")
+    private byte[] body;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public String getId() {
+        return this.id;
+    }
+
+    public IdempotencyRecord id(String id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRequestHash() {
+        return this.requestHash;
+    }
+
+    public IdempotencyRecord requestHash(String requestHash) {
+        this.setRequestHash(requestHash);
+        return this;
+    }
+
+    public void setRequestHash(String requestHash) {
+        this.requestHash = requestHash;
+    }
+
+    public Integer getStatus() {
+        return this.status;
+    }
+
+    public IdempotencyRecord status(Integer status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getHeaders() {
+        return this.headers;
+    }
+
+    public IdempotencyRecord headers(String headers) {
+        this.setHeaders(headers);
+        return this;
+    }
+
+    public void setHeaders(String headers) {
+        this.headers = headers;
+    }
+
+    public byte[] getBody() {
+        return this.body;
+    }
+
+    public IdempotencyRecord body(byte[] body) {
+        this.setBody(body);
+        return this;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public IdempotencyRecord createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * Whether the response is not kept yet.
+     *
+     * @return {@code true} while the request is processed, or if it was interrupted before its response was kept.
+     */
+    public boolean isPending() {
+        return status == null;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Override
+    public boolean isNew() {
+        // Inserted rather than merged, so that two requests cannot take the same key
+        return !this.isPersisted;
+    }
+
+    public IdempotencyRecord setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IdempotencyRecord)) {
+            return false;
+        }
+        return id != null && id.equals(((IdempotencyRecord) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "IdempotencyRecord{" +
+            "id=" + getId() +
+            ", requestHash=" + getRequestHash() +
+            ", status=" + getStatus() +
+            ", body=" + (getBody() == null ? "null" : getBody().length + " bytes") +
+            ", createdDate=" + getCreatedDate() +
+            "}";
+    }
+}
@@ -0,0 +1,81 @@
+package ee.ddd.fundraiser.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * The last segment of the inventory journal whose reservations have been written to {@link SaleItem#getQuantity()}.
+ * <p>
+ * There is a single row, updated in the same transaction as the quantities, so the segments after it are exactly
+ * those still to be replayed.
+ */
+@Entity
+@Table(name = "inventory_checkpoint")
+public class InventoryCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Id of the single row.
+     */
+    public static final Long ID = 1L;
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "segment", nullable = false)
+    private Long segment;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public InventoryCheckpoint id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSegment() {
+        return this.segment;
+    }
+
+    public InventoryCheckpoint segment(Long segment) {
+        this.setSegment(segment);
+        return this;
+    }
+
+    public void setSegment(Long segment) {
+        this.segment = segment;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InventoryCheckpoint)) {
+            return false;
+        }
+        return id != null && id.equals(((InventoryCheckpoint) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "InventoryCheckpoint{" +
+            "id=" + getId() +
+            ", segment=" + getSegment() +
+            "}";
+    }
+}
@@ -0,0 +1,140 @@
+package ee.ddd.fundraiser.domain;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money, held as a whole number of cents.
+ * <p>
+ * Adding and multiplying amounts is exact integer arithmetic, which fails instead of overflowing; summing the
+ * {@link #getMinorUnits() cents} of many amounts allocates nothing. Amounts enter and leave the application as
+ * decimal numbers with {@value #SCALE} decimals, in the database and in JSON.
+ */
+public final class Money implements Serializable, Comparable<Money> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of decimals of an amount.
+     */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    private final long minorUnits;
+
+    private Money(long minorUnits) {
+        this.minorUnits = minorUnits;
+    }
+
+    /**
+     * @param minorUnits the amount, in cents.
+     * @return the amount.
+     */
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /**
+     * @param amount the amount, with at most {@value #SCALE} decimals.
+     * @return the amount.
+     * @throws ArithmeticException if the amount has more decimals, or is too large.
+     */
+    @JsonCreator
+    public static Money of(BigDecimal amount) {
+        return of(amount, RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * @param amount the amount.
+     * @param roundingMode how to round the decimals after the {@value #SCALE} first.
+     * @return the amount, rounded to the cent.
+     * @throws ArithmeticException if the amount is too large, or must be rounded with {@link RoundingMode#UNNECESSARY}.
+     */
+    public static Money of(BigDecimal amount, RoundingMode roundingMode) {
+        return ofMinor(amount.setScale(SCALE, roundingMode).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Parse an amount, such as a request parameter.
+     *
+     * @param amount the amount, with at most {@value #SCALE} decimals.
+     * @return the amount.
+     * @throws NumberFormatException if the amount is not a decimal number.
+     * @throws ArithmeticException if the amount has more decimals, or is too large.
+     */
+    public static Money valueOf(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    /**
+     * @return the amount, in cents.
+     */
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    /**
+     * @param other the amount to add.
+     * @return the sum of both amounts.
+     * @throws ArithmeticException if the sum is too large.
+     */
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * @param other the amount to subtract.
+     * @return the difference of both amounts.
+     * @throws ArithmeticException if the difference is too large.
+     */
+    public Money minus(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    /**
+     * @param quantity the multiplier, such as the quantity of a sale item.
+     * @return the amount times the multiplier.
+     * @throws ArithmeticException if the product is too large.
+     */
+    public Money times(int quantity) {
+        return ofMinor(Math.multiplyExact(minorUnits, quantity));
+    }
+
+    /**
+     * @return the amount, with {@value #SCALE} decimals.
+     */
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        return minorUnits == ((Money) o).minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
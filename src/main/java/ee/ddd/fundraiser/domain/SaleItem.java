@@ -1,8 +1,9 @@
 package ee.ddd.fundraiser.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import ee.ddd.fundraiser.domain.enumeration.ItemType;
 import java.io.Serializable;
-import java.math.BigDecimal;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import org.hibernate.annotations.Cache;
@@ -30,25 +31,57 @@ public class SaleItem implements Serializable {
     private String name;
 
     @NotNull
+    @Convert(converter = MoneyConverter.class)
     @Column(name = "price", precision = 21, scale = 2, nullable = false)
-    private BigDecimal price;
+    private Money price;
 
     @Column(name = "quantity")
     private Integer quantity;
 
+    /**
+     * Available quantity at or below which the organizers are alerted that the saleItem runs out, if any.
+     */
+    @Min(value = 0)
+    @Column(name = "low_stock_threshold")
+    private Integer lowStockThreshold;
+
+    /**
+     * Whether the checkouts of the saleItem are admitted one at a time, before they use the database, for saleItems
+     * selling out within seconds.
+     */
+    @Column(name = "flash_sale")
+    private Boolean flashSale;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "type", nullable = false)
     private ItemType type;
 
-    @Lob
-    @Column(name = "image", nullable = false)
+    /**
+     * Image bytes received on create or update; persisted as a {@link SaleItemImage} and never loaded with the item.
+     */
+    @Transient
     private byte[] image;
 
     @NotNull
     @Column(name = "image_content_type", nullable = false)
     private String imageContentType;
 
+    /**
+     * Hex encoded SHA-256 of the image bytes, maintained by the server and used as the image version.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    /**
+     * Incremented on every update, so that an update based on an outdated copy fails instead of overwriting newer
+     * changes. Also the ETag of the saleItem.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -77,16 +110,16 @@ public class SaleItem implements Serializable {
         this.name = name;
     }
 
-    public BigDecimal getPrice() {
+    public Money getPrice() {
         return this.price;
     }
 
-    public SaleItem price(BigDecimal price) {
+    public SaleItem price(Money price) {
         this.setPrice(price);
         return this;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -103,6 +136,32 @@ public class SaleItem implements Serializable {
         this.quantity = quantity;
     }
 
+    public Integer getLowStockThreshold() {
+        return this.lowStockThreshold;
+    }
+
+    public SaleItem lowStockThreshold(Integer lowStockThreshold) {
+        this.setLowStockThreshold(lowStockThreshold);
+        return this;
+    }
+
+    public void setLowStockThreshold(Integer lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Boolean getFlashSale() {
+        return this.flashSale;
+    }
+
+    public SaleItem flashSale(Boolean flashSale) {
+        this.setFlashSale(flashSale);
+        return this;
+    }
+
+    public void setFlashSale(Boolean flashSale) {
+        this.flashSale = flashSale;
+    }
+
     public ItemType getType() {
         return this.type;
     }
@@ -116,6 +175,8 @@ public class SaleItem implements Serializable {
         this.type = type;
     }
 
+    @JsonProperty("image")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public byte[] getImage() {
         return this.image;
     }
@@ -125,6 +186,7 @@ public class SaleItem implements Serializable {
         return this;
     }
 
+    @JsonProperty("image")
     public void setImage(byte[] image) {
         this.image = image;
     }
@@ -142,6 +204,32 @@ public class SaleItem implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public SaleItem imageHash(String imageHash) {
+        this.setImageHash(imageHash);
+        return this;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public SaleItem version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -169,9 +257,12 @@ public class SaleItem implements Serializable {
             ", name='" + getName() + "'" +
             ", price=" + getPrice() +
             ", quantity=" + getQuantity() +
+            ", lowStockThreshold=" + getLowStockThreshold() +
+            ", flashSale='" + getFlashSale() + "'" +
             ", type='" + getType() + "'" +
-            ", image='" + getImage() + "'" +
             ", imageContentType='" + getImageContentType() + "'" +
+            ", imageHash='" + getImageHash() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
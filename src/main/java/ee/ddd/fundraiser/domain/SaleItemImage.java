@@ -0,0 +1,80 @@
+package ee.ddd.fundraiser.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * The image of a {@link SaleItem}, as stored in the database before images moved to the image store.
+ * <p>
+ * Only read as a fallback until the images have been migrated to the image store, which then deletes the row.
+ * Not cached in the second level cache on purpose: image bytes would dominate the heap used by the cache.
+ */
+@Entity
+@Table(name = "sale_item_image")
+public class SaleItemImage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Same value as the id of the owning {@link SaleItem}.
+     */
+    @Id
+    @Column(name = "sale_item_id")
+    private Long id;
+
+    @Lob
+    @Column(name = "image", nullable = false)
+    private byte[] image;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SaleItemImage id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public byte[] getImage() {
+        return this.image;
+    }
+
+    public SaleItemImage image(byte[] image) {
+        this.setImage(image);
+        return this;
+    }
+
+    public void setImage(byte[] image) {
+        this.image = image;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SaleItemImage)) {
+            return false;
+        }
+        return id != null && id.equals(((SaleItemImage) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleItemImage{" +
+            "id=" + getId() +
+            ", image=" + (getImage() == null ? "null" : getImage().length + " bytes") +
+            "}";
+    }
+}
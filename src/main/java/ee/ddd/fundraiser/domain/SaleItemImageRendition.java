@@ -0,0 +1,155 @@
+package ee.ddd.fundraiser.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A downscaled copy of the image of a {@link SaleItem}, generated in the background for a fixed width.
+ * <p>
+ * The rendition remembers the hash of the image it was generated from, so a rendition of a replaced image is never
+ * served. Its bytes are kept in the image store.
+ */
+@Entity
+@Table(name = "sale_item_image_rendition")
+public class SaleItemImageRendition implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "sale_item_id", nullable = false)
+    private Long saleItemId;
+
+    @NotNull
+    @Column(name = "width", nullable = false)
+    private Integer width;
+
+    @NotNull
+    @Column(name = "image_hash", length = 64, nullable = false)
+    private String imageHash;
+
+    @NotNull
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    /**
+     * Key of the rendition in the image store.
+     */
+    @NotNull
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SaleItemImageRendition id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSaleItemId() {
+        return this.saleItemId;
+    }
+
+    public SaleItemImageRendition saleItemId(Long saleItemId) {
+        this.setSaleItemId(saleItemId);
+        return this;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public Integer getWidth() {
+        return this.width;
+    }
+
+    public SaleItemImageRendition width(Integer width) {
+        this.setWidth(width);
+        return this;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public String getImageHash() {
+        return this.imageHash;
+    }
+
+    public SaleItemImageRendition imageHash(String imageHash) {
+        this.setImageHash(imageHash);
+        return this;
+    }
+
+    public void setImageHash(String imageHash) {
+        this.imageHash = imageHash;
+    }
+
+    public String getContentType() {
+        return this.contentType;
+    }
+
+    public SaleItemImageRendition contentType(String contentType) {
+        this.setContentType(contentType);
+        return this;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentHash() {
+        return this.contentHash;
+    }
+
+    public SaleItemImageRendition contentHash(String contentHash) {
+        this.setContentHash(contentHash);
+        return this;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SaleItemImageRendition)) {
+            return false;
+        }
+        return id != null && id.equals(((SaleItemImageRendition) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleItemImageRendition{" +
+            "id=" + getId() +
+            ", saleItemId=" + getSaleItemId() +
+            ", width=" + getWidth() +
+            ", imageHash='" + getImageHash() + "'" +
+            ", contentType='" + getContentType() + "'" +
+            ", contentHash='" + getContentHash() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,209 @@
+package ee.ddd.fundraiser.domain;
+
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import javax.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A sale of a quantity of a {@link SaleItem}, as recorded by a checkout or uploaded by a till.
+ * <p>
+ * The ledger is append-only: entries are never updated nor deleted, and keep the type and price the sale item had
+ * when sold. They do not reference the sale item, which may be deleted since.
+ */
+@Entity
+@Immutable
+@Table(name = "sale_ledger")
+public class SaleLedgerEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "sale_item_id", nullable = false)
+    private Long saleItemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private ItemType type;
+
+    @Column(name = "unit_price", precision = 21, scale = 2, nullable = false)
+    private BigDecimal unitPrice;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "amount", precision = 21, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "sold_date", nullable = false)
+    private Instant soldDate;
+
+    /**
+     * The till that sold offline, {@code null} for a checkout.
+     */
+    @Column(name = "till", length = 64)
+    private String till;
+
+    /**
+     * The number of the sale at its till, unique with it.
+     */
+    @Column(name = "till_sequence")
+    private Long tillSequence;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SaleLedgerEntry id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSaleItemId() {
+        return this.saleItemId;
+    }
+
+    public SaleLedgerEntry saleItemId(Long saleItemId) {
+        this.setSaleItemId(saleItemId);
+        return this;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public ItemType getType() {
+        return this.type;
+    }
+
+    public SaleLedgerEntry type(ItemType type) {
+        this.setType(type);
+        return this;
+    }
+
+    public void setType(ItemType type) {
+        this.type = type;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return this.unitPrice;
+    }
+
+    public SaleLedgerEntry unitPrice(BigDecimal unitPrice) {
+        this.setUnitPrice(unitPrice);
+        return this;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public Integer getQuantity() {
+        return this.quantity;
+    }
+
+    public SaleLedgerEntry quantity(Integer quantity) {
+        this.setQuantity(quantity);
+        return this;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getAmount() {
+        return this.amount;
+    }
+
+    public SaleLedgerEntry amount(BigDecimal amount) {
+        this.setAmount(amount);
+        return this;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public Instant getSoldDate() {
+        return this.soldDate;
+    }
+
+    public SaleLedgerEntry soldDate(Instant soldDate) {
+        this.setSoldDate(soldDate);
+        return this;
+    }
+
+    public void setSoldDate(Instant soldDate) {
+        this.soldDate = soldDate;
+    }
+
+    public String getTill() {
+        return this.till;
+    }
+
+    public SaleLedgerEntry till(String till) {
+        this.setTill(till);
+        return this;
+    }
+
+    public void setTill(String till) {
+        this.till = till;
+    }
+
+    public Long getTillSequence() {
+        return this.tillSequence;
+    }
+
+    public SaleLedgerEntry tillSequence(Long tillSequence) {
+        this.setTillSequence(tillSequence);
+        return this;
+    }
+
+    public void setTillSequence(Long tillSequence) {
+        this.tillSequence = tillSequence;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SaleLedgerEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((SaleLedgerEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleLedgerEntry{" +
+            "id=" + getId() +
+            ", saleItemId=" + getSaleItemId() +
+            ", type='" + getType() + "'" +
+            ", unitPrice=" + getUnitPrice() +
+            ", quantity=" + getQuantity() +
+            ", amount=" + getAmount() +
+            ", soldDate='" + getSoldDate() + "'" +
+            ", till='" + getTill() + "'" +
+            ", tillSequence=" + getTillSequence() +
+            "}";
+    }
+}
@@ -0,0 +1,169 @@
+package ee.ddd.fundraiser.domain;
+
+import ee.ddd.fundraiser.domain.enumeration.RollupDimension;
+import ee.ddd.fundraiser.domain.enumeration.RollupGranularity;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import javax.persistence.*;
+
+/**
+ * The {@link SaleLedgerEntry}s of one key of a {@link RollupDimension}, such as one sale item, sold during one
+ * minute, hour or day.
+ * <p>
+ * Rolled up from the ledger in the background, so the sales charts never read the ledger itself.
+ */
+@Entity
+@Table(name = "sale_rollup")
+public class SaleRollup implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false)
+    private RollupGranularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", nullable = false)
+    private RollupDimension dimension;
+
+    @Column(name = "dimension_key", length = 64, nullable = false)
+    private String key;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "quantity", nullable = false)
+    private Long quantity;
+
+    @Column(name = "revenue", precision = 21, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public SaleRollup id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public RollupGranularity getGranularity() {
+        return this.granularity;
+    }
+
+    public SaleRollup granularity(RollupGranularity granularity) {
+        this.setGranularity(granularity);
+        return this;
+    }
+
+    public void setGranularity(RollupGranularity granularity) {
+        this.granularity = granularity;
+    }
+
+    public RollupDimension getDimension() {
+        return this.dimension;
+    }
+
+    public SaleRollup dimension(RollupDimension dimension) {
+        this.setDimension(dimension);
+        return this;
+    }
+
+    public void setDimension(RollupDimension dimension) {
+        this.dimension = dimension;
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public SaleRollup key(String key) {
+        this.setKey(key);
+        return this;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Instant getBucketStart() {
+        return this.bucketStart;
+    }
+
+    public SaleRollup bucketStart(Instant bucketStart) {
+        this.setBucketStart(bucketStart);
+        return this;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getQuantity() {
+        return this.quantity;
+    }
+
+    public SaleRollup quantity(Long quantity) {
+        this.setQuantity(quantity);
+        return this;
+    }
+
+    public void setQuantity(Long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return this.revenue;
+    }
+
+    public SaleRollup revenue(BigDecimal revenue) {
+        this.setRevenue(revenue);
+        return this;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SaleRollup)) {
+            return false;
+        }
+        return id != null && id.equals(((SaleRollup) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleRollup{" +
+            "id=" + getId() +
+            ", granularity='" + getGranularity() + "'" +
+            ", dimension='" + getDimension() + "'" +
+            ", key='" + getKey() + "'" +
+            ", bucketStart='" + getBucketStart() + "'" +
+            ", quantity=" + getQuantity() +
+            ", revenue=" + getRevenue() +
+            "}";
+    }
+}
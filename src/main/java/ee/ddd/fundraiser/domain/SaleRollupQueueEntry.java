@@ -0,0 +1,84 @@
+package ee.ddd.fundraiser.domain;
+
+import java.io.Serializable;
+import javax.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A {@link SaleLedgerEntry} still to be added to the {@link SaleRollup}s.
+ * <p>
+ * Inserted in the same transaction as the entry, and deleted in the same transaction as the rollups it is added to,
+ * so the queue holds exactly the committed entries still to be rolled up, whatever order their transactions commit in.
+ */
+@Entity
+@Table(name = "sale_rollup_queue")
+public class SaleRollupQueueEntry implements Serializable, Persistable<Long> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Id of the ledger entry.
+     */
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Transient
+    private boolean isPersisted;
+
+    @Override
+    public Long getId() {
+        return this.id;
+    }
+
+    public SaleRollupQueueEntry id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Override
+    public boolean isNew() {
+        // Inserted without being looked up first
+        return !this.isPersisted;
+    }
+
+    public SaleRollupQueueEntry setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SaleRollupQueueEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((SaleRollupQueueEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleRollupQueueEntry{" +
+            "id=" + getId() +
+            "}";
+    }
+}
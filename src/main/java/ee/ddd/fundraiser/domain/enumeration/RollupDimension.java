@@ -0,0 +1,15 @@
+package ee.ddd.fundraiser.domain.enumeration;
+
+/**
+ * What a {@link ee.ddd.fundraiser.domain.SaleRollup} adds up the sales of.
+ */
+public enum RollupDimension {
+    /**
+     * The sales of a sale item, under its id.
+     */
+    ITEM,
+    /**
+     * The sales of an {@link ItemType}, under its name.
+     */
+    TYPE,
+}
@@ -0,0 +1,11 @@
+package ee.ddd.fundraiser.domain.enumeration;
+
+/**
+ * The length of the buckets of a {@link ee.ddd.fundraiser.domain.SaleRollup}, which start at the beginning of a UTC
+ * minute, hour or day.
+ */
+public enum RollupGranularity {
+    MINUTE,
+    HOUR,
+    DAY,
+}
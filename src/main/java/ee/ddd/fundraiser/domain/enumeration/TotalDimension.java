@@ -0,0 +1,19 @@
+package ee.ddd.fundraiser.domain.enumeration;
+
+/**
+ * What a {@link ee.ddd.fundraiser.domain.FundraiserTotal} adds up the sales of.
+ */
+public enum TotalDimension {
+    /**
+     * The sales of a sale item, under its id.
+     */
+    ITEM,
+    /**
+     * The sales of an {@link ItemType}, under its name.
+     */
+    TYPE,
+    /**
+     * The sales of an hour, under its start as an ISO-8601 instant.
+     */
+    HOUR,
+}
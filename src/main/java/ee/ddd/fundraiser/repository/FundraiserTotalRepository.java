@@ -0,0 +1,39 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.FundraiserTotal;
+import ee.ddd.fundraiser.domain.enumeration.TotalDimension;
+import java.math.BigDecimal;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the FundraiserTotal entity.
+ */
+@Repository
+public interface FundraiserTotalRepository extends JpaRepository<FundraiserTotal, Long> {
+    List<FundraiserTotal> findAllByDimension(TotalDimension dimension);
+
+    /**
+     * Add sales to a total in a single statement, so that concurrent checkouts never overwrite each other's sales.
+     *
+     * @param dimension the dimension of the total.
+     * @param key the key of the total.
+     * @param quantity the quantity sold.
+     * @param revenue the amount of the sales.
+     * @return {@code 1} if the sales were added, {@code 0} if the total does not exist yet.
+     */
+    @Modifying
+    @Query(
+        "update FundraiserTotal fundraiserTotal" +
+        " set fundraiserTotal.quantity = fundraiserTotal.quantity + :quantity, fundraiserTotal.revenue = fundraiserTotal.revenue + :revenue" +
+        " where fundraiserTotal.dimension = :dimension and fundraiserTotal.key = :key"
+    )
+    int addSales(
+        @Param("dimension") TotalDimension dimension,
+        @Param("key") String key,
+        @Param("quantity") long quantity,
+        @Param("revenue") BigDecimal revenue
+    );
+}
@@ -0,0 +1,21 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.IdempotencyRecord;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the IdempotencyRecord entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Query("delete from IdempotencyRecord idempotencyRecord where idempotencyRecord.createdDate < :createdDate")
+    int deleteAllCreatedBefore(@Param("createdDate") Instant createdDate);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord idempotencyRecord where idempotencyRecord.id = :id and idempotencyRecord.status is null")
+    int deletePendingById(@Param("id") String id);
+}
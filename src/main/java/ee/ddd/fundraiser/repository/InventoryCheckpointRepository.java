@@ -0,0 +1,11 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.InventoryCheckpoint;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the InventoryCheckpoint entity.
+ */
+@Repository
+public interface InventoryCheckpointRepository extends JpaRepository<InventoryCheckpoint, Long> {}
@@ -0,0 +1,26 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleItemImageRendition;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SaleItemImageRendition entity.
+ */
+@Repository
+public interface SaleItemImageRenditionRepository extends JpaRepository<SaleItemImageRendition, Long> {
+    Optional<SaleItemImageRendition> findOneBySaleItemIdAndWidthAndImageHash(Long saleItemId, Integer width, String imageHash);
+
+    List<SaleItemImageRendition> findAllBySaleItemId(Long saleItemId);
+
+    @Query("select distinct rendition.contentHash from SaleItemImageRendition rendition")
+    Set<String> findAllContentHashes();
+
+    @Modifying
+    @Query("delete from SaleItemImageRendition rendition where rendition.saleItemId = :saleItemId")
+    void deleteAllBySaleItemId(@Param("saleItemId") Long saleItemId);
+}
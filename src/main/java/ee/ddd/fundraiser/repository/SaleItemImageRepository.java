@@ -0,0 +1,20 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleItemImage;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SaleItemImage entity.
+ */
+@Repository
+public interface SaleItemImageRepository extends JpaRepository<SaleItemImage, Long> {
+    @Query("select saleItemImage.id from SaleItemImage saleItemImage order by saleItemImage.id")
+    List<Long> findAllIds();
+
+    @Modifying
+    @Query("delete from SaleItemImage saleItemImage where saleItemImage.id = :id")
+    void deleteOneById(@Param("id") Long id);
+}
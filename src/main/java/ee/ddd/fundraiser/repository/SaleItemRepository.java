@@ -1,7 +1,15 @@
 package ee.ddd.fundraiser.repository;
 
 import ee.ddd.fundraiser.domain.SaleItem;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +17,87 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {}
+public interface SaleItemRepository
+    extends SaleItemRepositoryWithKeysetPagination, JpaRepository<SaleItem, Long>, JpaSpecificationExecutor<SaleItem> {
+    /**
+     * Get a page of saleItems as instances of a projection, which are not managed by the persistence context.
+     *
+     * @param pageable the pagination information.
+     * @param type the projection: an interface with getters, or a class whose constructor parameters are named after
+     * the selected attributes.
+     * @return the page of projections.
+     */
+    <T> Page<T> findAllProjectedBy(Pageable pageable, Class<T> type);
+
+    /**
+     * Get all the saleItems as instances of a projection, see {@link #findAllProjectedBy(Pageable, Class)}.
+     *
+     * @param sort the order of the saleItems.
+     * @param type the projection.
+     * @return the list of projections.
+     */
+    <T> List<T> findAllProjectedBy(Sort sort, Class<T> type);
+
+    /**
+     * Get the saleItems with the given ids as instances of a projection, see {@link #findAllProjectedBy(Pageable, Class)}.
+     *
+     * @param ids the ids of the saleItems.
+     * @param type the projection.
+     * @return the list of projections.
+     */
+    <T> List<T> findAllProjectedByIdIn(Collection<Long> ids, Class<T> type);
+
+    /**
+     * Take a quantity of a saleItem out of stock in a single statement, whatever is left: the quantity must already
+     * have been reserved. A negative quantity puts it back. A missing quantity counts as none. The version is incremented
+     * too, so that updates based on the previous quantity fail.
+     * <p>
+     * Bulk statements bypass the persistence context, so a saleItem it already holds keeps its previous quantity.
+     *
+     * @param id the id of the saleItem.
+     * @param quantity the quantity to take.
+     * @return {@code 1} if the quantity was taken, {@code 0} if the saleItem does not exist.
+     */
+    @Modifying
+    @Query(
+        "update SaleItem saleItem set saleItem.quantity = coalesce(saleItem.quantity, 0) - :quantity, saleItem.version = saleItem.version + 1" +
+        " where saleItem.id = :id"
+    )
+    int subtractQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Get the quantity of a saleItem, a missing one counting as none, its low-stock threshold and whether it is on
+     * flash sale.
+     *
+     * @param id the id of the saleItem.
+     * @return the stock level, or empty if the saleItem does not exist.
+     */
+    @Query(
+        "select coalesce(saleItem.quantity, 0) as quantity, saleItem.lowStockThreshold as lowStockThreshold," +
+        " coalesce(saleItem.flashSale, false) as flashSale from SaleItem saleItem where saleItem.id = :id"
+    )
+    Optional<StockLevel> findStockLevelById(@Param("id") Long id);
+
+    @Query("select saleItem.version from SaleItem saleItem where saleItem.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select saleItem.id from SaleItem saleItem order by saleItem.id")
+    List<Long> findAllIds();
+
+    @Query("select saleItem.id from SaleItem saleItem where saleItem.imageHash is not null order by saleItem.id")
+    List<Long> findAllIdsWithImage();
+
+    @Query("select distinct saleItem.imageHash from SaleItem saleItem where saleItem.imageHash is not null")
+    Set<String> findAllImageHashes();
+
+    /**
+     * Quantity, low-stock threshold and flash sale flag of a saleItem.
+     */
+    interface StockLevel {
+        int getQuantity();
+
+        Integer getLowStockThreshold();
+
+        boolean isFlashSale();
+    }
+}
@@ -0,0 +1,22 @@
+package ee.ddd.fundraiser.repository;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset pagination of saleItems: a slice starts right after the last saleItem of the previous one, so reading a slice
+ * costs the same however deep it is, and no count query is needed.
+ */
+public interface SaleItemRepositoryWithKeysetPagination {
+    /**
+     * Get the saleItems following a position, as instances of a projection.
+     *
+     * @param order the order of the saleItems, by a non-null attribute; saleItems with the same value are ordered by id.
+     * @param afterValue the value of the order attribute of the last saleItem of the previous slice.
+     * @param afterId the id of the last saleItem of the previous slice, or {@code null} for the first slice.
+     * @param size the maximum number of saleItems.
+     * @param type a class whose constructor parameters are named after the selected attributes.
+     * @return the slice of projections.
+     */
+    <T> Slice<T> findSliceProjectedBy(Sort.Order order, Object afterValue, Long afterId, int size, Class<T> type);
+}
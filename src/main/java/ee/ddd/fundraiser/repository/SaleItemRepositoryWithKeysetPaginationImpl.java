@@ -0,0 +1,73 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleItem;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+public class SaleItemRepositoryWithKeysetPaginationImpl implements SaleItemRepositoryWithKeysetPagination {
+
+    private static final String ID = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public <T> Slice<T> findSliceProjectedBy(Sort.Order order, Object afterValue, Long afterId, int size, Class<T> type) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(type);
+        Root<SaleItem> saleItem = query.from(SaleItem.class);
+        query.select(
+            builder.construct(
+                type,
+                Arrays
+                    .stream(BeanUtils.getParameterNames(BeanUtils.getResolvableConstructor(type)))
+                    .map(saleItem::get)
+                    .toArray(Selection[]::new)
+            )
+        );
+
+        Expression<Comparable> key = saleItem.get(order.getProperty());
+        Expression<Long> id = saleItem.get(ID);
+        if (afterId != null) {
+            Predicate afterIdPredicate = order.isAscending() ? builder.greaterThan(id, afterId) : builder.lessThan(id, afterId);
+            if (ID.equals(order.getProperty())) {
+                query.where(afterIdPredicate);
+            } else {
+                Comparable value = (Comparable) afterValue;
+                query.where(
+                    builder.or(
+                        order.isAscending() ? builder.greaterThan(key, value) : builder.lessThan(key, value),
+                        builder.and(builder.equal(key, value), afterIdPredicate)
+                    )
+                );
+            }
+        }
+        if (ID.equals(order.getProperty())) {
+            query.orderBy(order.isAscending() ? builder.asc(id) : builder.desc(id));
+        } else {
+            query.orderBy(
+                order.isAscending() ? builder.asc(key) : builder.desc(key),
+                order.isAscending() ? builder.asc(id) : builder.desc(id)
+            );
+        }
+
+        // One more row tells whether there is a next slice
+        List<T> content = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, PageRequest.of(0, size, Sort.by(order)), hasNext);
+    }
+}
@@ -0,0 +1,27 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SaleLedgerEntry entity.
+ */
+@Repository
+public interface SaleLedgerEntryRepository extends JpaRepository<SaleLedgerEntry, Long> {
+    /**
+     * Find which sales of a till are already in the ledger, using its unique constraint.
+     *
+     * @param till the till.
+     * @param tillSequences the numbers of the sales at the till.
+     * @return those of the numbers already in the ledger.
+     */
+    @Query(
+        "select saleLedgerEntry.tillSequence from SaleLedgerEntry saleLedgerEntry" +
+        " where saleLedgerEntry.till = :till and saleLedgerEntry.tillSequence in :tillSequences"
+    )
+    List<Long> findTillSequences(@Param("till") String till, @Param("tillSequences") Collection<Long> tillSequences);
+}
@@ -0,0 +1,28 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleRollupQueueEntry;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SaleRollupQueueEntry entity.
+ */
+@Repository
+public interface SaleRollupQueueEntryRepository extends JpaRepository<SaleRollupQueueEntry, Long> {
+    /**
+     * Find the ids of the next ledger entries to roll up, in id order.
+     *
+     * @param pageable the number of ids to find.
+     * @return the ids.
+     */
+    @Query("select saleRollupQueueEntry.id from SaleRollupQueueEntry saleRollupQueueEntry order by saleRollupQueueEntry.id")
+    List<Long> findIds(Pageable pageable);
+
+    @Modifying
+    @Query("delete from SaleRollupQueueEntry saleRollupQueueEntry where saleRollupQueueEntry.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
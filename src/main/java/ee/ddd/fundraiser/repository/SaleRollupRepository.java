@@ -0,0 +1,72 @@
+package ee.ddd.fundraiser.repository;
+
+import ee.ddd.fundraiser.domain.SaleRollup;
+import ee.ddd.fundraiser.domain.enumeration.RollupDimension;
+import ee.ddd.fundraiser.domain.enumeration.RollupGranularity;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the SaleRollup entity.
+ */
+@Repository
+public interface SaleRollupRepository extends JpaRepository<SaleRollup, Long> {
+    /**
+     * Find the rollups of all the dimensions and keys of some buckets, to add sales to them.
+     *
+     * @param granularity the granularity.
+     * @param bucketStarts the starts of the buckets.
+     * @return the rollups.
+     */
+    List<SaleRollup> findAllByGranularityAndBucketStartIn(RollupGranularity granularity, Collection<Instant> bucketStarts);
+
+    /**
+     * Find the rollups of all the keys of a dimension in a time range, in time order.
+     *
+     * @param granularity the granularity.
+     * @param dimension the dimension.
+     * @param from the start of the first bucket, inclusive.
+     * @param to the end of the range, exclusive.
+     * @return the rollups.
+     */
+    @Query(
+        "select saleRollup from SaleRollup saleRollup" +
+        " where saleRollup.granularity = :granularity and saleRollup.dimension = :dimension" +
+        " and saleRollup.bucketStart >= :from and saleRollup.bucketStart < :to" +
+        " order by saleRollup.bucketStart"
+    )
+    List<SaleRollup> findAllByDimension(
+        @Param("granularity") RollupGranularity granularity,
+        @Param("dimension") RollupDimension dimension,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+
+    /**
+     * Find the rollups of one key of a dimension in a time range, in time order.
+     *
+     * @param granularity the granularity.
+     * @param dimension the dimension.
+     * @param key the key.
+     * @param from the start of the first bucket, inclusive.
+     * @param to the end of the range, exclusive.
+     * @return the rollups.
+     */
+    @Query(
+        "select saleRollup from SaleRollup saleRollup" +
+        " where saleRollup.granularity = :granularity and saleRollup.dimension = :dimension and saleRollup.key = :key" +
+        " and saleRollup.bucketStart >= :from and saleRollup.bucketStart < :to" +
+        " order by saleRollup.bucketStart"
+    )
+    List<SaleRollup> findAllByDimensionAndKey(
+        @Param("granularity") RollupGranularity granularity,
+        @Param("dimension") RollupDimension dimension,
+        @Param("key") String key,
+        @Param("from") Instant from,
+        @Param("to") Instant to
+    );
+}
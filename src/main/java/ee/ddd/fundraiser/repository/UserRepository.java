@@ -2,12 +2,14 @@ package ee.ddd.fundraiser.repository;
 
 import ee.ddd.fundraiser.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -18,6 +20,17 @@ public interface UserRepository extends JpaRepository<User, Long> {
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
+
+    /**
+     * Logins and emails, lowercased, which no user was found by.
+     */
+    String UNKNOWN_USERS_CACHE = "unknownUsers";
+
+    /**
+     * Resolves the caches of the lookups run on every request, so that a user missing from them is only loaded once.
+     */
+    String SINGLE_FLIGHT_CACHE_RESOLVER = "singleFlightCacheResolver";
+
     Optional<User> findOneByActivationKey(String activationKey);
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
@@ -25,12 +38,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
+    @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE, cacheResolver = SINGLE_FLIGHT_CACHE_RESOLVER, sync = true)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, cacheResolver = SINGLE_FLIGHT_CACHE_RESOLVER, sync = true)
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    List<User> findAllByActivatedIsTrueAndAuthoritiesName(String authorityName);
+
+    @Query("select user.login from User user where user.activated = true order by user.lastModifiedDate desc")
+    List<String> findAllActivatedLoginsByLastModifiedDateDesc(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
 }
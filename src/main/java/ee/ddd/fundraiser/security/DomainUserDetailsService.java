@@ -8,6 +8,8 @@ import java.util.stream.Collectors;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,6 +20,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * The logins and emails no user was found by are kept in the {@link UserRepository#UNKNOWN_USERS_CACHE}, so that
+ * repeated attempts with them, as in credential stuffing, are rejected without querying the database.
  */
 @Component("userDetailsService")
 public class DomainUserDetailsService implements UserDetailsService {
@@ -26,8 +31,11 @@ public class DomainUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final Cache unknownUsers;
+
+    public DomainUserDetailsService(UserRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.unknownUsers = Objects.requireNonNull(cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE));
     }
 
     @Override
@@ -35,18 +43,31 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
+        // Emails are looked up ignoring their case too
+        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         if (new EmailValidator().isValid(login, null)) {
+            if (unknownUsers.get(lowercaseLogin) != null) {
+                throw new UsernameNotFoundException("User with email " + login + " was not found in the database");
+            }
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
                 .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+                .orElseThrow(() -> {
+                    unknownUsers.put(lowercaseLogin, Boolean.TRUE);
+                    return new UsernameNotFoundException("User with email " + login + " was not found in the database");
+                });
         }
 
-        String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
+        if (unknownUsers.get(lowercaseLogin) != null) {
+            throw new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database");
+        }
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
             .map(user -> createSpringSecurityUser(lowercaseLogin, user))
-            .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
+            .orElseThrow(() -> {
+                unknownUsers.put(lowercaseLogin, Boolean.TRUE);
+                return new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database");
+            });
     }
 
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
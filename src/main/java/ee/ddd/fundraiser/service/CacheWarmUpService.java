@@ -0,0 +1,228 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.Authority;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.User;
+import ee.ddd.fundraiser.repository.AuthorityRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service loading the caches once the application has started, so that the first logins and catalog loads after a
+ * deploy do not all miss them.
+ * <p>
+ * The {@link SaleItem}s, the {@link Authority}s and the most recently modified users are loaded in batches, run in
+ * parallel on the {@link #EXECUTOR}. The application is only reported ready once they are loaded, or once
+ * {@code application.cache.warm-up.timeout} has passed: the caches are an optimization, not worth being kept out of
+ * service for.
+ */
+@Service
+public class CacheWarmUpService {
+
+    public static final String EXECUTOR = "cacheWarmUpExecutor";
+
+    public static final String METER_NAME = "cache.warmup";
+
+    public static final String ENTRIES_METER_NAME = "cache.warmup.entries";
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final UserRepository userRepository;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final CacheManager cacheManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    private final ApplicationProperties.Cache.WarmUp warmUp;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer timer;
+
+    /**
+     * Entries loaded so far, by cache name.
+     */
+    private final Map<String, Integer> entries = new ConcurrentHashMap<>();
+
+    private volatile Instant started;
+
+    private volatile boolean finished;
+
+    public CacheWarmUpService(
+        SaleItemRepository saleItemRepository,
+        AuthorityRepository authorityRepository,
+        UserRepository userRepository,
+        CatalogSnapshotService catalogSnapshotService,
+        CacheManager cacheManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier(EXECUTOR) Executor executor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.authorityRepository = authorityRepository;
+        this.userRepository = userRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+        this.warmUp = applicationProperties.getCache().getWarmUp();
+        this.meterRegistry = meterRegistry;
+        this.timer = Timer.builder(METER_NAME).description("Time spent loading the caches on startup").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        warmUp();
+    }
+
+    /**
+     * Start loading the caches, unless the warm-up is disabled.
+     *
+     * @return the number of entries loaded, by cache name, once they are all loaded.
+     */
+    public CompletableFuture<Map<String, Integer>> warmUp() {
+        if (!warmUp.isEnabled()) {
+            finished = true;
+            return CompletableFuture.completedFuture(Map.of());
+        }
+        log.info("Warming up the caches");
+        started = Instant.now();
+        finished = false;
+        entries.clear();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<Integer> saleItems = load(
+            SaleItem.class.getName(),
+            saleItemRepository::findAllIds,
+            ids -> saleItemRepository.findAllById(ids).size()
+        )
+            // The tills load the shop catalog first
+            .thenApplyAsync(
+                loaded -> {
+                    catalogSnapshotService.getSnapshot();
+                    return loaded;
+                },
+                executor
+            );
+        // Few enough to be loaded all at once, with their keys
+        CompletableFuture<Integer> authorities = load(Authority.class.getName(), authorityRepository::findAll, List::size);
+        CompletableFuture<Integer> users = load(
+            UserRepository.USERS_BY_LOGIN_CACHE,
+            () -> userRepository.findAllActivatedLoginsByLastModifiedDateDesc(PageRequest.of(0, warmUp.getUsers())),
+            this::loadUsers
+        );
+        return CompletableFuture
+            .allOf(saleItems, authorities, users)
+            .handle((ignored, e) -> {
+                long duration = sample.stop(timer);
+                finished = true;
+                if (e != null) {
+                    log.warn("Cache warm-up failed after {} ms, the caches will be loaded by the requests", duration / 1_000_000, e);
+                } else {
+                    log.info("Warmed up the caches in {} ms: {}", duration / 1_000_000, entries);
+                }
+                return new TreeMap<>(entries);
+            });
+    }
+
+    /**
+     * Whether the application can be reported ready: the caches are loaded, failed to, or took longer than the timeout.
+     *
+     * @return {@code true} if the warm-up is over.
+     */
+    public boolean isOver() {
+        Instant warmUpStarted = started;
+        return finished || (warmUpStarted != null && !Instant.now().isBefore(warmUpStarted.plus(warmUp.getTimeout())));
+    }
+
+    /**
+     * Get the entries loaded so far.
+     *
+     * @return the number of entries, by cache name.
+     */
+    public Map<String, Integer> getEntries() {
+        return new TreeMap<>(entries);
+    }
+
+    private int loadUsers(List<String> logins) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        List<User> users = userRepository.findAllWithAuthoritiesByLoginIn(logins);
+        // Cached as UserRepository.findOneWithAuthoritiesByLogin(String) caches them
+        users.forEach(user -> cache.put(user.getLogin(), user));
+        return users.size();
+    }
+
+    /**
+     * Load the entries of a cache in batches, each of them in its own transaction and task.
+     *
+     * @param cacheName the name of the cache, which the entry counts are reported by.
+     * @param keys the keys of the entries.
+     * @param loadBatch the loading of a batch of entries, by their keys, returning the number of entries loaded.
+     * @return the number of entries loaded.
+     */
+    private <K> CompletableFuture<Integer> load(String cacheName, Supplier<List<K>> keys, Function<List<K>, Integer> loadBatch) {
+        Counter counter = Counter
+            .builder(ENTRIES_METER_NAME)
+            .description("Entries loaded in the caches on startup")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+        return CompletableFuture
+            .supplyAsync(() -> transactionTemplate.execute(status -> keys.get()), executor)
+            .thenCompose(allKeys -> {
+                entries.putIfAbsent(cacheName, 0);
+                List<CompletableFuture<Integer>> batches = new ArrayList<>();
+                for (int from = 0; from < allKeys.size(); from += warmUp.getBatchSize()) {
+                    List<K> batch = allKeys.subList(from, Math.min(from + warmUp.getBatchSize(), allKeys.size()));
+                    batches.add(
+                        CompletableFuture.supplyAsync(
+                            () -> {
+                                int loaded = transactionTemplate.execute(status -> loadBatch.apply(batch));
+                                counter.increment(loaded);
+                                entries.merge(cacheName, loaded, Integer::sum);
+                                return loaded;
+                            },
+                            executor
+                        )
+                    );
+                }
+                return CompletableFuture
+                    .allOf(batches.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> batches.stream().mapToInt(CompletableFuture::join).sum());
+            });
+    }
+}
@@ -0,0 +1,58 @@
+package ee.ddd.fundraiser.service;
+
+/**
+ * The shop catalog at one point in time, as the JSON array of its sale item summaries.
+ * <p>
+ * The content is serialized once, plain and gzipped, and shared by every request reading this snapshot, so the
+ * returned arrays must never be modified.
+ */
+public final class CatalogSnapshot {
+
+    private final String version;
+
+    private final long generation;
+
+    private final int size;
+
+    private final byte[] json;
+
+    private final byte[] gzippedJson;
+
+    CatalogSnapshot(String version, long generation, int size, byte[] json, byte[] gzippedJson) {
+        this.version = version;
+        this.generation = generation;
+        this.size = size;
+        this.json = json;
+        this.gzippedJson = gzippedJson;
+    }
+
+    /**
+     * Get the version of the content, which changes whenever the content does.
+     *
+     * @return the hash of the JSON content.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get the number of sale items in the catalog.
+     *
+     * @return the number of sale items.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+}
@@ -0,0 +1,138 @@
+package ee.ddd.fundraiser.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Service keeping the {@link CatalogSnapshot} of the shop catalog.
+ * <p>
+ * Every write to a {@link SaleItem} must call {@link #invalidate()}. The next read then builds a new snapshot and
+ * swaps it in, and the reads after it only return that snapshot, without querying the database.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    public static final String REBUILD_METER_NAME = "catalog.snapshot.rebuild";
+
+    public static final String REQUESTS_METER_NAME = "catalog.snapshot.requests";
+
+    private final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Timer rebuildTimer;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    /**
+     * Incremented by every write, so that a snapshot built from older data is never taken for the current one.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    public CatalogSnapshotService(
+        SaleItemRepository saleItemRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuildTimer = Timer.builder(REBUILD_METER_NAME).description("Time spent building the catalog snapshot").register(meterRegistry);
+        this.hitCounter = requestCounter("hit").register(meterRegistry);
+        this.missCounter = requestCounter("miss").register(meterRegistry);
+    }
+
+    /**
+     * Get the current snapshot of the catalog, building it if the catalog changed since the last one.
+     *
+     * @return the snapshot.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot.get();
+        if (current != null && current.getGeneration() == generation.get()) {
+            hitCounter.increment();
+            return current;
+        }
+        missCounter.increment();
+        synchronized (this) {
+            // Another reader may have rebuilt it while this one waited
+            current = snapshot.get();
+            if (current == null || current.getGeneration() != generation.get()) {
+                current = rebuildTimer.record(this::build);
+                snapshot.set(current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Mark the snapshot as outdated, now and again once the current transaction, if any, has completed: a snapshot
+     * built in between could not see the changes yet.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        generation.incrementAndGet();
+                    }
+                }
+            );
+        }
+    }
+
+    private CatalogSnapshot build() {
+        long buildGeneration = generation.get();
+        List<SaleItemSummaryDTO> summaries = transactionTemplate.execute(status ->
+            saleItemRepository.findAllProjectedBy(Sort.by("id"), SaleItemSummaryDTO.class)
+        );
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(summaries);
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(json);
+            }
+            log.debug("Built the catalog snapshot of {} SaleItems : {} bytes, {} gzipped", summaries.size(), json.length, gzipped.size());
+            return new CatalogSnapshot(DigestUtils.md5DigestAsHex(json), buildGeneration, summaries.size(), json, gzipped.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Counter.Builder requestCounter(String result) {
+        return Counter.builder(REQUESTS_METER_NAME).description("Reads of the catalog snapshot").tag("result", result);
+    }
+}
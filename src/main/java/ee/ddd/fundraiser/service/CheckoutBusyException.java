@@ -0,0 +1,21 @@
+package ee.ddd.fundraiser.service;
+
+/**
+ * Thrown when a checkout of a sale item on flash sale is turned away, because too many others are waiting to be
+ * admitted. It may be retried shortly.
+ */
+public class CheckoutBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long saleItemId;
+
+    public CheckoutBusyException(Long saleItemId) {
+        super("Too many checkouts of sale item " + saleItemId + " are waiting");
+        this.saleItemId = saleItemId;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+}
@@ -0,0 +1,202 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.SaleLedgerEntryRepository;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.CheckoutLineDTO;
+import ee.ddd.fundraiser.service.dto.ReceiptDTO;
+import ee.ddd.fundraiser.service.dto.ReceiptLineDTO;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
+import ee.ddd.fundraiser.service.inventory.AdmissionService;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service selling the sale items of a basket.
+ * <p>
+ * Stock is reserved in memory by the {@link InventoryService}, which writes it to the database behind the checkouts,
+ * so concurrent checkouts neither lock nor update the sale item rows. It is reserved before the transaction begins, so
+ * that the checkouts turned away for want of stock never take a database connection; those of the sale items on flash
+ * sale are reserved through the {@link AdmissionService}. The sales are then appended to the ledger, in a single batch
+ * of inserts, added to the {@link FundraiserTotalService totals} and queued for the {@link SaleRollupService rollups};
+ * the reservations are released if that fails. The amounts of the receipt and its change are computed in cents, as
+ * {@link Money}.
+ */
+@Service
+@Transactional
+public class CheckoutService {
+
+    private final Logger log = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final SaleLedgerEntryRepository saleLedgerEntryRepository;
+
+    private final InventoryService inventoryService;
+
+    private final AdmissionService admissionService;
+
+    private final FundraiserTotalService fundraiserTotalService;
+
+    private final SaleRollupService saleRollupService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public CheckoutService(
+        SaleItemRepository saleItemRepository,
+        SaleLedgerEntryRepository saleLedgerEntryRepository,
+        InventoryService inventoryService,
+        AdmissionService admissionService,
+        FundraiserTotalService fundraiserTotalService,
+        SaleRollupService saleRollupService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.saleLedgerEntryRepository = saleLedgerEntryRepository;
+        this.inventoryService = inventoryService;
+        this.admissionService = admissionService;
+        this.fundraiserTotalService = fundraiserTotalService;
+        this.saleRollupService = saleRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Take the sale items of a basket out of stock and record their sale, all or none.
+     *
+     * @param checkout the basket; lines of the same sale item are added up.
+     * @return the receipt.
+     * @throws InsufficientStockException if less than asked is left of some sale items, or they do not exist.
+     * @throws InsufficientPaymentException if less cash than the total was paid.
+     * @throws CheckoutBusyException if too many checkouts of a sale item on flash sale are waiting.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ReceiptDTO checkout(CheckoutDTO checkout) {
+        log.debug("Request to checkout : {}", checkout);
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (CheckoutLineDTO line : checkout.getLines()) {
+            quantities.merge(line.getSaleItemId(), line.getQuantity(), Math::addExact);
+        }
+
+        // Outside the transaction, whose rollback would take a database connection even if it ran no query
+        Map<Long, Integer> reserved = reserve(quantities);
+        try {
+            return transactionTemplate.execute(status -> sell(quantities, reserved, checkout.getCashPaid()));
+        } catch (CannotCreateTransactionException e) {
+            reserved.forEach(inventoryService::release);
+            throw e;
+        }
+    }
+
+    /**
+     * Reserve the sale items of a basket, all or none.
+     *
+     * @param quantities the quantities of the basket, by sale item id.
+     * @return the reserved quantities, by sale item id.
+     */
+    private Map<Long, Integer> reserve(SortedMap<Long, Integer> quantities) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        List<Long> unavailable = new ArrayList<>();
+        try {
+            quantities.forEach((saleItemId, quantity) -> {
+                boolean available = inventoryService.isFlashSale(saleItemId)
+                    ? admissionService.admit(saleItemId, quantity)
+                    : inventoryService.reserve(saleItemId, quantity);
+                if (available) {
+                    reserved.put(saleItemId, quantity);
+                } else {
+                    unavailable.add(saleItemId);
+                }
+            });
+        } catch (RuntimeException e) {
+            reserved.forEach(inventoryService::release);
+            throw e;
+        }
+        if (!unavailable.isEmpty()) {
+            reserved.forEach(inventoryService::release);
+            throw new InsufficientStockException(unavailable);
+        }
+        return reserved;
+    }
+
+    private ReceiptDTO sell(SortedMap<Long, Integer> quantities, Map<Long, Integer> reserved, Money cashPaid) {
+        releaseOnRollback(reserved);
+        Map<Long, SaleItemSummaryDTO> saleItems = saleItemRepository
+            .findAllProjectedByIdIn(quantities.keySet(), SaleItemSummaryDTO.class)
+            .stream()
+            .collect(Collectors.toMap(SaleItemSummaryDTO::getId, Function.identity()));
+
+        List<Long> unavailable = new ArrayList<>();
+        List<ReceiptLineDTO> lines = new ArrayList<>();
+        quantities.forEach((saleItemId, quantity) -> {
+            SaleItemSummaryDTO saleItem = saleItems.get(saleItemId);
+            if (saleItem == null) {
+                // Deleted since it was reserved
+                unavailable.add(saleItemId);
+            } else {
+                lines.add(new ReceiptLineDTO(saleItemId, saleItem.getName(), saleItem.getPrice(), quantity));
+            }
+        });
+        if (!unavailable.isEmpty()) {
+            throw new InsufficientStockException(unavailable);
+        }
+
+        ReceiptDTO receipt = new ReceiptDTO(Instant.now(), lines);
+        if (cashPaid != null) {
+            if (cashPaid.compareTo(receipt.getTotal()) < 0) {
+                throw new InsufficientPaymentException(receipt.getTotal(), cashPaid);
+            }
+            receipt.setCashPaid(cashPaid);
+            receipt.setChange(cashPaid.minus(receipt.getTotal()));
+        }
+
+        List<SaleLedgerEntry> entries = lines
+            .stream()
+            .map(line ->
+                new SaleLedgerEntry()
+                    .saleItemId(line.getSaleItemId())
+                    .type(saleItems.get(line.getSaleItemId()).getType())
+                    .unitPrice(line.getUnitPrice().toBigDecimal())
+                    .quantity(line.getQuantity())
+                    .amount(line.getAmount().toBigDecimal())
+                    .soldDate(receipt.getCreatedDate())
+            )
+            .collect(Collectors.toList());
+        saleLedgerEntryRepository.saveAll(entries);
+        fundraiserTotalService.addSales(entries);
+        saleRollupService.addSales(entries);
+        return receipt;
+    }
+
+    private void releaseOnRollback(Map<Long, Integer> reserved) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.forEach(inventoryService::release);
+                    }
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,155 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.FundraiserTotal;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.domain.enumeration.TotalDimension;
+import ee.ddd.fundraiser.repository.FundraiserTotalRepository;
+import ee.ddd.fundraiser.service.dto.FundraiserTotalsDTO;
+import ee.ddd.fundraiser.service.dto.TotalDTO;
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link FundraiserTotal}s of the sales ledger.
+ * <p>
+ * The totals are incremented by every checkout, in its transaction, so reading them costs the same however many sales
+ * were recorded. A total is created, empty, the first time one of its keys is sold; the checkouts then only ever
+ * update it. The overall total of the fundraiser is not kept, as every checkout would wait for the lock of its row: it
+ * is the sum of the few totals by type.
+ */
+@Service
+@Transactional
+public class FundraiserTotalService {
+
+    public static final String FUNDRAISER_KEY = "all";
+
+    private final Logger log = LoggerFactory.getLogger(FundraiserTotalService.class);
+
+    private final FundraiserTotalRepository fundraiserTotalRepository;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public FundraiserTotalService(
+        FundraiserTotalRepository fundraiserTotalRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        this.fundraiserTotalRepository = fundraiserTotalRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Add sales to the totals.
+     * <p>
+     * The totals are updated in the same order by every checkout, so that concurrent checkouts wait for each other's
+     * row locks instead of deadlocking. A {@link FundraiserTotalsChangedEvent} is published.
+     *
+     * @param entries the ledger entries of the sales.
+     */
+    public void addSales(List<SaleLedgerEntry> entries) {
+        log.debug("Request to add {} SaleLedgerEntries to the FundraiserTotals", entries.size());
+        Map<TotalDimension, SortedMap<String, TotalDTO>> sales = new EnumMap<>(TotalDimension.class);
+        for (SaleLedgerEntry entry : entries) {
+            add(sales, TotalDimension.ITEM, entry.getSaleItemId().toString(), entry);
+            add(sales, TotalDimension.TYPE, entry.getType().name(), entry);
+            add(sales, TotalDimension.HOUR, entry.getSoldDate().truncatedTo(ChronoUnit.HOURS).toString(), entry);
+        }
+        sales.forEach((dimension, totals) ->
+            totals
+                .values()
+                .forEach(total -> {
+                    if (fundraiserTotalRepository.addSales(dimension, total.getKey(), total.getQuantity(), total.getRevenue()) == 0) {
+                        create(dimension, total.getKey());
+                        fundraiserTotalRepository.addSales(dimension, total.getKey(), total.getQuantity(), total.getRevenue());
+                    }
+                })
+        );
+        applicationEventPublisher.publishEvent(new FundraiserTotalsChangedEvent());
+    }
+
+    /**
+     * Get the totals of the fundraiser.
+     *
+     * @return the totals.
+     */
+    @Transactional(readOnly = true)
+    public FundraiserTotalsDTO getTotals() {
+        log.debug("Request to get the FundraiserTotals");
+        FundraiserTotalsDTO totals = new FundraiserTotalsDTO();
+        for (FundraiserTotal total : fundraiserTotalRepository.findAll(Sort.by("key"))) {
+            TotalDTO totalDTO = new TotalDTO(total.getKey(), total.getQuantity(), total.getRevenue());
+            switch (total.getDimension()) {
+                case ITEM:
+                    totals.getItems().add(totalDTO);
+                    break;
+                case TYPE:
+                    totals.getTypes().add(totalDTO);
+                    totals.setQuantity(totals.getQuantity() + total.getQuantity());
+                    totals.setRevenue(totals.getRevenue().add(total.getRevenue()));
+                    break;
+                case HOUR:
+                    totals.getHours().add(totalDTO);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown dimension " + total.getDimension());
+            }
+        }
+        totals.getItems().sort(Comparator.comparing(item -> Long.valueOf(item.getKey())));
+        return totals;
+    }
+
+    /**
+     * Get the overall total of the fundraiser, the sum of the totals by type.
+     *
+     * @return the total, empty until the first sale.
+     */
+    @Transactional(readOnly = true)
+    public TotalDTO getFundraiserTotal() {
+        log.debug("Request to get the FundraiserTotal");
+        TotalDTO fundraiserTotal = new TotalDTO(FUNDRAISER_KEY, 0, BigDecimal.ZERO);
+        for (FundraiserTotal total : fundraiserTotalRepository.findAllByDimension(TotalDimension.TYPE)) {
+            fundraiserTotal.setQuantity(fundraiserTotal.getQuantity() + total.getQuantity());
+            fundraiserTotal.setRevenue(fundraiserTotal.getRevenue().add(total.getRevenue()));
+        }
+        return fundraiserTotal;
+    }
+
+    private void create(TotalDimension dimension, String key) {
+        try {
+            // Committed apart, so that a concurrent checkout creating the same total only fails this insert
+            newTransactionTemplate.executeWithoutResult(status ->
+                fundraiserTotalRepository.saveAndFlush(
+                    new FundraiserTotal().dimension(dimension).key(key).quantity(0L).revenue(BigDecimal.ZERO)
+                )
+            );
+        } catch (DataIntegrityViolationException e) {
+            log.debug("FundraiserTotal {} {} was created concurrently", dimension, key);
+        }
+    }
+
+    private static void add(Map<TotalDimension, SortedMap<String, TotalDTO>> sales, TotalDimension dimension, String key, SaleLedgerEntry entry) {
+        TotalDTO total = sales.computeIfAbsent(dimension, d -> new TreeMap<>()).computeIfAbsent(key, k -> new TotalDTO(k, 0, BigDecimal.ZERO));
+        total.setQuantity(total.getQuantity() + entry.getQuantity());
+        total.setRevenue(total.getRevenue().add(entry.getAmount()));
+    }
+}
@@ -0,0 +1,13 @@
+package ee.ddd.fundraiser.service;
+
+/**
+ * Event published by the {@link FundraiserTotalService} when sales are added to the totals, in the transaction adding
+ * them.
+ */
+public class FundraiserTotalsChangedEvent {
+
+    @Override
+    public String toString() {
+        return "FundraiserTotalsChangedEvent{}";
+    }
+}
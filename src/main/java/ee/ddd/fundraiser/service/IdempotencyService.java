@@ -0,0 +1,253 @@
+package ee.ddd.fundraiser.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.IdempotencyRecord;
+import ee.ddd.fundraiser.repository.IdempotencyRecordRepository;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the responses to the requests sent with an {@code Idempotency-Key}, so that their retries get the
+ * same response instead of being processed again.
+ * <p>
+ * Responses are kept in the {@link #IDEMPOTENT_RESPONSES_CACHE} cache, so that replaying one does not touch the
+ * database, and in {@link IdempotencyRecord}s, which are only read when the cache no longer holds them.
+ * Both expire after {@code application.idempotency.time-to-live}. Only the methods writing them are transactional, so
+ * that a replay does not take a connection from the pool.
+ * <p>
+ * The record is created before the request is processed, and committed on its own, so that the key stays taken if the
+ * request succeeds but its response cannot be kept, such as when the application stops in between: its retries are
+ * then turned away until it expires, rather than processed again.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENT_RESPONSES_CACHE = "idempotentResponses";
+
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {};
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeToLive;
+
+    private final TransactionTemplate reservationTemplate;
+
+    /**
+     * Keys of the requests being processed, whose retries must wait for the response.
+     */
+    private final Set<String> processing = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(
+        IdempotencyRecordRepository idempotencyRecordRepository,
+        CacheManager cacheManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.timeToLive = applicationProperties.getIdempotency().getTimeToLive();
+        this.reservationTemplate = new TransactionTemplate(transactionManager);
+        this.reservationTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Start processing a request, unless a request with the same key is being processed.
+     *
+     * @param key the idempotency key, qualified by the user, method and path of the request.
+     * @return {@code true} if the request can be processed, in which case {@link #release(String)} must follow.
+     */
+    public boolean acquire(String key) {
+        return processing.add(key);
+    }
+
+    /**
+     * End processing a request started by {@link #acquire(String)}.
+     *
+     * @param key the idempotency key.
+     */
+    public void release(String key) {
+        processing.remove(key);
+    }
+
+    /**
+     * Get the response to a previous request with the same key.
+     *
+     * @param key the idempotency key.
+     * @return the response, if it was kept and has not expired.
+     */
+    public Optional<IdempotentResponse> find(String key) {
+        // Not in a transaction, which would take a connection even to replay a cached response: the record is looked up
+        // in the repository's own read-only one
+        String id = hash(key.getBytes(StandardCharsets.UTF_8));
+        IdempotentResponse cached = getCache().get(id, IdempotentResponse.class);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Instant expired = Instant.now().minus(timeToLive);
+        Optional<IdempotentResponse> stored = idempotencyRecordRepository
+            .findById(id)
+            .filter(idempotencyRecord -> !idempotencyRecord.isPending() && idempotencyRecord.getCreatedDate().isAfter(expired))
+            .map(this::toResponse);
+        stored.ifPresent(response -> getCache().put(id, response));
+        return stored;
+    }
+
+    /**
+     * Take the key of a request about to be processed, in a transaction of its own, so that it stays taken whatever
+     * happens to the request.
+     *
+     * @param key the idempotency key.
+     * @param requestBody the body of the request.
+     * @return {@code true} if the request can be processed, in which case {@link #save} or {@link #cancel(String)} must
+     * follow; {@code false} if another request took the key and is processed, possibly by another instance, or was
+     * interrupted before its response was kept.
+     */
+    public boolean reserve(String key, byte[] requestBody) {
+        String id = hash(key.getBytes(StandardCharsets.UTF_8));
+        Instant now = Instant.now();
+        try {
+            return Boolean.TRUE.equals(
+                reservationTemplate.execute(status -> {
+                    Optional<IdempotencyRecord> previous = idempotencyRecordRepository.findById(id);
+                    if (previous.isPresent()) {
+                        if (previous.get().getCreatedDate().isAfter(now.minus(timeToLive))) {
+                            return false;
+                        }
+                        // Expired, but not removed yet
+                        idempotencyRecordRepository.delete(previous.get());
+                        idempotencyRecordRepository.flush();
+                    }
+                    idempotencyRecordRepository.saveAndFlush(
+                        new IdempotencyRecord().id(id).requestHash(hash(requestBody)).createdDate(now)
+                    );
+                    return true;
+                })
+            );
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Idempotency key {} taken concurrently", id);
+            return false;
+        }
+    }
+
+    /**
+     * Give back the key of a request taken by {@link #reserve(String, byte[])}, as the request failed and can be
+     * retried.
+     *
+     * @param key the idempotency key.
+     */
+    @Transactional
+    public void cancel(String key) {
+        idempotencyRecordRepository.deletePendingById(hash(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Keep the response to a request taken by {@link #reserve(String, byte[])}, for its retries.
+     *
+     * @param key the idempotency key.
+     * @param requestBody the body of the request.
+     * @param status the status of the response.
+     * @param headers the headers of the response.
+     * @param body the body of the response.
+     * @return the kept response.
+     */
+    @Transactional
+    public IdempotentResponse save(String key, byte[] requestBody, int status, Map<String, List<String>> headers, byte[] body) {
+        String id = hash(key.getBytes(StandardCharsets.UTF_8));
+        IdempotentResponse response = new IdempotentResponse(hash(requestBody), status, headers, body);
+        log.debug("Request to save the idempotent response : {}, {}", id, status);
+        getCache().put(id, response);
+        try {
+            idempotencyRecordRepository.save(
+                idempotencyRecordRepository
+                    .findById(id)
+                    .orElseGet(() -> new IdempotencyRecord().id(id).createdDate(Instant.now()))
+                    .requestHash(response.getRequestHash())
+                    .status(status)
+                    .headers(objectMapper.writeValueAsString(headers))
+                    .body(body)
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the response headers", e);
+        }
+        return response;
+    }
+
+    /**
+     * Whether a request is a retry of the one a response was kept for, rather than another request reusing its key.
+     *
+     * @param response the kept response.
+     * @param requestBody the body of the request.
+     * @return {@code true} if it has the same body.
+     */
+    public boolean isRetry(IdempotentResponse response, byte[] requestBody) {
+        return response.getRequestHash().equals(hash(requestBody));
+    }
+
+    /**
+     * Expired responses are removed every day, at 03:00 (am), as are the keys of the requests interrupted before their
+     * response was kept. Those of the cache expire by themselves.
+     */
+    @Scheduled(cron = "0 0 3 * * ?")
+    @Transactional
+    public void removeExpiredResponses() {
+        int removed = idempotencyRecordRepository.deleteAllCreatedBefore(Instant.now().minus(timeToLive));
+        log.debug("Removed {} expired idempotent responses", removed);
+    }
+
+    private IdempotentResponse toResponse(IdempotencyRecord idempotencyRecord) {
+        try {
+            return new IdempotentResponse(
+                idempotencyRecord.getRequestHash(),
+                idempotencyRecord.getStatus(),
+                objectMapper.readValue(idempotencyRecord.getHeaders(), HEADERS_TYPE),
+                idempotencyRecord.getBody()
+            );
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read the response headers of " + idempotencyRecord.getId(), e);
+        }
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(IDEMPOTENT_RESPONSES_CACHE));
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return String.format("%064x", new BigInteger(1, MessageDigest.getInstance("SHA-256").digest(content)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ee.ddd.fundraiser.service;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response to a request sent with an {@code Idempotency-Key}, as replayed to its retries by the
+ * {@link IdempotencyService}.
+ */
+public final class IdempotentResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String requestHash;
+
+    private final int status;
+
+    private final Map<String, List<String>> headers;
+
+    private final byte[] body;
+
+    public IdempotentResponse(String requestHash, int status, Map<String, List<String>> headers, byte[] body) {
+        this.requestHash = requestHash;
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * SHA-256 hash of the body of the request.
+     *
+     * @return the hash.
+     */
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,146 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleItemImage;
+import ee.ddd.fundraiser.repository.SaleItemImageRenditionRepository;
+import ee.ddd.fundraiser.repository.SaleItemImageRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.dto.ImageStoreMigrationDTO;
+import ee.ddd.fundraiser.service.storage.ImageStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service keeping the {@link ImageStore} in line with the database: it moves the images still stored in the database
+ * to the image store, and removes the stored images nothing refers to anymore.
+ */
+@Service
+public class ImageStoreMaintenanceService {
+
+    /**
+     * How long an image stays in the store without any reference, which covers the transactions still saving one.
+     */
+    private static final Duration ORPHAN_RETENTION = Duration.ofDays(1);
+
+    private final Logger log = LoggerFactory.getLogger(ImageStoreMaintenanceService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final SaleItemImageRepository saleItemImageRepository;
+
+    private final SaleItemImageRenditionRepository saleItemImageRenditionRepository;
+
+    private final ImageStore imageStore;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageStoreMaintenanceService(
+        SaleItemRepository saleItemRepository,
+        SaleItemImageRepository saleItemImageRepository,
+        SaleItemImageRenditionRepository saleItemImageRenditionRepository,
+        ImageStore imageStore,
+        CatalogSnapshotService catalogSnapshotService,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.saleItemImageRepository = saleItemImageRepository;
+        this.saleItemImageRenditionRepository = saleItemImageRenditionRepository;
+        this.imageStore = imageStore;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Move the images still stored in the database to the image store.
+     * <p>
+     * Every image is moved in its own transaction, so only one image is held in memory at a time and an interrupted
+     * migration can simply be run again. The database only gives the freed space back to the file system once the
+     * {@code sale_item_image} table is vacuumed.
+     *
+     * @return the outcome of the migration.
+     */
+    public ImageStoreMigrationDTO migrateDatabaseImages() {
+        List<Long> saleItemIds = saleItemImageRepository.findAllIds();
+        log.info("Moving {} images from the database to the image store", saleItemIds.size());
+        int migrated = 0;
+        int failed = 0;
+        long bytes = 0;
+        for (Long saleItemId : saleItemIds) {
+            try {
+                Long size = transactionTemplate.execute(status -> migrateDatabaseImage(saleItemId));
+                if (size != null) {
+                    migrated++;
+                    bytes += size;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not move the image of SaleItem {} to the image store", saleItemId, e);
+                failed++;
+            }
+        }
+        if (migrated > 0) {
+            // Moved images may get a new hash, which the catalog refers to
+            catalogSnapshotService.invalidate();
+        }
+        ImageStoreMigrationDTO result = new ImageStoreMigrationDTO(migrated, failed, bytes);
+        log.info("Moved images from the database to the image store: {}", result);
+        return result;
+    }
+
+    /**
+     * Remove the stored images that no saleItem nor rendition refers to.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void removeOrphanImages() {
+        try {
+            List<String> candidates = imageStore.findAllStoredBefore(Instant.now().minus(ORPHAN_RETENTION));
+            Set<String> referenced = new HashSet<>(saleItemRepository.findAllImageHashes());
+            referenced.addAll(saleItemImageRenditionRepository.findAllContentHashes());
+            for (String hash : candidates) {
+                if (!referenced.contains(hash)) {
+                    log.debug("Deleting orphan image {}", hash);
+                    imageStore.delete(hash);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not remove the orphan images", e);
+        }
+    }
+
+    private Long migrateDatabaseImage(Long saleItemId) {
+        Optional<SaleItemImage> saleItemImage = saleItemImageRepository.findById(saleItemId);
+        if (saleItemImage.isEmpty()) {
+            return null;
+        }
+        byte[] image = saleItemImage.get().getImage();
+        Optional<SaleItem> saleItem = saleItemRepository.findById(saleItemId);
+        String currentHash = saleItem.map(SaleItem::getImageHash).orElse(null);
+        if (currentHash == null || imageStore.find(currentHash).isEmpty()) {
+            String hash;
+            try {
+                hash = imageStore.store(new ByteArrayInputStream(image));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            saleItem.ifPresent(item -> item.setImageHash(hash));
+        }
+        saleItemImageRepository.delete(saleItemImage.get());
+        return (long) image.length;
+    }
+}
@@ -0,0 +1,29 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.Money;
+
+/**
+ * Thrown when a checkout paid in cash is handed less than its total.
+ */
+public class InsufficientPaymentException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Money total;
+
+    private final Money cashPaid;
+
+    public InsufficientPaymentException(Money total, Money cashPaid) {
+        super("Paid " + cashPaid + " of a total of " + total);
+        this.total = total;
+        this.cashPaid = cashPaid;
+    }
+
+    public Money getTotal() {
+        return total;
+    }
+
+    public Money getCashPaid() {
+        return cashPaid;
+    }
+}
@@ -0,0 +1,22 @@
+package ee.ddd.fundraiser.service;
+
+import java.util.List;
+
+/**
+ * Thrown when a checkout asks for more of some sale items than is left in stock.
+ */
+public class InsufficientStockException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Long> saleItemIds;
+
+    public InsufficientStockException(List<Long> saleItemIds) {
+        super("Not enough stock left for sale items " + saleItemIds);
+        this.saleItemIds = saleItemIds;
+    }
+
+    public List<Long> getSaleItemIds() {
+        return saleItemIds;
+    }
+}
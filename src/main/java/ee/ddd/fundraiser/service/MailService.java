@@ -1,8 +1,11 @@
 package ee.ddd.fundraiser.service;
 
 import ee.ddd.fundraiser.domain.User;
+import ee.ddd.fundraiser.service.dto.LowStockItemDTO;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -31,6 +34,8 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
+    private static final String ITEMS = "items";
+
     private final JHipsterProperties jHipsterProperties;
 
     private final JavaMailSender javaMailSender;
@@ -79,12 +84,18 @@ public class MailService {
 
     @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        sendEmailFromTemplate(user, templateName, titleKey, Map.of());
+    }
+
+    @Async
+    public void sendEmailFromTemplate(User user, String templateName, String titleKey, Map<String, Object> variables) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
         Context context = new Context(locale);
+        context.setVariables(variables);
         context.setVariable(USER, user);
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
@@ -109,4 +120,10 @@ public class MailService {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
+
+    @Async
+    public void sendLowStockEmail(User user, List<LowStockItemDTO> items) {
+        log.debug("Sending low-stock email for {} sale items to '{}'", items.size(), user.getEmail());
+        sendEmailFromTemplate(user, "mail/lowStockEmail", "email.lowStock.title", Map.of(ITEMS, items));
+    }
 }
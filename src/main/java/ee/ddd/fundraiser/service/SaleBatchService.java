@@ -0,0 +1,239 @@
+package ee.ddd.fundraiser.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.SaleLedgerEntryRepository;
+import ee.ddd.fundraiser.service.dto.SaleBatchResultDTO;
+import ee.ddd.fundraiser.service.dto.SaleConflictDTO;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
+import ee.ddd.fundraiser.service.dto.TillSaleDTO;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service recording the sales made by tills while offline, uploaded in batches once they are back online.
+ * <p>
+ * A batch is recorded in a single transaction: the sales already recorded are found with one query per till, the
+ * sale items with one query, the new ledger entries are inserted in JDBC batches, and their stock is reserved in
+ * memory by the {@link InventoryService} and journaled with a single force to the disk; the entries whose stock is not
+ * left are deleted again. A sale is identified by its till and its sequence number there, so uploading a batch again only
+ * records the sales that were not. The lines that cannot be recorded are reported and the others recorded all the
+ * same: the sales happened already.
+ * <p>
+ * Uploads are recorded concurrently. When two of them record the same sale, such as a retry sent while the first
+ * attempt is being recorded, the unique constraint on the till and sequence number fails the insert of the second one
+ * before it reserves any stock, and that upload is then recorded again and finds the sale in the ledger.
+ */
+@Service
+public class SaleBatchService {
+
+    /**
+     * Number of times a batch is recorded before giving up, when its sales keep being recorded concurrently.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final Logger log = LoggerFactory.getLogger(SaleBatchService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final SaleLedgerEntryRepository saleLedgerEntryRepository;
+
+    private final InventoryService inventoryService;
+
+    private final FundraiserTotalService fundraiserTotalService;
+
+    private final SaleRollupService saleRollupService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SaleBatchService(
+        SaleItemRepository saleItemRepository,
+        SaleLedgerEntryRepository saleLedgerEntryRepository,
+        InventoryService inventoryService,
+        FundraiserTotalService fundraiserTotalService,
+        SaleRollupService saleRollupService,
+        ObjectMapper objectMapper,
+        Validator validator,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.saleLedgerEntryRepository = saleLedgerEntryRepository;
+        this.inventoryService = inventoryService;
+        this.fundraiserTotalService = fundraiserTotalService;
+        this.saleRollupService = saleRollupService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Record a batch of till sales.
+     *
+     * @param lines the sales, one {@link TillSaleDTO} as JSON per line; blank lines are ignored.
+     * @return how many sales were recorded, how many had already been, and the lines that could not be.
+     */
+    public SaleBatchResultDTO upload(List<String> lines) {
+        log.debug("Request to upload a batch of {} till sales", lines.size());
+        SaleBatchResultDTO result = new SaleBatchResultDTO();
+        Map<Integer, TillSaleDTO> sales = new LinkedHashMap<>();
+        for (int index = 0; index < lines.size(); index++) {
+            if (!lines.get(index).isBlank()) {
+                TillSaleDTO sale = parse(index + 1, lines.get(index), result);
+                if (sale != null) {
+                    sales.put(index + 1, sale);
+                }
+            }
+        }
+        SaleBatchResultDTO recorded = null;
+        for (int attempt = 1; recorded == null; attempt++) {
+            try {
+                recorded = transactionTemplate.execute(status -> record(sales));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Some till sales were recorded concurrently, recording the batch again", e);
+            }
+        }
+        result.setAccepted(recorded.getAccepted());
+        result.setDuplicates(recorded.getDuplicates());
+        result.getConflicts().addAll(recorded.getConflicts());
+        log.debug("Uploaded a batch of till sales : {}", result);
+        return result;
+    }
+
+    private TillSaleDTO parse(int line, String json, SaleBatchResultDTO result) {
+        TillSaleDTO sale;
+        try {
+            sale = objectMapper.readValue(json, TillSaleDTO.class);
+        } catch (JsonProcessingException e) {
+            result.getConflicts().add(new SaleConflictDTO(line, null, SaleConflictDTO.Reason.INVALID, e.getOriginalMessage()));
+            return null;
+        }
+        Set<ConstraintViolation<TillSaleDTO>> violations = validator.validate(sale);
+        if (!violations.isEmpty()) {
+            String message = violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+            result.getConflicts().add(new SaleConflictDTO(line, sale, SaleConflictDTO.Reason.INVALID, message));
+            return null;
+        }
+        return sale;
+    }
+
+    private SaleBatchResultDTO record(Map<Integer, TillSaleDTO> sales) {
+        SaleBatchResultDTO result = new SaleBatchResultDTO();
+        Map<String, Set<Long>> recorded = new HashMap<>();
+        sales
+            .values()
+            .stream()
+            .collect(Collectors.groupingBy(TillSaleDTO::getTill, Collectors.mapping(TillSaleDTO::getSequence, Collectors.toSet())))
+            .forEach((till, sequences) -> recorded.put(till, new HashSet<>(saleLedgerEntryRepository.findTillSequences(till, sequences))));
+        Map<Long, SaleItemSummaryDTO> saleItems = saleItemRepository
+            .findAllProjectedByIdIn(sales.values().stream().map(TillSaleDTO::getSaleItemId).collect(Collectors.toSet()), SaleItemSummaryDTO.class)
+            .stream()
+            .collect(Collectors.toMap(SaleItemSummaryDTO::getId, Function.identity()));
+
+        SortedMap<Integer, SaleConflictDTO> conflicts = new TreeMap<>();
+        Map<Integer, TillSaleDTO> known = new LinkedHashMap<>();
+        sales.forEach((line, sale) -> {
+            if (!recorded.get(sale.getTill()).add(sale.getSequence())) {
+                result.setDuplicates(result.getDuplicates() + 1);
+            } else if (!saleItems.containsKey(sale.getSaleItemId())) {
+                conflicts.put(line, new SaleConflictDTO(line, sale, SaleConflictDTO.Reason.UNKNOWN_ITEM, "Unknown sale item"));
+            } else {
+                known.put(line, sale);
+            }
+        });
+
+        if (known.isEmpty()) {
+            result.getConflicts().addAll(conflicts.values());
+            return result;
+        }
+        Instant now = Instant.now();
+        List<SaleLedgerEntry> entries = new ArrayList<>();
+        known.forEach((line, sale) -> {
+            SaleItemSummaryDTO saleItem = saleItems.get(sale.getSaleItemId());
+            entries.add(
+                new SaleLedgerEntry()
+                    .saleItemId(sale.getSaleItemId())
+                    .type(saleItem.getType())
+                    .unitPrice(saleItem.getPrice().toBigDecimal())
+                    .quantity(sale.getQuantity())
+                    .amount(saleItem.getPrice().times(sale.getQuantity()).toBigDecimal())
+                    .soldDate(sale.getSoldDate() == null ? now : sale.getSoldDate())
+                    .till(sale.getTill())
+                    .tillSequence(sale.getSequence())
+            );
+        });
+        // Claims the sales before reserving their stock: an upload recording some of them concurrently fails here
+        saleLedgerEntryRepository.saveAllAndFlush(entries);
+
+        List<SaleLedgerEntry> reservedEntries = new ArrayList<>();
+        List<SaleLedgerEntry> oversoldEntries = new ArrayList<>();
+        releaseOnRollback(reservedEntries);
+        Iterator<Boolean> reserved = inventoryService
+            .reserveAll(entries.stream().map(entry -> Map.entry(entry.getSaleItemId(), entry.getQuantity())).collect(Collectors.toList()))
+            .iterator();
+        Iterator<SaleLedgerEntry> entry = entries.iterator();
+        known.forEach((line, sale) -> {
+            if (reserved.next()) {
+                reservedEntries.add(entry.next());
+            } else {
+                oversoldEntries.add(entry.next());
+                conflicts.put(line, new SaleConflictDTO(line, sale, SaleConflictDTO.Reason.OVERSOLD, "Not enough stock left"));
+            }
+        });
+        saleLedgerEntryRepository.deleteAll(oversoldEntries);
+        if (!reservedEntries.isEmpty()) {
+            fundraiserTotalService.addSales(reservedEntries);
+            saleRollupService.addSales(reservedEntries);
+        }
+        result.setAccepted(reservedEntries.size());
+        result.getConflicts().addAll(conflicts.values());
+        return result;
+    }
+
+    private void releaseOnRollback(List<SaleLedgerEntry> reservedEntries) {
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reservedEntries.forEach(entry -> inventoryService.release(entry.getSaleItemId(), entry.getQuantity()));
+                    }
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,361 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleItemImageRendition;
+import ee.ddd.fundraiser.repository.SaleItemImageRenditionRepository;
+import ee.ddd.fundraiser.repository.SaleItemImageRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.dto.ImageRenditionProgressDTO;
+import ee.ddd.fundraiser.service.storage.ImageStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service generating the downscaled {@link SaleItemImageRendition}s of sale item images.
+ * <p>
+ * Renditions are generated on the {@value #EXECUTOR} executor once the transaction storing the image has committed,
+ * each in its own transaction. They are never generated by the thread of a request: an image its queue has no room for
+ * is served in full until the next bulk regeneration.
+ */
+@Service
+public class SaleItemImageRenditionService {
+
+    public static final String EXECUTOR = "imageRenditionExecutor";
+
+    public static final String GENERATION_METER_NAME = "image.renditions.generation";
+
+    public static final String BULK_METER_NAME = "image.renditions.bulk";
+
+    private final Logger log = LoggerFactory.getLogger(SaleItemImageRenditionService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final SaleItemImageRepository saleItemImageRepository;
+
+    private final SaleItemImageRenditionRepository saleItemImageRenditionRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ImageStore imageStore;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor executor;
+
+    private final Timer generatedTimer;
+
+    private final Timer skippedTimer;
+
+    private final Timer failedTimer;
+
+    private final AtomicBoolean bulkRunning = new AtomicBoolean();
+
+    private final AtomicInteger bulkTotal = new AtomicInteger();
+
+    private final AtomicInteger bulkCompleted = new AtomicInteger();
+
+    private final AtomicInteger bulkFailed = new AtomicInteger();
+
+    public SaleItemImageRenditionService(
+        SaleItemRepository saleItemRepository,
+        SaleItemImageRepository saleItemImageRepository,
+        SaleItemImageRenditionRepository saleItemImageRenditionRepository,
+        ApplicationProperties applicationProperties,
+        ImageStore imageStore,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Qualifier(EXECUTOR) Executor executor
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.saleItemImageRepository = saleItemImageRepository;
+        this.saleItemImageRenditionRepository = saleItemImageRenditionRepository;
+        this.applicationProperties = applicationProperties;
+        this.imageStore = imageStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Not the transaction which stored the image, even if the generation is run from its synchronization
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.executor = executor;
+        this.generatedTimer = generationTimer("generated").register(meterRegistry);
+        this.skippedTimer = generationTimer("skipped").register(meterRegistry);
+        this.failedTimer = generationTimer("failed").register(meterRegistry);
+        bulkGauge("total", bulkTotal).register(meterRegistry);
+        bulkGauge("completed", bulkCompleted).register(meterRegistry);
+        bulkGauge("failed", bulkFailed).register(meterRegistry);
+    }
+
+    /**
+     * Generate the renditions of the image of a saleItem, once the current transaction, if any, has committed.
+     *
+     * @param saleItemId the id of the saleItem whose image was stored.
+     */
+    public void scheduleGeneration(Long saleItemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        submitGeneration(saleItemId);
+                    }
+                }
+            );
+        } else {
+            submitGeneration(saleItemId);
+        }
+    }
+
+    private void submitGeneration(Long saleItemId) {
+        try {
+            executor.execute(() -> generate(saleItemId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Too many images waiting for their renditions, those of SaleItem {} are left to the next regeneration", saleItemId);
+        }
+    }
+
+    /**
+     * Regenerate the renditions of all sale item images, unless a regeneration is already running.
+     *
+     * @return the progress of the regeneration.
+     */
+    public ImageRenditionProgressDTO regenerateAll() {
+        if (!bulkRunning.compareAndSet(false, true)) {
+            log.debug("Image rendition regeneration is already running");
+            return getProgress();
+        }
+        List<Long> saleItemIds;
+        try {
+            saleItemIds = saleItemRepository.findAllIdsWithImage();
+        } catch (RuntimeException e) {
+            bulkRunning.set(false);
+            throw e;
+        }
+        log.info("Regenerating the image renditions of {} sale items", saleItemIds.size());
+        bulkTotal.set(saleItemIds.size());
+        bulkCompleted.set(0);
+        bulkFailed.set(0);
+        if (saleItemIds.isEmpty()) {
+            bulkRunning.set(false);
+            return getProgress();
+        }
+        Queue<Long> pending = new ConcurrentLinkedQueue<>(saleItemIds);
+        AtomicInteger remaining = new AtomicInteger(saleItemIds.size());
+        // As many chains of generations as there are threads, each submitting its next image once done with the last
+        int chains = Math.min(applicationProperties.getImage().getRendition().getPoolSize(), saleItemIds.size());
+        int started = 0;
+        try {
+            for (; started < chains; started++) {
+                executor.execute(() -> regenerateNext(pending, remaining));
+            }
+        } catch (RejectedExecutionException e) {
+            if (started == 0) {
+                bulkRunning.set(false);
+                throw e;
+            }
+        }
+        return getProgress();
+    }
+
+    /**
+     * Regenerate the renditions of the next pending image, then submit the following one behind the images queued
+     * meanwhile, so that a bulk regeneration never holds more than one queue slot per chain.
+     */
+    private void regenerateNext(Queue<Long> pending, AtomicInteger remaining) {
+        Long saleItemId = pending.poll();
+        while (saleItemId != null) {
+            if (generate(saleItemId)) {
+                bulkCompleted.incrementAndGet();
+            } else {
+                bulkFailed.incrementAndGet();
+            }
+            if (remaining.decrementAndGet() == 0) {
+                log.info("Regenerated image renditions: {}", getProgress());
+                bulkRunning.set(false);
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                executor.execute(() -> regenerateNext(pending, remaining));
+                return;
+            } catch (RejectedExecutionException e) {
+                // Already on a thread of the pool, which can go on with the next image itself
+                saleItemId = pending.poll();
+            }
+        }
+    }
+
+    /**
+     * Get the progress of the last bulk regeneration.
+     *
+     * @return the progress.
+     */
+    public ImageRenditionProgressDTO getProgress() {
+        return new ImageRenditionProgressDTO(bulkRunning.get(), bulkTotal.get(), bulkCompleted.get(), bulkFailed.get());
+    }
+
+    /**
+     * Get the bytes of a rendition.
+     *
+     * @param rendition the rendition.
+     * @return the image, or empty if it is missing from the image store.
+     */
+    public Optional<Resource> findImage(SaleItemImageRendition rendition) {
+        return imageStore.find(rendition.getContentHash());
+    }
+
+    /**
+     * Get the rendition to serve for a requested width: the narrowest one at least as wide as requested.
+     *
+     * @param saleItemId the id of the saleItem.
+     * @param imageHash the hash of the current image of the saleItem.
+     * @param width the requested width in pixels.
+     * @return the rendition, or empty if the original image should be served.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SaleItemImageRendition> findRendition(Long saleItemId, String imageHash, int width) {
+        log.debug("Request to get the {} px rendition of the image of SaleItem : {}", width, saleItemId);
+        return applicationProperties
+            .getImage()
+            .getRendition()
+            .getWidths()
+            .stream()
+            .filter(renditionWidth -> renditionWidth >= width)
+            .min(Integer::compare)
+            .flatMap(renditionWidth ->
+                saleItemImageRenditionRepository.findOneBySaleItemIdAndWidthAndImageHash(saleItemId, renditionWidth, imageHash)
+            );
+    }
+
+    private boolean generate(Long saleItemId) {
+        long start = System.nanoTime();
+        Timer timer = failedTimer;
+        try {
+            Boolean generated = transactionTemplate.execute(status -> generateInTransaction(saleItemId));
+            timer = Boolean.TRUE.equals(generated) ? generatedTimer : skippedTimer;
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not generate the image renditions of SaleItem : {}", saleItemId, e);
+            return false;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private boolean generateInTransaction(Long saleItemId) {
+        Optional<SaleItem> saleItem = saleItemRepository.findById(saleItemId);
+        saleItemImageRenditionRepository.deleteAllBySaleItemId(saleItemId);
+        String imageHash = saleItem.map(SaleItem::getImageHash).orElse(null);
+        if (imageHash == null) {
+            return false;
+        }
+        BufferedImage source;
+        try {
+            Optional<Resource> image = imageStore
+                .find(imageHash)
+                .or(() -> saleItemImageRepository.findById(saleItemId).map(legacy -> new ByteArrayResource(legacy.getImage())));
+            if (image.isEmpty()) {
+                return false;
+            }
+            try (InputStream content = image.get().getInputStream()) {
+                source = ImageIO.read(content);
+            }
+            if (source == null) {
+                log.debug("Image of SaleItem {} is in a format that cannot be scaled, it is always served in full", saleItemId);
+                return false;
+            }
+            boolean alpha = source.getColorModel().hasAlpha();
+            for (Integer width : applicationProperties.getImage().getRendition().getWidths()) {
+                if (width >= source.getWidth()) {
+                    continue;
+                }
+                byte[] rendition = encode(scale(source, width, alpha), alpha ? "png" : "jpeg");
+                saleItemImageRenditionRepository.save(
+                    new SaleItemImageRendition()
+                        .saleItemId(saleItemId)
+                        .width(width)
+                        .imageHash(imageHash)
+                        .contentType(alpha ? "image/png" : "image/jpeg")
+                        .contentHash(imageStore.store(new ByteArrayInputStream(rendition)))
+                );
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Generated the image renditions of SaleItem : {}", saleItemId);
+        return true;
+    }
+
+    /**
+     * Scale down by halving the size with bilinear interpolation until the target width is reached, which keeps
+     * the quality of a bicubic scaling at a fraction of its cost.
+     */
+    private static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static Timer.Builder generationTimer(String outcome) {
+        return Timer.builder(GENERATION_METER_NAME).description("Time spent generating the renditions of an image").tag("outcome", outcome);
+    }
+
+    private static Gauge.Builder<AtomicInteger> bulkGauge(String state, AtomicInteger value) {
+        return Gauge
+            .builder(BULK_METER_NAME, value, AtomicInteger::get)
+            .description("Progress of the last bulk regeneration of image renditions")
+            .baseUnit("images")
+            .tag("state", state);
+    }
+}
@@ -0,0 +1,105 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.*; // for static metamodels
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.criteria.SaleItemCriteria;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link SaleItem} entities in the database.
+ * The main input is a {@link SaleItemCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link SaleItem} or a {@link Page} of {@link SaleItem} which fulfills the criteria.
+ * <p>
+ * Filters on type combined with a price range or with the quantity are served by the
+ * {@code idx_sale_item__type_price} and {@code idx_sale_item__type_quantity} indexes.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SaleItemQueryService extends QueryService<SaleItem> {
+
+    private final Logger log = LoggerFactory.getLogger(SaleItemQueryService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    public SaleItemQueryService(SaleItemRepository saleItemRepository) {
+        this.saleItemRepository = saleItemRepository;
+    }
+
+    /**
+     * Return a {@link List} of {@link SaleItem} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<SaleItem> findByCriteria(SaleItemCriteria criteria) {
+        log.debug("find by criteria : {}", criteria);
+        final Specification<SaleItem> specification = createSpecification(criteria);
+        return saleItemRepository.findAll(specification);
+    }
+
+    /**
+     * Return a {@link Page} of {@link SaleItem} which matches the criteria from the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<SaleItem> findByCriteria(SaleItemCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<SaleItem> specification = createSpecification(criteria);
+        return saleItemRepository.findAll(specification, page);
+    }
+
+    /**
+     * Return the number of matching entities in the database.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(SaleItemCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<SaleItem> specification = createSpecification(criteria);
+        return saleItemRepository.count(specification);
+    }
+
+    /**
+     * Function to convert {@link SaleItemCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<SaleItem> createSpecification(SaleItemCriteria criteria) {
+        Specification<SaleItem> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (criteria.getDistinct() != null) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), SaleItem_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), SaleItem_.name));
+            }
+            if (criteria.getPrice() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getPrice(), SaleItem_.price));
+            }
+            if (criteria.getQuantity() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getQuantity(), SaleItem_.quantity));
+            }
+            if (criteria.getType() != null) {
+                specification = specification.and(buildSpecification(criteria.getType(), SaleItem_.type));
+            }
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,296 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.SaleItemImageRenditionRepository;
+import ee.ddd.fundraiser.repository.SaleItemImageRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import ee.ddd.fundraiser.service.storage.ImageStore;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service Implementation for managing {@link SaleItem}.
+ * <p>
+ * Image bytes are kept in the {@link ImageStore} under their hash, so only {@link #findImage(SaleItem)} reads them.
+ * Storing an image schedules the generation of its downscaled renditions. Every write invalidates the
+ * {@link CatalogSnapshot}, and every write of the quantity reloads it in the {@link InventoryService}.
+ */
+@Service
+@Transactional
+public class SaleItemService {
+
+    private final Logger log = LoggerFactory.getLogger(SaleItemService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final SaleItemImageRepository saleItemImageRepository;
+
+    private final SaleItemImageRenditionRepository saleItemImageRenditionRepository;
+
+    private final SaleItemImageRenditionService saleItemImageRenditionService;
+
+    private final ImageStore imageStore;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final InventoryService inventoryService;
+
+    public SaleItemService(
+        SaleItemRepository saleItemRepository,
+        SaleItemImageRepository saleItemImageRepository,
+        SaleItemImageRenditionRepository saleItemImageRenditionRepository,
+        SaleItemImageRenditionService saleItemImageRenditionService,
+        ImageStore imageStore,
+        CatalogSnapshotService catalogSnapshotService,
+        InventoryService inventoryService
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.saleItemImageRepository = saleItemImageRepository;
+        this.saleItemImageRenditionRepository = saleItemImageRenditionRepository;
+        this.saleItemImageRenditionService = saleItemImageRenditionService;
+        this.imageStore = imageStore;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Save a saleItem.
+     *
+     * @param saleItem the entity to save.
+     * @return the persisted entity.
+     */
+    public SaleItem save(SaleItem saleItem) {
+        log.debug("Request to save SaleItem : {}", saleItem);
+        byte[] image = saleItem.getImage();
+        saleItem.setImageHash(image == null ? null : storeImage(image));
+        SaleItem result = saleItemRepository.save(saleItem);
+        if (image != null) {
+            imageStored(result.getId());
+        }
+        catalogSnapshotService.invalidate();
+        return result;
+    }
+
+    /**
+     * Update a saleItem. The stored image is kept when the given saleItem carries no image.
+     * <p>
+     * A saleItem carrying a version is only updated if it still is the current one. One without a version overwrites
+     * the current saleItem.
+     *
+     * @param saleItem the entity to save.
+     * @return the persisted entity.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the saleItem has been updated since its version.
+     */
+    public SaleItem update(SaleItem saleItem) {
+        log.debug("Request to update SaleItem : {}", saleItem);
+        byte[] image = saleItem.getImage();
+        Optional<SaleItem> existingSaleItem = saleItemRepository.findById(saleItem.getId());
+        if (saleItem.getVersion() == null) {
+            saleItem.setVersion(existingSaleItem.map(SaleItem::getVersion).orElse(null));
+        }
+        if (image == null) {
+            saleItem.setImageHash(existingSaleItem.map(SaleItem::getImageHash).orElse(null));
+        } else {
+            saleItem.setImageHash(storeImage(image));
+        }
+        // Flushed so that a conflicting update fails here and the returned version is the new one
+        SaleItem result = saleItemRepository.saveAndFlush(saleItem);
+        if (image != null) {
+            imageStored(result.getId());
+        }
+        catalogSnapshotService.invalidate();
+        inventoryService.quantityChanged(result.getId());
+        return result;
+    }
+
+    /**
+     * Partially update a saleItem, only if it still is at the version of the given saleItem, if any.
+     *
+     * @param saleItem the entity to update partially.
+     * @return the persisted entity.
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the saleItem has been updated since its version.
+     */
+    public Optional<SaleItem> partialUpdate(SaleItem saleItem) {
+        log.debug("Request to partially update SaleItem : {}", saleItem);
+
+        return saleItemRepository
+            .findById(saleItem.getId())
+            .map(existingSaleItem -> {
+                if (saleItem.getVersion() != null && !saleItem.getVersion().equals(existingSaleItem.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(SaleItem.class, saleItem.getId());
+                }
+                if (saleItem.getName() != null) {
+                    existingSaleItem.setName(saleItem.getName());
+                }
+                if (saleItem.getPrice() != null) {
+                    existingSaleItem.setPrice(saleItem.getPrice());
+                }
+                if (saleItem.getQuantity() != null) {
+                    existingSaleItem.setQuantity(saleItem.getQuantity());
+                    inventoryService.quantityChanged(existingSaleItem.getId());
+                }
+                if (saleItem.getLowStockThreshold() != null) {
+                    existingSaleItem.setLowStockThreshold(saleItem.getLowStockThreshold());
+                    inventoryService.quantityChanged(existingSaleItem.getId());
+                }
+                if (saleItem.getFlashSale() != null) {
+                    existingSaleItem.setFlashSale(saleItem.getFlashSale());
+                    inventoryService.quantityChanged(existingSaleItem.getId());
+                }
+                if (saleItem.getType() != null) {
+                    existingSaleItem.setType(saleItem.getType());
+                }
+                if (saleItem.getImage() != null) {
+                    existingSaleItem.setImageHash(storeImage(saleItem.getImage()));
+                    imageStored(existingSaleItem.getId());
+                }
+                if (saleItem.getImageContentType() != null) {
+                    existingSaleItem.setImageContentType(saleItem.getImageContentType());
+                }
+                catalogSnapshotService.invalidate();
+
+                return existingSaleItem;
+            })
+            .map(saleItemRepository::saveAndFlush);
+    }
+
+    /**
+     * Replace the image of a saleItem with the given content.
+     * <p>
+     * The content is streamed into the image store while it is hashed, so it is never held on the heap.
+     *
+     * @param id the id of the saleItem.
+     * @param contentType the media type of the image.
+     * @param content the image bytes.
+     * @return the updated saleItem, or empty if it does not exist.
+     * @throws IOException if the content cannot be read or stored.
+     */
+    public Optional<SaleItem> saveImage(Long id, String contentType, InputStream content) throws IOException {
+        log.debug("Request to save the image of SaleItem : {}, {}", id, contentType);
+        Optional<SaleItem> result = saleItemRepository.findById(id);
+        if (result.isEmpty()) {
+            return result;
+        }
+        SaleItem saleItem = result.get();
+        saleItem.setImageContentType(contentType);
+        saleItem.setImageHash(imageStore.store(content));
+        imageStored(id);
+        catalogSnapshotService.invalidate();
+        return Optional.of(saleItemRepository.saveAndFlush(saleItem));
+    }
+
+    /**
+     * Get all the saleItems, without their images.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<SaleItem> findAll(Pageable pageable) {
+        log.debug("Request to get all SaleItems");
+        return saleItemRepository.findAll(pageable);
+    }
+
+    /**
+     * Get all the saleItems as summaries, for the catalog.
+     * <p>
+     * The summaries are selected directly by the query and the transaction is read-only, so the persistence context
+     * neither fills up with entities nor checks them for changes.
+     *
+     * @param pageable the pagination information.
+     * @return the list of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Page<SaleItemSummaryDTO> findAllSummaries(Pageable pageable) {
+        log.debug("Request to get all SaleItem summaries");
+        return saleItemRepository.findAllProjectedBy(pageable, SaleItemSummaryDTO.class);
+    }
+
+    /**
+     * Get the saleItem summaries following a cursor, for scrolling through the catalog.
+     * <p>
+     * Unlike {@link #findAllSummaries(Pageable)}, this neither skips over the previous saleItems nor counts them.
+     *
+     * @param cursor the position of the previous slice.
+     * @param size the maximum number of summaries.
+     * @return the slice of summaries.
+     */
+    @Transactional(readOnly = true)
+    public Slice<SaleItemSummaryDTO> findSummarySlice(SaleItemSummaryCursor cursor, int size) {
+        log.debug("Request to get a slice of SaleItem summaries after : {}", cursor.encode());
+        return saleItemRepository.findSliceProjectedBy(cursor.getOrder(), cursor.getValue(), cursor.getId(), size, SaleItemSummaryDTO.class);
+    }
+
+    /**
+     * Get one saleItem by id, without its image.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SaleItem> findOne(Long id) {
+        log.debug("Request to get SaleItem : {}", id);
+        return saleItemRepository.findById(id);
+    }
+
+    /**
+     * Get the image of a saleItem, from the image store or, until it has been migrated, from the database.
+     *
+     * @param saleItem the saleItem.
+     * @return the image, if the saleItem has one.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Resource> findImage(SaleItem saleItem) {
+        log.debug("Request to get the image of SaleItem : {}", saleItem.getId());
+        if (saleItem.getImageHash() == null) {
+            return Optional.empty();
+        }
+        return imageStore
+            .find(saleItem.getImageHash())
+            .or(() -> saleItemImageRepository.findById(saleItem.getId()).map(image -> new ByteArrayResource(image.getImage())));
+    }
+
+    /**
+     * Delete the saleItem by id, together with its renditions. The image files are removed by
+     * {@link ImageStoreMaintenanceService#removeOrphanImages()} once no other saleItem uses them.
+     *
+     * @param id the id of the entity.
+     */
+    public void delete(Long id) {
+        log.debug("Request to delete SaleItem : {}", id);
+        saleItemImageRenditionRepository.deleteAllBySaleItemId(id);
+        saleItemImageRepository.deleteOneById(id);
+        saleItemRepository.deleteById(id);
+        catalogSnapshotService.invalidate();
+        inventoryService.quantityChanged(id);
+    }
+
+    private String storeImage(byte[] image) {
+        try {
+            return imageStore.store(new ByteArrayInputStream(image));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void imageStored(Long id) {
+        // A row left from before the image store would now hold an outdated image
+        saleItemImageRepository.deleteOneById(id);
+        saleItemImageRenditionService.scheduleGeneration(id);
+    }
+}
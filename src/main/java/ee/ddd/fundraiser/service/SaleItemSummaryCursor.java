@@ -0,0 +1,125 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in the catalog, as read through {@link SaleItemService#findSummarySlice(SaleItemSummaryCursor, int)}.
+ * <p>
+ * A cursor holds the order of the catalog and the sort key and id of the last saleItem read. Clients get it as an
+ * opaque string and send it back unchanged to read the next slice.
+ */
+public final class SaleItemSummaryCursor {
+
+    private static final String ID = "id";
+
+    private static final Map<String, Function<SaleItemSummaryDTO, Object>> SORT_KEYS = Map.of(
+        ID,
+        SaleItemSummaryDTO::getId,
+        "name",
+        SaleItemSummaryDTO::getName,
+        "price",
+        SaleItemSummaryDTO::getPrice,
+        "type",
+        SaleItemSummaryDTO::getType
+    );
+
+    private final Sort.Order order;
+
+    private final Object value;
+
+    private final Long id;
+
+    private SaleItemSummaryCursor(Sort.Order order, Object value, Long id) {
+        this.order = order;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Get the cursor before the first saleItem.
+     *
+     * @param sort the order of the catalog: by id, name, price or type, possibly followed by id.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the catalog cannot be read in that order.
+     */
+    public static SaleItemSummaryCursor first(Sort sort) {
+        Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!SORT_KEYS.containsKey(order.getProperty())) {
+            throw new IllegalArgumentException("Cannot sort the catalog by " + order.getProperty());
+        }
+        if (sort.stream().skip(1).anyMatch(next -> !ID.equals(next.getProperty()))) {
+            throw new IllegalArgumentException("Cannot sort the catalog by more than one attribute and id");
+        }
+        return new SaleItemSummaryCursor(order, null, null);
+    }
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor the cursor, as given by {@link #encode()}.
+     * @return the cursor.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static SaleItemSummaryCursor decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        Sort.Order order = first(Sort.by(Sort.Direction.fromString(parts[1]), parts[0])).order;
+        Long id = Long.valueOf(parts[2]);
+        Object value;
+        switch (order.getProperty()) {
+            case "name":
+                value = parts[3];
+                break;
+            case "price":
+                try {
+                    value = Money.valueOf(parts[3]);
+                } catch (ArithmeticException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+                }
+                break;
+            case "type":
+                value = ItemType.valueOf(parts[3]);
+                break;
+            default:
+                value = id;
+        }
+        return new SaleItemSummaryCursor(order, value, id);
+    }
+
+    /**
+     * @param last the last saleItem read.
+     * @return the cursor right after that saleItem, in the same order.
+     */
+    public SaleItemSummaryCursor after(SaleItemSummaryDTO last) {
+        return new SaleItemSummaryCursor(order, SORT_KEYS.get(order.getProperty()).apply(last), last.getId());
+    }
+
+    /**
+     * @return the cursor as an opaque, URL safe string.
+     */
+    public String encode() {
+        String cursor = order.getProperty() + "\n" + order.getDirection() + "\n" + id + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort.Order getOrder() {
+        return order;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,262 @@
+package ee.ddd.fundraiser.service;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.domain.SaleRollup;
+import ee.ddd.fundraiser.domain.SaleRollupQueueEntry;
+import ee.ddd.fundraiser.domain.enumeration.RollupDimension;
+import ee.ddd.fundraiser.domain.enumeration.RollupGranularity;
+import ee.ddd.fundraiser.repository.SaleLedgerEntryRepository;
+import ee.ddd.fundraiser.repository.SaleRollupQueueEntryRepository;
+import ee.ddd.fundraiser.repository.SaleRollupRepository;
+import ee.ddd.fundraiser.service.dto.SalesPointDTO;
+import ee.ddd.fundraiser.service.dto.SalesSeriesDTO;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the {@link SaleRollup}s of the sales ledger, and reading the sales over time from them.
+ * <p>
+ * The ledger entries are rolled up in the background every {@code application.rollup.refresh-interval}, so the sales
+ * charts never read the ledger nor slow the checkouts down. They are queued as {@link SaleRollupQueueEntry}s by the
+ * transaction recording them, and taken off the queue by the one rolling them up: as the ids of the entries are
+ * allocated before their transaction commits, an entry may become visible after one with a greater id, which a
+ * checkpoint in the ledger would skip.
+ */
+@Service
+@Transactional
+public class SaleRollupService {
+
+    /**
+     * The intervals chosen when none is asked for, from the finest.
+     */
+    private static final List<Duration> INTERVALS = List.of(
+        Duration.ofMinutes(1),
+        Duration.ofMinutes(5),
+        Duration.ofMinutes(15),
+        Duration.ofMinutes(30),
+        Duration.ofHours(1),
+        Duration.ofHours(3),
+        Duration.ofHours(6),
+        Duration.ofHours(12),
+        Duration.ofDays(1)
+    );
+
+    /**
+     * Number of intervals aimed at when none is asked for.
+     */
+    private static final int DEFAULT_POINTS = 300;
+
+    private final Logger log = LoggerFactory.getLogger(SaleRollupService.class);
+
+    private final SaleLedgerEntryRepository saleLedgerEntryRepository;
+
+    private final SaleRollupRepository saleRollupRepository;
+
+    private final SaleRollupQueueEntryRepository saleRollupQueueEntryRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public SaleRollupService(
+        SaleLedgerEntryRepository saleLedgerEntryRepository,
+        SaleRollupRepository saleRollupRepository,
+        SaleRollupQueueEntryRepository saleRollupQueueEntryRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.saleLedgerEntryRepository = saleLedgerEntryRepository;
+        this.saleRollupRepository = saleRollupRepository;
+        this.saleRollupQueueEntryRepository = saleRollupQueueEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = applicationProperties.getRollup().getBatchSize();
+    }
+
+    /**
+     * Queue new ledger entries to be rolled up, in the transaction recording them.
+     *
+     * @param entries the ledger entries, with their ids.
+     */
+    public void addSales(List<SaleLedgerEntry> entries) {
+        saleRollupQueueEntryRepository.saveAll(
+            entries.stream().map(entry -> new SaleRollupQueueEntry().id(entry.getId())).collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Roll up the queued ledger entries, in transactions of {@code application.rollup.batch-size} entries.
+     */
+    @Scheduled(fixedDelayString = "${application.rollup.refresh-interval:PT10S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void refresh() {
+        int rolledUp;
+        do {
+            rolledUp = Objects.requireNonNull(transactionTemplate.execute(status -> rollUp()));
+        } while (rolledUp == batchSize);
+    }
+
+    /**
+     * The interval to read the sales of a time range with, when none is asked for: the finest giving a few hundred
+     * intervals at most.
+     *
+     * @param from the start of the range.
+     * @param to the end of the range.
+     * @return the interval.
+     */
+    public Duration getDefaultInterval(Instant from, Instant to) {
+        Duration range = Duration.between(from, to);
+        return INTERVALS
+            .stream()
+            .filter(interval -> range.dividedBy(interval) <= DEFAULT_POINTS)
+            .findFirst()
+            .orElse(INTERVALS.get(INTERVALS.size() - 1));
+    }
+
+    /**
+     * Get the sales of a time range from the rollups, added up by interval.
+     * <p>
+     * The intervals start at multiples of their duration since the epoch, in UTC, so the first one may start before
+     * the range. The rollups read are the coarsest the interval is a multiple of.
+     *
+     * @param dimension the dimension.
+     * @param key the key, or {@code null} for all the keys of the dimension.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @param interval the interval, a positive whole number of minutes.
+     * @return the series of each key with sales, in key order.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesSeriesDTO> getSales(RollupDimension dimension, String key, Instant from, Instant to, Duration interval) {
+        log.debug("Request to get the sales by {} {} from {} to {} every {}", dimension, key, from, to, interval);
+        RollupGranularity granularity = RollupGranularity.MINUTE;
+        if (interval.toSeconds() % ChronoUnit.DAYS.getDuration().toSeconds() == 0) {
+            granularity = RollupGranularity.DAY;
+        } else if (interval.toSeconds() % ChronoUnit.HOURS.getDuration().toSeconds() == 0) {
+            granularity = RollupGranularity.HOUR;
+        }
+        Instant start = truncate(from, interval);
+        List<SaleRollup> rollups = key == null
+            ? saleRollupRepository.findAllByDimension(granularity, dimension, start, to)
+            : saleRollupRepository.findAllByDimensionAndKey(granularity, dimension, key, start, to);
+
+        Comparator<String> keyOrder = dimension == RollupDimension.ITEM
+            ? Comparator.comparing(Long::valueOf)
+            : Comparator.naturalOrder();
+        SortedMap<String, SortedMap<Instant, SalesPointDTO>> series = new TreeMap<>(keyOrder);
+        for (SaleRollup rollup : rollups) {
+            Instant pointStart = truncate(rollup.getBucketStart(), interval);
+            SalesPointDTO point = series
+                .computeIfAbsent(rollup.getKey(), k -> new TreeMap<>())
+                .computeIfAbsent(pointStart, s -> new SalesPointDTO(s, 0, BigDecimal.ZERO));
+            point.setQuantity(point.getQuantity() + rollup.getQuantity());
+            point.setRevenue(point.getRevenue().add(rollup.getRevenue()));
+        }
+        List<SalesSeriesDTO> result = new ArrayList<>();
+        series.forEach((seriesKey, points) -> {
+            SalesSeriesDTO salesSeries = new SalesSeriesDTO(seriesKey);
+            salesSeries.getPoints().addAll(points.values());
+            result.add(salesSeries);
+        });
+        return result;
+    }
+
+    /**
+     * Roll up the next queued entries.
+     *
+     * @return the number of entries taken off the queue.
+     */
+    private int rollUp() {
+        List<Long> ids = saleRollupQueueEntryRepository.findIds(PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<SaleLedgerEntry> entries = saleLedgerEntryRepository.findAllById(ids);
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            addSales(granularity, entries);
+        }
+        saleRollupQueueEntryRepository.deleteAllByIdIn(ids);
+        log.debug("Rolled up {} SaleLedgerEntries", entries.size());
+        return ids.size();
+    }
+
+    private void addSales(RollupGranularity granularity, List<SaleLedgerEntry> entries) {
+        Set<Instant> bucketStarts = entries.stream().map(entry -> truncate(entry.getSoldDate(), granularity)).collect(Collectors.toSet());
+        if (bucketStarts.isEmpty()) {
+            return;
+        }
+        Map<List<Object>, SaleRollup> rollups = new HashMap<>();
+        for (SaleRollup rollup : saleRollupRepository.findAllByGranularityAndBucketStartIn(granularity, bucketStarts)) {
+            rollups.put(List.of(rollup.getDimension(), rollup.getKey(), rollup.getBucketStart()), rollup);
+        }
+        for (SaleLedgerEntry entry : entries) {
+            Instant bucketStart = truncate(entry.getSoldDate(), granularity);
+            add(rollups, granularity, RollupDimension.ITEM, entry.getSaleItemId().toString(), bucketStart, entry);
+            add(rollups, granularity, RollupDimension.TYPE, entry.getType().name(), bucketStart, entry);
+        }
+        // The new rollups are inserted and the others updated in JDBC batches
+        saleRollupRepository.saveAll(rollups.values());
+    }
+
+    private static void add(
+        Map<List<Object>, SaleRollup> rollups,
+        RollupGranularity granularity,
+        RollupDimension dimension,
+        String key,
+        Instant bucketStart,
+        SaleLedgerEntry entry
+    ) {
+        SaleRollup rollup = rollups.computeIfAbsent(
+            List.of(dimension, key, bucketStart),
+            k ->
+                new SaleRollup()
+                    .granularity(granularity)
+                    .dimension(dimension)
+                    .key(key)
+                    .bucketStart(bucketStart)
+                    .quantity(0L)
+                    .revenue(BigDecimal.ZERO)
+        );
+        rollup.setQuantity(rollup.getQuantity() + entry.getQuantity());
+        rollup.setRevenue(rollup.getRevenue().add(entry.getAmount()));
+    }
+
+    private static Instant truncate(Instant instant, RollupGranularity granularity) {
+        switch (granularity) {
+            case MINUTE:
+                return instant.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR:
+                return instant.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return instant.truncatedTo(ChronoUnit.DAYS);
+            default:
+                throw new IllegalStateException("Unknown granularity " + granularity);
+        }
+    }
+
+    private static Instant truncate(Instant instant, Duration interval) {
+        long seconds = interval.toSeconds();
+        return Instant.ofEpochSecond(Math.floorDiv(instant.getEpochSecond(), seconds) * seconds);
+    }
+}
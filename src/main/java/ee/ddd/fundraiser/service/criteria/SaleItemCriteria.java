@@ -0,0 +1,211 @@
+package ee.ddd.fundraiser.service.criteria;
+
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import java.io.Serializable;
+import java.util.Objects;
+import org.springdoc.api.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.Filter;
+import tech.jhipster.service.filter.IntegerFilter;
+import tech.jhipster.service.filter.LongFilter;
+import tech.jhipster.service.filter.RangeFilter;
+import tech.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the {@link ee.ddd.fundraiser.domain.SaleItem} entity. This class is used
+ * in {@link ee.ddd.fundraiser.web.rest.SaleItemResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /sale-items?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class SaleItemCriteria implements Serializable, Criteria {
+
+    /**
+     * Class for filtering ItemType
+     */
+    public static class ItemTypeFilter extends Filter<ItemType> {
+
+        public ItemTypeFilter() {}
+
+        public ItemTypeFilter(ItemTypeFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ItemTypeFilter copy() {
+            return new ItemTypeFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering Money, given in request parameters as decimal numbers
+     */
+    public static class MoneyFilter extends RangeFilter<Money> {
+
+        public MoneyFilter() {}
+
+        public MoneyFilter(MoneyFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public MoneyFilter copy() {
+            return new MoneyFilter(this);
+        }
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private MoneyFilter price;
+
+    private IntegerFilter quantity;
+
+    private ItemTypeFilter type;
+
+    private Boolean distinct;
+
+    public SaleItemCriteria() {}
+
+    public SaleItemCriteria(SaleItemCriteria other) {
+        this.id = other.id == null ? null : other.id.copy();
+        this.name = other.name == null ? null : other.name.copy();
+        this.price = other.price == null ? null : other.price.copy();
+        this.quantity = other.quantity == null ? null : other.quantity.copy();
+        this.type = other.type == null ? null : other.type.copy();
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public SaleItemCriteria copy() {
+        return new SaleItemCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            id = new LongFilter();
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public StringFilter name() {
+        if (name == null) {
+            name = new StringFilter();
+        }
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public MoneyFilter getPrice() {
+        return price;
+    }
+
+    public MoneyFilter price() {
+        if (price == null) {
+            price = new MoneyFilter();
+        }
+        return price;
+    }
+
+    public void setPrice(MoneyFilter price) {
+        this.price = price;
+    }
+
+    public IntegerFilter getQuantity() {
+        return quantity;
+    }
+
+    public IntegerFilter quantity() {
+        if (quantity == null) {
+            quantity = new IntegerFilter();
+        }
+        return quantity;
+    }
+
+    public void setQuantity(IntegerFilter quantity) {
+        this.quantity = quantity;
+    }
+
+    public ItemTypeFilter getType() {
+        return type;
+    }
+
+    public ItemTypeFilter type() {
+        if (type == null) {
+            type = new ItemTypeFilter();
+        }
+        return type;
+    }
+
+    public void setType(ItemTypeFilter type) {
+        this.type = type;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final SaleItemCriteria that = (SaleItemCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(price, that.price) &&
+            Objects.equals(quantity, that.quantity) &&
+            Objects.equals(type, that.type) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, price, quantity, type, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleItemCriteria{" +
+            (id != null ? "id=" + id + ", " : "") +
+            (name != null ? "name=" + name + ", " : "") +
+            (price != null ? "price=" + price + ", " : "") +
+            (quantity != null ? "quantity=" + quantity + ", " : "") +
+            (type != null ? "type=" + type + ", " : "") +
+            (distinct != null ? "distinct=" + distinct + ", " : "") +
+            "}";
+    }
+}
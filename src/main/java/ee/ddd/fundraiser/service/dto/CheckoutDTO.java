@@ -0,0 +1,58 @@
+package ee.ddd.fundraiser.service.dto;
+
+import ee.ddd.fundraiser.domain.Money;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+
+/**
+ * A DTO representing the basket of a checkout.
+ */
+public class CheckoutDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty
+    @Valid
+    private List<CheckoutLineDTO> lines = new ArrayList<>();
+
+    /**
+     * Cash handed over by the buyer, if they paid cash, of which the receipt gives the change.
+     */
+    private Money cashPaid;
+
+    public CheckoutDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CheckoutDTO(List<CheckoutLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public List<CheckoutLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<CheckoutLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public Money getCashPaid() {
+        return cashPaid;
+    }
+
+    public void setCashPaid(Money cashPaid) {
+        this.cashPaid = cashPaid;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutDTO{" +
+            "lines=" + lines +
+            ", cashPaid=" + cashPaid +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing a line of a basket: a quantity of one {@link ee.ddd.fundraiser.domain.SaleItem}.
+ */
+public class CheckoutLineDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    private Long saleItemId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    public CheckoutLineDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CheckoutLineDTO(Long saleItemId, Integer quantity) {
+        this.saleItemId = saleItemId;
+        this.quantity = quantity;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutLineDTO{" +
+            "saleItemId=" + saleItemId +
+            ", quantity=" + quantity +
+            "}";
+    }
+}
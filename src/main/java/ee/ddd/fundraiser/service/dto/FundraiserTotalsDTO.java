@@ -0,0 +1,85 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the totals of the sales of the fundraiser, overall and by sale item, item type and hour.
+ */
+public class FundraiserTotalsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long quantity;
+
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    private List<TotalDTO> items = new ArrayList<>();
+
+    private List<TotalDTO> types = new ArrayList<>();
+
+    private List<TotalDTO> hours = new ArrayList<>();
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    /**
+     * @return the totals by sale item id, in id order.
+     */
+    public List<TotalDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TotalDTO> items) {
+        this.items = items;
+    }
+
+    /**
+     * @return the totals by item type name.
+     */
+    public List<TotalDTO> getTypes() {
+        return types;
+    }
+
+    public void setTypes(List<TotalDTO> types) {
+        this.types = types;
+    }
+
+    /**
+     * @return the totals by start of hour, in chronological order.
+     */
+    public List<TotalDTO> getHours() {
+        return hours;
+    }
+
+    public void setHours(List<TotalDTO> hours) {
+        this.hours = hours;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FundraiserTotalsDTO{" +
+            "quantity=" + quantity +
+            ", revenue=" + revenue +
+            ", items=" + items +
+            ", types=" + types +
+            ", hours=" + hours +
+            "}";
+    }
+}
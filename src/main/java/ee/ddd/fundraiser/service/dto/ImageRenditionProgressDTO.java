@@ -0,0 +1,73 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the progress of the last bulk regeneration of sale item image renditions.
+ */
+public class ImageRenditionProgressDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean running;
+
+    private int total;
+
+    private int completed;
+
+    private int failed;
+
+    public ImageRenditionProgressDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ImageRenditionProgressDTO(boolean running, int total, int completed, int failed) {
+        this.running = running;
+        this.total = total;
+        this.completed = completed;
+        this.failed = failed;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImageRenditionProgressDTO{" +
+            "running=" + running +
+            ", total=" + total +
+            ", completed=" + completed +
+            ", failed=" + failed +
+            "}";
+    }
+}
@@ -0,0 +1,61 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing the outcome of moving images from the database to the image store.
+ */
+public class ImageStoreMigrationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int migrated;
+
+    private int failed;
+
+    private long bytes;
+
+    public ImageStoreMigrationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ImageStoreMigrationDTO(int migrated, int failed, long bytes) {
+        this.migrated = migrated;
+        this.failed = failed;
+        this.bytes = bytes;
+    }
+
+    public int getMigrated() {
+        return migrated;
+    }
+
+    public void setMigrated(int migrated) {
+        this.migrated = migrated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImageStoreMigrationDTO{" +
+            "migrated=" + migrated +
+            ", failed=" + failed +
+            ", bytes=" + bytes +
+            "}";
+    }
+}
@@ -0,0 +1,73 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a sale item whose available quantity fell to or below its low-stock threshold.
+ */
+public class LowStockItemDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long saleItemId;
+
+    private String name;
+
+    private int available;
+
+    private int lowStockThreshold;
+
+    public LowStockItemDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public LowStockItemDTO(Long saleItemId, String name, int available, int lowStockThreshold) {
+        this.saleItemId = saleItemId;
+        this.name = name;
+        this.available = available;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(int available) {
+        this.available = available;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LowStockItemDTO{" +
+            "saleItemId=" + saleItemId +
+            ", name='" + name + "'" +
+            ", available=" + available +
+            ", lowStockThreshold=" + lowStockThreshold +
+            "}";
+    }
+}
@@ -0,0 +1,92 @@
+package ee.ddd.fundraiser.service.dto;
+
+import ee.ddd.fundraiser.domain.Money;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A DTO representing the receipt of a checkout, with the amounts computed by the server.
+ * <p>
+ * The total is added up in cents, so it is exact however many lines the receipt has.
+ */
+public class ReceiptDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant createdDate;
+
+    private List<ReceiptLineDTO> lines;
+
+    private Money total;
+
+    private Money cashPaid;
+
+    private Money change;
+
+    public ReceiptDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ReceiptDTO(Instant createdDate, List<ReceiptLineDTO> lines) {
+        this.createdDate = createdDate;
+        this.lines = lines;
+        long cents = 0;
+        for (ReceiptLineDTO line : lines) {
+            cents = Math.addExact(cents, line.getAmount().getMinorUnits());
+        }
+        this.total = Money.ofMinor(cents);
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public List<ReceiptLineDTO> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<ReceiptLineDTO> lines) {
+        this.lines = lines;
+    }
+
+    public Money getTotal() {
+        return total;
+    }
+
+    public void setTotal(Money total) {
+        this.total = total;
+    }
+
+    public Money getCashPaid() {
+        return cashPaid;
+    }
+
+    public void setCashPaid(Money cashPaid) {
+        this.cashPaid = cashPaid;
+    }
+
+    public Money getChange() {
+        return change;
+    }
+
+    public void setChange(Money change) {
+        this.change = change;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReceiptDTO{" +
+            "createdDate=" + createdDate +
+            ", lines=" + lines +
+            ", total=" + total +
+            ", cashPaid=" + cashPaid +
+            ", change=" + change +
+            "}";
+    }
+}
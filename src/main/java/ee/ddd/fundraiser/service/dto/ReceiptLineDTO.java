@@ -0,0 +1,86 @@
+package ee.ddd.fundraiser.service.dto;
+
+import ee.ddd.fundraiser.domain.Money;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a line of a {@link ReceiptDTO}: a quantity of one sale item at its price.
+ */
+public class ReceiptLineDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long saleItemId;
+
+    private String name;
+
+    private Money unitPrice;
+
+    private int quantity;
+
+    private Money amount;
+
+    public ReceiptLineDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ReceiptLineDTO(Long saleItemId, String name, Money unitPrice, int quantity) {
+        this.saleItemId = saleItemId;
+        this.name = name;
+        this.unitPrice = unitPrice;
+        this.quantity = quantity;
+        this.amount = unitPrice.times(quantity);
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Money getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(Money unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public Money getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ReceiptLineDTO{" +
+            "saleItemId=" + saleItemId +
+            ", name='" + name + "'" +
+            ", unitPrice=" + unitPrice +
+            ", quantity=" + quantity +
+            ", amount=" + amount +
+            "}";
+    }
+}
@@ -0,0 +1,54 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of uploading a batch of till sales: how many were recorded, how many had already
+ * been, and the lines that could not be.
+ */
+public class SaleBatchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private int accepted;
+
+    private int duplicates;
+
+    private List<SaleConflictDTO> conflicts = new ArrayList<>();
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public List<SaleConflictDTO> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<SaleConflictDTO> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleBatchResultDTO{" +
+            "accepted=" + accepted +
+            ", duplicates=" + duplicates +
+            ", conflicts=" + conflicts +
+            "}";
+    }
+}
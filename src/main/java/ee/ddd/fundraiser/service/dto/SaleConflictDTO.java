@@ -0,0 +1,119 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A DTO representing a line of a batch of till sales that was not recorded, and why.
+ */
+public class SaleConflictDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+        /**
+         * The line is not a valid sale; the message tells why.
+         */
+        INVALID,
+
+        /**
+         * The sale item does not exist.
+         */
+        UNKNOWN_ITEM,
+
+        /**
+         * Less than sold is left of the sale item.
+         */
+        OVERSOLD,
+    }
+
+    private int line;
+
+    private String till;
+
+    private Long sequence;
+
+    private Long saleItemId;
+
+    private Reason reason;
+
+    private String message;
+
+    public SaleConflictDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SaleConflictDTO(int line, TillSaleDTO sale, Reason reason, String message) {
+        this.line = line;
+        if (sale != null) {
+            this.till = sale.getTill();
+            this.sequence = sale.getSequence();
+            this.saleItemId = sale.getSaleItemId();
+        }
+        this.reason = reason;
+        this.message = message;
+    }
+
+    /**
+     * @return the number of the line in the batch, from 1.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    public void setLine(int line) {
+        this.line = line;
+    }
+
+    public String getTill() {
+        return till;
+    }
+
+    public void setTill(String till) {
+        this.till = till;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public void setReason(Reason reason) {
+        this.reason = reason;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleConflictDTO{" +
+            "line=" + line +
+            ", till='" + till + "'" +
+            ", sequence=" + sequence +
+            ", saleItemId=" + saleItemId +
+            ", reason='" + reason + "'" +
+            ", message='" + message + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,81 @@
+package ee.ddd.fundraiser.service.dto;
+
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import java.io.Serializable;
+
+/**
+ * A DTO representing a {@link ee.ddd.fundraiser.domain.SaleItem} in the catalog, without its image.
+ * <p>
+ * Selected directly by the query, so listing the catalog never loads {@code SaleItem} entities. Its only constructor
+ * names the selected attributes.
+ */
+public class SaleItemSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final String name;
+
+    private final Money price;
+
+    private final Integer quantity;
+
+    private final ItemType type;
+
+    private final String imageHash;
+
+    public SaleItemSummaryDTO(Long id, String name, Money price, Integer quantity, ItemType type, String imageHash) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.quantity = quantity;
+        this.type = type;
+        this.imageHash = imageHash;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Money getPrice() {
+        return price;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public ItemType getType() {
+        return type;
+    }
+
+    public String getImageHash() {
+        return imageHash;
+    }
+
+    /**
+     * @return the versioned URL of the image, which may be cached for good, or {@code null} without an image.
+     */
+    public String getImageUrl() {
+        return imageHash == null ? null : "api/sale-items/" + id + "/image?v=" + imageHash;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SaleItemSummaryDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", price=" + price +
+            ", quantity=" + quantity +
+            ", type='" + type + "'" +
+            ", imageHash='" + imageHash + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,63 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A DTO representing the sales of one interval of a {@link SalesSeriesDTO}.
+ */
+public class SalesPointDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Instant start;
+
+    private long quantity;
+
+    private BigDecimal revenue;
+
+    public SalesPointDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SalesPointDTO(Instant start, long quantity, BigDecimal revenue) {
+        this.start = start;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public Instant getStart() {
+        return start;
+    }
+
+    public void setStart(Instant start) {
+        this.start = start;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesPointDTO{" +
+            "start='" + start + "'" +
+            ", quantity=" + quantity +
+            ", revenue=" + revenue +
+            "}";
+    }
+}
@@ -0,0 +1,50 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the sales of one key, such as one sale item, over time: the intervals with sales, in time order.
+ */
+public class SalesSeriesDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String key;
+
+    private List<SalesPointDTO> points = new ArrayList<>();
+
+    public SalesSeriesDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SalesSeriesDTO(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public List<SalesPointDTO> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<SalesPointDTO> points) {
+        this.points = points;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SalesSeriesDTO{" +
+            "key='" + key + "'" +
+            ", points=" + points +
+            "}";
+    }
+}
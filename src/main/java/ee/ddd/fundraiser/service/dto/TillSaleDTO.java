@@ -0,0 +1,102 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+/**
+ * A DTO representing a sale made by a till while offline, uploaded later in a batch.
+ */
+public class TillSaleDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Pattern(regexp = "[\\x21-\\x7e]{1,64}")
+    private String till;
+
+    /**
+     * The number of the sale at its till, which makes uploading it again harmless.
+     */
+    @NotNull
+    @Min(0)
+    private Long sequence;
+
+    @NotNull
+    private Long saleItemId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    /**
+     * When the till sold, the upload time if not known.
+     */
+    private Instant soldDate;
+
+    public TillSaleDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TillSaleDTO(String till, Long sequence, Long saleItemId, Integer quantity, Instant soldDate) {
+        this.till = till;
+        this.sequence = sequence;
+        this.saleItemId = saleItemId;
+        this.quantity = quantity;
+        this.soldDate = soldDate;
+    }
+
+    public String getTill() {
+        return till;
+    }
+
+    public void setTill(String till) {
+        this.till = till;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Long sequence) {
+        this.sequence = sequence;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public void setSaleItemId(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Instant getSoldDate() {
+        return soldDate;
+    }
+
+    public void setSoldDate(Instant soldDate) {
+        this.soldDate = soldDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TillSaleDTO{" +
+            "till='" + till + "'" +
+            ", sequence=" + sequence +
+            ", saleItemId=" + saleItemId +
+            ", quantity=" + quantity +
+            ", soldDate='" + soldDate + "'" +
+            "}";
+    }
+}
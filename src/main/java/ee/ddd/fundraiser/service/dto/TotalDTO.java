@@ -0,0 +1,62 @@
+package ee.ddd.fundraiser.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * A DTO representing the running total of the sales of one key, such as one sale item or one hour.
+ */
+public class TotalDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String key;
+
+    private long quantity;
+
+    private BigDecimal revenue;
+
+    public TotalDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public TotalDTO(String key, long quantity, BigDecimal revenue) {
+        this.key = key;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue) {
+        this.revenue = revenue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TotalDTO{" +
+            "key='" + key + "'" +
+            ", quantity=" + quantity +
+            ", revenue=" + revenue +
+            "}";
+    }
+}
@@ -0,0 +1,121 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The bounded queue of the checkouts of one sale item on flash sale, waiting to be admitted.
+ * <p>
+ * The checkouts are admitted in order by at most one task of the executor at a time, so that they do not contend for
+ * the stock counter of the sale item with each other, however many compete for it. The counter is still updated
+ * concurrently by the sale batches of the tills, which reserve the stock directly, and by the checkouts releasing
+ * their reservation on rollback or timeout, so it stays atomic.
+ */
+class AdmissionQueue {
+
+    private final Long saleItemId;
+
+    private final BlockingQueue<Ticket> queue;
+
+    private final InventoryService inventoryService;
+
+    private final Executor executor;
+
+    private final AtomicBoolean admitting = new AtomicBoolean();
+
+    /**
+     * @param saleItemId the id of the sale item.
+     * @param capacity the number of checkouts that can wait.
+     * @param inventoryService the service reserving the stock.
+     * @param executor the executor admitting the checkouts.
+     */
+    AdmissionQueue(Long saleItemId, int capacity, InventoryService inventoryService, Executor executor) {
+        this.saleItemId = saleItemId;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.inventoryService = inventoryService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queue a checkout, without waiting for it to be admitted.
+     *
+     * @param quantity the quantity to reserve.
+     * @return the ticket of the checkout, or {@code null} if the queue is full or the executor cannot admit it.
+     */
+    Ticket offer(int quantity) {
+        Ticket ticket = new Ticket(quantity);
+        if (!queue.offer(ticket)) {
+            return null;
+        }
+        try {
+            schedule();
+        } catch (RejectedExecutionException e) {
+            // Given up on, while the checkouts queued before it wait for the next one to schedule them again
+            ticket.decision.complete(false);
+            return null;
+        }
+        return ticket;
+    }
+
+    private void schedule() {
+        if (admitting.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::admit);
+            } catch (RejectedExecutionException e) {
+                admitting.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private void admit() {
+        try {
+            Ticket ticket;
+            while ((ticket = queue.poll()) != null) {
+                if (ticket.decision.isDone()) {
+                    // Given up on by its checkout
+                    continue;
+                }
+                boolean reserved;
+                try {
+                    reserved = inventoryService.reserve(saleItemId, ticket.quantity);
+                } catch (RuntimeException e) {
+                    ticket.decision.completeExceptionally(e);
+                    continue;
+                }
+                if (!ticket.decision.complete(reserved) && reserved) {
+                    inventoryService.release(saleItemId, ticket.quantity);
+                }
+            }
+        } finally {
+            admitting.set(false);
+        }
+        // Queued after the last poll but before the flag was cleared
+        if (!queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * A checkout waiting to be admitted. Its decision is {@code true} once its quantity is reserved, and
+     * {@code false} if less is available; completing it first with {@code false} gives up on the admission.
+     */
+    static final class Ticket {
+
+        private final int quantity;
+
+        private final CompletableFuture<Boolean> decision = new CompletableFuture<>();
+
+        private Ticket(int quantity) {
+            this.quantity = quantity;
+        }
+
+        CompletableFuture<Boolean> getDecision() {
+            return decision;
+        }
+    }
+}
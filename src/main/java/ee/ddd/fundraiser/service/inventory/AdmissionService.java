@@ -0,0 +1,135 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.service.CheckoutBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service admitting the checkouts of the sale items on flash sale, before they use the database.
+ * <p>
+ * When a sale item sells out within seconds, most of its checkouts are bound to fail. They are admitted in order of
+ * arrival by the {@link AdmissionQueue} of the sale item, which reserves its stock, and turned away at once when it is
+ * sold out or too many are waiting, and otherwise as soon as it sells out. As every checkout reserves its stock before
+ * its transaction begins, those turned away never take a database connection, whether queued or not.
+ */
+@Service
+public class AdmissionService {
+
+    public static final String EXECUTOR = "admissionExecutor";
+
+    public static final String ADMISSION_METER_NAME = "inventory.admission";
+
+    public static final String REJECTED_METER_NAME = "inventory.admission.rejected";
+
+    private final Logger log = LoggerFactory.getLogger(AdmissionService.class);
+
+    private final InventoryService inventoryService;
+
+    private final Executor executor;
+
+    private final int queueCapacity;
+
+    private final long timeout;
+
+    private final Timer admissionTimer;
+
+    private final Counter soldOutCounter;
+
+    private final Counter fullCounter;
+
+    private final Counter timeoutCounter;
+
+    private final ConcurrentMap<Long, AdmissionQueue> queues = new ConcurrentHashMap<>();
+
+    public AdmissionService(
+        InventoryService inventoryService,
+        @Qualifier(EXECUTOR) Executor executor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.inventoryService = inventoryService;
+        this.executor = executor;
+        this.queueCapacity = applicationProperties.getInventory().getAdmission().getQueueCapacity();
+        this.timeout = applicationProperties.getInventory().getAdmission().getTimeout().toNanos();
+        this.admissionTimer =
+            Timer.builder(ADMISSION_METER_NAME).description("Time spent waiting to be admitted by a flash sale").register(meterRegistry);
+        this.soldOutCounter = rejectedCounter("soldout").register(meterRegistry);
+        this.fullCounter = rejectedCounter("full").register(meterRegistry);
+        this.timeoutCounter = rejectedCounter("timeout").register(meterRegistry);
+    }
+
+    /**
+     * Admit a checkout of a sale item on flash sale, reserving its quantity.
+     *
+     * @param saleItemId the id of the sale item.
+     * @param quantity the positive quantity to reserve.
+     * @return {@code true} if it was reserved, {@code false} if less is available.
+     * @throws CheckoutBusyException if too many checkouts of the sale item are waiting, or this one waited too long, or
+     * the executor cannot take the admission of the queue.
+     */
+    public boolean admit(Long saleItemId, int quantity) {
+        if (inventoryService.getAvailable(saleItemId).orElse(0) < quantity) {
+            soldOutCounter.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        AdmissionQueue.Ticket ticket = queues
+            .computeIfAbsent(saleItemId, id -> new AdmissionQueue(id, queueCapacity, inventoryService, executor))
+            .offer(quantity);
+        if (ticket == null) {
+            fullCounter.increment();
+            throw new CheckoutBusyException(saleItemId);
+        }
+        try {
+            boolean admitted = ticket.getDecision().get(timeout, TimeUnit.NANOSECONDS);
+            if (!admitted) {
+                soldOutCounter.increment();
+            }
+            return admitted;
+        } catch (TimeoutException e) {
+            return decideOnTimeout(saleItemId, ticket);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return decideOnTimeout(saleItemId, ticket);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                // As if reserved directly, e.g. the reservation could not be journaled
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Cannot admit a checkout of SaleItem " + saleItemId, e.getCause());
+        } finally {
+            admissionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Give up on a ticket, unless it was decided on in the meantime.
+     */
+    private boolean decideOnTimeout(Long saleItemId, AdmissionQueue.Ticket ticket) {
+        if (ticket.getDecision().complete(false)) {
+            log.debug("Gave up on the admission of a checkout of SaleItem {}", saleItemId);
+            timeoutCounter.increment();
+            throw new CheckoutBusyException(saleItemId);
+        }
+        return ticket.getDecision().join();
+    }
+
+    private static Counter.Builder rejectedCounter(String reason) {
+        return Counter
+            .builder(REJECTED_METER_NAME)
+            .description("Checkouts of sale items on flash sale turned away")
+            .tag("reason", reason);
+    }
+}
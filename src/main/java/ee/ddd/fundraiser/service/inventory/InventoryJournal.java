@@ -0,0 +1,217 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of the stock reserved by the {@link InventoryService}, in numbered segment files.
+ * <p>
+ * Every reservation is one {@code "<saleItemId> <quantity>\n"} line, written with a single call that bypasses any
+ * buffer of the JVM, then forced to the disk before {@link #append(Long, int)} returns, so that it survives a power
+ * loss as well as a crash of the application: the sales recorded in the database meanwhile never outlive the
+ * reservations they took. The appends waiting for a force are forced together by the next one (group commit), so that
+ * concurrent reservations do not each wait for their own, and {@link #appendAll(List)} writes and forces the
+ * reservations of a batch at once. Only the segment being written can end with a torn line, which is ignored: its
+ * reservation was never granted, and those written before it in the same batch only hold back stock if replayed.
+ * Segments are rotated before their reservations are written to the database, and deleted afterwards.
+ * <p>
+ * Not thread-safe, except for {@link #append(Long, int)} and {@link #appendAll(List)}: callers exclude the other
+ * methods from running concurrently.
+ */
+public class InventoryJournal implements AutoCloseable {
+
+    private static final Pattern SEGMENT = Pattern.compile("reservations-(\\d+)\\.journal");
+
+    private final Logger log = LoggerFactory.getLogger(InventoryJournal.class);
+
+    private final Path directory;
+
+    private long segment;
+
+    private FileChannel channel;
+
+    private volatile boolean appended;
+
+    /**
+     * Held while lines are written, so that the writes are counted in the order they are made.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Held while the segment is forced to the disk.
+     */
+    private final Object forceLock = new Object();
+
+    /**
+     * Number of writes, and of those forced to the disk, to the current segment.
+     */
+    private volatile long written;
+
+    private long forced;
+
+    public InventoryJournal(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Get the segments on disk.
+     *
+     * @return the numbers of the segments, in ascending order.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public List<Long> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(file -> SEGMENT.matcher(file.getFileName().toString()))
+                .filter(Matcher::matches)
+                .map(matcher -> Long.valueOf(matcher.group(1)))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Read the reservations of a segment.
+     *
+     * @param segment the number of the segment.
+     * @return the reserved quantity by sale item id.
+     * @throws IOException if the segment cannot be read.
+     */
+    public Map<Long, Integer> read(long segment) throws IOException {
+        String content = Files.readString(path(segment), StandardCharsets.US_ASCII);
+        Map<Long, Integer> quantities = new HashMap<>();
+        int start = 0;
+        for (int end = content.indexOf('\n'); end >= 0; start = end + 1, end = content.indexOf('\n', start)) {
+            String[] line = content.substring(start, end).split(" ");
+            quantities.merge(Long.valueOf(line[0]), Integer.valueOf(line[1]), Integer::sum);
+        }
+        if (start < content.length()) {
+            log.warn("Ignored the torn last line of inventory journal segment {}", segment);
+        }
+        return quantities;
+    }
+
+    /**
+     * Start appending to a new segment.
+     *
+     * @param segment the number of the segment, above those on disk.
+     * @throws IOException if the segment cannot be created.
+     */
+    public void start(long segment) throws IOException {
+        Files.createDirectories(directory);
+        this.channel = FileChannel.open(path(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.segment = segment;
+        this.appended = false;
+        this.written = 0;
+        this.forced = 0;
+    }
+
+    /**
+     * Append a reservation to the current segment, and force it to the disk.
+     *
+     * @param saleItemId the id of the sale item.
+     * @param quantity the reserved quantity, negative when it is released.
+     * @throws IOException if the reservation cannot be written.
+     */
+    public void append(Long saleItemId, int quantity) throws IOException {
+        write(ByteBuffer.wrap((saleItemId + " " + quantity + "\n").getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Append reservations to the current segment, and force them to the disk together.
+     *
+     * @param reservations the reserved quantity by sale item id of each reservation, in order.
+     * @throws IOException if the reservations cannot be written; some of them may have been.
+     */
+    public void appendAll(List<Map.Entry<Long, Integer>> reservations) throws IOException {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        reservations.forEach(reservation -> lines.append(reservation.getKey()).append(' ').append(reservation.getValue()).append('\n'));
+        write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private void write(ByteBuffer lines) throws IOException {
+        long ticket;
+        synchronized (writeLock) {
+            while (lines.hasRemaining()) {
+                channel.write(lines);
+            }
+            ticket = ++written;
+        }
+        appended = true;
+        synchronized (forceLock) {
+            // Unless forced along with the lines written while this thread was waiting
+            if (forced < ticket) {
+                long forcing = written;
+                channel.force(false);
+                forced = forcing;
+            }
+        }
+    }
+
+    /**
+     * Whether reservations were appended to the current segment.
+     *
+     * @return {@code true} if there are some.
+     */
+    public boolean hasAppended() {
+        return appended;
+    }
+
+    /**
+     * Close the current segment and start the next one.
+     *
+     * @return the number of the closed segment.
+     * @throws IOException if the next segment cannot be created.
+     */
+    public long rotate() throws IOException {
+        long closed = segment;
+        channel.close();
+        start(closed + 1);
+        return closed;
+    }
+
+    /**
+     * Delete the segments up to a given one, which must not be the current one.
+     *
+     * @param segment the number of the last segment to delete.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    public void deleteUpTo(long segment) throws IOException {
+        for (Long candidate : segments()) {
+            if (candidate <= segment) {
+                Files.delete(path(candidate));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private Path path(long segment) {
+        return directory.resolve("reservations-" + segment + ".journal");
+    }
+}
@@ -0,0 +1,575 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.InventoryCheckpoint;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.InventoryCheckpointRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.CatalogSnapshotService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service reserving the stock of the sale items in memory and writing it behind to {@link SaleItem#getQuantity()}.
+ * <p>
+ * Each sale item has its own atomic counter of the available quantity, loaded from the database on first use, so
+ * reservations of different sale items never contend and those of the same one never block each other. A reservation
+ * is granted once taken from the counter and appended to the {@link InventoryJournal}, which forces it to the disk,
+ * sharing the wait with the concurrent reservations; the quantities reserved since the last flush are then written to
+ * the database in a single transaction every {@code application.inventory.flush-interval}. Before the first
+ * reservation, the journal segments not written yet are replayed, so that no reservation granted before a crash or a
+ * power loss is lost. This is not done on startup, as the database
+ * schema may still be being updated then.
+ * <p>
+ * The counters are only correct as long as this instance is the only one selling: the stock must not be reserved by
+ * several instances of the application. Every other write of the quantity of a sale item must call
+ * {@link #quantityChanged(Long)}.
+ * <p>
+ * A {@link StockChangedEvent} is published whenever an available quantity changes, and a {@link LowStockEvent} when
+ * it falls to or below the low-stock threshold of its sale item. Both are detected from the counter alone, without
+ * reading the database.
+ */
+@Service
+public class InventoryService {
+
+    public static final String RESERVATION_METER_NAME = "inventory.reservation";
+
+    public static final String REJECTED_METER_NAME = "inventory.reservation.rejected";
+
+    public static final String FLUSH_METER_NAME = "inventory.flush";
+
+    public static final String FLUSH_LAG_METER_NAME = "inventory.flush.lag";
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Low-stock threshold of the sale items without one, which no quantity ever falls to.
+     */
+    private static final int NO_THRESHOLD = Integer.MIN_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final InventoryCheckpointRepository inventoryCheckpointRepository;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final InventoryJournal journal;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Timer reservationTimer;
+
+    private final Counter rejectedCounter;
+
+    private final Timer flushTimer;
+
+    private final ConcurrentMap<Long, Stock> stocks = new ConcurrentHashMap<>();
+
+    /**
+     * Shared by the reservations, and exclusively held while the counters are drained or overwritten, so that the
+     * reservations in the journal always match the unflushed quantities of the counters.
+     */
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+
+    /**
+     * Held for a whole flush, so that the quantities are not reloaded from the database while it is being written.
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * {@link System#nanoTime()} of the oldest reservation not written to the database, or {@link #NONE}.
+     */
+    private final AtomicLong unflushedSince = new AtomicLong(NONE);
+
+    /**
+     * Number of reloads, incremented under the exclusive {@link #journalLock}.
+     */
+    private final AtomicLong reloads = new AtomicLong();
+
+    private volatile boolean reconciled;
+
+    public InventoryService(
+        ApplicationProperties applicationProperties,
+        SaleItemRepository saleItemRepository,
+        InventoryCheckpointRepository inventoryCheckpointRepository,
+        CatalogSnapshotService catalogSnapshotService,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.saleItemRepository = saleItemRepository;
+        this.inventoryCheckpointRepository = inventoryCheckpointRepository;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.journal = new InventoryJournal(Path.of(applicationProperties.getInventory().getJournalDirectory()).toAbsolutePath());
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.reservationTimer =
+            Timer.builder(RESERVATION_METER_NAME).description("Time spent reserving the stock of a sale item").register(meterRegistry);
+        this.rejectedCounter =
+            Counter
+                .builder(REJECTED_METER_NAME)
+                .description("Reservations rejected because less than asked was available")
+                .register(meterRegistry);
+        this.flushTimer =
+            Timer.builder(FLUSH_METER_NAME).description("Time spent writing the reserved stock to the database").register(meterRegistry);
+        TimeGauge
+            .builder(FLUSH_LAG_METER_NAME, this, TimeUnit.NANOSECONDS, InventoryService::flushLag)
+            .description("Age of the oldest reservation not written to the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Reserve a quantity of a sale item, unless less is available.
+     *
+     * @param saleItemId the id of the sale item.
+     * @param quantity the positive quantity to reserve.
+     * @return {@code true} if it was reserved, {@code false} if less is available or the sale item does not exist.
+     * @throws UncheckedIOException if the reservation cannot be journaled; it is not granted then.
+     */
+    public boolean reserve(Long saleItemId, int quantity) {
+        reconcileOnce();
+        load(saleItemId);
+        int remaining = reservationTimer.record(() -> {
+            journalLock.readLock().lock();
+            try {
+                Stock stock = stocks.get(saleItemId);
+                int left = stock == null ? -1 : stock.take(quantity);
+                if (left < 0) {
+                    rejectedCounter.increment();
+                    return -1;
+                }
+                try {
+                    journal.append(saleItemId, quantity);
+                } catch (IOException e) {
+                    stock.available.addAndGet(quantity);
+                    throw new UncheckedIOException(e);
+                }
+                stock.unflushed.addAndGet(quantity);
+                unflushedSince.compareAndSet(NONE, System.nanoTime());
+                return left;
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        });
+        if (remaining < 0) {
+            return false;
+        }
+        int lowStockThreshold = lowStockThreshold(saleItemId);
+        boolean fellLow = remaining + quantity > lowStockThreshold && remaining <= lowStockThreshold;
+        stockChanged(saleItemId, fellLow, remaining, lowStockThreshold);
+        return true;
+    }
+
+    /**
+     * Reserve quantities of sale items, each unless less is available, journaling those granted with a single force to
+     * the disk.
+     *
+     * @param reservations the id of the sale item and the positive quantity of each reservation, in order.
+     * @return whether each was reserved, in the same order.
+     * @throws UncheckedIOException if the reservations cannot be journaled; none is granted then.
+     */
+    public List<Boolean> reserveAll(List<Map.Entry<Long, Integer>> reservations) {
+        reconcileOnce();
+        List<Boolean> reserved = new ArrayList<>(reservations.size());
+        List<Map.Entry<Long, Integer>> granted = new ArrayList<>();
+        List<Stock> grantedStocks = new ArrayList<>();
+        List<Integer> remaining = new ArrayList<>();
+        reservations.stream().map(Map.Entry::getKey).distinct().forEach(this::load);
+        reservationTimer.record(() -> {
+            journalLock.readLock().lock();
+            try {
+                for (Map.Entry<Long, Integer> reservation : reservations) {
+                    Stock stock = stocks.get(reservation.getKey());
+                    int left = stock == null ? -1 : stock.take(reservation.getValue());
+                    if (left < 0) {
+                        rejectedCounter.increment();
+                        reserved.add(false);
+                    } else {
+                        reserved.add(true);
+                        granted.add(reservation);
+                        grantedStocks.add(stock);
+                        remaining.add(left);
+                    }
+                }
+                try {
+                    journal.appendAll(granted);
+                } catch (IOException e) {
+                    for (int i = 0; i < granted.size(); i++) {
+                        grantedStocks.get(i).available.addAndGet(granted.get(i).getValue());
+                    }
+                    throw new UncheckedIOException(e);
+                }
+                for (int i = 0; i < granted.size(); i++) {
+                    grantedStocks.get(i).unflushed.addAndGet(granted.get(i).getValue());
+                }
+                if (!granted.isEmpty()) {
+                    unflushedSince.compareAndSet(NONE, System.nanoTime());
+                }
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        });
+        for (int i = 0; i < granted.size(); i++) {
+            Long saleItemId = granted.get(i).getKey();
+            int quantity = granted.get(i).getValue();
+            int lowStockThreshold = lowStockThreshold(saleItemId);
+            boolean fellLow = remaining.get(i) + quantity > lowStockThreshold && remaining.get(i) <= lowStockThreshold;
+            stockChanged(saleItemId, fellLow, remaining.get(i), lowStockThreshold);
+        }
+        return reserved;
+    }
+
+    /**
+     * Release a quantity of a sale item reserved by {@link #reserve(Long, int)}.
+     *
+     * @param saleItemId the id of the sale item.
+     * @param quantity the reserved quantity.
+     * @throws UncheckedIOException if the release cannot be journaled; the quantity stays reserved then.
+     */
+    public void release(Long saleItemId, int quantity) {
+        int available;
+        journalLock.readLock().lock();
+        try {
+            Stock stock = stocks.get(saleItemId);
+            if (stock == null) {
+                // Deleted in the meantime
+                return;
+            }
+            journal.append(saleItemId, -quantity);
+            stock.unflushed.addAndGet(-quantity);
+            available = stock.available.addAndGet(quantity);
+            unflushedSince.compareAndSet(NONE, System.nanoTime());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        // Never falls low by rising
+        stockChanged(saleItemId, false, available, NO_THRESHOLD);
+    }
+
+    /**
+     * Get the quantity of a sale item available for reservation, loading it from the database if it was never
+     * reserved.
+     *
+     * @param saleItemId the id of the sale item.
+     * @return the available quantity, empty if the sale item does not exist.
+     */
+    public Optional<Integer> getAvailable(Long saleItemId) {
+        reconcileOnce();
+        load(saleItemId);
+        journalLock.readLock().lock();
+        try {
+            return Optional.ofNullable(stocks.get(saleItemId)).map(stock -> stock.available.get());
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether a sale item is on flash sale, loading it from the database if it was never reserved.
+     *
+     * @param saleItemId the id of the sale item.
+     * @return {@code true} if its checkouts must go through the {@link AdmissionService}, {@code false} otherwise or
+     * if the sale item does not exist.
+     */
+    public boolean isFlashSale(Long saleItemId) {
+        reconcileOnce();
+        load(saleItemId);
+        journalLock.readLock().lock();
+        try {
+            Stock stock = stocks.get(saleItemId);
+            return stock != null && stock.flashSale;
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the available quantities of the sale items loaded in memory, which are all those reserved or released
+     * since startup. The quantities of the others are those of the database.
+     *
+     * @return the available quantities, by sale item id.
+     */
+    public SortedMap<Long, Integer> getAvailableQuantities() {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        stocks.forEach((saleItemId, stock) -> quantities.put(saleItemId, stock.available.get()));
+        return quantities;
+    }
+
+    /**
+     * Reload the available quantity of a sale item once the current transaction, if any, has committed, after its
+     * quantity, low-stock threshold or flash sale flag has been written other than by this service, or it has been
+     * deleted. The reservations not written to the database yet are taken from the new quantity.
+     *
+     * @param saleItemId the id of the sale item.
+     */
+    public void quantityChanged(Long saleItemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        reload(saleItemId);
+                    }
+                }
+            );
+        } else {
+            reload(saleItemId);
+        }
+    }
+
+    /**
+     * Write the quantities reserved since the last flush to the database, in a single transaction. They are kept for
+     * the next flush if it fails.
+     */
+    @Scheduled(fixedDelayString = "${application.inventory.flush-interval:PT1S}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (journal.hasAppended()) {
+                flushTimer.record(this::writeBehind);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private void writeBehind() {
+        long segment;
+        long since;
+        Map<Long, Integer> quantities = new HashMap<>();
+        journalLock.writeLock().lock();
+        try {
+            segment = journal.rotate();
+            stocks.forEach((saleItemId, stock) -> {
+                int quantity = stock.unflushed.getAndSet(0);
+                if (quantity != 0) {
+                    quantities.put(saleItemId, quantity);
+                }
+            });
+            since = unflushedSince.getAndSet(NONE);
+        } catch (IOException e) {
+            log.error("Cannot rotate the inventory journal, the reserved stock is not written to the database", e);
+            return;
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(quantities, segment));
+        } catch (RuntimeException e) {
+            log.error("Cannot write the reserved stock to the database, retrying with the next flush", e);
+            quantities.forEach((saleItemId, quantity) -> {
+                Stock stock = stocks.get(saleItemId);
+                if (stock != null) {
+                    stock.unflushed.addAndGet(quantity);
+                }
+            });
+            // Older than any reservation made since the drain
+            unflushedSince.set(since);
+            return;
+        }
+        log.debug("Wrote the reserved stock of {} SaleItems up to inventory journal segment {}", quantities.size(), segment);
+
+        try {
+            journal.deleteUpTo(segment);
+        } catch (IOException e) {
+            // Harmless: the segments up to the checkpoint are never replayed
+            log.warn("Cannot delete the written inventory journal segments up to {}", segment, e);
+        }
+        catalogSnapshotService.invalidate();
+    }
+
+    private void reconcileOnce() {
+        if (!reconciled) {
+            synchronized (flushLock) {
+                if (!reconciled) {
+                    reconcile();
+                    reconciled = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write the reservations journaled before the last shutdown to the database, and start a new journal segment.
+     */
+    private void reconcile() {
+        try {
+            long checkpoint = inventoryCheckpointRepository.findById(InventoryCheckpoint.ID).map(InventoryCheckpoint::getSegment).orElse(0L);
+            long last = checkpoint;
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (Long segment : journal.segments()) {
+                if (segment > checkpoint) {
+                    journal.read(segment).forEach((saleItemId, quantity) -> quantities.merge(saleItemId, quantity, Integer::sum));
+                }
+                last = Math.max(last, segment);
+            }
+            if (last > checkpoint) {
+                long replayed = last;
+                transactionTemplate.executeWithoutResult(status -> write(quantities, replayed));
+                log.info("Replayed the inventory journal up to segment {} : {} SaleItems", last, quantities.size());
+            }
+            journal.deleteUpTo(last);
+            journal.start(last + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Map<Long, Integer> quantities, long segment) {
+        quantities.forEach(saleItemRepository::subtractQuantity);
+        inventoryCheckpointRepository.save(new InventoryCheckpoint().id(InventoryCheckpoint.ID).segment(segment));
+    }
+
+    private void reload(Long saleItemId) {
+        boolean fellLow = false;
+        int available = 0;
+        int lowStockThreshold = NO_THRESHOLD;
+        synchronized (flushLock) {
+            journalLock.writeLock().lock();
+            try {
+                reloads.incrementAndGet();
+                Stock stock = stocks.get(saleItemId);
+                if (stock != null) {
+                    SaleItemRepository.StockLevel stockLevel = saleItemRepository.findStockLevelById(saleItemId).orElse(null);
+                    if (stockLevel == null) {
+                        stocks.remove(saleItemId);
+                    } else {
+                        available = stockLevel.getQuantity() - stock.unflushed.get();
+                        lowStockThreshold = toThreshold(stockLevel.getLowStockThreshold());
+                        // Also low when the threshold is raised to the available quantity or above
+                        boolean wasLow = stock.available.get() <= stock.lowStockThreshold;
+                        stock.available.set(available);
+                        stock.lowStockThreshold = lowStockThreshold;
+                        stock.flashSale = stockLevel.isFlashSale();
+                        fellLow = !wasLow && available <= lowStockThreshold;
+                    }
+                }
+            } finally {
+                journalLock.writeLock().unlock();
+            }
+        }
+        stockChanged(saleItemId, fellLow, available, lowStockThreshold);
+    }
+
+    private void stockChanged(Long saleItemId, boolean fellLow, int available, int lowStockThreshold) {
+        applicationEventPublisher.publishEvent(new StockChangedEvent(saleItemId));
+        if (fellLow) {
+            applicationEventPublisher.publishEvent(new LowStockEvent(saleItemId, available, lowStockThreshold));
+        }
+    }
+
+    /**
+     * Load the stock of a sale item from the database unless it is in memory already. The query is made outside the map
+     * and the {@link #journalLock}, so that neither the other sale items of its bin nor a flush wait for it; the stock
+     * is loaded again if a sale item was reloaded meanwhile, as it may have been read from before the change.
+     */
+    private void load(Long saleItemId) {
+        while (!stocks.containsKey(saleItemId)) {
+            long reloaded = reloads.get();
+            Stock stock = saleItemRepository
+                .findStockLevelById(saleItemId)
+                .map(stockLevel ->
+                    new Stock(stockLevel.getQuantity(), toThreshold(stockLevel.getLowStockThreshold()), stockLevel.isFlashSale())
+                )
+                .orElse(null);
+            if (stock == null) {
+                return;
+            }
+            journalLock.readLock().lock();
+            try {
+                if (reloads.get() == reloaded) {
+                    stocks.putIfAbsent(saleItemId, stock);
+                }
+            } finally {
+                journalLock.readLock().unlock();
+            }
+        }
+    }
+
+    private int lowStockThreshold(Long saleItemId) {
+        Stock stock = stocks.get(saleItemId);
+        return stock == null ? NO_THRESHOLD : stock.lowStockThreshold;
+    }
+
+    private static int toThreshold(Integer lowStockThreshold) {
+        return lowStockThreshold == null ? NO_THRESHOLD : lowStockThreshold;
+    }
+
+    private double flushLag() {
+        long since = unflushedSince.get();
+        return since == NONE ? 0 : System.nanoTime() - since;
+    }
+
+    private static final class Stock {
+
+        private final AtomicInteger available;
+
+        /**
+         * Quantity reserved since the last flush, negative when more was released.
+         */
+        private final AtomicInteger unflushed = new AtomicInteger();
+
+        private volatile int lowStockThreshold;
+
+        private volatile boolean flashSale;
+
+        private Stock(int available, int lowStockThreshold, boolean flashSale) {
+            this.available = new AtomicInteger(available);
+            this.lowStockThreshold = lowStockThreshold;
+            this.flashSale = flashSale;
+        }
+
+        /**
+         * @return the quantity left once taken, or {@code -1} if less is available.
+         */
+        private int take(int quantity) {
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return -1;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            return current - quantity;
+        }
+    }
+}
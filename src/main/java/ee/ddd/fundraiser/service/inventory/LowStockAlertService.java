@@ -0,0 +1,127 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.User;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.UserRepository;
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import ee.ddd.fundraiser.service.MailService;
+import ee.ddd.fundraiser.service.dto.LowStockItemDTO;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service alerting the administrators by email when sale items run low.
+ * <p>
+ * The {@link LowStockEvent}s are only collected, one per sale item, and sent together in a single digest once none
+ * came for {@code application.inventory.low-stock.quiet-period}, or at the latest
+ * {@code application.inventory.low-stock.max-delay} after the first one: a rush selling out several sale items sends
+ * one email. The sale items restocked in the meantime are left out.
+ */
+@Service
+public class LowStockAlertService {
+
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(LowStockAlertService.class);
+
+    private final InventoryService inventoryService;
+
+    private final SaleItemRepository saleItemRepository;
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final long quietPeriod;
+
+    private final long maxDelay;
+
+    /**
+     * Ids of the sale items whose alert has not been sent yet.
+     */
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * {@link System#nanoTime()} of the first alert not sent yet, or {@link #NONE}.
+     */
+    private final AtomicLong firstPendingAt = new AtomicLong(NONE);
+
+    /**
+     * {@link System#nanoTime()} of the last alert.
+     */
+    private volatile long lastPendingAt;
+
+    public LowStockAlertService(
+        InventoryService inventoryService,
+        SaleItemRepository saleItemRepository,
+        UserRepository userRepository,
+        MailService mailService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.inventoryService = inventoryService;
+        this.saleItemRepository = saleItemRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.quietPeriod = applicationProperties.getInventory().getLowStock().getQuietPeriod().toNanos();
+        this.maxDelay = applicationProperties.getInventory().getLowStock().getMaxDelay().toNanos();
+    }
+
+    @EventListener
+    public void onLowStock(LowStockEvent event) {
+        long now = System.nanoTime();
+        log.debug("SaleItem {} runs low: {} left", event.getSaleItemId(), event.getAvailable());
+        pending.add(event.getSaleItemId());
+        lastPendingAt = now;
+        firstPendingAt.compareAndSet(NONE, now);
+    }
+
+    /**
+     * Send the digest of the pending alerts, if the quiet period or the maximum delay has elapsed. Checked every
+     * quiet period, so a digest is sent one to two quiet periods after the last alert.
+     */
+    @Scheduled(fixedDelayString = "${application.inventory.low-stock.quiet-period:PT30S}")
+    public void sendDigest() {
+        long first = firstPendingAt.get();
+        long now = System.nanoTime();
+        if (first == NONE || (now - lastPendingAt < quietPeriod && now - first < maxDelay)) {
+            return;
+        }
+        firstPendingAt.set(NONE);
+        // Removed one by one, so that an alert coming meanwhile is either sent now or left for the next digest
+        List<Long> saleItemIds = new ArrayList<>(pending);
+        saleItemIds.forEach(pending::remove);
+        if (!pending.isEmpty()) {
+            firstPendingAt.compareAndSet(NONE, now);
+        }
+        if (saleItemIds.isEmpty()) {
+            return;
+        }
+
+        List<LowStockItemDTO> items = new ArrayList<>();
+        for (SaleItem saleItem : saleItemRepository.findAllById(saleItemIds)) {
+            Integer available = inventoryService.getAvailable(saleItem.getId()).orElse(null);
+            if (available != null && saleItem.getLowStockThreshold() != null && available <= saleItem.getLowStockThreshold()) {
+                items.add(new LowStockItemDTO(saleItem.getId(), saleItem.getName(), available, saleItem.getLowStockThreshold()));
+            }
+        }
+        if (items.isEmpty()) {
+            log.debug("The {} SaleItems that ran low have been restocked or deleted", saleItemIds.size());
+            return;
+        }
+        items.sort(Comparator.comparing(LowStockItemDTO::getAvailable).thenComparing(LowStockItemDTO::getSaleItemId));
+        List<User> admins = userRepository.findAllByActivatedIsTrueAndAuthoritiesName(AuthoritiesConstants.ADMIN);
+        log.info("Alerting {} administrators that {} SaleItems run low", admins.size(), items.size());
+        admins.forEach(admin -> mailService.sendLowStockEmail(admin, items));
+    }
+}
@@ -0,0 +1,40 @@
+package ee.ddd.fundraiser.service.inventory;
+
+/**
+ * Event published by the {@link InventoryService} when the available quantity of a sale item falls to or below its
+ * low-stock threshold. It is published again only after the quantity has risen above the threshold.
+ * <p>
+ * It is published synchronously, by the thread reserving the stock, so listeners must not do more than taking note
+ * of it.
+ */
+public class LowStockEvent {
+
+    private final Long saleItemId;
+
+    private final int available;
+
+    private final int lowStockThreshold;
+
+    public LowStockEvent(Long saleItemId, int available, int lowStockThreshold) {
+        this.saleItemId = saleItemId;
+        this.available = available;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    @Override
+    public String toString() {
+        return "LowStockEvent{saleItemId=" + saleItemId + ", available=" + available + ", lowStockThreshold=" + lowStockThreshold + "}";
+    }
+}
@@ -0,0 +1,25 @@
+package ee.ddd.fundraiser.service.inventory;
+
+/**
+ * Event published by the {@link InventoryService} whenever the available quantity of a sale item changes.
+ * <p>
+ * It is published synchronously, by the thread reserving the stock, so listeners must not do more than taking note
+ * of it.
+ */
+public class StockChangedEvent {
+
+    private final Long saleItemId;
+
+    public StockChangedEvent(Long saleItemId) {
+        this.saleItemId = saleItemId;
+    }
+
+    public Long getSaleItemId() {
+        return saleItemId;
+    }
+
+    @Override
+    public String toString() {
+        return "StockChangedEvent{saleItemId=" + saleItemId + "}";
+    }
+}
@@ -0,0 +1,124 @@
+package ee.ddd.fundraiser.service.storage;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * {@link ImageStore} keeping every image in its own file, under {@code application.image.store.directory}.
+ * <p>
+ * A file is named after its hash, in two levels of directories named after the first four hex digits, so that no
+ * directory grows too large. Content is first written to a temporary file of the same directory tree and then moved
+ * into place atomically, so a file under its final name is always complete. Files are served as
+ * {@link FileSystemResource}s, which the web layer sends without copying them through the heap.
+ */
+@Service
+public class FileSystemImageStore implements ImageStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Logger log = LoggerFactory.getLogger(FileSystemImageStore.class);
+
+    private final Path directory;
+
+    public FileSystemImageStore(ApplicationProperties applicationProperties) {
+        this.directory = Path.of(applicationProperties.getImage().getStore().getDirectory()).toAbsolutePath();
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                new DigestInputStream(content, digest).transferTo(out);
+            }
+            String hash = String.format("%064x", new BigInteger(1, digest.digest()));
+            Path file = path(hash);
+            if (Files.exists(file)) {
+                // Keeps the image from being removed as an orphan while the new reference is being saved
+                Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+                log.debug("Image {} is already stored", hash);
+            } else {
+                Files.createDirectories(file.getParent());
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Stored image {}", hash);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    @Override
+    public Optional<Resource> find(String hash) {
+        Path file = path(hash);
+        return Files.isRegularFile(file) ? Optional.of(new FileSystemResource(file)) : Optional.empty();
+    }
+
+    @Override
+    public List<String> findAllStoredBefore(Instant instant) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.find(directory, 3, (file, attributes) -> attributes.isRegularFile())) {
+            return files
+                .filter(file -> HASH.matcher(file.getFileName().toString()).matches())
+                .filter(file -> lastModified(file).isBefore(instant))
+                .map(file -> file.getFileName().toString())
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        if (Files.deleteIfExists(path(hash))) {
+            log.debug("Deleted image {}", hash);
+        }
+    }
+
+    private Path path(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 image hash: " + hash);
+        }
+        return directory.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            // Removed in the meantime: never report it
+            return Instant.MAX;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ee.ddd.fundraiser.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.core.io.Resource;
+
+/**
+ * Content-addressed storage of image bytes.
+ * <p>
+ * Images are keyed by the lowercase hex SHA-256 of their content, so storing the same image twice keeps a single
+ * copy. Stored images are never modified, and are only removed once nothing refers to their hash anymore.
+ */
+public interface ImageStore {
+    /**
+     * Store the given content, unless an image with the same content is already stored.
+     *
+     * @param content the image bytes, read until the end but not closed.
+     * @return the SHA-256 of the content, which is the key of the stored image.
+     * @throws IOException if the content cannot be read or stored.
+     */
+    String store(InputStream content) throws IOException;
+
+    /**
+     * Get a stored image.
+     *
+     * @param hash the SHA-256 of the image.
+     * @return the image, or empty if it is not stored.
+     */
+    Optional<Resource> find(String hash);
+
+    /**
+     * Get the keys of the images last stored before the given instant.
+     *
+     * @param instant the instant.
+     * @return the SHA-256 of the images.
+     * @throws IOException if the store cannot be listed.
+     */
+    List<String> findAllStoredBefore(Instant instant) throws IOException;
+
+    /**
+     * Remove a stored image, if it exists.
+     *
+     * @param hash the SHA-256 of the image.
+     * @throws IOException if the image cannot be removed.
+     */
+    void delete(String hash) throws IOException;
+}
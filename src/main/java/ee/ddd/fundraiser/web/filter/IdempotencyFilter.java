@@ -0,0 +1,273 @@
+package ee.ddd.fundraiser.web.filter;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.security.SecurityUtils;
+import ee.ddd.fundraiser.service.IdempotencyService;
+import ee.ddd.fundraiser.service.IdempotentResponse;
+import ee.ddd.fundraiser.web.rest.errors.BadRequestAlertException;
+import ee.ddd.fundraiser.web.rest.errors.ConflictAlertException;
+import ee.ddd.fundraiser.web.rest.errors.UnprocessableEntityAlertException;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Filter running the {@code POST} requests sent with an {@code Idempotency-Key} header only once, however often they
+ * are retried.
+ * <p>
+ * The first successful response is kept by the {@link IdempotencyService} and replayed to the retries, which are
+ * marked by an {@code Idempotent-Replayed} header and never reach the controllers. Failed responses are not kept, so
+ * that the request can be retried with the same key. The key applies to the user, method and path it was sent with.
+ * A retry sent while the request is being processed gets {@code 409 (Conflict)}, as do its retries if it succeeded but
+ * its response could not be kept, until the key expires, and another request reusing the key
+ * {@code 422 (Unprocessable Entity)}. As the body of the request is read in memory, a body larger than
+ * {@code application.idempotency.max-request-size} gets {@code 400 (Bad Request)}.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final String ENTITY_NAME = "idempotency";
+
+    private static final Pattern KEY = Pattern.compile("[\\x21-\\x7e]{1,255}");
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private final IdempotencyService idempotencyService;
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    private final long maxRequestSize;
+
+    public IdempotencyFilter(
+        IdempotencyService idempotencyService,
+        HandlerExceptionResolver handlerExceptionResolver,
+        ApplicationProperties applicationProperties
+    ) {
+        this.idempotencyService = idempotencyService;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.maxRequestSize = applicationProperties.getIdempotency().getMaxRequestSize().toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY);
+        if (!KEY.matcher(idempotencyKey).matches()) {
+            reject(request, response, new BadRequestAlertException("Invalid Idempotency-Key", ENTITY_NAME, "idempotencykeyinvalid"));
+            return;
+        }
+        if (request.getContentLengthLong() > maxRequestSize) {
+            rejectTooLarge(request, response);
+            return;
+        }
+        String key = String.join(
+            " ",
+            SecurityUtils.getCurrentUserLogin().orElse(""),
+            request.getMethod(),
+            request.getRequestURI(),
+            idempotencyKey
+        );
+        if (!idempotencyService.acquire(key)) {
+            rejectInUse(request, response);
+            return;
+        }
+        try {
+            // Bounded, as the length is not always sent
+            byte[] requestBody = request.getInputStream().readNBytes(Math.toIntExact(maxRequestSize + 1));
+            if (requestBody.length > maxRequestSize) {
+                rejectTooLarge(request, response);
+                return;
+            }
+            Optional<IdempotentResponse> previousResponse = idempotencyService.find(key);
+            if (previousResponse.isPresent()) {
+                if (idempotencyService.isRetry(previousResponse.get(), requestBody)) {
+                    log.debug("Replaying the response to Idempotency-Key {}", idempotencyKey);
+                    replay(previousResponse.get(), response);
+                } else {
+                    reject(
+                        request,
+                        response,
+                        new UnprocessableEntityAlertException(
+                            "The Idempotency-Key was used by another request",
+                            ENTITY_NAME,
+                            "idempotencykeyreused"
+                        )
+                    );
+                }
+                return;
+            }
+            if (!idempotencyService.reserve(key, requestBody)) {
+                rejectInUse(request, response);
+                return;
+            }
+
+            // Headers already set belong to every response, not to this one
+            Set<String> outerHeaderNames = new HashSet<>(response.getHeaderNames());
+            ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+            filterChain.doFilter(new BufferedRequest(request, requestBody), cachingResponse);
+            if (HttpStatus.valueOf(cachingResponse.getStatus()).is2xxSuccessful()) {
+                try {
+                    idempotencyService.save(
+                        key,
+                        requestBody,
+                        cachingResponse.getStatus(),
+                        headers(cachingResponse, outerHeaderNames),
+                        cachingResponse.getContentAsByteArray()
+                    );
+                } catch (RuntimeException e) {
+                    // The request succeeded all the same: its retries will be turned away until the key expires
+                    log.warn("Cannot keep the response to Idempotency-Key {}", idempotencyKey, e);
+                }
+            } else {
+                try {
+                    idempotencyService.cancel(key);
+                } catch (RuntimeException e) {
+                    log.warn("Cannot give back Idempotency-Key {}", idempotencyKey, e);
+                }
+            }
+            cachingResponse.copyBodyToResponse();
+        } finally {
+            idempotencyService.release(key);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, Exception exception) {
+        handlerExceptionResolver.resolveException(request, response, null, exception);
+    }
+
+    private void rejectInUse(HttpServletRequest request, HttpServletResponse response) {
+        reject(
+            request,
+            response,
+            new ConflictAlertException("A request with this Idempotency-Key is being processed", ENTITY_NAME, "idempotencykeyinuse")
+        );
+    }
+
+    private void rejectTooLarge(HttpServletRequest request, HttpServletResponse response) {
+        reject(request, response, new BadRequestAlertException("The request is too large", ENTITY_NAME, "requesttoolarge"));
+    }
+
+    private static Map<String, List<String>> headers(HttpServletResponse response, Set<String> outerHeaderNames) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        }
+        for (String name : response.getHeaderNames()) {
+            if (
+                !outerHeaderNames.contains(name) &&
+                !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) &&
+                !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) &&
+                !HttpHeaders.SET_COOKIE.equalsIgnoreCase(name)
+            ) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private static void replay(IdempotentResponse previousResponse, HttpServletResponse response) throws IOException {
+        response.setStatus(previousResponse.getStatus());
+        previousResponse
+            .getHeaders()
+            .forEach((name, values) -> {
+                response.setHeader(name, values.get(0));
+                values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+            });
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(previousResponse.getBody().length);
+        response.getOutputStream().write(previousResponse.getBody());
+    }
+
+    /**
+     * Request whose body has already been read.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private BufferedRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // All of it is available at once
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.ISO_8859_1 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Servlet filters.
+ */
+package ee.ddd.fundraiser.web.filter;
@@ -0,0 +1,40 @@
+package ee.ddd.fundraiser.web.rest;
+
+import ee.ddd.fundraiser.service.CheckoutService;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.ReceiptDTO;
+import javax.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for selling sale items.
+ */
+@RestController
+@RequestMapping("/api")
+public class CheckoutResource {
+
+    private final Logger log = LoggerFactory.getLogger(CheckoutResource.class);
+
+    private final CheckoutService checkoutService;
+
+    public CheckoutResource(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    /**
+     * {@code POST  /checkout} : sell the sale items of a basket, taking them out of stock.
+     *
+     * @param checkout the basket.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the receipt,
+     * or with status {@code 400 (Bad Request)} if the basket is not valid,
+     * or with status {@code 409 (Conflict)} if less than asked is left of some sale items, in which case nothing is sold.
+     */
+    @PostMapping("/checkout")
+    public ResponseEntity<ReceiptDTO> checkout(@Valid @RequestBody CheckoutDTO checkout) {
+        log.debug("REST request to checkout : {}", checkout);
+        return ResponseEntity.ok(checkoutService.checkout(checkout));
+    }
+}
@@ -0,0 +1,122 @@
+package ee.ddd.fundraiser.web.rest;
+
+import ee.ddd.fundraiser.domain.enumeration.RollupDimension;
+import ee.ddd.fundraiser.service.FundraiserTotalService;
+import ee.ddd.fundraiser.service.SaleRollupService;
+import ee.ddd.fundraiser.service.dto.FundraiserTotalsDTO;
+import ee.ddd.fundraiser.service.dto.SalesSeriesDTO;
+import ee.ddd.fundraiser.web.rest.errors.BadRequestAlertException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the results of the fundraiser.
+ */
+@RestController
+@RequestMapping("/api/fundraiser")
+public class FundraiserResource {
+
+    private static final String ENTITY_NAME = "fundraiser";
+
+    /**
+     * Largest number of intervals a sales series is read with.
+     */
+    private static final long MAX_POINTS = 2000;
+
+    private final Logger log = LoggerFactory.getLogger(FundraiserResource.class);
+
+    private final FundraiserTotalService fundraiserTotalService;
+
+    private final SaleRollupService saleRollupService;
+
+    public FundraiserResource(FundraiserTotalService fundraiserTotalService, SaleRollupService saleRollupService) {
+        this.fundraiserTotalService = fundraiserTotalService;
+        this.saleRollupService = saleRollupService;
+    }
+
+    /**
+     * {@code GET  /totals} : get the totals of the sales, overall and by sale item, item type and hour.
+     * <p>
+     * The totals are maintained by the checkouts, so this never reads the sales themselves.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the totals.
+     */
+    @GetMapping("/totals")
+    public ResponseEntity<FundraiserTotalsDTO> getTotals() {
+        log.debug("REST request to get the fundraiser totals");
+        return ResponseEntity.ok(fundraiserTotalService.getTotals());
+    }
+
+    /**
+     * {@code GET  /sales/items} : get the sales by sale item over a time range.
+     *
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @param interval the ISO-8601 duration the sales are added up by, a whole number of minutes; by default the finest
+     * giving a few hundred intervals.
+     * @param key the id of a sale item to get the sales of, instead of all of them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the series of each sale item with sales,
+     * or with status {@code 400 (Bad Request)} if the range or interval are invalid.
+     */
+    @GetMapping("/sales/items")
+    public ResponseEntity<List<SalesSeriesDTO>> getItemSales(
+        @RequestParam Instant from,
+        @RequestParam Instant to,
+        @RequestParam(required = false) String interval,
+        @RequestParam(required = false) String key
+    ) {
+        log.debug("REST request to get the sales by item from {} to {} every {}", from, to, interval);
+        return ResponseEntity.ok(getSales(RollupDimension.ITEM, key, from, to, interval));
+    }
+
+    /**
+     * {@code GET  /sales/types} : get the sales by item type over a time range.
+     *
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @param interval the ISO-8601 duration the sales are added up by, a whole number of minutes; by default the finest
+     * giving a few hundred intervals.
+     * @param key the item type to get the sales of, instead of all of them.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the series of each item type with sales,
+     * or with status {@code 400 (Bad Request)} if the range or interval are invalid.
+     */
+    @GetMapping("/sales/types")
+    public ResponseEntity<List<SalesSeriesDTO>> getTypeSales(
+        @RequestParam Instant from,
+        @RequestParam Instant to,
+        @RequestParam(required = false) String interval,
+        @RequestParam(required = false) String key
+    ) {
+        log.debug("REST request to get the sales by type from {} to {} every {}", from, to, interval);
+        return ResponseEntity.ok(getSales(RollupDimension.TYPE, key, from, to, interval));
+    }
+
+    private List<SalesSeriesDTO> getSales(RollupDimension dimension, String key, Instant from, Instant to, String interval) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("The range must end after it starts", ENTITY_NAME, "rangeinvalid");
+        }
+        Duration duration;
+        if (interval == null) {
+            duration = saleRollupService.getDefaultInterval(from, to);
+        } else {
+            try {
+                duration = Duration.parse(interval);
+            } catch (DateTimeParseException e) {
+                throw new BadRequestAlertException("Invalid interval", ENTITY_NAME, "intervalinvalid");
+            }
+            if (duration.isNegative() || duration.isZero() || duration.toSeconds() % 60 != 0 || duration.toNanosPart() != 0) {
+                throw new BadRequestAlertException("The interval must be a whole number of minutes", ENTITY_NAME, "intervalinvalid");
+            }
+        }
+        if (Duration.between(from, to).dividedBy(duration) >= MAX_POINTS) {
+            throw new BadRequestAlertException("Too many intervals in the range", ENTITY_NAME, "toomanyintervals");
+        }
+        return saleRollupService.getSales(dimension, key, from, to, duration);
+    }
+}
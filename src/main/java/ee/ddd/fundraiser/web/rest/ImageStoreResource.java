@@ -0,0 +1,38 @@
+package ee.ddd.fundraiser.web.rest;
+
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import ee.ddd.fundraiser.service.ImageStoreMaintenanceService;
+import ee.ddd.fundraiser.service.dto.ImageStoreMigrationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for maintaining the image store.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class ImageStoreResource {
+
+    private final Logger log = LoggerFactory.getLogger(ImageStoreResource.class);
+
+    private final ImageStoreMaintenanceService imageStoreMaintenanceService;
+
+    public ImageStoreResource(ImageStoreMaintenanceService imageStoreMaintenanceService) {
+        this.imageStoreMaintenanceService = imageStoreMaintenanceService;
+    }
+
+    /**
+     * {@code POST  /admin/image-store/migration} : move the images still stored in the database to the image store.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of the migration.
+     */
+    @PostMapping("/image-store/migration")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ImageStoreMigrationDTO> migrateDatabaseImages() {
+        log.debug("REST request to move the database images to the image store");
+        return ResponseEntity.ok(imageStoreMaintenanceService.migrateDatabaseImages());
+    }
+}
@@ -0,0 +1,40 @@
+package ee.ddd.fundraiser.web.rest;
+
+import ee.ddd.fundraiser.web.sse.LiveUpdateBroadcaster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller pushing the live stock and fundraiser totals.
+ */
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateResource {
+
+    private final Logger log = LoggerFactory.getLogger(LiveUpdateResource.class);
+
+    private final LiveUpdateBroadcaster liveUpdateBroadcaster;
+
+    public LiveUpdateResource(LiveUpdateBroadcaster liveUpdateBroadcaster) {
+        this.liveUpdateBroadcaster = liveUpdateBroadcaster;
+    }
+
+    /**
+     * {@code GET  /live} : subscribe to the live updates, as Server-Sent Events.
+     * <p>
+     * A {@code stock} event holds the available quantities of the sale items that changed, by id, and a
+     * {@code totals} event the overall total of the fundraiser. The first events hold the current stock of the sale
+     * items sold since startup and the current total. The connection is closed after
+     * {@code application.live.connection-timeout}, or earlier if the client does not keep up, and should be reopened.
+     *
+     * @return the stream of events.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe() {
+        log.debug("REST request to subscribe to the live updates");
+        return liveUpdateBroadcaster.subscribe();
+    }
+}
@@ -0,0 +1,86 @@
+package ee.ddd.fundraiser.web.rest;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.service.SaleBatchService;
+import ee.ddd.fundraiser.service.dto.SaleBatchResultDTO;
+import ee.ddd.fundraiser.web.rest.errors.BadRequestAlertException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for uploading the sales made by tills while offline.
+ */
+@RestController
+@RequestMapping("/api/sales")
+public class SaleBatchResource {
+
+    private static final String ENTITY_NAME = "saleBatch";
+
+    private final Logger log = LoggerFactory.getLogger(SaleBatchResource.class);
+
+    private final SaleBatchService saleBatchService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public SaleBatchResource(SaleBatchService saleBatchService, ApplicationProperties applicationProperties) {
+        this.saleBatchService = saleBatchService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code POST  /sales/batch} : record a batch of till sales.
+     * <p>
+     * The body holds one sale per line, as JSON (NDJSON), and may be sent with {@code Content-Encoding: gzip}. Each
+     * sale is identified by its {@code till} and its {@code sequence} number there, so the batch can be uploaded again
+     * until its response is received: the sales already recorded are counted as duplicates.
+     *
+     * @param contentEncoding the encoding of the body, {@code gzip} or none.
+     * @param body the body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body how many sales were recorded and
+     * the lines that could not be, such as sales of sale items not left in stock,
+     * or with status {@code 400 (Bad Request)} if the body cannot be decoded or is too large.
+     * @throws IOException if the body cannot be read.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SaleBatchResultDTO> uploadBatch(
+        @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+        InputStream body
+    ) throws IOException {
+        log.debug("REST request to upload a batch of till sales, encoded {}", contentEncoding);
+        long maxSize = applicationProperties.getSales().getMaxBatchSize().toBytes();
+        byte[] content;
+        try (InputStream decoded = decode(contentEncoding, body)) {
+            // Bounded once decompressed
+            content = decoded.readNBytes(Math.toIntExact(maxSize + 1));
+        } catch (ZipException | EOFException e) {
+            throw new BadRequestAlertException("The batch is not valid gzip", ENTITY_NAME, "encodinginvalid");
+        }
+        if (content.length > maxSize) {
+            throw new BadRequestAlertException("The batch is too large", ENTITY_NAME, "batchtoolarge");
+        }
+        List<String> lines = new String(content, StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        return ResponseEntity.ok(saleBatchService.upload(lines));
+    }
+
+    private static InputStream decode(String contentEncoding, InputStream body) throws IOException {
+        if (contentEncoding == null || "identity".equalsIgnoreCase(contentEncoding)) {
+            return body;
+        }
+        if ("gzip".equalsIgnoreCase(contentEncoding)) {
+            return new GZIPInputStream(body);
+        }
+        throw new BadRequestAlertException("Unsupported Content-Encoding " + contentEncoding, ENTITY_NAME, "encodingunsupported");
+    }
+}
@@ -1,25 +1,53 @@
 package ee.ddd.fundraiser.web.rest;
 
+import ee.ddd.fundraiser.config.ApplicationProperties;
 import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleItemImageRendition;
 import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import ee.ddd.fundraiser.service.CatalogSnapshot;
+import ee.ddd.fundraiser.service.CatalogSnapshotService;
+import ee.ddd.fundraiser.service.SaleItemImageRenditionService;
+import ee.ddd.fundraiser.service.SaleItemQueryService;
+import ee.ddd.fundraiser.service.SaleItemService;
+import ee.ddd.fundraiser.service.SaleItemSummaryCursor;
+import ee.ddd.fundraiser.service.criteria.SaleItemCriteria;
+import ee.ddd.fundraiser.service.dto.ImageRenditionProgressDTO;
+import ee.ddd.fundraiser.service.dto.SaleItemSummaryDTO;
 import ee.ddd.fundraiser.web.rest.errors.BadRequestAlertException;
+import ee.ddd.fundraiser.web.rest.errors.PreconditionFailedAlertException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -30,20 +58,44 @@ import tech.jhipster.web.util.ResponseUtil;
  */
 @RestController
 @RequestMapping("/api")
-@Transactional
 public class SaleItemResource {
 
     private final Logger log = LoggerFactory.getLogger(SaleItemResource.class);
 
     private static final String ENTITY_NAME = "saleItem";
 
+    private static final String IMMUTABLE_IMAGE_CACHE_CONTROL =
+        CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable";
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
+    private final SaleItemService saleItemService;
+
+    private final SaleItemQueryService saleItemQueryService;
+
+    private final SaleItemImageRenditionService saleItemImageRenditionService;
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
     private final SaleItemRepository saleItemRepository;
 
-    public SaleItemResource(SaleItemRepository saleItemRepository) {
+    private final ApplicationProperties applicationProperties;
+
+    public SaleItemResource(
+        SaleItemService saleItemService,
+        SaleItemQueryService saleItemQueryService,
+        SaleItemImageRenditionService saleItemImageRenditionService,
+        CatalogSnapshotService catalogSnapshotService,
+        SaleItemRepository saleItemRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.saleItemService = saleItemService;
+        this.saleItemQueryService = saleItemQueryService;
+        this.saleItemImageRenditionService = saleItemImageRenditionService;
+        this.catalogSnapshotService = catalogSnapshotService;
         this.saleItemRepository = saleItemRepository;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -59,7 +111,7 @@ public class SaleItemResource {
         if (saleItem.getId() != null) {
             throw new BadRequestAlertException("A new saleItem cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        SaleItem result = saleItemRepository.save(saleItem);
+        SaleItem result = saleItemService.save(saleItem);
         return ResponseEntity
             .created(new URI("/api/sale-items/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
@@ -68,17 +120,23 @@ public class SaleItemResource {
 
     /**
      * {@code PUT  /sale-items/:id} : Updates an existing saleItem.
+     * <p>
+     * The update only applies to the version given by the {@code If-Match} header or else by the saleItem, if any.
      *
      * @param id the id of the saleItem to save.
+     * @param ifMatch the ETags of the versions the update applies to.
      * @param saleItem the saleItem to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleItem,
      * or with status {@code 400 (Bad Request)} if the saleItem is not valid,
+     * or with status {@code 409 (Conflict)} if the version of the saleItem is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the saleItem does not match {@code If-Match} anymore,
      * or with status {@code 500 (Internal Server Error)} if the saleItem couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/sale-items/{id}")
     public ResponseEntity<SaleItem> updateSaleItem(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @Valid @RequestBody SaleItem saleItem
     ) throws URISyntaxException {
         log.debug("REST request to update SaleItem : {}, {}", id, saleItem);
@@ -89,31 +147,40 @@ public class SaleItemResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!saleItemRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = saleItemRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        checkIfMatch(ifMatch, version, saleItem);
 
-        SaleItem result = saleItemRepository.save(saleItem);
+        SaleItem result = updateIfMatch(ifMatch, () -> saleItemService.update(saleItem));
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleItem.getId().toString()))
+            .eTag(versionETag(result.getVersion()))
             .body(result);
     }
 
     /**
      * {@code PATCH  /sale-items/:id} : Partial updates given fields of an existing saleItem, field will ignore if it is null
      *
+     * <p>
+     * The update only applies to the version given by the {@code If-Match} header or else by the saleItem, if any.
+     *
      * @param id the id of the saleItem to save.
+     * @param ifMatch the ETags of the versions the update applies to.
      * @param saleItem the saleItem to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleItem,
      * or with status {@code 400 (Bad Request)} if the saleItem is not valid,
      * or with status {@code 404 (Not Found)} if the saleItem is not found,
+     * or with status {@code 409 (Conflict)} if the version of the saleItem is outdated,
+     * or with status {@code 412 (Precondition Failed)} if the saleItem does not match {@code If-Match} anymore,
      * or with status {@code 500 (Internal Server Error)} if the saleItem couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/sale-items/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<SaleItem> partialUpdateSaleItem(
         @PathVariable(value = "id", required = false) final Long id,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
         @NotNull @RequestBody SaleItem saleItem
     ) throws URISyntaxException {
         log.debug("REST request to partial update SaleItem partially : {}, {}", id, saleItem);
@@ -124,67 +191,350 @@ public class SaleItemResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!saleItemRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        Optional<SaleItem> result = saleItemRepository
-            .findById(saleItem.getId())
-            .map(existingSaleItem -> {
-                if (saleItem.getName() != null) {
-                    existingSaleItem.setName(saleItem.getName());
-                }
-                if (saleItem.getPrice() != null) {
-                    existingSaleItem.setPrice(saleItem.getPrice());
-                }
-                if (saleItem.getQuantity() != null) {
-                    existingSaleItem.setQuantity(saleItem.getQuantity());
-                }
-                if (saleItem.getType() != null) {
-                    existingSaleItem.setType(saleItem.getType());
-                }
-                if (saleItem.getImage() != null) {
-                    existingSaleItem.setImage(saleItem.getImage());
-                }
-                if (saleItem.getImageContentType() != null) {
-                    existingSaleItem.setImageContentType(saleItem.getImageContentType());
-                }
-
-                return existingSaleItem;
-            })
-            .map(saleItemRepository::save);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleItem.getId().toString())
-        );
+        Long version = saleItemRepository
+            .findVersionById(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        checkIfMatch(ifMatch, version, saleItem);
+
+        Optional<SaleItem> result = updateIfMatch(ifMatch, () -> saleItemService.partialUpdate(saleItem));
+
+        HttpHeaders headers = HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, saleItem.getId().toString());
+        result.ifPresent(updated -> headers.setETag(versionETag(updated.getVersion())));
+        return ResponseUtil.wrapOrNotFound(result, headers);
+    }
+
+    /**
+     * {@code PUT  /sale-items/:id/image} : Replaces the image of an existing saleItem with an uploaded file.
+     * <p>
+     * The file is sent as the {@code file} part of a {@code multipart/form-data} request, so it is neither base64 encoded
+     * nor parsed by Jackson. It is spooled to disk while the request is parsed and then streamed to the image store.
+     *
+     * @param id the id of the saleItem whose image to replace.
+     * @param file the image file.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated saleItem,
+     * or with status {@code 400 (Bad Request)} if the file is empty, too large or not an image,
+     * or with status {@code 404 (Not Found)} if the saleItem is not found.
+     * @throws IOException if the file cannot be read.
+     */
+    @PutMapping(value = "/sale-items/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<SaleItem> uploadSaleItemImage(@PathVariable Long id, @RequestPart("file") MultipartFile file) throws IOException {
+        log.debug("REST request to upload the image of SaleItem : {}, {} bytes", id, file.getSize());
+        if (file.isEmpty()) {
+            throw new BadRequestAlertException("Image is empty", ENTITY_NAME, "imageempty");
+        }
+        if (file.getSize() > applicationProperties.getImage().getMaxSize().toBytes()) {
+            throw new BadRequestAlertException("Image is too large", ENTITY_NAME, "imagetoolarge");
+        }
+        String contentType = file.getContentType();
+        if (contentType == null || !contentType.startsWith("image/")) {
+            throw new BadRequestAlertException("File is not an image", ENTITY_NAME, "imagecontenttype");
+        }
+
+        Optional<SaleItem> result;
+        try (InputStream content = file.getInputStream()) {
+            result = saleItemService.saveImage(id, contentType, content);
+        }
+        return ResponseUtil.wrapOrNotFound(result, HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, id.toString()));
     }
 
     /**
-     * {@code GET  /sale-items} : get all the saleItems.
+     * {@code GET  /sale-items} : get all the saleItems, without their images.
+     * <p>
+     * The weak ETag of the page is derived from the ids and versions of its saleItems and from the total count.
      *
+     * @param criteria the criteria which the requested entities should match.
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of saleItems in body.
+     * @param webRequest the request, checked against the ETag.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of saleItems in body,
+     * or with status {@code 304 (Not Modified)} if the client has the current page.
      */
     @GetMapping("/sale-items")
-    public ResponseEntity<List<SaleItem>> getAllSaleItems(@org.springdoc.api.annotations.ParameterObject Pageable pageable) {
-        log.debug("REST request to get a page of SaleItems");
-        Page<SaleItem> page = saleItemRepository.findAll(pageable);
+    public ResponseEntity<List<SaleItem>> getAllSaleItems(
+        SaleItemCriteria criteria,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get SaleItems by criteria: {}", criteria);
+        Page<SaleItem> page = saleItemQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        String versions = page
+            .stream()
+            .map(saleItem -> saleItem.getId() + ":" + saleItem.getVersion())
+            .collect(Collectors.joining(",", page.getTotalElements() + ";", ""));
+        String eTag = "W/\"" + DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8)) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().headers(headers).eTag(eTag).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /sale-items/count} : count all the saleItems.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the count in body.
+     */
+    @GetMapping("/sale-items/count")
+    public ResponseEntity<Long> countSaleItems(SaleItemCriteria criteria) {
+        log.debug("REST request to count SaleItems by criteria: {}", criteria);
+        return ResponseEntity.ok().body(saleItemQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * {@code GET  /sale-items/summaries} : get all the saleItems as summaries, as listed by the shop.
+     * <p>
+     * With a {@code cursor}, the summaries following it are returned without counting them, and the {@code Link} header
+     * holds the {@code next} cursor while there are more. An empty cursor starts at the beginning, in the order given by
+     * {@code sort}; later cursors keep that order.
+     *
+     * @param cursor the cursor returned with the previous summaries, or empty for the first ones.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of saleItem summaries in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or the order is not valid.
+     */
+    @GetMapping("/sale-items/summaries")
+    public ResponseEntity<List<SaleItemSummaryDTO>> getAllSaleItemSummaries(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @org.springdoc.api.annotations.ParameterObject Pageable pageable
+    ) {
+        if (cursor != null) {
+            return getSaleItemSummarySlice(cursor, pageable);
+        }
+        log.debug("REST request to get a page of SaleItem summaries");
+        Page<SaleItemSummaryDTO> page = saleItemService.findAllSummaries(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    private ResponseEntity<List<SaleItemSummaryDTO>> getSaleItemSummarySlice(String cursor, Pageable pageable) {
+        log.debug("REST request to get a slice of SaleItem summaries after : {}", cursor);
+        SaleItemSummaryCursor position;
+        try {
+            position = cursor.isEmpty() ? SaleItemSummaryCursor.first(pageable.getSort()) : SaleItemSummaryCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<SaleItemSummaryDTO> slice = saleItemService.findSummarySlice(position, pageable.getPageSize());
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            String next = position.after(slice.getContent().get(slice.getNumberOfElements() - 1)).encode();
+            String uri = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .replaceQueryParam("cursor", next)
+                .replaceQueryParam("page")
+                .replaceQueryParam("sort")
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + uri + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
     /**
-     * {@code GET  /sale-items/:id} : get the "id" saleItem.
+     * {@code GET  /sale-items/catalog} : get the summaries of all the saleItems, ordered by id.
+     * <p>
+     * The response is copied from the current {@link CatalogSnapshot}, gzipped when the client accepts it, and carries
+     * the version of the snapshot as its ETag.
+     *
+     * @param acceptEncoding the content codings the client accepts.
+     * @param webRequest the request, checked against the ETag.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the JSON list of saleItem summaries in body,
+     * or with status {@code 304 (Not Modified)} if the client has the current version.
+     */
+    @GetMapping("/sale-items/catalog")
+    public ResponseEntity<byte[]> getSaleItemCatalog(
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get the SaleItem catalog");
+        CatalogSnapshot snapshot = catalogSnapshotService.getSnapshot();
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // The gzipped bytes are another representation, so they need their own strong ETag
+        String eTag = "\"" + snapshot.getVersion() + (gzip ? "-gzip\"" : "\"");
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity
+            .ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzippedJson());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    /**
+     * {@code GET  /sale-items/:id} : get the "id" saleItem, without its image.
+     *
+     * <p>
+     * The weak ETag of the saleItem is its version.
      *
      * @param id the id of the saleItem to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saleItem, or with status {@code 404 (Not Found)}.
+     * @param webRequest the request, checked against the ETag.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the saleItem, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if the client has the current version.
      */
     @GetMapping("/sale-items/{id}")
-    public ResponseEntity<SaleItem> getSaleItem(@PathVariable Long id) {
+    public ResponseEntity<SaleItem> getSaleItem(@PathVariable Long id, WebRequest webRequest) {
         log.debug("REST request to get SaleItem : {}", id);
-        Optional<SaleItem> saleItem = saleItemRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(saleItem);
+        Optional<SaleItem> saleItem = saleItemService.findOne(id);
+        if (saleItem.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = versionETag(saleItem.get().getVersion());
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(saleItem.get());
+    }
+
+    private static String versionETag(Long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Check the {@code If-Match} header, if any, against the current version of a saleItem, and have the update apply
+     * to that version only.
+     * <p>
+     * The versions identify the state of the saleItem whatever its representation, so weak ETags match too.
+     */
+    private static void checkIfMatch(String ifMatch, Long version, SaleItem saleItem) {
+        if (ifMatch == null) {
+            return;
+        }
+        boolean matches =
+            "*".equals(ifMatch.trim()) ||
+            Arrays
+                .stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(eTag -> eTag.equals(versionETag(version)) || eTag.equals("\"" + version + "\""));
+        if (!matches) {
+            throw new PreconditionFailedAlertException("SaleItem has been modified", ENTITY_NAME, "versionmismatch");
+        }
+        saleItem.setVersion(version);
+    }
+
+    /**
+     * Run an update, reporting a concurrent update as a failed precondition when the request had one.
+     */
+    private static <T> T updateIfMatch(String ifMatch, Supplier<T> update) {
+        try {
+            return update.get();
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch == null) {
+                throw e;
+            }
+            throw new PreconditionFailedAlertException("SaleItem has been modified", ENTITY_NAME, "versionmismatch");
+        }
+    }
+
+    /**
+     * {@code GET  /sale-items/:id/image} : get the image of the "id" saleItem.
+     * <p>
+     * The image hash is the ETag, so {@code If-None-Match} is answered with {@code 304 (Not Modified)} without reading
+     * the image. {@code Range} requests are answered with {@code 206 (Partial Content)}. When {@code v} matches the
+     * current image hash the response never changes and may be cached for a year, otherwise clients must revalidate.
+     * <p>
+     * With {@code size}, the narrowest rendition at least that wide is served instead. Until it has been generated,
+     * or when the image is too narrow or in a format that cannot be scaled, the original image is served and must be
+     * revalidated.
+     *
+     * @param id the id of the saleItem whose image to retrieve.
+     * @param version the image hash the client expects, as found in {@link SaleItem#getImageHash()}.
+     * @param size the width in pixels the image is displayed at.
+     * @param webRequest the current request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the image in body, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/sale-items/{id}/image")
+    public ResponseEntity<Resource> getSaleItemImage(
+        @PathVariable Long id,
+        @RequestParam(value = "v", required = false) String version,
+        @RequestParam(value = "size", required = false) Integer size,
+        WebRequest webRequest
+    ) {
+        log.debug("REST request to get the image of SaleItem : {}, size {}", id, size);
+        Optional<SaleItem> saleItem = saleItemService.findOne(id).filter(item -> item.getImageHash() != null);
+        if (saleItem.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String imageHash = saleItem.get().getImageHash();
+        String cacheControl = imageHash.equals(version) ? IMMUTABLE_IMAGE_CACHE_CONTROL : CacheControl.noCache().cachePublic().getHeaderValue();
+        if (size != null) {
+            Optional<SaleItemImageRendition> rendition = saleItemImageRenditionService.findRendition(id, imageHash, size);
+            if (rendition.isPresent()) {
+                String eTag = "\"" + imageHash + "-" + rendition.get().getWidth() + "\"";
+                return imageResponse(
+                    webRequest,
+                    eTag,
+                    cacheControl,
+                    rendition.get().getContentType(),
+                    () -> saleItemImageRenditionService.findImage(rendition.get())
+                );
+            }
+            cacheControl = CacheControl.noCache().cachePublic().getHeaderValue();
+        }
+        return imageResponse(
+            webRequest,
+            "\"" + imageHash + "\"",
+            cacheControl,
+            saleItem.get().getImageContentType(),
+            () -> saleItemService.findImage(saleItem.get())
+        );
+    }
+
+    private ResponseEntity<Resource> imageResponse(
+        WebRequest webRequest,
+        String eTag,
+        String cacheControl,
+        String contentType,
+        Supplier<Optional<Resource>> image
+    ) {
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+        }
+        return image
+            .get()
+            .map(body ->
+                ResponseEntity
+                    .ok()
+                    .contentType(MediaType.parseMediaType(contentType))
+                    .eTag(eTag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .body(body)
+            )
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code POST  /sale-items/image-renditions} : regenerate the renditions of all sale item images in the background.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the progress of the regeneration.
+     */
+    @PostMapping("/sale-items/image-renditions")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ImageRenditionProgressDTO> regenerateSaleItemImageRenditions() {
+        log.debug("REST request to regenerate all SaleItem image renditions");
+        return ResponseEntity.accepted().body(saleItemImageRenditionService.regenerateAll());
+    }
+
+    /**
+     * {@code GET  /sale-items/image-renditions} : get the progress of the last regeneration of sale item image renditions.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the progress of the regeneration.
+     */
+    @GetMapping("/sale-items/image-renditions")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ImageRenditionProgressDTO> getSaleItemImageRenditionsProgress() {
+        log.debug("REST request to get the progress of the SaleItem image renditions regeneration");
+        return ResponseEntity.ok(saleItemImageRenditionService.getProgress());
     }
 
     /**
@@ -196,7 +546,7 @@ public class SaleItemResource {
     @DeleteMapping("/sale-items/{id}")
     public ResponseEntity<Void> deleteSaleItem(@PathVariable Long id) {
         log.debug("REST request to delete SaleItem : {}", id);
-        saleItemRepository.deleteById(id);
+        saleItemService.delete(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
@@ -12,6 +12,9 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI INSUFFICIENT_STOCK_TYPE = URI.create(PROBLEM_BASE_URL + "/insufficient-stock");
+    public static final URI CHECKOUT_BUSY_TYPE = URI.create(PROBLEM_BASE_URL + "/checkout-busy");
+    public static final URI INSUFFICIENT_PAYMENT_TYPE = URI.create(PROBLEM_BASE_URL + "/insufficient-payment");
 
     private ErrorConstants() {}
 }
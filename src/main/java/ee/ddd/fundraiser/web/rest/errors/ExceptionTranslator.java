@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
 import org.springframework.validation.BindingResult;
@@ -158,6 +159,86 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         );
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInsufficientStockException(
+        ee.ddd.fundraiser.service.InsufficientStockException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.INSUFFICIENT_STOCK_TYPE)
+            .withTitle(ex.getMessage())
+            .withStatus(Status.CONFLICT)
+            .with(MESSAGE_KEY, "error.insufficientstock")
+            .with("saleItemIds", ex.getSaleItemIds())
+            .build();
+        return create(ex, problem, request, HeaderUtil.createFailureAlert(applicationName, false, "checkout", "insufficientstock", ex.getMessage()));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInsufficientPaymentException(
+        ee.ddd.fundraiser.service.InsufficientPaymentException ex,
+        NativeWebRequest request
+    ) {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.INSUFFICIENT_PAYMENT_TYPE)
+            .withTitle(ex.getMessage())
+            .withStatus(Status.BAD_REQUEST)
+            .with(MESSAGE_KEY, "error.insufficientpayment")
+            .with("total", ex.getTotal().toBigDecimal())
+            .with("cashPaid", ex.getCashPaid().toBigDecimal())
+            .build();
+        return create(
+            ex,
+            problem,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, false, "checkout", "insufficientpayment", ex.getMessage())
+        );
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleCheckoutBusyException(ee.ddd.fundraiser.service.CheckoutBusyException ex, NativeWebRequest request) {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.CHECKOUT_BUSY_TYPE)
+            .withTitle(ex.getMessage())
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .with(MESSAGE_KEY, "error.checkoutbusy")
+            .with("saleItemIds", List.of(ex.getSaleItemId()))
+            .build();
+        HttpHeaders headers = HeaderUtil.createFailureAlert(applicationName, false, "checkout", "checkoutbusy", ex.getMessage());
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return create(ex, problem, request, headers);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handlePreconditionFailedAlertException(PreconditionFailedAlertException ex, NativeWebRequest request) {
+        return create(
+            ex,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage())
+        );
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleConflictAlertException(ConflictAlertException ex, NativeWebRequest request) {
+        return create(
+            ex,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage())
+        );
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleUnprocessableEntityAlertException(UnprocessableEntityAlertException ex, NativeWebRequest request) {
+        return create(
+            ex,
+            request,
+            HeaderUtil.createFailureAlert(applicationName, false, ex.getEntityName(), ex.getErrorKey(), ex.getMessage())
+        );
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleConcurrencyFailure(ConcurrencyFailureException ex, NativeWebRequest request) {
         Problem problem = Problem.builder().withStatus(Status.CONFLICT).with(MESSAGE_KEY, ErrorConstants.ERR_CONCURRENCY_FAILURE).build();
@@ -0,0 +1,64 @@
+package ee.ddd.fundraiser.web.sse;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * An update broadcast to the connections of the {@link LiveUpdateBroadcaster}.
+ * <p>
+ * It is built once and shared by all the connections, so it must not be modified once broadcast.
+ */
+final class LiveUpdate {
+
+    private final String name;
+
+    private final Object data;
+
+    private final long createdNanos = System.nanoTime();
+
+    private LiveUpdate(String name, Object data) {
+        this.name = name;
+        this.data = data;
+    }
+
+    /**
+     * @param name the name of the event.
+     * @param data the data of the event, sent as JSON.
+     * @return the update.
+     */
+    static LiveUpdate of(String name, Object data) {
+        return new LiveUpdate(name, data);
+    }
+
+    /**
+     * @return an update sent as a comment, which clients ignore.
+     */
+    static LiveUpdate heartbeat() {
+        return new LiveUpdate(null, null);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Object getData() {
+        return data;
+    }
+
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    SseEventBuilder toEvent() {
+        if (name == null) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public String toString() {
+        return "LiveUpdate{name=" + name + ", data=" + data + "}";
+    }
+}
@@ -0,0 +1,205 @@
+package ee.ddd.fundraiser.web.sse;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.service.FundraiserTotalService;
+import ee.ddd.fundraiser.service.FundraiserTotalsChangedEvent;
+import ee.ddd.fundraiser.service.dto.TotalDTO;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import ee.ddd.fundraiser.service.inventory.StockChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Broadcaster of the live stock and fundraiser totals to the connected clients, as Server-Sent Events.
+ * <p>
+ * The changes are only noted when they happen. Every {@code application.live.coalesce-window}, the changed sale items
+ * are coalesced into a single {@value #STOCK} update, holding the available quantity of each of them ({@code null}
+ * once deleted), and a changed total into a {@value #TOTALS} update. Each update is built once, reading the stock in
+ * memory and the totals at most once, and queued to every connection, which are sent by the {@value #EXECUTOR}
+ * executor. A new connection first gets the stock of all the sale items reserved since startup and the current totals,
+ * so that a client reconnecting after missing updates is up to date again.
+ */
+@Component
+public class LiveUpdateBroadcaster {
+
+    public static final String EXECUTOR = "liveUpdateExecutor";
+
+    public static final String STOCK = "stock";
+
+    public static final String TOTALS = "totals";
+
+    public static final String CONNECTIONS_METER_NAME = "live.connections";
+
+    public static final String DISCONNECTIONS_METER_NAME = "live.disconnections";
+
+    public static final String DROPPED_METER_NAME = "live.updates.dropped";
+
+    public static final String LAG_METER_NAME = "live.updates.lag";
+
+    private final Logger log = LoggerFactory.getLogger(LiveUpdateBroadcaster.class);
+
+    private final InventoryService inventoryService;
+
+    private final FundraiserTotalService fundraiserTotalService;
+
+    private final Executor executor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.Live properties;
+
+    private final Timer lagTimer;
+
+    private final Counter droppedCounter;
+
+    private final Set<SseSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final Set<Long> changedSaleItemIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean totalsChanged = new AtomicBoolean();
+
+    /**
+     * The last broadcast totals, or {@code null} if they changed while nobody was connected.
+     */
+    private volatile TotalDTO totals;
+
+    private volatile long lastBroadcastNanos = System.nanoTime();
+
+    public LiveUpdateBroadcaster(
+        InventoryService inventoryService,
+        FundraiserTotalService fundraiserTotalService,
+        @Qualifier(EXECUTOR) Executor executor,
+        MeterRegistry meterRegistry,
+        ApplicationProperties applicationProperties
+    ) {
+        this.inventoryService = inventoryService;
+        this.fundraiserTotalService = fundraiserTotalService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.properties = applicationProperties.getLive();
+        this.lagTimer =
+            Timer
+                .builder(LAG_METER_NAME)
+                .description("Time from the coalescing of a live update to its sending")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.droppedCounter =
+            Counter.builder(DROPPED_METER_NAME).description("Live updates not sent to slow connections").register(meterRegistry);
+        meterRegistry.gaugeCollectionSize(CONNECTIONS_METER_NAME, Tags.empty(), subscriptions);
+    }
+
+    /**
+     * Subscribe to the live updates.
+     *
+     * @return the emitter of the updates, which starts with the current stock and totals.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getConnectionTimeout().toMillis());
+        SseSubscription subscription = new SseSubscription(
+            emitter,
+            properties.getBufferSize(),
+            properties.getOverflow(),
+            executor,
+            lagTimer,
+            droppedCounter,
+            this::unsubscribe
+        );
+        emitter.onCompletion(() -> unsubscribe(subscription, "completion"));
+        emitter.onTimeout(() -> unsubscribe(subscription, "timeout"));
+        emitter.onError(e -> unsubscribe(subscription, SseSubscription.ERROR));
+        // Subscribed first, so that no change is missed between the snapshot and the next broadcast
+        subscriptions.add(subscription);
+        subscription.offer(LiveUpdate.of(STOCK, inventoryService.getAvailableQuantities()));
+        subscription.offer(LiveUpdate.of(TOTALS, getTotals()));
+        log.debug("Subscribed to the live updates, {} connections", subscriptions.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        changedSaleItemIds.add(event.getSaleItemId());
+    }
+
+    /**
+     * Totals only change once the sales are committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTotalsChanged(FundraiserTotalsChangedEvent event) {
+        totalsChanged.set(true);
+    }
+
+    /**
+     * Broadcast the changes noted since the last broadcast, or a heartbeat once in a while.
+     */
+    @Scheduled(fixedDelayString = "${application.live.coalesce-window:PT0.25S}")
+    public void broadcast() {
+        boolean connected = !subscriptions.isEmpty();
+        Map<Long, Integer> stock = new TreeMap<>();
+        Iterator<Long> changed = changedSaleItemIds.iterator();
+        while (changed.hasNext()) {
+            Long saleItemId = changed.next();
+            // Noted again if it changes while being read
+            changed.remove();
+            if (connected) {
+                stock.put(saleItemId, inventoryService.getAvailable(saleItemId).orElse(null));
+            }
+        }
+        if (!stock.isEmpty()) {
+            publish(LiveUpdate.of(STOCK, stock));
+        }
+        if (totalsChanged.getAndSet(false)) {
+            if (connected) {
+                totals = fundraiserTotalService.getFundraiserTotal();
+                publish(LiveUpdate.of(TOTALS, totals));
+            } else {
+                totals = null;
+            }
+        }
+        if (System.nanoTime() - lastBroadcastNanos >= properties.getHeartbeatInterval().toNanos()) {
+            publish(LiveUpdate.heartbeat());
+        }
+    }
+
+    private void publish(LiveUpdate update) {
+        lastBroadcastNanos = update.getCreatedNanos();
+        subscriptions.forEach(subscription -> subscription.offer(update));
+    }
+
+    private TotalDTO getTotals() {
+        TotalDTO current = totals;
+        if (current == null) {
+            current = fundraiserTotalService.getFundraiserTotal();
+            totals = current;
+        }
+        return current;
+    }
+
+    private void unsubscribe(SseSubscription subscription, String reason) {
+        if (subscriptions.remove(subscription)) {
+            Counter
+                .builder(DISCONNECTIONS_METER_NAME)
+                .description("Connections closed, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+            log.debug("Unsubscribed from the live updates on {}, {} connections", reason, subscriptions.size());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package ee.ddd.fundraiser.web.sse;
+
+import ee.ddd.fundraiser.config.ApplicationProperties.Live.Overflow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A connection subscribed to the {@link LiveUpdateBroadcaster}, with its own bounded queue of updates.
+ * <p>
+ * The updates are sent by at most one task of the executor at a time, so that a slow connection only ever delays
+ * itself. When its queue is full, the {@link Overflow} policy either drops the oldest queued update or closes the
+ * connection.
+ */
+class SseSubscription {
+
+    static final String OVERFLOW = "overflow";
+
+    static final String ERROR = "error";
+
+    private final Logger log = LoggerFactory.getLogger(SseSubscription.class);
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<LiveUpdate> queue;
+
+    private final Overflow overflow;
+
+    private final Executor executor;
+
+    private final Timer lagTimer;
+
+    private final Counter droppedCounter;
+
+    private final BiConsumer<SseSubscription, String> onClose;
+
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param emitter the emitter of the connection.
+     * @param bufferSize the number of updates that can be queued.
+     * @param overflow what to do when the queue is full.
+     * @param executor the executor sending the updates.
+     * @param lagTimer records the time from the creation of an update to its sending.
+     * @param droppedCounter counts the updates that are not sent.
+     * @param onClose called with the reason when the connection is closed by this subscription.
+     */
+    SseSubscription(
+        SseEmitter emitter,
+        int bufferSize,
+        Overflow overflow,
+        Executor executor,
+        Timer lagTimer,
+        Counter droppedCounter,
+        BiConsumer<SseSubscription, String> onClose
+    ) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.overflow = overflow;
+        this.executor = executor;
+        this.lagTimer = lagTimer;
+        this.droppedCounter = droppedCounter;
+        this.onClose = onClose;
+    }
+
+    /**
+     * Queue an update, without waiting for it to be sent.
+     *
+     * @param update the update.
+     */
+    void offer(LiveUpdate update) {
+        if (closed.get()) {
+            return;
+        }
+        while (!queue.offer(update)) {
+            if (overflow == Overflow.DISCONNECT) {
+                droppedCounter.increment(queue.size() + 1.0);
+                queue.clear();
+                close(OVERFLOW);
+                emitter.complete();
+                return;
+            }
+            if (queue.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+        schedule();
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    private void schedule() {
+        if (sending.compareAndSet(false, true)) {
+            executor.execute(this::send);
+        }
+    }
+
+    private void send() {
+        try {
+            LiveUpdate update;
+            while (!closed.get() && (update = queue.poll()) != null) {
+                emitter.send(update.toEvent());
+                lagTimer.record(System.nanoTime() - update.getCreatedNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the container completes the emitter
+            log.debug("Cannot send a live update: {}", e.getMessage());
+            close(ERROR);
+        } finally {
+            sending.set(false);
+        }
+        // Queued after the last poll but before the flag was cleared
+        if (!closed.get() && !queue.isEmpty()) {
+            schedule();
+        }
+    }
+
+    private void close(String reason) {
+        if (closed.compareAndSet(false, true)) {
+            onClose.accept(this, reason);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Server-Sent Events.
+ */
+package ee.ddd.fundraiser.web.sse;
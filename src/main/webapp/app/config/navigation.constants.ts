@@ -2,4 +2,5 @@ export const ASC = 'asc';
 export const DESC = 'desc';
 export const SORT = 'sort';
 export const ITEM_DELETED_EVENT = 'deleted';
+export const CHECKOUT_PAID_EVENT = 'paid';
 export const DEFAULT_SORT_DATA = 'defaultSort';
@@ -1,4 +1,6 @@
-import { HttpParams } from '@angular/common/http';
+import { HttpHeaders, HttpParams } from '@angular/common/http';
+
+export const IDEMPOTENCY_KEY_HEADER = 'Idempotency-Key';
 
 export const createRequestOption = (req?: any): HttpParams => {
   let options: HttpParams = new HttpParams();
@@ -21,3 +23,12 @@ export const createRequestOption = (req?: any): HttpParams => {
 
   return options;
 };
+
+/**
+ * Creates a random key for the attempts of one request, so that the server only runs it once however often it is retried.
+ */
+export const createIdempotencyKey = (): string =>
+  Array.from(crypto.getRandomValues(new Uint8Array(16)), byte => byte.toString(16).padStart(2, '0')).join('');
+
+export const createIdempotencyHeaders = (idempotencyKey?: string): HttpHeaders =>
+  idempotencyKey ? new HttpHeaders({ [IDEMPOTENCY_KEY_HEADER]: idempotencyKey }) : new HttpHeaders();
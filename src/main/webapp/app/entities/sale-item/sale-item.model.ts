@@ -5,9 +5,17 @@ export interface ISaleItem {
   name?: string | null;
   price?: number | null;
   quantity?: number | null;
+  lowStockThreshold?: number | null;
+  flashSale?: boolean | null;
   type?: ItemType | null;
   image?: string | null;
   imageContentType?: string | null;
+  imageHash?: string | null;
+  version?: number | null;
 }
 
 export type NewSaleItem = Omit<ISaleItem, 'id'> & { id: null };
+
+export type ISaleItemSummary = Pick<ISaleItem, 'id' | 'name' | 'price' | 'quantity' | 'type' | 'imageHash'> & {
+  imageUrl?: string | null;
+};
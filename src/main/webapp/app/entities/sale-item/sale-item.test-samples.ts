@@ -26,6 +26,8 @@ export const sampleWithFullData: ISaleItem = {
   name: 'project Customer Roads',
   price: 90275,
   quantity: 14887,
+  lowStockThreshold: 5,
+  flashSale: false,
   type: ItemType['EDIBLE'],
   image: '../fake-data/blob/hipster.png',
   imageContentType: 'unknown',
@@ -86,6 +86,19 @@ describe('SaleItem Service', () => {
       expect(expectedResult).toMatchObject([expected]);
     });
 
+    it('should return a list of SaleItem summaries', () => {
+      const returnedFromService = { ...requireRestSample };
+
+      const expected = { ...sampleWithRequiredData };
+
+      service.querySummaries().subscribe(resp => (expectedResult = resp.body));
+
+      const req = httpMock.expectOne({ method: 'GET', url: 'api/sale-items/summaries' });
+      req.flush([returnedFromService]);
+      httpMock.verify();
+      expect(expectedResult).toMatchObject([expected]);
+    });
+
     it('should delete a SaleItem', () => {
       const expected = true;
 
@@ -4,13 +4,14 @@ import { Observable } from 'rxjs';
 
 import { isPresent } from 'app/core/util/operators';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
-import { createRequestOption } from 'app/core/request/request-util';
-import { ISaleItem, NewSaleItem } from '../sale-item.model';
+import { createIdempotencyHeaders, createRequestOption } from 'app/core/request/request-util';
+import { ISaleItem, ISaleItemSummary, NewSaleItem } from '../sale-item.model';
 
 export type PartialUpdateSaleItem = Partial<ISaleItem> & Pick<ISaleItem, 'id'>;
 
 export type EntityResponseType = HttpResponse<ISaleItem>;
 export type EntityArrayResponseType = HttpResponse<ISaleItem[]>;
+export type SummaryArrayResponseType = HttpResponse<ISaleItemSummary[]>;
 
 @Injectable({ providedIn: 'root' })
 export class SaleItemService {
@@ -18,8 +19,11 @@ export class SaleItemService {
 
   constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
 
-  create(saleItem: NewSaleItem): Observable<EntityResponseType> {
-    return this.http.post<ISaleItem>(this.resourceUrl, saleItem, { observe: 'response' });
+  create(saleItem: NewSaleItem, idempotencyKey?: string): Observable<EntityResponseType> {
+    return this.http.post<ISaleItem>(this.resourceUrl, saleItem, {
+      headers: createIdempotencyHeaders(idempotencyKey),
+      observe: 'response',
+    });
   }
 
   update(saleItem: ISaleItem): Observable<EntityResponseType> {
@@ -30,6 +34,12 @@ export class SaleItemService {
     return this.http.patch<ISaleItem>(`${this.resourceUrl}/${this.getSaleItemIdentifier(saleItem)}`, saleItem, { observe: 'response' });
   }
 
+  uploadImage(id: number, file: File): Observable<EntityResponseType> {
+    const formData = new FormData();
+    formData.append('file', file);
+    return this.http.put<ISaleItem>(`${this.resourceUrl}/${id}/image`, formData, { observe: 'response' });
+  }
+
   find(id: number): Observable<EntityResponseType> {
     return this.http.get<ISaleItem>(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
@@ -39,6 +49,11 @@ export class SaleItemService {
     return this.http.get<ISaleItem[]>(this.resourceUrl, { params: options, observe: 'response' });
   }
 
+  querySummaries(req?: any): Observable<SummaryArrayResponseType> {
+    const options = createRequestOption(req);
+    return this.http.get<ISaleItemSummary[]>(`${this.resourceUrl}/summaries`, { params: options, observe: 'response' });
+  }
+
   delete(id: number): Observable<HttpResponse<{}>> {
     return this.http.delete(`${this.resourceUrl}/${id}`, { observe: 'response' });
   }
@@ -2,8 +2,13 @@ import { Component, Input, OnInit, SimpleChanges } from '@angular/core';
 import { ActivatedRoute, Router } from '@angular/router';
 import { NgbActiveModal } from '@ng-bootstrap/ng-bootstrap';
 
+import { CHECKOUT_PAID_EVENT } from 'app/config/navigation.constants';
+import { createIdempotencyKey } from 'app/core/request/request-util';
 import { ISaleItem } from '../../sale-item.model';
 import { SaleItemService } from '../../service/sale-item.service';
+import { IReceipt } from './checkout.model';
+import { CheckoutService } from './checkout.service';
+import { toAmount, toCents } from './money';
 
 @Component({
   selector: 'jhi-checkout',
@@ -14,9 +19,14 @@ export class CheckoutComponent implements OnInit {
   total = 0;
   returnAmount = 0;
   cashPaid = 0;
+  receipt?: IReceipt;
+  isSaving = false;
+  // Sent with every attempt to pay this basket, so that retrying after a network error never sells it twice
+  readonly idempotencyKey = createIdempotencyKey();
 
   constructor(
     protected saleItemService: SaleItemService,
+    protected checkoutService: CheckoutService,
     protected activatedRoute: ActivatedRoute,
     public router: Router,
     private activeModal: NgbActiveModal
@@ -29,18 +39,38 @@ export class CheckoutComponent implements OnInit {
   }
 
   calculateTotal(): void {
-    this.basket.forEach(item => {
-      if (item.price) {
-        this.total += item.price;
-      }
-    });
+    // In cents, as the server does, so that adding up prices like 0.10 stays exact
+    this.total = toAmount(this.basket.reduce((cents, item) => cents + toCents(item.price ?? 0), 0));
+  }
+
+  change(): number {
+    return this.receipt?.change ?? toAmount(toCents(this.cashPaid) - toCents(this.total));
   }
 
   ngOnChanges(changes: SimpleChanges) {
     console.log(changes['cashPaid'].currentValue);
   }
 
+  pay(): void {
+    this.isSaving = true;
+    // The server adds up the lines of the same item and computes the amounts itself
+    const lines = this.basket.map(item => ({ saleItemId: item.id, quantity: 1 }));
+    const cashPaid = this.cashPaid > 0 ? this.cashPaid : null;
+    this.checkoutService.checkout({ lines, cashPaid }, this.idempotencyKey).subscribe({
+      next: res => {
+        this.receipt = res.body ?? undefined;
+        this.total = this.receipt?.total ?? this.total;
+        this.isSaving = false;
+      },
+      error: () => (this.isSaving = false),
+    });
+  }
+
   dismiss(): void {
-    this.activeModal.dismiss();
+    if (this.receipt) {
+      this.activeModal.close(CHECKOUT_PAID_EVENT);
+    } else {
+      this.activeModal.dismiss();
+    }
   }
 }
@@ -0,0 +1,25 @@
+export interface ICheckoutLine {
+  saleItemId: number;
+  quantity: number;
+}
+
+export interface ICheckout {
+  lines: ICheckoutLine[];
+  cashPaid?: number | null;
+}
+
+export interface IReceiptLine {
+  saleItemId: number;
+  name?: string | null;
+  unitPrice: number;
+  quantity: number;
+  amount: number;
+}
+
+export interface IReceipt {
+  createdDate?: string | null;
+  lines: IReceiptLine[];
+  total: number;
+  cashPaid?: number | null;
+  change?: number | null;
+}
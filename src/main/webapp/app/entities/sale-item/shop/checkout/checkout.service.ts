@@ -0,0 +1,18 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpResponse } from '@angular/common/http';
+import { Observable } from 'rxjs';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { createIdempotencyHeaders } from 'app/core/request/request-util';
+import { ICheckout, IReceipt } from './checkout.model';
+
+@Injectable({ providedIn: 'root' })
+export class CheckoutService {
+  protected resourceUrl = this.applicationConfigService.getEndpointFor('api/checkout');
+
+  constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
+
+  checkout(checkout: ICheckout, idempotencyKey?: string): Observable<HttpResponse<IReceipt>> {
+    return this.http.post<IReceipt>(this.resourceUrl, checkout, { headers: createIdempotencyHeaders(idempotencyKey), observe: 'response' });
+  }
+}
@@ -0,0 +1,18 @@
+import { toAmount, toCents } from './money';
+
+describe('Money', () => {
+  it('should add up prices exactly', () => {
+    const prices = [0.1, 0.2];
+
+    expect(prices.reduce((total, price) => total + price, 0)).not.toEqual(0.3);
+    expect(toAmount(prices.reduce((cents, price) => cents + toCents(price), 0))).toEqual(0.3);
+  });
+
+  it('should convert prices to whole cents', () => {
+    expect(0.29 * 100).not.toEqual(29);
+    expect(toCents(0.29)).toEqual(29);
+    expect(toCents(1.15)).toEqual(115);
+    expect(toCents(19.99)).toEqual(1999);
+    expect(toAmount(toCents(19.99))).toEqual(19.99);
+  });
+});
@@ -0,0 +1,13 @@
+/**
+ * Converts an amount, such as a price, to a whole number of cents, so that adding amounts up stays exact.
+ */
+export function toCents(amount: number): number {
+  return Math.round(amount * 100);
+}
+
+/**
+ * Converts a whole number of cents back to an amount.
+ */
+export function toAmount(cents: number): number {
+  return cents / 100;
+}
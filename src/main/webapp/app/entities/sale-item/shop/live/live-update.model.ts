@@ -0,0 +1,18 @@
+export const STOCK_EVENT = 'stock';
+export const TOTALS_EVENT = 'totals';
+
+export interface ILiveUpdate {
+  event: string;
+  data: unknown;
+}
+
+/**
+ * Available quantities by sale item id, null once the sale item is deleted.
+ */
+export type IStock = Record<string, number | null>;
+
+export interface ITotal {
+  key: string;
+  quantity: number;
+  revenue: number;
+}
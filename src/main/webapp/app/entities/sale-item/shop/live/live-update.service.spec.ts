@@ -0,0 +1,47 @@
+import { TestBed } from '@angular/core/testing';
+import { HttpEventType } from '@angular/common/http';
+import { HttpClientTestingModule, HttpTestingController } from '@angular/common/http/testing';
+
+import { ILiveUpdate } from './live-update.model';
+import { LiveUpdateService, parseLiveUpdate } from './live-update.service';
+
+describe('LiveUpdate Service', () => {
+  let service: LiveUpdateService;
+  let httpMock: HttpTestingController;
+
+  beforeEach(() => {
+    TestBed.configureTestingModule({
+      imports: [HttpClientTestingModule],
+    });
+    service = TestBed.inject(LiveUpdateService);
+    httpMock = TestBed.inject(HttpTestingController);
+  });
+
+  describe('Service methods', () => {
+    it('should stream the events received in chunks', () => {
+      const updates: ILiveUpdate[] = [];
+      service.updates().subscribe(update => updates.push(update));
+
+      const req = httpMock.expectOne({ method: 'GET' });
+      const first = 'event:stock\ndata:{"1":2,"3":null}\n\n:heartbeat\n\nevent:tot';
+      req.event({ type: HttpEventType.DownloadProgress, loaded: first.length, partialText: first });
+      const second = first + 'als\ndata:{"key":"all","quantity":3,"revenue":7.5}\n\n';
+      req.event({ type: HttpEventType.DownloadProgress, loaded: second.length, partialText: second });
+
+      expect(updates).toEqual([
+        { event: 'stock', data: { 1: 2, 3: null } },
+        { event: 'totals', data: { key: 'all', quantity: 3, revenue: 7.5 } },
+      ]);
+    });
+  });
+
+  describe('parseLiveUpdate', () => {
+    it('should ignore comments', () => {
+      expect(parseLiveUpdate(':heartbeat')).toBeNull();
+    });
+
+    it('should join the data lines', () => {
+      expect(parseLiveUpdate('event: stock\ndata: {"1":\ndata: 2}')).toEqual({ event: 'stock', data: { 1: 2 } });
+    });
+  });
+});
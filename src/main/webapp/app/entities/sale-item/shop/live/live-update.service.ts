@@ -0,0 +1,63 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpDownloadProgressEvent, HttpEvent, HttpEventType } from '@angular/common/http';
+import { defer, filter, mergeMap, Observable, repeat, retry } from 'rxjs';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { ILiveUpdate } from './live-update.model';
+
+const RECONNECT_DELAY = 1000;
+const RETRY_DELAY = 5000;
+
+/**
+ * Parses one Server-Sent Event, or returns null for a comment.
+ */
+export const parseLiveUpdate = (block: string): ILiveUpdate | null => {
+  let event = 'message';
+  const data: string[] = [];
+  for (const line of block.split('\n')) {
+    const colon = line.indexOf(':');
+    if (colon === 0) {
+      continue;
+    }
+    const field = colon === -1 ? line : line.substring(0, colon);
+    const value = colon === -1 ? '' : line.substring(colon + 1).replace(/^ /, '');
+    if (field === 'event') {
+      event = value;
+    } else if (field === 'data') {
+      data.push(value);
+    }
+  }
+  return data.length === 0 ? null : { event, data: JSON.parse(data.join('\n')) };
+};
+
+@Injectable({ providedIn: 'root' })
+export class LiveUpdateService {
+  protected resourceUrl = this.applicationConfigService.getEndpointFor('api/live');
+
+  constructor(protected http: HttpClient, protected applicationConfigService: ApplicationConfigService) {}
+
+  /**
+   * Streams the live stock and totals, reconnecting whenever the server closes the connection. Every connection starts with the current
+   * stock and totals, so the updates missed in between do not matter.
+   */
+  updates(): Observable<ILiveUpdate> {
+    return defer(() => this.connect()).pipe(repeat({ delay: RECONNECT_DELAY }), retry({ delay: RETRY_DELAY }));
+  }
+
+  protected connect(): Observable<ILiveUpdate> {
+    // Read from the progress of a plain request, as an EventSource cannot send the Authorization header
+    let received = 0;
+    let pending = '';
+    return this.http.get(this.resourceUrl, { observe: 'events', reportProgress: true, responseType: 'text' }).pipe(
+      filter((event: HttpEvent<string>): event is HttpDownloadProgressEvent => event.type === HttpEventType.DownloadProgress),
+      mergeMap(event => {
+        const text = event.partialText ?? '';
+        pending += text.substring(received);
+        received = text.length;
+        const blocks = pending.split('\n\n');
+        pending = blocks.pop() ?? '';
+        return blocks.map(parseLiveUpdate).filter((update): update is ILiveUpdate => update !== null);
+      })
+    );
+  }
+}
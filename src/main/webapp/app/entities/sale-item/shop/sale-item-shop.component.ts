@@ -1,68 +1,83 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { HttpHeaders } from '@angular/common/http';
 import { ActivatedRoute, Data, ParamMap, Router } from '@angular/router';
-import { combineLatest, filter, Observable, switchMap, tap } from 'rxjs';
+import { combineLatest, filter, Observable, Subscription, switchMap, tap } from 'rxjs';
 import { NgbModal } from '@ng-bootstrap/ng-bootstrap';
 
-import { ISaleItem } from '../sale-item.model';
+import { ISaleItemSummary } from '../sale-item.model';
 
 import { ITEMS_PER_PAGE } from 'app/config/pagination.constants';
-import { ASC, DESC, SORT, ITEM_DELETED_EVENT, DEFAULT_SORT_DATA } from 'app/config/navigation.constants';
-import { EntityArrayResponseType, SaleItemService } from '../service/sale-item.service';
+import { ASC, DESC, SORT, ITEM_DELETED_EVENT, CHECKOUT_PAID_EVENT, DEFAULT_SORT_DATA } from 'app/config/navigation.constants';
+import { SummaryArrayResponseType, SaleItemService } from '../service/sale-item.service';
 import { SaleItemDeleteDialogComponent } from '../delete/sale-item-delete-dialog.component';
 import { DataUtils } from 'app/core/util/data-util.service';
-import { ParseLinks } from 'app/core/util/parse-links.service';
 import { HealthDetails } from '../../../admin/health/health.model';
 import { HealthModalComponent } from '../../../admin/health/modal/health-modal.component';
 import { CheckoutComponent } from './checkout/checkout.component';
+import { toAmount, toCents } from './checkout/money';
+import { LiveUpdateService } from './live/live-update.service';
+import { IStock, STOCK_EVENT } from './live/live-update.model';
 
 @Component({
   selector: 'jhi-sale-item',
   templateUrl: './sale-item-shop.component.html',
   styleUrls: ['./sale-item-shop.component.scss'],
 })
-export class SaleItemShopComponent implements OnInit {
-  saleItems?: ISaleItem[];
+export class SaleItemShopComponent implements OnInit, OnDestroy {
+  saleItems?: ISaleItemSummary[];
   isLoading = false;
 
   predicate = 'id';
   ascending = true;
 
   itemsPerPage = ITEMS_PER_PAGE;
-  links: { [key: string]: number } = {
-    last: 0,
-  };
+  cursor = '';
+  nextCursor: string | null = null;
   page = 1;
 
   total = 0;
-  basket: ISaleItem[] = [];
+  basket: ISaleItemSummary[] = [];
+
+  protected liveUpdates?: Subscription;
 
   constructor(
     protected saleItemService: SaleItemService,
     protected activatedRoute: ActivatedRoute,
     public router: Router,
-    protected parseLinks: ParseLinks,
     protected dataUtils: DataUtils,
-    protected modalService: NgbModal
+    protected modalService: NgbModal,
+    protected liveUpdateService: LiveUpdateService
   ) {}
 
   reset(): void {
     this.page = 1;
+    this.cursor = '';
+    this.nextCursor = null;
     this.total = 0;
     this.basket = [];
     this.saleItems = [];
     this.load();
   }
 
-  loadPage(page: number): void {
-    this.page = page;
-    this.load();
+  loadNextSlice(): void {
+    if (this.nextCursor) {
+      this.cursor = this.nextCursor;
+      this.load();
+    }
   }
 
-  trackId = (_index: number, item: ISaleItem): number => this.saleItemService.getSaleItemIdentifier(item);
+  trackId = (_index: number, item: ISaleItemSummary): number => this.saleItemService.getSaleItemIdentifier(item);
 
   ngOnInit(): void {
     this.load();
+    this.liveUpdates = this.liveUpdateService
+      .updates()
+      .pipe(filter(update => update.event === STOCK_EVENT))
+      .subscribe(update => this.updateStock(update.data as IStock));
+  }
+
+  ngOnDestroy(): void {
+    this.liveUpdates?.unsubscribe();
   }
 
   byteSize(base64String: string): string {
@@ -73,7 +88,7 @@ export class SaleItemShopComponent implements OnInit {
     return this.dataUtils.openFile(base64String, contentType);
   }
 
-  delete(saleItem: ISaleItem): void {
+  delete(saleItem: ISaleItemSummary): void {
     const modalRef = this.modalService.open(SaleItemDeleteDialogComponent, { size: 'lg', backdrop: 'static' });
     modalRef.componentInstance.saleItem = saleItem;
     // unsubscribe not needed because closed completes on modal close
@@ -83,7 +98,7 @@ export class SaleItemShopComponent implements OnInit {
         switchMap(() => this.loadFromBackendWithRouteInformations())
       )
       .subscribe({
-        next: (res: EntityArrayResponseType) => {
+        next: (res: SummaryArrayResponseType) => {
           this.onResponseSuccess(res);
         },
       });
@@ -91,7 +106,7 @@ export class SaleItemShopComponent implements OnInit {
 
   load(): void {
     this.loadFromBackendWithRouteInformations().subscribe({
-      next: (res: EntityArrayResponseType) => {
+      next: (res: SummaryArrayResponseType) => {
         this.onResponseSuccess(res);
       },
     });
@@ -105,35 +120,40 @@ export class SaleItemShopComponent implements OnInit {
     this.handleNavigation(page, this.predicate, this.ascending);
   }
 
-  clickOnImage(saleItem: ISaleItem): void {
+  clickOnImage(saleItem: ISaleItemSummary): void {
     this.addToBasket(saleItem);
     this.calculateTotal();
   }
 
-  addToBasket(saleItem: ISaleItem): void {
+  addToBasket(saleItem: ISaleItemSummary): void {
     if (saleItem.price && saleItem.quantity && saleItem.quantity > 0) {
       this.basket.push(saleItem);
     }
   }
 
-  calculateTotal(): void {
-    this.total = 0;
-    this.basket.forEach(item => {
-      if (item.price) {
-        this.total += item.price;
+  updateStock(stock: IStock): void {
+    this.saleItems?.forEach(saleItem => {
+      if (saleItem.id in stock) {
+        saleItem.quantity = stock[saleItem.id];
       }
     });
   }
 
+  calculateTotal(): void {
+    this.total = toAmount(this.basket.reduce((cents, item) => cents + toCents(item.price ?? 0), 0));
+  }
+
   checkout(): void {
     const modalRef = this.modalService.open(CheckoutComponent);
     modalRef.componentInstance.basket = this.basket;
+    // unsubscribe not needed because closed completes on modal close
+    modalRef.closed.pipe(filter(reason => reason === CHECKOUT_PAID_EVENT)).subscribe(() => this.reset());
   }
 
-  protected loadFromBackendWithRouteInformations(): Observable<EntityArrayResponseType> {
+  protected loadFromBackendWithRouteInformations(): Observable<SummaryArrayResponseType> {
     return combineLatest([this.activatedRoute.queryParamMap, this.activatedRoute.data]).pipe(
       tap(([params, data]) => this.fillComponentAttributeFromRoute(params, data)),
-      switchMap(() => this.queryBackend(this.page, this.predicate, this.ascending))
+      switchMap(() => this.queryBackend(this.predicate, this.ascending))
     );
   }
 
@@ -143,13 +163,13 @@ export class SaleItemShopComponent implements OnInit {
     this.ascending = sort[1] === ASC;
   }
 
-  protected onResponseSuccess(response: EntityArrayResponseType): void {
+  protected onResponseSuccess(response: SummaryArrayResponseType): void {
     this.fillComponentAttributesFromResponseHeader(response.headers);
     const dataFromBody = this.fillComponentAttributesFromResponseBody(response.body);
     this.saleItems = dataFromBody;
   }
 
-  protected fillComponentAttributesFromResponseBody(data: ISaleItem[] | null): ISaleItem[] {
+  protected fillComponentAttributesFromResponseBody(data: ISaleItemSummary[] | null): ISaleItemSummary[] {
     const saleItemsNew = this.saleItems ?? [];
     if (data) {
       for (const d of data) {
@@ -162,25 +182,19 @@ export class SaleItemShopComponent implements OnInit {
   }
 
   protected fillComponentAttributesFromResponseHeader(headers: HttpHeaders): void {
-    const linkHeader = headers.get('link');
-    if (linkHeader) {
-      this.links = this.parseLinks.parse(linkHeader);
-    } else {
-      this.links = {
-        last: 0,
-      };
-    }
+    // The next slice is only linked while there is one, and its cursor is opaque
+    const next = /<([^>]*)>;\s*rel="next"/.exec(headers.get('link') ?? '');
+    this.nextCursor = next ? new URL(next[1], window.location.href).searchParams.get('cursor') : null;
   }
 
-  protected queryBackend(page?: number, predicate?: string, ascending?: boolean): Observable<EntityArrayResponseType> {
+  protected queryBackend(predicate?: string, ascending?: boolean): Observable<SummaryArrayResponseType> {
     this.isLoading = true;
-    const pageToLoad: number = page ?? 1;
     const queryObject = {
-      page: pageToLoad - 1,
+      cursor: this.cursor,
       size: this.itemsPerPage,
       sort: this.getSortQueryParam(predicate, ascending),
     };
-    return this.saleItemService.query(queryObject).pipe(tap(() => (this.isLoading = false)));
+    return this.saleItemService.querySummaries(queryObject).pipe(tap(() => (this.isLoading = false)));
   }
 
   protected handleNavigation(page = this.page, predicate?: string, ascending?: boolean): void {
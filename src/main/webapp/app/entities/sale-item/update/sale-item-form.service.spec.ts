@@ -23,6 +23,8 @@ describe('SaleItem Form Service', () => {
             name: expect.any(Object),
             price: expect.any(Object),
             quantity: expect.any(Object),
+            lowStockThreshold: expect.any(Object),
+            flashSale: expect.any(Object),
             type: expect.any(Object),
             image: expect.any(Object),
           })
@@ -38,6 +40,8 @@ describe('SaleItem Form Service', () => {
             name: expect.any(Object),
             price: expect.any(Object),
             quantity: expect.any(Object),
+            lowStockThreshold: expect.any(Object),
+            flashSale: expect.any(Object),
             type: expect.any(Object),
             image: expect.any(Object),
           })
@@ -21,9 +21,12 @@ type SaleItemFormGroupContent = {
   name: FormControl<ISaleItem['name']>;
   price: FormControl<ISaleItem['price']>;
   quantity: FormControl<ISaleItem['quantity']>;
+  lowStockThreshold: FormControl<ISaleItem['lowStockThreshold']>;
+  flashSale: FormControl<ISaleItem['flashSale']>;
   type: FormControl<ISaleItem['type']>;
   image: FormControl<ISaleItem['image']>;
   imageContentType: FormControl<ISaleItem['imageContentType']>;
+  version: FormControl<ISaleItem['version']>;
 };
 
 export type SaleItemFormGroup = FormGroup<SaleItemFormGroupContent>;
@@ -50,13 +53,16 @@ export class SaleItemFormService {
         validators: [Validators.required],
       }),
       quantity: new FormControl(saleItemRawValue.quantity),
-      type: new FormControl(saleItemRawValue.type, {
-        validators: [Validators.required],
+      lowStockThreshold: new FormControl(saleItemRawValue.lowStockThreshold, {
+        validators: [Validators.min(0)],
       }),
-      image: new FormControl(saleItemRawValue.image, {
+      flashSale: new FormControl(saleItemRawValue.flashSale),
+      type: new FormControl(saleItemRawValue.type, {
         validators: [Validators.required],
       }),
+      image: new FormControl(saleItemRawValue.image),
       imageContentType: new FormControl(saleItemRawValue.imageContentType),
+      version: new FormControl(saleItemRawValue.version),
     });
   }
 
@@ -1,16 +1,17 @@
 import { Component, OnInit, ElementRef } from '@angular/core';
 import { HttpResponse } from '@angular/common/http';
 import { ActivatedRoute } from '@angular/router';
-import { Observable } from 'rxjs';
-import { finalize } from 'rxjs/operators';
+import { Observable, of } from 'rxjs';
+import { finalize, switchMap } from 'rxjs/operators';
 
 import { SaleItemFormService, SaleItemFormGroup } from './sale-item-form.service';
 import { ISaleItem } from '../sale-item.model';
 import { SaleItemService } from '../service/sale-item.service';
 import { AlertError } from 'app/shared/alert/alert-error.model';
 import { EventManager, EventWithContent } from 'app/core/util/event-manager.service';
-import { DataUtils, FileLoadError } from 'app/core/util/data-util.service';
+import { DataUtils } from 'app/core/util/data-util.service';
 import { ItemType } from 'app/entities/enumerations/item-type.model';
+import { createIdempotencyKey } from 'app/core/request/request-util';
 
 @Component({
   selector: 'jhi-sale-item-update',
@@ -20,6 +21,9 @@ export class SaleItemUpdateComponent implements OnInit {
   isSaving = false;
   saleItem: ISaleItem | null = null;
   itemTypeValues = Object.keys(ItemType);
+  imageFile: File | null = null;
+  // Sent with every attempt to create the saleItem, so that retrying after a network error never creates it twice
+  readonly idempotencyKey = createIdempotencyKey();
 
   editForm: SaleItemFormGroup = this.saleItemFormService.createSaleItemFormGroup();
 
@@ -49,18 +53,23 @@ export class SaleItemUpdateComponent implements OnInit {
     this.dataUtils.openFile(base64String, contentType);
   }
 
-  setFileData(event: Event, field: string, isImage: boolean): void {
-    this.dataUtils.loadFileToForm(event, this.editForm, field, isImage).subscribe({
-      error: (err: FileLoadError) =>
-        this.eventManager.broadcast(new EventWithContent<AlertError>('fundraiserApp.error', { message: err.message })),
-    });
+  setImageFile(event: Event): void {
+    const file = (event.target as HTMLInputElement).files?.[0] ?? null;
+    if (file && !file.type.startsWith('image/')) {
+      this.eventManager.broadcast(
+        new EventWithContent<AlertError>('fundraiserApp.error', {
+          message: `File was expected to be an image but was found to be '${file.type}'`,
+        })
+      );
+      return;
+    }
+    this.imageFile = file;
+    this.editForm.patchValue({ imageContentType: file?.type ?? this.saleItem?.imageContentType ?? null });
   }
 
-  clearInputImage(field: string, fieldContentType: string, idInput: string): void {
-    this.editForm.patchValue({
-      [field]: null,
-      [fieldContentType]: null,
-    });
+  clearInputImage(idInput: string): void {
+    this.imageFile = null;
+    this.editForm.patchValue({ imageContentType: this.saleItem?.imageContentType ?? null });
     if (idInput && this.elementRef.nativeElement.querySelector('#' + idInput)) {
       this.elementRef.nativeElement.querySelector('#' + idInput).value = null;
     }
@@ -74,10 +83,19 @@ export class SaleItemUpdateComponent implements OnInit {
     this.isSaving = true;
     const saleItem = this.saleItemFormService.getSaleItem(this.editForm);
     if (saleItem.id !== null) {
-      this.subscribeToSaveResponse(this.saleItemService.update(saleItem));
+      this.subscribeToSaveResponse(this.saleItemService.update(saleItem).pipe(switchMap(res => this.uploadImageFile(res))));
     } else {
-      this.subscribeToSaveResponse(this.saleItemService.create(saleItem));
+      this.subscribeToSaveResponse(
+        this.saleItemService.create(saleItem, this.idempotencyKey).pipe(switchMap(res => this.uploadImageFile(res)))
+      );
+    }
+  }
+
+  protected uploadImageFile(res: HttpResponse<ISaleItem>): Observable<HttpResponse<ISaleItem>> {
+    if (this.imageFile && res.body) {
+      return this.saleItemService.uploadImage(res.body.id, this.imageFile);
     }
+    return of(res);
   }
 
   protected subscribeToSaveResponse(result: Observable<HttpResponse<ISaleItem>>): void {
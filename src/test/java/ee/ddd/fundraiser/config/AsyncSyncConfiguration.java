@@ -1,5 +1,9 @@
 package ee.ddd.fundraiser.config;
 
+import ee.ddd.fundraiser.service.CacheWarmUpService;
+import ee.ddd.fundraiser.service.SaleItemImageRenditionService;
+import ee.ddd.fundraiser.service.inventory.AdmissionService;
+import ee.ddd.fundraiser.web.sse.LiveUpdateBroadcaster;
 import java.util.concurrent.Executor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,4 +17,24 @@ public class AsyncSyncConfiguration {
     public Executor taskExecutor() {
         return new SyncTaskExecutor();
     }
+
+    @Bean(name = SaleItemImageRenditionService.EXECUTOR)
+    public Executor imageRenditionExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = LiveUpdateBroadcaster.EXECUTOR)
+    public Executor liveUpdateExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = AdmissionService.EXECUTOR)
+    public Executor admissionExecutor() {
+        return new SyncTaskExecutor();
+    }
+
+    @Bean(name = CacheWarmUpService.EXECUTOR)
+    public Executor cacheWarmUpExecutor() {
+        return new SyncTaskExecutor();
+    }
 }
@@ -0,0 +1,86 @@
+package ee.ddd.fundraiser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import javax.cache.Caching;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Unit tests for the {@link CacheConfiguration} of the cache regions.
+ */
+class CacheConfigurationTest {
+
+    private static final String REGION = CacheConfigurationTest.class.getName();
+
+    @Test
+    void regionsDefaultToTheEntriesAndTimeToLive() {
+        org.ehcache.config.CacheConfiguration<Object, Object> configuration = unwrap(
+            CacheConfiguration.jcacheConfiguration(null, 100, Duration.ofHours(1))
+        );
+
+        SizedResourcePool heap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        assertThat(heap.getSize()).isEqualTo(100);
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(configuration.getResourcePools().getResourceTypeSet()).containsExactly(ResourceType.Core.HEAP);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation("key", "value")).isEqualTo(Duration.ofHours(1));
+        assertThat(configuration.getExpiryPolicy().getExpiryForAccess("key", () -> "value")).isNull();
+    }
+
+    @Test
+    void regionsSizedInBytesSpillOffHeap() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setHeap(DataSize.ofMegabytes(16));
+        region.setOffHeap(DataSize.ofMegabytes(64));
+        region.setTimeToLive(Duration.ofMinutes(10));
+
+        org.ehcache.config.CacheConfiguration<Object, Object> configuration = unwrap(
+            CacheConfiguration.jcacheConfiguration(region, 100, Duration.ofHours(1))
+        );
+
+        SizedResourcePool heap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        assertThat(heap.getSize()).isEqualTo(16 * 1024);
+        assertThat(heap.getUnit()).isEqualTo(MemoryUnit.KB);
+        SizedResourcePool offHeap = configuration.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(offHeap.getSize()).isEqualTo(64);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.MB);
+        assertThat(configuration.getExpiryPolicy().getExpiryForCreation("key", "value")).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    @Test
+    void regionsWithTimeToIdleExpireWhenNotRead() {
+        ApplicationProperties.Cache.Region region = new ApplicationProperties.Cache.Region();
+        region.setTimeToIdle(Duration.ofMinutes(5));
+
+        ExpiryPolicy<? super Object, ? super Object> expiry = unwrap(
+            CacheConfiguration.jcacheConfiguration(region, 100, Duration.ofHours(1))
+        )
+            .getExpiryPolicy();
+
+        assertThat(expiry.getExpiryForCreation("key", "value")).isEqualTo(Duration.ofMinutes(5));
+        assertThat(expiry.getExpiryForAccess("key", () -> "value")).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static org.ehcache.config.CacheConfiguration<Object, Object> unwrap(
+        javax.cache.configuration.Configuration<Object, Object> configuration
+    ) {
+        javax.cache.CacheManager cacheManager = Caching.getCachingProvider().getCacheManager();
+        try {
+            return (CacheRuntimeConfiguration<Object, Object>) cacheManager
+                .createCache(REGION, configuration)
+                .getConfiguration(Eh107Configuration.class)
+                .unwrap(CacheRuntimeConfiguration.class);
+        } finally {
+            cacheManager.destroyCache(REGION);
+        }
+    }
+}
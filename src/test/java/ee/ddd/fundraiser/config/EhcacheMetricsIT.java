@@ -0,0 +1,92 @@
+package ee.ddd.fundraiser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the {@link EhcacheMetrics} of the cache regions.
+ * <p>
+ * The Hibernate second-level cache is disabled in tests, so its regions are used directly. The sale item region is sized
+ * in bytes and spills to the off-heap tier here only, as the other tests run with the default regions.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "application.cache.regions[ee.ddd.fundraiser.domain.SaleItem].heap=1MB",
+        "application.cache.regions[ee.ddd.fundraiser.domain.SaleItem].off-heap=8MB"
+    }
+)
+class EhcacheMetricsIT {
+
+    private static final String SALE_ITEM_REGION = SaleItem.class.getName();
+
+    private static final String KEY = EhcacheMetricsIT.class.getName();
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void cleanup() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).evict(KEY);
+        cacheManager.getCache(SALE_ITEM_REGION).evict(KEY);
+    }
+
+    @Test
+    void everyRegionIsBound() {
+        assertThat(meterRegistry.find("cache.gets").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).functionCounters()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.tier.entries").tags("cache", UserRepository.USERS_BY_EMAIL_CACHE).gauges()).isNotEmpty();
+        assertThat(meterRegistry.find("cache.size").tags("cache", SALE_ITEM_REGION).gauges()).isNotEmpty();
+    }
+
+    @Test
+    void regionsCountTheirHitsAndMisses() {
+        double hits = count(UserRepository.USERS_BY_LOGIN_CACHE, "hit");
+        double misses = count(UserRepository.USERS_BY_LOGIN_CACHE, "miss");
+        double puts = meterRegistry.get("cache.puts").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).functionCounter().count();
+
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        cache.get(KEY);
+        cache.put(KEY, "user");
+        cache.get(KEY);
+        cache.get(KEY);
+
+        assertThat(count(UserRepository.USERS_BY_LOGIN_CACHE, "hit")).isEqualTo(hits + 2);
+        assertThat(count(UserRepository.USERS_BY_LOGIN_CACHE, "miss")).isEqualTo(misses + 1);
+        assertThat(meterRegistry.get("cache.puts").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).functionCounter().count())
+            .isEqualTo(puts + 1);
+        assertThat(meterRegistry.get("cache.size").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge().value()).isPositive();
+    }
+
+    @Test
+    void regionsSizedInBytesReportTheirBytes() {
+        Cache cache = cacheManager.getCache(SALE_ITEM_REGION);
+        cache.put(KEY, new byte[1024]);
+
+        // Written off heap, then also kept on heap once read
+        assertThat(meterRegistry.get("cache.tier.bytes").tags("cache", SALE_ITEM_REGION, "tier", "OffHeap").gauge().value())
+            .isGreaterThan(1024);
+        cache.get(KEY);
+        assertThat(meterRegistry.get("cache.tier.bytes").tags("cache", SALE_ITEM_REGION, "tier", "OnHeap").gauge().value())
+            .isGreaterThan(1024);
+        // Sized by their number of entries
+        assertThat(meterRegistry.find("cache.tier.bytes").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge()).isNull();
+        assertThat(meterRegistry.get("cache.tier.entries").tags("cache", UserRepository.USERS_BY_LOGIN_CACHE).gauge()).isNotNull();
+    }
+
+    private double count(String cacheName, String result) {
+        return meterRegistry.get("cache.gets").tags("cache", cacheName, "result", result).functionCounter().count();
+    }
+}
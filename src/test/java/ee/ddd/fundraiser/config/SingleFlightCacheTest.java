@@ -0,0 +1,179 @@
+package ee.ddd.fundraiser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/**
+ * Unit tests for the {@link SingleFlightCache}.
+ */
+class SingleFlightCacheTest {
+
+    private static final String KEY = "admin";
+
+    private static final int THREADS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+
+    private final CountDownLatch loaded = new CountDownLatch(1);
+
+    private final Queue<Thread> threads = new ConcurrentLinkedQueue<>();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void init() {
+        executor =
+            Executors.newFixedThreadPool(
+                THREADS,
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    threads.add(thread);
+                    return thread;
+                }
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        loaded.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadsMissingEntriesOnce() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofSeconds(10), meterRegistry);
+
+        List<Future<String>> lookups = new ArrayList<>();
+        lookups.add(executor.submit(() -> cache.get(KEY, this::slowLoad)));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < THREADS; i++) {
+            lookups.add(executor.submit(() -> cache.get(KEY, this::slowLoad)));
+        }
+        awaitWaiting(THREADS);
+        loaded.countDown();
+
+        for (Future<String> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(count("loaded")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(THREADS - 1);
+        assertThat(cache.get(KEY, this::slowLoad)).isEqualTo("user");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadsTheEntryItselfAfterWaitingTooLong() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofMillis(10), meterRegistry);
+
+        Future<String> slowLookup = executor.submit(() -> cache.get(KEY, this::slowLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(cache.get(KEY, () -> "other user")).isEqualTo("other user");
+        assertThat(count("timeout")).isEqualTo(1);
+        loaded.countDown();
+        assertThat(slowLookup.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+    }
+
+    @Test
+    void waitingThreadsGetTheFailureOfTheLoad() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofSeconds(10), meterRegistry);
+        Callable<String> failingLoad = () -> {
+            slowLoad();
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        Future<String> failedLookup = executor.submit(() -> cache.get(KEY, failingLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> waitingLookup = executor.submit(() -> cache.get(KEY, this::slowLoad));
+        awaitWaiting(2);
+        loaded.countDown();
+
+        assertThatThrownBy(() -> failedLookup.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> waitingLookup.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    void doesNotCacheTheValueOfALoadStartedBeforeAnEviction() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofSeconds(10), meterRegistry);
+
+        Future<String> staleLookup = executor.submit(() -> cache.get(KEY, this::slowLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.evict(KEY);
+
+        assertThat(cache.get(KEY, () -> "renamed user")).isEqualTo("renamed user");
+        loaded.countDown();
+        assertThat(staleLookup.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+        assertThat(cache.get(KEY).get()).isEqualTo("renamed user");
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void doesNotCacheTheValueOfALoadStartedBeforeAClear() throws Exception {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofSeconds(10), meterRegistry);
+
+        Future<String> staleLookup = executor.submit(() -> cache.get(KEY, this::slowLoad));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        cache.clear();
+        loaded.countDown();
+
+        assertThat(staleLookup.get(5, TimeUnit.SECONDS)).isEqualTo("user");
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    void doesNotCacheMissingValues() {
+        SingleFlightCache cache = new SingleFlightCache(new ConcurrentMapCache("usersByLogin"), Duration.ofSeconds(10), meterRegistry);
+
+        assertThat(cache.<String>get(KEY, () -> null)).isNull();
+
+        assertThat(cache.get(KEY)).isNull();
+        assertThat(count("loaded")).isEqualTo(1);
+    }
+
+    /**
+     * Wait until the threads are all blocked, the first one loading the entry and the others waiting for it.
+     */
+    private void awaitWaiting(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < count || threads.stream().anyMatch(thread -> thread.getState() != Thread.State.TIMED_WAITING)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private String slowLoad() throws InterruptedException {
+        loads.incrementAndGet();
+        loading.countDown();
+        loaded.await(5, TimeUnit.SECONDS);
+        return "user";
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(SingleFlightCache.METER_NAME).tags("cache", "usersByLogin", "result", result).counter().count();
+    }
+}
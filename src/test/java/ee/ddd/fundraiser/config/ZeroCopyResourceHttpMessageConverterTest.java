@@ -0,0 +1,47 @@
+package ee.ddd.fundraiser.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Unit tests for the {@link ZeroCopyResourceHttpMessageConverter} class.
+ */
+class ZeroCopyResourceHttpMessageConverterTest {
+
+    private static final byte[] CONTENT = "0123456789".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+    private final ZeroCopyResourceHttpMessageConverter converter = new ZeroCopyResourceHttpMessageConverter();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testWriteFileResource() throws Exception {
+        Path file = Files.write(directory.resolve("image"), CONTENT);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        converter.write(new FileSystemResource(file), MediaType.IMAGE_PNG, new ServletServerHttpResponse(response));
+
+        assertThat(response.getContentLength()).isEqualTo(CONTENT.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void testWriteOtherResource() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        converter.write(new ByteArrayResource(CONTENT), MediaType.IMAGE_PNG, new ServletServerHttpResponse(response));
+
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+}
@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class FundraiserTotalTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(FundraiserTotal.class);
+        FundraiserTotal fundraiserTotal1 = new FundraiserTotal();
+        fundraiserTotal1.setId(1L);
+        FundraiserTotal fundraiserTotal2 = new FundraiserTotal();
+        fundraiserTotal2.setId(fundraiserTotal1.getId());
+        assertThat(fundraiserTotal1).isEqualTo(fundraiserTotal2);
+        fundraiserTotal2.setId(2L);
+        assertThat(fundraiserTotal1).isNotEqualTo(fundraiserTotal2);
+        fundraiserTotal1.setId(null);
+        assertThat(fundraiserTotal1).isNotEqualTo(fundraiserTotal2);
+    }
+}
@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class IdempotencyRecordTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(IdempotencyRecord.class);
+        IdempotencyRecord idempotencyRecord1 = new IdempotencyRecord();
+        idempotencyRecord1.setId("id1");
+        IdempotencyRecord idempotencyRecord2 = new IdempotencyRecord();
+        idempotencyRecord2.setId(idempotencyRecord1.getId());
+        assertThat(idempotencyRecord1).isEqualTo(idempotencyRecord2);
+        idempotencyRecord2.setId("id2");
+        assertThat(idempotencyRecord1).isNotEqualTo(idempotencyRecord2);
+        idempotencyRecord1.setId(null);
+        assertThat(idempotencyRecord1).isNotEqualTo(idempotencyRecord2);
+    }
+}
@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class InventoryCheckpointTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(InventoryCheckpoint.class);
+        InventoryCheckpoint inventoryCheckpoint1 = new InventoryCheckpoint();
+        inventoryCheckpoint1.setId(1L);
+        InventoryCheckpoint inventoryCheckpoint2 = new InventoryCheckpoint();
+        inventoryCheckpoint2.setId(inventoryCheckpoint1.getId());
+        assertThat(inventoryCheckpoint1).isEqualTo(inventoryCheckpoint2);
+        inventoryCheckpoint2.setId(2L);
+        assertThat(inventoryCheckpoint1).isNotEqualTo(inventoryCheckpoint2);
+        inventoryCheckpoint1.setId(null);
+        assertThat(inventoryCheckpoint1).isNotEqualTo(inventoryCheckpoint2);
+    }
+}
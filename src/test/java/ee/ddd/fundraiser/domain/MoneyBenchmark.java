@@ -0,0 +1,99 @@
+package ee.ddd.fundraiser.domain;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the total and change of a basket computed with {@link BigDecimal}s, as it was, and with {@link Money}.
+ * <p>
+ * Not run by the build. Run it from the IDE, or with
+ * {@code ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt} followed by
+ * {@code java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MoneyBenchmark -prof gc}
+ * to also see the bytes allocated per basket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({ "3", "30" })
+    private int lines;
+
+    private BigDecimal[] decimalPrices;
+
+    private Money[] moneyPrices;
+
+    private int[] quantities;
+
+    private BigDecimal decimalCashPaid;
+
+    private Money moneyCashPaid;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 10 + random.nextInt(5000);
+            decimalPrices[i] = BigDecimal.valueOf(cents, Money.SCALE);
+            moneyPrices[i] = Money.ofMinor(cents);
+            quantities[i] = 1 + random.nextInt(5);
+        }
+        decimalCashPaid = BigDecimal.valueOf(100_000_00, Money.SCALE);
+        moneyCashPaid = Money.ofMinor(100_000_00);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return decimalCashPaid.subtract(total);
+    }
+
+    @Benchmark
+    public Money money() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return moneyCashPaid.minus(total);
+    }
+
+    /**
+     * As the receipt adds up its lines: in cents, allocating only the result.
+     */
+    @Benchmark
+    public Money minorUnits() {
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total = Math.addExact(total, Math.multiplyExact(moneyPrices[i].getMinorUnits(), quantities[i]));
+        }
+        return Money.ofMinor(Math.subtractExact(moneyCashPaid.getMinorUnits(), total));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoneyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+
+class MoneyTest {
+
+    @Test
+    void keepsExactCents() {
+        assertThat(Money.of(new BigDecimal("12.34")).getMinorUnits()).isEqualTo(1234);
+        assertThat(Money.of(new BigDecimal("12.3")).getMinorUnits()).isEqualTo(1230);
+        assertThat(Money.of(new BigDecimal("12")).getMinorUnits()).isEqualTo(1200);
+        assertThat(Money.of(new BigDecimal("12.000")).getMinorUnits()).isEqualTo(1200);
+        assertThat(Money.of(new BigDecimal("-0.01")).getMinorUnits()).isEqualTo(-1);
+        assertThat(Money.of(new BigDecimal("1E+2")).getMinorUnits()).isEqualTo(10000);
+        assertThat(Money.valueOf("0.05")).isEqualTo(Money.ofMinor(5));
+    }
+
+    @Test
+    void refusesFractionsOfCentsUnlessRounded() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("0.005"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.valueOf("12.345")).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.valueOf("twelve")).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void roundsToTheCent() {
+        assertThat(Money.of(new BigDecimal("0.005"), RoundingMode.HALF_UP)).isEqualTo(Money.ofMinor(1));
+        assertThat(Money.of(new BigDecimal("0.005"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0.015"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ofMinor(2));
+        assertThat(Money.of(new BigDecimal("0.0149999"), RoundingMode.HALF_UP)).isEqualTo(Money.ofMinor(1));
+        assertThat(Money.of(new BigDecimal("-0.005"), RoundingMode.HALF_UP)).isEqualTo(Money.ofMinor(-1));
+        assertThat(Money.of(new BigDecimal("-0.005"), RoundingMode.HALF_EVEN)).isEqualTo(Money.ZERO);
+        assertThat(Money.of(new BigDecimal("0.001"), RoundingMode.UP)).isEqualTo(Money.ofMinor(1));
+        assertThat(Money.of(new BigDecimal("0.019"), RoundingMode.DOWN)).isEqualTo(Money.ofMinor(1));
+        assertThat(Money.of(new BigDecimal("-0.011"), RoundingMode.FLOOR)).isEqualTo(Money.ofMinor(-2));
+        assertThat(Money.of(new BigDecimal("-0.019"), RoundingMode.CEILING)).isEqualTo(Money.ofMinor(-1));
+    }
+
+    @Test
+    void addsUpExactly() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < 10; i++) {
+            total = total.plus(Money.valueOf("0.10"));
+        }
+        assertThat(total).isEqualTo(Money.valueOf("1.00"));
+        assertThat(Money.valueOf("0.10").times(3).plus(Money.valueOf("0.20"))).isEqualTo(Money.valueOf("0.50"));
+        assertThat(Money.valueOf("5").minus(Money.valueOf("4.99"))).isEqualTo(Money.ofMinor(1));
+        assertThat(Money.valueOf("2.50").times(0)).isSameAs(Money.ZERO);
+    }
+
+    @Test
+    void failsInsteadOfOverflowing() {
+        Money largest = Money.ofMinor(Long.MAX_VALUE);
+        assertThatThrownBy(() -> largest.plus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.ofMinor(Long.MIN_VALUE).minus(Money.ofMinor(1))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> largest.times(2)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("92233720368547758.08"))).isInstanceOf(ArithmeticException.class);
+        assertThat(Money.of(new BigDecimal("92233720368547758.07"))).isEqualTo(largest);
+    }
+
+    @Test
+    void comparesByAmount() {
+        assertThat(Money.valueOf("1.5")).isEqualTo(Money.valueOf("1.50")).hasSameHashCodeAs(Money.valueOf("1.50"));
+        assertThat(Money.valueOf("1.5")).isLessThan(Money.valueOf("1.51")).isGreaterThan(Money.valueOf("-2"));
+        assertThat(Money.valueOf("1.5")).isNotEqualTo(new BigDecimal("1.50"));
+    }
+
+    @Test
+    void printsTwoDecimals() {
+        assertThat(Money.valueOf("1.5")).hasToString("1.50");
+        assertThat(Money.valueOf("-0.05")).hasToString("-0.05");
+        assertThat(Money.valueOf("1E+3")).hasToString("1000.00");
+        assertThat(Money.valueOf("1.5").toBigDecimal()).isEqualTo(new BigDecimal("1.50"));
+    }
+
+    @Test
+    void readsAndWritesJsonNumbers() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertThat(objectMapper.writeValueAsString(Money.valueOf("2.5"))).isEqualTo("2.50");
+        assertThat(objectMapper.readValue("2.5", Money.class)).isEqualTo(Money.ofMinor(250));
+        assertThat(objectMapper.readValue("3", Money.class)).isEqualTo(Money.ofMinor(300));
+        assertThatThrownBy(() -> objectMapper.readValue("2.555", Money.class)).hasRootCauseInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void convertsToTheDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+        assertThat(converter.convertToDatabaseColumn(Money.valueOf("2.5"))).isEqualTo(new BigDecimal("2.50"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("2.50"))).isEqualTo(Money.ofMinor(250));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
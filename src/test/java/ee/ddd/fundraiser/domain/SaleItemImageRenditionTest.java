@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SaleItemImageRenditionTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SaleItemImageRendition.class);
+        SaleItemImageRendition saleItemImageRendition1 = new SaleItemImageRendition();
+        saleItemImageRendition1.setId(1L);
+        SaleItemImageRendition saleItemImageRendition2 = new SaleItemImageRendition();
+        saleItemImageRendition2.setId(saleItemImageRendition1.getId());
+        assertThat(saleItemImageRendition1).isEqualTo(saleItemImageRendition2);
+        saleItemImageRendition2.setId(2L);
+        assertThat(saleItemImageRendition1).isNotEqualTo(saleItemImageRendition2);
+        saleItemImageRendition1.setId(null);
+        assertThat(saleItemImageRendition1).isNotEqualTo(saleItemImageRendition2);
+    }
+}
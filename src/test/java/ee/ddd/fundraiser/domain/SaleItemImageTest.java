@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SaleItemImageTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SaleItemImage.class);
+        SaleItemImage saleItemImage1 = new SaleItemImage();
+        saleItemImage1.setId(1L);
+        SaleItemImage saleItemImage2 = new SaleItemImage();
+        saleItemImage2.setId(saleItemImage1.getId());
+        assertThat(saleItemImage1).isEqualTo(saleItemImage2);
+        saleItemImage2.setId(2L);
+        assertThat(saleItemImage1).isNotEqualTo(saleItemImage2);
+        saleItemImage1.setId(null);
+        assertThat(saleItemImage1).isNotEqualTo(saleItemImage2);
+    }
+}
@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SaleLedgerEntryTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SaleLedgerEntry.class);
+        SaleLedgerEntry saleLedgerEntry1 = new SaleLedgerEntry();
+        saleLedgerEntry1.setId(1L);
+        SaleLedgerEntry saleLedgerEntry2 = new SaleLedgerEntry();
+        saleLedgerEntry2.setId(saleLedgerEntry1.getId());
+        assertThat(saleLedgerEntry1).isEqualTo(saleLedgerEntry2);
+        saleLedgerEntry2.setId(2L);
+        assertThat(saleLedgerEntry1).isNotEqualTo(saleLedgerEntry2);
+        saleLedgerEntry1.setId(null);
+        assertThat(saleLedgerEntry1).isNotEqualTo(saleLedgerEntry2);
+    }
+}
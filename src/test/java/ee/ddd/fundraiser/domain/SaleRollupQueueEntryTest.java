@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SaleRollupQueueEntryTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SaleRollupQueueEntry.class);
+        SaleRollupQueueEntry saleRollupQueueEntry1 = new SaleRollupQueueEntry();
+        saleRollupQueueEntry1.setId(1L);
+        SaleRollupQueueEntry saleRollupQueueEntry2 = new SaleRollupQueueEntry();
+        saleRollupQueueEntry2.setId(saleRollupQueueEntry1.getId());
+        assertThat(saleRollupQueueEntry1).isEqualTo(saleRollupQueueEntry2);
+        saleRollupQueueEntry2.setId(2L);
+        assertThat(saleRollupQueueEntry1).isNotEqualTo(saleRollupQueueEntry2);
+        saleRollupQueueEntry1.setId(null);
+        assertThat(saleRollupQueueEntry1).isNotEqualTo(saleRollupQueueEntry2);
+    }
+}
@@ -0,0 +1,23 @@
+package ee.ddd.fundraiser.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.web.rest.TestUtil;
+import org.junit.jupiter.api.Test;
+
+class SaleRollupTest {
+
+    @Test
+    void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(SaleRollup.class);
+        SaleRollup saleRollup1 = new SaleRollup();
+        saleRollup1.setId(1L);
+        SaleRollup saleRollup2 = new SaleRollup();
+        saleRollup2.setId(saleRollup1.getId());
+        assertThat(saleRollup1).isEqualTo(saleRollup2);
+        saleRollup2.setId(2L);
+        assertThat(saleRollup1).isNotEqualTo(saleRollup2);
+        saleRollup1.setId(null);
+        assertThat(saleRollup1).isNotEqualTo(saleRollup2);
+    }
+}
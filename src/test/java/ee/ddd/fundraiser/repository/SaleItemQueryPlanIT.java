@@ -0,0 +1,116 @@
+package ee.ddd.fundraiser.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.service.SaleItemQueryService;
+import ee.ddd.fundraiser.service.criteria.SaleItemCriteria;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests checking that the sale item filters of {@link SaleItemQueryService} are served by indexes.
+ * <p>
+ * The statements Hibernate generates for the page and for its count are recorded by the {@link StatementRecorder},
+ * then explained with the values of the criteria bound to their parameters.
+ */
+@IntegrationTest
+@Transactional
+class SaleItemQueryPlanIT {
+
+    // The second page, as the count is only queried when the first one is not enough to know the total
+    private static final PageRequest PAGE = PageRequest.of(1, 20);
+
+    private static final Pattern COMPARED_COLUMN = Pattern.compile("\\.(\\w+)\\s*(?:=|<>|>=|<=|>|<)\\s*$");
+
+    private static final Pattern PAGINATION = Pattern.compile("\\b(limit|offset|fetch first|fetch next)\\s*$", Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private SaleItemQueryService saleItemQueryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        if ("PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()))) {
+            // Otherwise the empty test table is read sequentially, whatever its indexes
+            jdbcTemplate.execute("set local enable_seqscan = off");
+        }
+    }
+
+    @Test
+    void filterByTypeAndPriceRangeShouldUseIndex() {
+        SaleItemCriteria criteria = new SaleItemCriteria();
+        criteria.type().setEquals(ItemType.EDIBLE);
+        criteria.price().setGreaterThanOrEqual(Money.of(BigDecimal.ONE));
+        criteria.price().setLessThanOrEqual(Money.of(BigDecimal.TEN));
+
+        List<String> statements = StatementRecorder.record(
+            () -> saleItemQueryService.findByCriteria(criteria, PAGE.withSort(Sort.by("price")))
+        );
+
+        assertThat(statements).hasSize(2);
+        Map<String, Object> values = Map.of("type", "EDIBLE", "price", BigDecimal.ONE);
+        assertThat(statements)
+            .allSatisfy(statement -> assertThat(plan(statement, values)).as(statement).containsIgnoringCase("idx_sale_item__type_price"));
+    }
+
+    @Test
+    void filterByTypeInStockShouldUseIndex() {
+        SaleItemCriteria criteria = new SaleItemCriteria();
+        criteria.type().setEquals(ItemType.EDIBLE);
+        criteria.quantity().setGreaterThan(0);
+
+        List<String> statements = StatementRecorder.record(
+            () -> saleItemQueryService.findByCriteria(criteria, PAGE.withSort(Sort.by("id")))
+        );
+
+        assertThat(statements).hasSize(2);
+        Map<String, Object> values = Map.of("type", "EDIBLE", "quantity", 0);
+        assertThat(statements)
+            .allSatisfy(statement ->
+                assertThat(plan(statement, values)).as(statement).containsIgnoringCase("idx_sale_item__type_quantity")
+            );
+    }
+
+    /**
+     * Explain a statement generated by Hibernate.
+     *
+     * @param statement the statement.
+     * @param values the values to bind to the parameters compared to each column, the pagination parameters being bound
+     * to {@link #PAGE}.
+     * @return the plan.
+     */
+    private String plan(String statement, Map<String, Object> values) {
+        List<Object> parameters = new ArrayList<>();
+        for (int i = statement.indexOf('?'); i >= 0; i = statement.indexOf('?', i + 1)) {
+            String before = statement.substring(0, i);
+            Matcher column = COMPARED_COLUMN.matcher(before);
+            Matcher pagination = PAGINATION.matcher(before);
+            if (column.find()) {
+                assertThat(values).as("value of %s in %s", column.group(1), statement).containsKey(column.group(1));
+                parameters.add(values.get(column.group(1)));
+            } else if (pagination.find()) {
+                parameters.add("offset".equalsIgnoreCase(pagination.group(1)) ? PAGE.getOffset() : PAGE.getPageSize());
+            } else {
+                throw new AssertionError("Unexpected parameter " + parameters.size() + " in " + statement);
+            }
+        }
+        return String.join("\n", jdbcTemplate.queryForList("explain " + statement, String.class, parameters.toArray()));
+    }
+}
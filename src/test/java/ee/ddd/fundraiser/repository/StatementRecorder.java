@@ -0,0 +1,43 @@
+package ee.ddd.fundraiser.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * {@link StatementInspector} recording the SQL Hibernate generates, so that tests can check how it is run.
+ * <p>
+ * It is set by {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}, and only records the
+ * statements of the current thread while {@link #record(Supplier)} runs.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /**
+     * Record the statements generated while running some code.
+     *
+     * @param code the code to run.
+     * @return the statements, in order.
+     */
+    public static List<String> record(Supplier<?> code) {
+        List<String> statements = new ArrayList<>();
+        STATEMENTS.set(statements);
+        try {
+            code.get();
+        } finally {
+            STATEMENTS.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
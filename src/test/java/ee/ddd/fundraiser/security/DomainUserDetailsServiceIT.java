@@ -6,14 +6,20 @@ import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import ee.ddd.fundraiser.IntegrationTest;
 import ee.ddd.fundraiser.domain.User;
 import ee.ddd.fundraiser.repository.UserRepository;
+import ee.ddd.fundraiser.service.UserService;
+import ee.ddd.fundraiser.service.dto.AdminUserDTO;
 import java.util.Locale;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -29,10 +35,18 @@ class DomainUserDetailsServiceIT {
     private static final String USER_TWO_EMAIL = "test-user-two@localhost";
     private static final String USER_THREE_LOGIN = "test-user-three";
     private static final String USER_THREE_EMAIL = "test-user-three@localhost";
+    private static final String UNKNOWN_LOGIN = "test-user-unknown";
+    private static final String UNKNOWN_EMAIL = "test-user-unknown@localhost";
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     @Qualifier("userDetailsService")
     private UserDetailsService domainUserDetailsService;
@@ -70,6 +84,15 @@ class DomainUserDetailsServiceIT {
         userRepository.save(userThree);
     }
 
+    @AfterEach
+    public void cleanup() {
+        // The users created by the tests are rolled back, but not their cache entries
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).evict(UNKNOWN_LOGIN);
+        cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).evict(UNKNOWN_EMAIL);
+        unknownUsers().evict(UNKNOWN_LOGIN);
+        unknownUsers().evict(UNKNOWN_EMAIL);
+    }
+
     @Test
     void assertThatUserCanBeFoundByLogin() {
         UserDetails userDetails = domainUserDetailsService.loadUserByUsername(USER_ONE_LOGIN);
@@ -110,4 +133,43 @@ class DomainUserDetailsServiceIT {
         assertThatExceptionOfType(UserNotActivatedException.class)
             .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(USER_THREE_LOGIN));
     }
+
+    @Test
+    void assertThatUnknownUsersAreRememberedUntilCreated() {
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(UNKNOWN_LOGIN.toUpperCase(Locale.ENGLISH)));
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(UNKNOWN_EMAIL));
+        assertThat(unknownUsers().get(UNKNOWN_LOGIN)).isNotNull();
+        assertThat(unknownUsers().get(UNKNOWN_EMAIL)).isNotNull();
+
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(UNKNOWN_LOGIN);
+        userDTO.setEmail(UNKNOWN_EMAIL);
+        userService.createUser(userDTO);
+
+        assertThat(domainUserDetailsService.loadUserByUsername(UNKNOWN_LOGIN).getUsername()).isEqualTo(UNKNOWN_LOGIN);
+        assertThat(domainUserDetailsService.loadUserByUsername(UNKNOWN_EMAIL).getUsername()).isEqualTo(UNKNOWN_LOGIN);
+    }
+
+    @Test
+    void assertThatUnknownUsersAreForgottenOnRegistration() {
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(UNKNOWN_EMAIL.toUpperCase(Locale.ENGLISH)));
+
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(UNKNOWN_LOGIN);
+        userDTO.setEmail(UNKNOWN_EMAIL);
+        userDTO.setLangKey("en");
+        userService.registerUser(userDTO, RandomStringUtils.randomAlphanumeric(60));
+
+        assertThat(unknownUsers().get(UNKNOWN_EMAIL)).isNull();
+        // Registered users are found, but not activated yet
+        assertThatExceptionOfType(UserNotActivatedException.class)
+            .isThrownBy(() -> domainUserDetailsService.loadUserByUsername(UNKNOWN_EMAIL));
+    }
+
+    private Cache unknownUsers() {
+        return cacheManager.getCache(UserRepository.UNKNOWN_USERS_CACHE);
+    }
 }
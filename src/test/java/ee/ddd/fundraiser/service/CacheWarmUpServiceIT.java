@@ -0,0 +1,126 @@
+package ee.ddd.fundraiser.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.config.CacheWarmUpHealthIndicator;
+import ee.ddd.fundraiser.domain.Authority;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.User;
+import ee.ddd.fundraiser.repository.AuthorityRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.UserRepository;
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for the {@link CacheWarmUpService}.
+ * <p>
+ * In tests, the caches are loaded by the thread starting the warm-up, instead of by the threads of the pool.
+ */
+@IntegrationTest
+class CacheWarmUpServiceIT {
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private CacheWarmUpHealthIndicator cacheWarmUpHealthIndicator;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loadsTheUsersAuthoritiesAndSaleItems() {
+        Cache usersByLogin = cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE);
+        usersByLogin.evict("admin");
+        double authorities = meterRegistry
+            .get(CacheWarmUpService.ENTRIES_METER_NAME)
+            .tags("cache", Authority.class.getName())
+            .counter()
+            .count();
+        long warmUps = meterRegistry.get(CacheWarmUpService.METER_NAME).timer().count();
+
+        Map<String, Integer> entries = cacheWarmUpService.warmUp().join();
+
+        User admin = usersByLogin.get("admin", User.class);
+        assertThat(admin).isNotNull();
+        assertThat(admin.getAuthorities()).extracting(Authority::getName).contains(AuthoritiesConstants.ADMIN);
+        assertThat(entries)
+            .containsEntry(Authority.class.getName(), authorityRepository.findAll().size())
+            .containsEntry(SaleItem.class.getName(), saleItemRepository.findAllIds().size())
+            .containsKey(UserRepository.USERS_BY_LOGIN_CACHE);
+        assertThat(meterRegistry.get(CacheWarmUpService.ENTRIES_METER_NAME).tags("cache", Authority.class.getName()).counter().count())
+            .isEqualTo(authorities + entries.get(Authority.class.getName()));
+        assertThat(meterRegistry.get(CacheWarmUpService.METER_NAME).timer().count()).isEqualTo(warmUps + 1);
+        assertThat(cacheWarmUpService.isOver()).isTrue();
+        assertThat(cacheWarmUpHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void staysOutOfServiceUntilLoadedOrTimedOut() {
+        List<Runnable> pending = new ArrayList<>();
+        CacheWarmUpService slowWarmUp = createCacheWarmUpService(pending, Duration.ofHours(1));
+        CacheWarmUpService timedOutWarmUp = createCacheWarmUpService(new ArrayList<>(), Duration.ZERO);
+
+        assertThat(slowWarmUp.isOver()).isFalse();
+        slowWarmUp.warmUp();
+        timedOutWarmUp.warmUp();
+
+        assertThat(slowWarmUp.isOver()).isFalse();
+        assertThat(new CacheWarmUpHealthIndicator(slowWarmUp).health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(timedOutWarmUp.isOver()).isTrue();
+        assertThat(new CacheWarmUpHealthIndicator(timedOutWarmUp).health().getStatus()).isEqualTo(Status.UP);
+
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+        assertThat(slowWarmUp.isOver()).isTrue();
+    }
+
+    private CacheWarmUpService createCacheWarmUpService(List<Runnable> pending, Duration timeout) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setTimeout(timeout);
+        return new CacheWarmUpService(
+            saleItemRepository,
+            authorityRepository,
+            userRepository,
+            catalogSnapshotService,
+            cacheManager,
+            transactionManager,
+            pending::add,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+    }
+}
@@ -0,0 +1,245 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.CheckoutBusyException;
+import ee.ddd.fundraiser.service.CheckoutService;
+import ee.ddd.fundraiser.service.InsufficientStockException;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.CheckoutLineDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the {@link AdmissionService}.
+ * <p>
+ * Not transactional, so that concurrent checkouts really compete for the database connections. In tests, the
+ * checkouts are admitted by whichever of them finds the queue idle, instead of by a thread of the pool.
+ */
+@IntegrationTest
+class AdmissionServiceIT {
+
+    private static final int STOCK = 24;
+
+    private static final int CHECKOUTS = 256;
+
+    private static final int TILLS = 8;
+
+    private final Logger log = LoggerFactory.getLogger(AdmissionServiceIT.class);
+
+    @Autowired
+    private AdmissionService admissionService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<SaleItem> saleItems = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        saleItems.forEach(saleItem -> {
+            saleItemRepository.deleteById(saleItem.getId());
+            inventoryService.quantityChanged(saleItem.getId());
+        });
+    }
+
+    private SaleItem createSaleItem(Integer quantity, Boolean flashSale) {
+        SaleItem saleItem = saleItemRepository.save(
+            new SaleItem()
+                .name("Signed poster")
+                .price(Money.valueOf("10.00"))
+                .quantity(quantity)
+                .flashSale(flashSale)
+                .type(ItemType.SECOND_HAND_ITEM)
+                .imageContentType("image/png")
+        );
+        saleItems.add(saleItem);
+        return saleItem;
+    }
+
+    @Test
+    void admitsUntilSoldOut() {
+        SaleItem poster = createSaleItem(3, true);
+
+        assertThat(admissionService.admit(poster.getId(), 2)).isTrue();
+        assertThat(admissionService.admit(poster.getId(), 2)).isFalse();
+        assertThat(admissionService.admit(poster.getId(), 1)).isTrue();
+        assertThat(admissionService.admit(poster.getId(), 1)).isFalse();
+        assertThat(inventoryService.getAvailable(poster.getId())).contains(0);
+    }
+
+    @Test
+    void turnsAwayCheckoutsWaitingTooLongOrTooMany() {
+        SaleItem poster = createSaleItem(3, true);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getInventory().getAdmission().setQueueCapacity(1);
+        applicationProperties.getInventory().getAdmission().setTimeout(Duration.ofMillis(10));
+        List<Runnable> pending = new ArrayList<>();
+        AdmissionService stalledAdmissionService = new AdmissionService(
+            inventoryService,
+            pending::add,
+            applicationProperties,
+            new SimpleMeterRegistry()
+        );
+
+        assertThatThrownBy(() -> stalledAdmissionService.admit(poster.getId(), 1)).isInstanceOf(CheckoutBusyException.class);
+        assertThatThrownBy(() -> stalledAdmissionService.admit(poster.getId(), 1)).isInstanceOf(CheckoutBusyException.class);
+
+        // The checkout given up on is never admitted
+        pending.forEach(Runnable::run);
+        assertThat(inventoryService.getAvailable(poster.getId())).contains(3);
+    }
+
+    @Test
+    void turnsAwayCheckoutsTheExecutorCannotAdmit() {
+        SaleItem poster = createSaleItem(3, true);
+        AtomicBoolean saturated = new AtomicBoolean(true);
+        AdmissionService saturatedAdmissionService = new AdmissionService(
+            inventoryService,
+            task -> {
+                if (saturated.get()) {
+                    throw new RejectedExecutionException();
+                }
+                task.run();
+            },
+            new ApplicationProperties(),
+            new SimpleMeterRegistry()
+        );
+
+        assertThatThrownBy(() -> saturatedAdmissionService.admit(poster.getId(), 1)).isInstanceOf(CheckoutBusyException.class);
+
+        // Admitted again once the executor takes tasks, without the checkout turned away
+        saturated.set(false);
+        assertThat(saturatedAdmissionService.admit(poster.getId(), 1)).isTrue();
+        assertThat(inventoryService.getAvailable(poster.getId())).contains(2);
+    }
+
+    /**
+     * Load harness comparing a burst of checkouts of a sale item selling out, with and without the admission queue.
+     * Either way, the stock is reserved before the transaction begins, so the checkouts turned away take no database
+     * connection; the queue only changes how they compete for the stock counter, which shows in the elapsed time logged.
+     * It varies too much from one run to the next to be asserted.
+     */
+    @Test
+    void checkoutsTurnedAwayTakeNoDatabaseConnection() throws Exception {
+        Load direct = sellOut(createSaleItem(STOCK + 1, false));
+        Load queued = sellOut(createSaleItem(STOCK + 1, true));
+        log.info("{} checkouts of {} sale items without admission queue: {}", CHECKOUTS, STOCK, direct);
+        log.info("{} checkouts of {} sale items with admission queue: {}", CHECKOUTS, STOCK, queued);
+
+        assertThat(direct.sold).isEqualTo(STOCK);
+        assertThat(queued.sold).isEqualTo(STOCK);
+        assertThat(direct.connections).isLessThan(CHECKOUTS - STOCK);
+        assertThat(queued.connections).isLessThan(CHECKOUTS - STOCK);
+    }
+
+    private Load sellOut(SaleItem saleItem) throws Exception {
+        // Creates the totals of the sale item, which would otherwise take a second connection for every till
+        assertThat(sell(saleItem)).isTrue();
+        Timer acquisitions = meterRegistry.get("hikaricp.connections.acquire").timer();
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        long acquired = acquisitions.count();
+        double used = usage.totalTime(TimeUnit.MILLISECONDS);
+
+        ExecutorService tills = Executors.newFixedThreadPool(TILLS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> sales = new ArrayList<>();
+        long begin = System.nanoTime();
+        try {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                sales.add(
+                    tills.submit(
+                        (Callable<Boolean>) () -> {
+                            start.await();
+                            return sell(saleItem);
+                        }
+                    )
+                );
+            }
+            start.countDown();
+            int sold = 0;
+            for (Future<Boolean> sale : sales) {
+                sold += sale.get() ? 1 : 0;
+            }
+            return new Load(
+                sold,
+                acquisitions.count() - acquired,
+                usage.totalTime(TimeUnit.MILLISECONDS) - used,
+                (System.nanoTime() - begin) / 1_000_000
+            );
+        } finally {
+            tills.shutdown();
+        }
+    }
+
+    private boolean sell(SaleItem saleItem) {
+        try {
+            checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(saleItem.getId(), 1))));
+            return true;
+        } catch (InsufficientStockException e) {
+            return false;
+        }
+    }
+
+    private static final class Load {
+
+        private final int sold;
+
+        private final long connections;
+
+        private final double connectionMillis;
+
+        private final long elapsedMillis;
+
+        private Load(int sold, long connections, double connectionMillis, long elapsedMillis) {
+            this.sold = sold;
+            this.connections = connections;
+            this.connectionMillis = connectionMillis;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d sold, %d connections taken, held %.0f ms in all, %d ms elapsed",
+                sold,
+                connections,
+                connectionMillis,
+                elapsedMillis
+            );
+        }
+    }
+}
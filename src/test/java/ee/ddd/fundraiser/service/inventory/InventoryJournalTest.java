@@ -0,0 +1,126 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link InventoryJournal} class.
+ */
+class InventoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private InventoryJournal journal;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        journal = new InventoryJournal(directory);
+        journal.start(1);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        journal.close();
+    }
+
+    @Test
+    void testAppendAndRead() throws Exception {
+        assertThat(journal.hasAppended()).isFalse();
+
+        journal.append(1L, 2);
+        journal.append(2L, 1);
+        journal.append(1L, 3);
+        journal.append(2L, -1);
+
+        assertThat(journal.hasAppended()).isTrue();
+        assertThat(directory.resolve("reservations-1.journal")).hasContent("1 2\n2 1\n1 3\n2 -1\n");
+        assertThat(journal.read(1)).containsOnly(entry(1L, 5), entry(2L, 0));
+    }
+
+    @Test
+    void testAppendAllAndRead() throws Exception {
+        journal.appendAll(List.of());
+        assertThat(journal.hasAppended()).isFalse();
+
+        journal.append(1L, 2);
+        journal.appendAll(List.of(Map.entry(2L, 1), Map.entry(1L, 3)));
+
+        assertThat(directory.resolve("reservations-1.journal")).hasContent("1 2\n2 1\n1 3\n");
+        assertThat(journal.read(1)).containsOnly(entry(1L, 5), entry(2L, 1));
+    }
+
+    @Test
+    void testConcurrentAppends() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                appends.add(
+                    executor.submit(() -> {
+                        for (int j = 0; j < 100; j++) {
+                            journal.append(1L, 1);
+                        }
+                        return null;
+                    })
+                );
+            }
+            for (Future<?> append : appends) {
+                append.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(journal.read(1)).containsOnly(entry(1L, 400));
+    }
+
+    @Test
+    void testRotate() throws Exception {
+        journal.append(1L, 2);
+
+        assertThat(journal.rotate()).isEqualTo(1);
+        assertThat(journal.hasAppended()).isFalse();
+        journal.append(1L, 1);
+
+        assertThat(journal.segments()).containsExactly(1L, 2L);
+        assertThat(journal.read(1)).containsOnly(entry(1L, 2));
+        assertThat(journal.read(2)).containsOnly(entry(1L, 1));
+    }
+
+    @Test
+    void testReadIgnoresTornLine() throws Exception {
+        journal.append(1L, 2);
+        Files.writeString(directory.resolve("reservations-1.journal"), "1 3", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        assertThat(journal.read(1)).containsOnly(entry(1L, 2));
+    }
+
+    @Test
+    void testDeleteUpTo() throws Exception {
+        journal.rotate();
+        journal.rotate();
+        Files.writeString(directory.resolve("unrelated.txt"), "kept");
+
+        journal.deleteUpTo(2);
+
+        assertThat(journal.segments()).containsExactly(3L);
+        assertThat(directory.resolve("unrelated.txt")).exists();
+    }
+}
@@ -0,0 +1,148 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import ee.ddd.fundraiser.domain.InventoryCheckpoint;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.repository.InventoryCheckpointRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.CatalogSnapshotService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for the reconciliation of the {@link InventoryService} with its journal.
+ * <p>
+ * Not transactional, so that the replayed reservations really commit. A crash is simulated by starting another
+ * {@link InventoryService} on the same journal directory, without flushing the first one.
+ */
+@IntegrationTest
+class InventoryServiceIT {
+
+    @TempDir
+    Path journalDirectory;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private InventoryCheckpointRepository inventoryCheckpointRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private Optional<InventoryCheckpoint> checkpoint;
+
+    private SaleItem cake;
+
+    @BeforeEach
+    public void setup() {
+        // Shared with the InventoryService of the application context
+        checkpoint = inventoryCheckpointRepository.findById(InventoryCheckpoint.ID);
+        cake =
+            saleItemRepository.save(
+                new SaleItem()
+                    .name("Lemon cake")
+                    .price(Money.valueOf("2.50"))
+                    .quantity(10)
+                    .type(ItemType.EDIBLE)
+                    .imageContentType("image/png")
+            );
+    }
+
+    @AfterEach
+    public void cleanup() {
+        saleItemRepository.deleteById(cake.getId());
+        checkpoint.ifPresentOrElse(
+            inventoryCheckpointRepository::save,
+            () -> inventoryCheckpointRepository.deleteById(InventoryCheckpoint.ID)
+        );
+    }
+
+    private InventoryService startInventoryService() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getInventory().setJournalDirectory(journalDirectory.toString());
+        return new InventoryService(
+            applicationProperties,
+            saleItemRepository,
+            inventoryCheckpointRepository,
+            catalogSnapshotService,
+            transactionManager,
+            applicationEventPublisher,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    private Integer quantityOfCake() {
+        return saleItemRepository.findById(cake.getId()).orElseThrow().getQuantity();
+    }
+
+    private Map<Path, byte[]> readSegments() throws Exception {
+        Map<Path, byte[]> segments = new HashMap<>();
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                segments.put(file, Files.readAllBytes(file));
+            }
+        }
+        return segments;
+    }
+
+    @Test
+    void replaysTheReservationsJournaledBeforeACrashOnce() {
+        InventoryService crashed = startInventoryService();
+        assertThat(crashed.reserve(cake.getId(), 3)).isTrue();
+        assertThat(crashed.reserve(cake.getId(), 2)).isTrue();
+        crashed.release(cake.getId(), 2);
+        assertThat(quantityOfCake()).isEqualTo(10);
+
+        assertThat(startInventoryService().getAvailable(cake.getId())).contains(7);
+        assertThat(quantityOfCake()).isEqualTo(7);
+
+        // Nothing left to replay
+        assertThat(startInventoryService().getAvailable(cake.getId())).contains(7);
+        assertThat(quantityOfCake()).isEqualTo(7);
+    }
+
+    @Test
+    void replaysOnlyTheSegmentsAfterTheCheckpoint() throws Exception {
+        InventoryService crashed = startInventoryService();
+        assertThat(crashed.reserve(cake.getId(), 3)).isTrue();
+        Map<Path, byte[]> flushedSegments = readSegments();
+        crashed.flush();
+        assertThat(quantityOfCake()).isEqualTo(7);
+        // As if the written segments could not be deleted
+        for (Map.Entry<Path, byte[]> segment : flushedSegments.entrySet()) {
+            Files.write(segment.getKey(), segment.getValue());
+        }
+        assertThat(crashed.reserve(cake.getId(), 1)).isTrue();
+
+        assertThat(startInventoryService().getAvailable(cake.getId())).contains(6);
+        assertThat(quantityOfCake()).isEqualTo(6);
+
+        // Nothing left to replay
+        assertThat(startInventoryService().getAvailable(cake.getId())).contains(6);
+        assertThat(quantityOfCake()).isEqualTo(6);
+    }
+}
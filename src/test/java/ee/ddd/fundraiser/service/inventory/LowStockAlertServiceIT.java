@@ -0,0 +1,152 @@
+package ee.ddd.fundraiser.service.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import java.util.ArrayList;
+import java.util.List;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.javamail.JavaMailSender;
+
+/**
+ * Integration tests for the {@link LowStockAlertService}.
+ * <p>
+ * Not transactional, so that the sale items are seen by the {@link InventoryService}. The quiet period is zero in
+ * tests, so a digest is sent as soon as it is asked for.
+ */
+@IntegrationTest
+class LowStockAlertServiceIT {
+
+    @Autowired
+    private LowStockAlertService lowStockAlertService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @Captor
+    private ArgumentCaptor<MimeMessage> messageCaptor;
+
+    private final List<SaleItem> saleItems = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        doNothing().when(javaMailSender).send(any(MimeMessage.class));
+        when(javaMailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        // Alerts left by other tests
+        lowStockAlertService.sendDigest();
+        clearInvocations(javaMailSender);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        saleItems.forEach(saleItem -> {
+            saleItemRepository.deleteById(saleItem.getId());
+            inventoryService.quantityChanged(saleItem.getId());
+        });
+    }
+
+    private SaleItem createSaleItem(String name, Integer quantity, Integer lowStockThreshold) {
+        SaleItem saleItem = saleItemRepository.save(
+            new SaleItem()
+                .name(name)
+                .price(Money.valueOf("1.00"))
+                .quantity(quantity)
+                .lowStockThreshold(lowStockThreshold)
+                .type(ItemType.EDIBLE)
+                .imageContentType("image/png")
+        );
+        saleItems.add(saleItem);
+        return saleItem;
+    }
+
+    @Test
+    void sendsOneDigestForSeveralSaleItems() throws Exception {
+        SaleItem cake = createSaleItem("Lemon cake", 5, 2);
+        SaleItem book = createSaleItem("Old atlas", 3, 1);
+        SaleItem mug = createSaleItem("Mug", 5, 1);
+
+        assertThat(inventoryService.reserve(cake.getId(), 2)).isTrue();
+        assertThat(inventoryService.reserve(cake.getId(), 1)).isTrue();
+        assertThat(inventoryService.reserve(cake.getId(), 1)).isTrue();
+        assertThat(inventoryService.reserve(book.getId(), 3)).isTrue();
+        assertThat(inventoryService.reserve(mug.getId(), 2)).isTrue();
+        lowStockAlertService.sendDigest();
+
+        verify(javaMailSender).send(messageCaptor.capture());
+        MimeMessage message = messageCaptor.getValue();
+        assertThat(message.getSubject()).isEqualTo("fundraiser sale items running low");
+        assertThat(message.getAllRecipients()[0]).hasToString("admin@localhost");
+        assertThat(message.getContent().toString())
+            .contains("Old atlas: 0 left (alert at 1)", "Lemon cake: 1 left (alert at 2)")
+            .doesNotContain("Mug");
+
+        // Sent once
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void alertsAgainOnlyOnceRestocked() throws Exception {
+        SaleItem cake = createSaleItem("Lemon cake", 5, 2);
+
+        assertThat(inventoryService.reserve(cake.getId(), 3)).isTrue();
+        inventoryService.release(cake.getId(), 3);
+        assertThat(inventoryService.reserve(cake.getId(), 3)).isTrue();
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender).send(any(MimeMessage.class));
+
+        assertThat(inventoryService.reserve(cake.getId(), 1)).isTrue();
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender).send(any(MimeMessage.class));
+
+        inventoryService.release(cake.getId(), 4);
+        assertThat(inventoryService.reserve(cake.getId(), 4)).isTrue();
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender, times(2)).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void leavesOutRestockedSaleItems() {
+        SaleItem cake = createSaleItem("Lemon cake", 5, 2);
+
+        assertThat(inventoryService.reserve(cake.getId(), 3)).isTrue();
+        inventoryService.release(cake.getId(), 1);
+        lowStockAlertService.sendDigest();
+
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void alertsWhenTheThresholdIsRaisedAboveTheStock() {
+        SaleItem cake = createSaleItem("Lemon cake", 5, null);
+
+        assertThat(inventoryService.reserve(cake.getId(), 5)).isTrue();
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender, never()).send(any(MimeMessage.class));
+
+        saleItemRepository.save(saleItemRepository.findById(cake.getId()).orElseThrow().lowStockThreshold(1));
+        inventoryService.quantityChanged(cake.getId());
+        lowStockAlertService.sendDigest();
+        verify(javaMailSender).send(any(MimeMessage.class));
+    }
+}
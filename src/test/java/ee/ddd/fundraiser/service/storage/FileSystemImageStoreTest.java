@@ -0,0 +1,90 @@
+package ee.ddd.fundraiser.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import ee.ddd.fundraiser.config.ApplicationProperties;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Unit tests for the {@link FileSystemImageStore} class.
+ */
+class FileSystemImageStoreTest {
+
+    private static final byte[] IMAGE = "image".getBytes(StandardCharsets.UTF_8);
+
+    private static final String IMAGE_HASH = "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+    @TempDir
+    Path directory;
+
+    private FileSystemImageStore imageStore;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getImage().getStore().setDirectory(directory.toString());
+        imageStore = new FileSystemImageStore(applicationProperties);
+    }
+
+    @Test
+    void testStoreAndFind() throws Exception {
+        assertThat(imageStore.store(new ByteArrayInputStream(IMAGE))).isEqualTo(IMAGE_HASH);
+
+        assertThat(directory.resolve("61").resolve("05").resolve(IMAGE_HASH)).hasBinaryContent(IMAGE);
+        try (InputStream image = imageStore.find(IMAGE_HASH).orElseThrow().getInputStream()) {
+            assertThat(image.readAllBytes()).isEqualTo(IMAGE);
+        }
+    }
+
+    @Test
+    void testStoreSameImageTwice() throws Exception {
+        imageStore.store(new ByteArrayInputStream(IMAGE));
+        imageStore.store(new ByteArrayInputStream(IMAGE));
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertThat(files.filter(Files::isRegularFile)).containsExactly(directory.resolve("61").resolve("05").resolve(IMAGE_HASH));
+        }
+    }
+
+    @Test
+    void testFindMissingImage() {
+        assertThat(imageStore.find(IMAGE_HASH)).isEmpty();
+        assertThatThrownBy(() -> imageStore.find("../" + IMAGE_HASH)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testFindAllStoredBefore() throws Exception {
+        imageStore.store(new ByteArrayInputStream(IMAGE));
+        Path file = directory.resolve("61").resolve("05").resolve(IMAGE_HASH);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        assertThat(imageStore.findAllStoredBefore(Instant.now().minus(1, ChronoUnit.DAYS))).containsExactly(IMAGE_HASH);
+        assertThat(imageStore.findAllStoredBefore(Instant.now().minus(3, ChronoUnit.DAYS))).isEmpty();
+
+        // Storing the image again protects it from removal
+        imageStore.store(new ByteArrayInputStream(IMAGE));
+        assertThat(imageStore.findAllStoredBefore(Instant.now().minus(1, ChronoUnit.DAYS))).isEmpty();
+    }
+
+    @Test
+    void testDelete() throws Exception {
+        imageStore.store(new ByteArrayInputStream(IMAGE));
+
+        imageStore.delete(IMAGE_HASH);
+        imageStore.delete(IMAGE_HASH);
+
+        assertThat(imageStore.find(IMAGE_HASH)).isEmpty();
+    }
+}
@@ -0,0 +1,346 @@
+package ee.ddd.fundraiser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.IdempotencyRecordRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.CheckoutService;
+import ee.ddd.fundraiser.service.IdempotencyService;
+import ee.ddd.fundraiser.service.InsufficientStockException;
+import ee.ddd.fundraiser.service.SaleItemService;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.CheckoutLineDTO;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import ee.ddd.fundraiser.web.filter.IdempotencyFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Integration tests for the {@link CheckoutResource} REST controller.
+ * <p>
+ * Not transactional, so that concurrent checkouts really compete and quantity updates really commit. The reserved
+ * stock is written to the database by flushing the {@link InventoryService}, which is otherwise only scheduled hourly.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CheckoutResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/checkout";
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SaleItemService saleItemService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCheckoutMockMvc;
+
+    private final List<SaleItem> saleItems = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        saleItems.forEach(saleItem -> saleItemRepository.deleteById(saleItem.getId()));
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    private SaleItem createSaleItem(String price, Integer quantity) {
+        SaleItem saleItem = saleItemRepository.save(
+            SaleItemResourceIT.createEntity(em).image(null).price(Money.valueOf(price)).quantity(quantity)
+        );
+        saleItems.add(saleItem);
+        return saleItem;
+    }
+
+    private Integer quantityOf(SaleItem saleItem) {
+        return saleItemRepository.findById(saleItem.getId()).orElseThrow().getQuantity();
+    }
+
+    private Long versionOf(SaleItem saleItem) {
+        return saleItemRepository.findById(saleItem.getId()).orElseThrow().getVersion();
+    }
+
+    private boolean sell(SaleItem saleItem, int quantity) {
+        try {
+            checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(saleItem.getId(), quantity))));
+            return true;
+        } catch (InsufficientStockException e) {
+            return false;
+        }
+    }
+
+    @Test
+    void checkout() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        SaleItem book = createSaleItem("4.00", 3);
+        CheckoutDTO checkout = new CheckoutDTO(
+            List.of(new CheckoutLineDTO(book.getId(), 1), new CheckoutLineDTO(cake.getId(), 2), new CheckoutLineDTO(cake.getId(), 1))
+        );
+
+        restCheckoutMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(checkout)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.lines.[*].saleItemId").value(contains(cake.getId().intValue(), book.getId().intValue())))
+            .andExpect(jsonPath("$.lines.[*].quantity").value(contains(3, 1)))
+            .andExpect(jsonPath("$.lines.[0].amount").value(7.5))
+            .andExpect(jsonPath("$.total").value(11.5))
+            .andExpect(jsonPath("$.createdDate").exists());
+
+        // Validate the stock in the database, once written behind
+        assertThat(quantityOf(cake)).isEqualTo(5);
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(2);
+        assertThat(quantityOf(book)).isEqualTo(2);
+        assertThat(versionOf(cake)).isEqualTo(1L);
+    }
+
+    @Test
+    void checkoutWithIdempotencyKey() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        CheckoutDTO checkout = new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2)));
+        MockHttpServletRequestBuilder request = post(ENTITY_API_URL)
+            .header(IdempotencyFilter.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(checkout));
+        MvcResult paid = restCheckoutMockMvc.perform(request).andExpect(status().isOk()).andReturn();
+
+        // Retry the request, as if its response was lost
+        long connections = meterRegistry.get("hikaricp.connections.acquire").timer().count();
+        restCheckoutMockMvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+            .andExpect(content().bytes(paid.getResponse().getContentAsByteArray()));
+        // Replayed from the cache, without a connection to the database
+        assertThat(meterRegistry.get("hikaricp.connections.acquire").timer().count()).isEqualTo(connections);
+
+        // Retry it again once the response is no longer cached, as after a restart
+        Objects.requireNonNull(cacheManager.getCache(IdempotencyService.IDEMPOTENT_RESPONSES_CACHE)).clear();
+        restCheckoutMockMvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+            .andExpect(content().bytes(paid.getResponse().getContentAsByteArray()));
+
+        // Validate that the stock was taken once
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(3);
+    }
+
+    @Test
+    void checkoutWithIdempotencyKeyInterruptedBeforeItsResponseIsKept() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        CheckoutDTO checkout = new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2)));
+        MockHttpServletRequestBuilder request = post(ENTITY_API_URL)
+            .header(IdempotencyFilter.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(checkout));
+        restCheckoutMockMvc.perform(request).andExpect(status().isOk());
+
+        // Forget the response, as if the application stopped once the checkout was committed
+        Objects.requireNonNull(cacheManager.getCache(IdempotencyService.IDEMPOTENT_RESPONSES_CACHE)).clear();
+        idempotencyRecordRepository.saveAll(
+            idempotencyRecordRepository
+                .findAll()
+                .stream()
+                .map(idempotencyRecord -> idempotencyRecord.status(null).headers(null).body(null))
+                .collect(Collectors.toList())
+        );
+
+        // Retry the request
+        restCheckoutMockMvc
+            .perform(request)
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyinuse"));
+
+        // Validate that the stock was taken once
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(3);
+    }
+
+    @Test
+    void checkoutWithIdempotencyKeyFailedCanBeRetried() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 1);
+        CheckoutDTO checkout = new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2)));
+        MockHttpServletRequestBuilder request = post(ENTITY_API_URL)
+            .header(IdempotencyFilter.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(checkout));
+        restCheckoutMockMvc.perform(request).andExpect(status().is4xxClientError());
+
+        // Retry the request once more stock is available
+        saleItemService.update(saleItemRepository.findById(cake.getId()).orElseThrow().quantity(5));
+        restCheckoutMockMvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+    }
+
+    @Test
+    void checkoutWithInsufficientStockSellsNothing() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        SaleItem book = createSaleItem("4.00", 1);
+        SaleItem untracked = createSaleItem("1.00", null);
+        CheckoutDTO checkout = new CheckoutDTO(
+            List.of(new CheckoutLineDTO(cake.getId(), 1), new CheckoutLineDTO(book.getId(), 2), new CheckoutLineDTO(untracked.getId(), 1))
+        );
+
+        restCheckoutMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(checkout)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.insufficientstock"))
+            .andExpect(jsonPath("$.saleItemIds").value(contains(book.getId().intValue(), untracked.getId().intValue())));
+
+        // Validate that no stock was taken
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(5);
+        assertThat(quantityOf(book)).isEqualTo(1);
+        assertThat(versionOf(cake)).isZero();
+        assertThat(sell(cake, 5)).isTrue();
+    }
+
+    @Test
+    void checkoutWithCashPaidGivesTheChange() throws Exception {
+        // Initialize the database, with prices whose floating point sum is not exact
+        SaleItem candy = createSaleItem("0.10", 5);
+        SaleItem sticker = createSaleItem("0.20", 5);
+        CheckoutDTO checkout = new CheckoutDTO(List.of(new CheckoutLineDTO(candy.getId(), 3), new CheckoutLineDTO(sticker.getId(), 1)));
+        checkout.setCashPaid(Money.valueOf("1"));
+
+        restCheckoutMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(checkout)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(0.5))
+            .andExpect(jsonPath("$.cashPaid").value(1.0))
+            .andExpect(jsonPath("$.change").value(0.5));
+    }
+
+    @Test
+    void checkoutWithInsufficientCashSellsNothing() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        CheckoutDTO checkout = new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2)));
+        checkout.setCashPaid(Money.valueOf("4.99"));
+
+        restCheckoutMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(checkout)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.insufficientpayment"))
+            .andExpect(jsonPath("$.total").value(5.0));
+
+        // Validate that no stock was taken
+        assertThat(inventoryService.getAvailable(cake.getId())).contains(5);
+    }
+
+    @Test
+    void checkoutWithInvalidBasket() throws Exception {
+        restCheckoutMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new CheckoutDTO(List.of())))
+            )
+            .andExpect(status().isBadRequest());
+
+        restCheckoutMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(new CheckoutDTO(List.of(new CheckoutLineDTO(1L, 0)))))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void concurrentCheckoutsNeverSellMoreThanTheStock() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+
+        // Sell from several tills at once
+        ExecutorService tills = Executors.newFixedThreadPool(4);
+        List<Future<Boolean>> sales = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                sales.add(tills.submit((Callable<Boolean>) () -> sell(cake, 1)));
+            }
+            int sold = 0;
+            for (Future<Boolean> sale : sales) {
+                sold += sale.get() ? 1 : 0;
+            }
+            assertThat(sold).isEqualTo(5);
+        } finally {
+            tills.shutdown();
+        }
+
+        // Validate that the sales were written in a single update
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isZero();
+        assertThat(versionOf(cake)).isEqualTo(1L);
+    }
+
+    @Test
+    void checkoutAfterQuantityUpdate() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", 5);
+        assertThat(sell(cake, 2)).isTrue();
+
+        // Restock before the sale is written behind
+        saleItemService.update(saleItemRepository.findById(cake.getId()).orElseThrow().quantity(10));
+
+        // Validate that the sale is taken from the new stock
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(8);
+        assertThat(sell(cake, 9)).isFalse();
+        assertThat(sell(cake, 8)).isTrue();
+    }
+}
@@ -0,0 +1,316 @@
+package ee.ddd.fundraiser.web.rest;
+
+import static ee.ddd.fundraiser.web.rest.TestUtil.sameNumber;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.SaleLedgerEntryRepository;
+import ee.ddd.fundraiser.service.CheckoutService;
+import ee.ddd.fundraiser.service.FundraiserTotalService;
+import ee.ddd.fundraiser.service.SaleRollupService;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.CheckoutLineDTO;
+import ee.ddd.fundraiser.service.dto.FundraiserTotalsDTO;
+import ee.ddd.fundraiser.service.dto.ReceiptDTO;
+import ee.ddd.fundraiser.service.dto.TotalDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link FundraiserResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class FundraiserResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/fundraiser/totals";
+    private static final String ITEM_SALES_API_URL = "/api/fundraiser/sales/items";
+    private static final String TYPE_SALES_API_URL = "/api/fundraiser/sales/types";
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private SaleLedgerEntryRepository saleLedgerEntryRepository;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private FundraiserTotalService fundraiserTotalService;
+
+    @Autowired
+    private SaleRollupService saleRollupService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restFundraiserMockMvc;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void initTest() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private SaleItem createSaleItem(String price, ItemType type) {
+        return saleItemRepository.saveAndFlush(
+            SaleItemResourceIT.createEntity(em).image(null).price(Money.valueOf(price)).quantity(10).type(type)
+        );
+    }
+
+    /**
+     * Record sales of a sale item that does not exist, so that they are the only ones of the day, and roll them up.
+     */
+    private List<SaleLedgerEntry> recordSales(long saleItemId, ItemType type, String... soldDates) {
+        List<SaleLedgerEntry> entries = transactionTemplate.execute(status -> appendSales(saleItemId, type, soldDates));
+        saleRollupService.refresh();
+        return entries;
+    }
+
+    private List<SaleLedgerEntry> appendSales(long saleItemId, ItemType type, String... soldDates) {
+        List<SaleLedgerEntry> entries = saleLedgerEntryRepository.saveAll(
+            List
+                .of(soldDates)
+                .stream()
+                .map(soldDate ->
+                    new SaleLedgerEntry()
+                        .saleItemId(saleItemId)
+                        .type(type)
+                        .unitPrice(new BigDecimal("2.50"))
+                        .quantity(2)
+                        .amount(new BigDecimal("5.00"))
+                        .soldDate(Instant.parse(soldDate))
+                )
+                .collect(Collectors.toList())
+        );
+        saleRollupService.addSales(entries);
+        return entries;
+    }
+
+    private static BigDecimal revenueOf(List<TotalDTO> totals, String key) {
+        return totals.stream().filter(total -> total.getKey().equals(key)).map(TotalDTO::getRevenue).findAny().orElse(BigDecimal.ZERO);
+    }
+
+    @Test
+    @Transactional
+    void checkoutAppendsToTheLedger() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", ItemType.EDIBLE);
+        SaleItem book = createSaleItem("4.00", ItemType.SECOND_HAND_ITEM);
+        int databaseSizeBeforeCheckout = saleLedgerEntryRepository.findAll().size();
+
+        ReceiptDTO receipt = checkoutService.checkout(
+            new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2), new CheckoutLineDTO(book.getId(), 1)))
+        );
+
+        // Validate the SaleLedgerEntries in the database
+        List<SaleLedgerEntry> saleLedgerEntryList = saleLedgerEntryRepository.findAll();
+        assertThat(saleLedgerEntryList).hasSize(databaseSizeBeforeCheckout + 2);
+        SaleLedgerEntry testSaleLedgerEntry = saleLedgerEntryList
+            .stream()
+            .filter(entry -> entry.getSaleItemId().equals(cake.getId()))
+            .findAny()
+            .orElseThrow();
+        assertThat(testSaleLedgerEntry.getType()).isEqualTo(ItemType.EDIBLE);
+        assertThat(testSaleLedgerEntry.getUnitPrice()).isEqualByComparingTo("2.50");
+        assertThat(testSaleLedgerEntry.getQuantity()).isEqualTo(2);
+        assertThat(testSaleLedgerEntry.getAmount()).isEqualByComparingTo("5.00");
+        assertThat(testSaleLedgerEntry.getSoldDate()).isEqualTo(receipt.getCreatedDate());
+    }
+
+    @Test
+    @Transactional
+    void getTotals() throws Exception {
+        // Initialize the database
+        SaleItem cake = createSaleItem("2.50", ItemType.EDIBLE);
+        SaleItem book = createSaleItem("4.00", ItemType.SECOND_HAND_ITEM);
+        FundraiserTotalsDTO before = fundraiserTotalService.getTotals();
+
+        ReceiptDTO receipt = checkoutService.checkout(
+            new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2), new CheckoutLineDTO(book.getId(), 1)))
+        );
+        checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 1))));
+        String hour = receipt.getCreatedDate().truncatedTo(ChronoUnit.HOURS).toString();
+
+        // Get the totals
+        restFundraiserMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.quantity").value(before.getQuantity() + 4))
+            .andExpect(jsonPath("$.revenue").value(sameNumber(before.getRevenue().add(new BigDecimal("11.50")))))
+            .andExpect(jsonPath("$.items[?(@.key == '" + cake.getId() + "')].quantity").value(contains(3)))
+            .andExpect(jsonPath("$.items[?(@.key == '" + cake.getId() + "')].revenue").value(contains(sameNumber(new BigDecimal("7.50")))))
+            .andExpect(jsonPath("$.items[?(@.key == '" + book.getId() + "')].quantity").value(contains(1)))
+            .andExpect(
+                jsonPath("$.types[?(@.key == 'SECOND_HAND_ITEM')].revenue")
+                    .value(contains(sameNumber(revenueOf(before.getTypes(), "SECOND_HAND_ITEM").add(new BigDecimal("4.00")))))
+            )
+            .andExpect(
+                jsonPath("$.hours[?(@.key == '" + hour + "')].revenue")
+                    .value(contains(sameNumber(revenueOf(before.getHours(), hour).add(new BigDecimal("11.50")))))
+            );
+    }
+
+    @Test
+    void getItemSalesByInterval() throws Exception {
+        // Initialize the database
+        List<SaleLedgerEntry> entries = recordSales(
+            1_000_001L,
+            ItemType.EDIBLE,
+            "2000-01-01T10:01:10Z",
+            "2000-01-01T10:01:50Z",
+            "2000-01-01T10:02:00Z",
+            "2000-01-01T11:30:00Z"
+        );
+
+        try {
+            // Get the sales by minute, hour and day
+            restFundraiserMockMvc
+                .perform(
+                    get(ITEM_SALES_API_URL + "?from=2000-01-01T00:00:00Z&to=2000-01-02T00:00:00Z&interval=PT1M&key=1000001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].key").value("1000001"))
+                .andExpect(jsonPath("$[0].points[*].start").value(contains("2000-01-01T10:01:00Z", "2000-01-01T10:02:00Z", "2000-01-01T11:30:00Z")))
+                .andExpect(jsonPath("$[0].points[*].quantity").value(contains(4, 2, 2)))
+                .andExpect(jsonPath("$[0].points[0].revenue").value(sameNumber(new BigDecimal("10.00"))));
+            restFundraiserMockMvc
+                .perform(
+                    get(ITEM_SALES_API_URL + "?from=2000-01-01T00:00:00Z&to=2000-01-02T00:00:00Z&interval=PT1H&key=1000001")
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].points[*].start").value(contains("2000-01-01T10:00:00Z", "2000-01-01T11:00:00Z")))
+                .andExpect(jsonPath("$[0].points[*].quantity").value(contains(6, 2)));
+            restFundraiserMockMvc
+                .perform(get(ITEM_SALES_API_URL + "?from=2000-01-01T10:30:00Z&to=2000-01-03T00:00:00Z&interval=P1D&key=1000001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].points[*].start").value(contains("2000-01-01T00:00:00Z")))
+                .andExpect(jsonPath("$[0].points[*].quantity").value(contains(8)))
+                .andExpect(jsonPath("$[0].points[0].revenue").value(sameNumber(new BigDecimal("20.00"))));
+        } finally {
+            saleLedgerEntryRepository.deleteAll(entries);
+        }
+    }
+
+    @Test
+    void getTypeSalesWithDefaultInterval() throws Exception {
+        // Initialize the database
+        List<SaleLedgerEntry> entries = recordSales(1_000_002L, ItemType.SECOND_HAND_ITEM, "2000-01-02T10:01:00Z", "2000-01-02T10:07:00Z");
+        entries.addAll(recordSales(1_000_003L, ItemType.SECOND_HAND_ITEM, "2000-01-02T10:04:00Z"));
+
+        try {
+            // A day is read by 5 minutes
+            restFundraiserMockMvc
+                .perform(get(TYPE_SALES_API_URL + "?from=2000-01-02T00:00:00Z&to=2000-01-03T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].key").value("SECOND_HAND_ITEM"))
+                .andExpect(jsonPath("$[0].points[*].start").value(contains("2000-01-02T10:00:00Z", "2000-01-02T10:05:00Z")))
+                .andExpect(jsonPath("$[0].points[*].quantity").value(contains(4, 2)));
+            restFundraiserMockMvc
+                .perform(get(ITEM_SALES_API_URL + "?from=2000-01-02T00:00:00Z&to=2000-01-03T00:00:00Z&interval=PT1H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].key").value(contains("1000002", "1000003")))
+                .andExpect(jsonPath("$[*].points[0].quantity").value(contains(4, 2)));
+        } finally {
+            saleLedgerEntryRepository.deleteAll(entries);
+        }
+    }
+
+    @Test
+    void getSalesCommittedLate() throws Exception {
+        // Record a sale in a transaction committing after one with a greater id was rolled up
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch rolledUp = new CountDownLatch(1);
+        ExecutorService till = Executors.newSingleThreadExecutor();
+        Future<List<SaleLedgerEntry>> late = till.submit(() ->
+            transactionTemplate.execute(status -> {
+                List<SaleLedgerEntry> lateEntries = appendSales(1_000_004L, ItemType.EDIBLE, "2000-01-03T10:00:00Z");
+                appended.countDown();
+                try {
+                    rolledUp.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return lateEntries;
+            })
+        );
+        List<SaleLedgerEntry> entries = new ArrayList<>();
+        try {
+            appended.await();
+            entries.addAll(recordSales(1_000_004L, ItemType.EDIBLE, "2000-01-03T10:01:00Z"));
+            rolledUp.countDown();
+            entries.addAll(late.get());
+            assertThat(entries.get(1).getId()).isLessThan(entries.get(0).getId());
+            saleRollupService.refresh();
+
+            // Validate that both are rolled up
+            restFundraiserMockMvc
+                .perform(get(ITEM_SALES_API_URL + "?from=2000-01-03T00:00:00Z&to=2000-01-04T00:00:00Z&interval=P1D&key=1000004"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].points[*].quantity").value(contains(4)));
+        } finally {
+            rolledUp.countDown();
+            till.shutdown();
+            saleLedgerEntryRepository.deleteAll(entries);
+        }
+    }
+
+    @Test
+    void getSalesWithInvalidRange() throws Exception {
+        restFundraiserMockMvc
+            .perform(get(ITEM_SALES_API_URL + "?from=2000-01-02T00:00:00Z&to=2000-01-01T00:00:00Z"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.rangeinvalid"));
+        restFundraiserMockMvc
+            .perform(get(ITEM_SALES_API_URL + "?from=2000-01-01T00:00:00Z&to=2000-01-02T00:00:00Z&interval=PT30S"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.intervalinvalid"));
+        restFundraiserMockMvc
+            .perform(get(TYPE_SALES_API_URL + "?from=2000-01-01T00:00:00Z&to=2000-01-02T00:00:00Z&interval=hourly"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.intervalinvalid"));
+        restFundraiserMockMvc
+            .perform(get(TYPE_SALES_API_URL + "?from=2000-01-01T00:00:00Z&to=2000-02-01T00:00:00Z&interval=PT1M"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.toomanyintervals"));
+    }
+}
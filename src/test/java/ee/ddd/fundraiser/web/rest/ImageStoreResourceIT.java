@@ -0,0 +1,76 @@
+package ee.ddd.fundraiser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleItemImage;
+import ee.ddd.fundraiser.repository.SaleItemImageRepository;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import ee.ddd.fundraiser.service.storage.ImageStore;
+import java.io.InputStream;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ImageStoreResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ImageStoreResourceIT {
+
+    private static final byte[] IMAGE = TestUtil.createByteArray(100, "1");
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private SaleItemImageRepository saleItemImageRepository;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restImageStoreMockMvc;
+
+    @Test
+    @Transactional
+    void migrateDatabaseImages() throws Exception {
+        // Initialize the database, as before the image store
+        SaleItem saleItem = SaleItemResourceIT.createEntity(em).image(null).imageHash(null);
+        saleItemRepository.saveAndFlush(saleItem);
+        saleItemImageRepository.saveAndFlush(new SaleItemImage().id(saleItem.getId()).image(IMAGE));
+
+        restImageStoreMockMvc
+            .perform(post("/api/admin/image-store/migration"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.migrated").value(1))
+            .andExpect(jsonPath("$.failed").value(0))
+            .andExpect(jsonPath("$.bytes").value(IMAGE.length));
+
+        assertThat(saleItemImageRepository.findAllIds()).isEmpty();
+        String imageHash = saleItemRepository.findById(saleItem.getId()).orElseThrow().getImageHash();
+        try (InputStream image = imageStore.find(imageHash).orElseThrow().getInputStream()) {
+            assertThat(image.readAllBytes()).isEqualTo(IMAGE);
+        }
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    void migrateDatabaseImagesIsForbiddenForUsers() throws Exception {
+        restImageStoreMockMvc.perform(post("/api/admin/image-store/migration")).andExpect(status().isForbidden());
+    }
+}
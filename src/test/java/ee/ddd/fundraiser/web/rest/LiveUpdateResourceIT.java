@@ -0,0 +1,146 @@
+package ee.ddd.fundraiser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.service.CheckoutService;
+import ee.ddd.fundraiser.service.SaleItemService;
+import ee.ddd.fundraiser.service.dto.CheckoutDTO;
+import ee.ddd.fundraiser.service.dto.CheckoutLineDTO;
+import ee.ddd.fundraiser.web.sse.LiveUpdateBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link LiveUpdateResource} REST controller.
+ * <p>
+ * The updates are broadcast by calling the {@link LiveUpdateBroadcaster}, which is otherwise scheduled, and sent
+ * synchronously. The connections are closed after each test.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class LiveUpdateResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/live";
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private SaleItemService saleItemService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private LiveUpdateBroadcaster liveUpdateBroadcaster;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restLiveUpdateMockMvc;
+
+    private final List<SaleItem> saleItems = new ArrayList<>();
+
+    private final List<MvcResult> connections = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        connections.forEach(connection -> connection.getRequest().getAsyncContext().complete());
+        saleItems.forEach(saleItem -> saleItemRepository.deleteById(saleItem.getId()));
+    }
+
+    private SaleItem createSaleItem(String price, Integer quantity) {
+        SaleItem saleItem = saleItemRepository.save(
+            SaleItemResourceIT.createEntity(em).image(null).price(Money.valueOf(price)).quantity(quantity)
+        );
+        saleItems.add(saleItem);
+        return saleItem;
+    }
+
+    private MvcResult connect() throws Exception {
+        MvcResult connection = restLiveUpdateMockMvc
+            .perform(get(ENTITY_API_URL).accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        connections.add(connection);
+        return connection;
+    }
+
+    private double connectionCount() {
+        return meterRegistry.get(LiveUpdateBroadcaster.CONNECTIONS_METER_NAME).gauge().value();
+    }
+
+    @Test
+    void subscribe() throws Exception {
+        double connectionsBefore = connectionCount();
+
+        MvcResult connection = connect();
+
+        assertThat(connection.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+        assertThat(connection.getResponse().getContentAsString()).contains("event:stock\ndata:{", "event:totals\ndata:{\"key\":\"all\"");
+        assertThat(connectionCount()).isEqualTo(connectionsBefore + 1);
+
+        connection.getRequest().getAsyncContext().complete();
+        connections.remove(connection);
+        assertThat(connectionCount()).isEqualTo(connectionsBefore);
+    }
+
+    @Test
+    void broadcastCoalescedStock() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+        SaleItem book = createSaleItem("4.00", 3);
+        MvcResult first = connect();
+        MvcResult second = connect();
+        liveUpdateBroadcaster.broadcast();
+        int sentBefore = first.getResponse().getContentAsString().length();
+
+        checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 1))));
+        checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 2))));
+        checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(book.getId(), 1))));
+        liveUpdateBroadcaster.broadcast();
+
+        // One update for the three checkouts, with the stock after the last one
+        String stock = "event:stock\ndata:{\"" + cake.getId() + "\":2,\"" + book.getId() + "\":2}\n\n";
+        String firstSent = first.getResponse().getContentAsString().substring(sentBefore);
+        assertThat(firstSent).startsWith(stock).contains("event:totals");
+        assertThat(second.getResponse().getContentAsString()).endsWith(firstSent);
+
+        // Sent again to new connections
+        assertThat(connect().getResponse().getContentAsString()).contains("\"" + cake.getId() + "\":2,\"" + book.getId() + "\":2");
+    }
+
+    @Test
+    void broadcastDeletedSaleItem() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+        checkoutService.checkout(new CheckoutDTO(List.of(new CheckoutLineDTO(cake.getId(), 1))));
+        MvcResult connection = connect();
+        liveUpdateBroadcaster.broadcast();
+
+        saleItemService.delete(cake.getId());
+        saleItems.remove(cake);
+        liveUpdateBroadcaster.broadcast();
+
+        assertThat(connection.getResponse().getContentAsString()).endsWith("event:stock\ndata:{\"" + cake.getId() + "\":null}\n\n");
+    }
+}
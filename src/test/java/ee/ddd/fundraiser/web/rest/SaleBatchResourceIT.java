@@ -0,0 +1,263 @@
+package ee.ddd.fundraiser.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
+import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleLedgerEntry;
+import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.repository.SaleLedgerEntryRepository;
+import ee.ddd.fundraiser.service.SaleBatchService;
+import ee.ddd.fundraiser.service.dto.SaleBatchResultDTO;
+import ee.ddd.fundraiser.service.dto.TillSaleDTO;
+import ee.ddd.fundraiser.service.inventory.InventoryService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Integration tests for the {@link SaleBatchResource} REST controller.
+ * <p>
+ * Not transactional, so that the uploads really commit. Every test sells from its own till, as the ledger is never
+ * cleaned up.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SaleBatchResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/sales/batch";
+
+    @Autowired
+    private SaleItemRepository saleItemRepository;
+
+    @Autowired
+    private SaleLedgerEntryRepository saleLedgerEntryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SaleBatchService saleBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restSaleBatchMockMvc;
+
+    private final String till = "till-" + UUID.randomUUID();
+
+    private final List<SaleItem> saleItems = new ArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        saleItems.forEach(saleItem -> saleItemRepository.deleteById(saleItem.getId()));
+    }
+
+    private SaleItem createSaleItem(String price, Integer quantity) {
+        SaleItem saleItem = saleItemRepository.save(
+            SaleItemResourceIT.createEntity(em).image(null).price(Money.valueOf(price)).quantity(quantity)
+        );
+        saleItems.add(saleItem);
+        return saleItem;
+    }
+
+    private Integer quantityOf(SaleItem saleItem) {
+        return saleItemRepository.findById(saleItem.getId()).orElseThrow().getQuantity();
+    }
+
+    private String line(long sequence, SaleItem saleItem, int quantity, Instant soldDate) throws IOException {
+        return objectMapper.writeValueAsString(new TillSaleDTO(till, sequence, saleItem.getId(), quantity, soldDate));
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return compressed.toByteArray();
+    }
+
+    private ResultActions upload(String ndjson) throws Exception {
+        return restSaleBatchMockMvc.perform(
+            post(ENTITY_API_URL).contentType(MediaType.APPLICATION_NDJSON).header(HttpHeaders.CONTENT_ENCODING, "gzip").content(gzip(ndjson))
+        );
+    }
+
+    private List<SaleLedgerEntry> ledgerOfTill() {
+        return saleLedgerEntryRepository.findAll().stream().filter(entry -> till.equals(entry.getTill())).collect(Collectors.toList());
+    }
+
+    @Test
+    void uploadBatch() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+        SaleItem book = createSaleItem("4.00", 3);
+        Instant soldDate = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+        String ndjson = String.join("\n", line(1, cake, 2, soldDate), line(2, book, 1, soldDate), "", line(3, cake, 1, null)) + "\n";
+
+        upload(ndjson)
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.accepted").value(3))
+            .andExpect(jsonPath("$.duplicates").value(0))
+            .andExpect(jsonPath("$.conflicts").isEmpty());
+
+        // Validate the ledger and, once written behind, the stock
+        List<SaleLedgerEntry> entries = ledgerOfTill();
+        assertThat(entries).extracting(SaleLedgerEntry::getTillSequence).containsExactlyInAnyOrder(1L, 2L, 3L);
+        SaleLedgerEntry first = entries.stream().filter(entry -> entry.getTillSequence() == 1L).findAny().orElseThrow();
+        assertThat(first.getSoldDate()).isEqualTo(soldDate);
+        assertThat(first.getAmount()).isEqualByComparingTo("5.00");
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(2);
+        assertThat(quantityOf(book)).isEqualTo(2);
+    }
+
+    @Test
+    void uploadBatchAgain() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+        String ndjson = line(1, cake, 1, null) + "\n" + line(2, cake, 1, null);
+        upload(ndjson).andExpect(status().isOk()).andExpect(jsonPath("$.accepted").value(2));
+
+        // The retry of a batch whose response was lost, with one more sale
+        upload(ndjson + "\n" + line(3, cake, 1, null))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(1))
+            .andExpect(jsonPath("$.duplicates").value(2))
+            .andExpect(jsonPath("$.conflicts").isEmpty());
+
+        assertThat(ledgerOfTill()).hasSize(3);
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(2);
+    }
+
+    @Test
+    void uploadBatchConcurrently() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+        List<String> lines = List.of(line(1, cake, 1, null), line(2, cake, 1, null), line(3, cake, 1, null));
+
+        // The same batch sent by a till retrying while its first attempts are being recorded
+        int uploads = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(uploads);
+        List<CompletableFuture<SaleBatchResultDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < uploads; i++) {
+                results.add(
+                    CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                start.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return saleBatchService.upload(lines);
+                        },
+                        executor
+                    )
+                );
+            }
+            start.countDown();
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(results.stream().mapToInt(result -> result.join().getAccepted()).sum()).isEqualTo(3);
+        assertThat(results.stream().mapToInt(result -> result.join().getDuplicates()).sum()).isEqualTo(3 * (uploads - 1));
+        assertThat(ledgerOfTill()).hasSize(3);
+        inventoryService.flush();
+        assertThat(quantityOf(cake)).isEqualTo(2);
+    }
+
+    @Test
+    void uploadBatchWithConflicts() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 2);
+        SaleItem deleted = createSaleItem("1.00", 1);
+        saleItemRepository.deleteById(deleted.getId());
+        saleItems.remove(deleted);
+        String ndjson = String.join(
+            "\n",
+            line(1, cake, 2, null),
+            line(2, cake, 1, null),
+            line(3, deleted, 1, null),
+            "{not json",
+            line(5, cake, 0, null),
+            line(1, cake, 2, null)
+        );
+
+        upload(ndjson)
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(1))
+            .andExpect(jsonPath("$.duplicates").value(1))
+            .andExpect(jsonPath("$.conflicts", hasSize(4)))
+            .andExpect(jsonPath("$.conflicts.[*].line").value(contains(4, 5, 2, 3)))
+            .andExpect(jsonPath("$.conflicts.[*].reason").value(contains("INVALID", "INVALID", "OVERSOLD", "UNKNOWN_ITEM")))
+            .andExpect(jsonPath("$.conflicts.[1].message").value("quantity must be greater than or equal to 1"))
+            .andExpect(jsonPath("$.conflicts.[2].till").value(till))
+            .andExpect(jsonPath("$.conflicts.[2].sequence").value(2))
+            .andExpect(jsonPath("$.conflicts.[2].saleItemId").value(cake.getId().intValue()));
+
+        assertThat(ledgerOfTill()).extracting(SaleLedgerEntry::getTillSequence).containsExactly(1L);
+    }
+
+    @Test
+    void uploadUncompressedBatch() throws Exception {
+        SaleItem cake = createSaleItem("2.50", 5);
+
+        restSaleBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_NDJSON).content(line(1, cake, 1, null)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.accepted").value(1));
+    }
+
+    @Test
+    void uploadBatchTooLarge() throws Exception {
+        // Small once compressed
+        upload(" ".repeat(2 * 1024 * 1024)).andExpect(status().isBadRequest()).andExpect(jsonPath("$.message").value("error.batchtoolarge"));
+    }
+
+    @Test
+    void uploadBatchWithUnsupportedEncoding() throws Exception {
+        restSaleBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_NDJSON).header(HttpHeaders.CONTENT_ENCODING, "br").content("{}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.encodingunsupported"));
+
+        restSaleBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_NDJSON).header(HttpHeaders.CONTENT_ENCODING, "gzip").content("{}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.encodinginvalid"));
+    }
+}
@@ -2,28 +2,53 @@ package ee.ddd.fundraiser.web.rest;
 
 import static ee.ddd.fundraiser.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.ddd.fundraiser.IntegrationTest;
+import ee.ddd.fundraiser.domain.Money;
 import ee.ddd.fundraiser.domain.SaleItem;
+import ee.ddd.fundraiser.domain.SaleItemImage;
+import ee.ddd.fundraiser.domain.SaleItemImageRendition;
 import ee.ddd.fundraiser.domain.enumeration.ItemType;
+import ee.ddd.fundraiser.repository.SaleItemImageRenditionRepository;
+import ee.ddd.fundraiser.repository.SaleItemImageRepository;
 import ee.ddd.fundraiser.repository.SaleItemRepository;
+import ee.ddd.fundraiser.security.AuthoritiesConstants;
+import ee.ddd.fundraiser.service.SaleItemService;
+import ee.ddd.fundraiser.service.storage.ImageStore;
+import ee.ddd.fundraiser.web.filter.IdempotencyFilter;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import javax.imageio.ImageIO;
 import javax.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
 
 /**
  * Integration tests for the {@link SaleItemResource} REST controller.
@@ -36,11 +61,19 @@ class SaleItemResourceIT {
     private static final String DEFAULT_NAME = "AAAAAAAAAA";
     private static final String UPDATED_NAME = "BBBBBBBBBB";
 
-    private static final BigDecimal DEFAULT_PRICE = new BigDecimal(1);
-    private static final BigDecimal UPDATED_PRICE = new BigDecimal(2);
+    private static final Money DEFAULT_PRICE = Money.of(new BigDecimal(1));
+    private static final Money UPDATED_PRICE = Money.of(new BigDecimal(2));
+    private static final Money SMALLER_PRICE = Money.of(new BigDecimal(1 - 1));
 
     private static final Integer DEFAULT_QUANTITY = 1;
     private static final Integer UPDATED_QUANTITY = 2;
+    private static final Integer SMALLER_QUANTITY = 1 - 1;
+
+    private static final Integer DEFAULT_LOW_STOCK_THRESHOLD = 0;
+    private static final Integer UPDATED_LOW_STOCK_THRESHOLD = 1;
+
+    private static final Boolean DEFAULT_FLASH_SALE = false;
+    private static final Boolean UPDATED_FLASH_SALE = true;
 
     private static final ItemType DEFAULT_TYPE = ItemType.EDIBLE;
     private static final ItemType UPDATED_TYPE = ItemType.SECOND_HAND_ITEM;
@@ -53,12 +86,29 @@ class SaleItemResourceIT {
     private static final String ENTITY_API_URL = "/api/sale-items";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
+    private static final String HEADER_TOTAL_COUNT = "X-Total-Count";
+
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
 
     @Autowired
     private SaleItemRepository saleItemRepository;
 
+    @Autowired
+    private SaleItemImageRepository saleItemImageRepository;
+
+    @Autowired
+    private SaleItemImageRenditionRepository saleItemImageRenditionRepository;
+
+    @Autowired
+    private SaleItemService saleItemService;
+
+    @Autowired
+    private ImageStore imageStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private EntityManager em;
 
@@ -78,6 +128,8 @@ class SaleItemResourceIT {
             .name(DEFAULT_NAME)
             .price(DEFAULT_PRICE)
             .quantity(DEFAULT_QUANTITY)
+            .lowStockThreshold(DEFAULT_LOW_STOCK_THRESHOLD)
+            .flashSale(DEFAULT_FLASH_SALE)
             .type(DEFAULT_TYPE)
             .image(DEFAULT_IMAGE)
             .imageContentType(DEFAULT_IMAGE_CONTENT_TYPE);
@@ -95,6 +147,8 @@ class SaleItemResourceIT {
             .name(UPDATED_NAME)
             .price(UPDATED_PRICE)
             .quantity(UPDATED_QUANTITY)
+            .lowStockThreshold(UPDATED_LOW_STOCK_THRESHOLD)
+            .flashSale(UPDATED_FLASH_SALE)
             .type(UPDATED_TYPE)
             .image(UPDATED_IMAGE)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
@@ -122,8 +176,10 @@ class SaleItemResourceIT {
         assertThat(testSaleItem.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testSaleItem.getPrice()).isEqualByComparingTo(DEFAULT_PRICE);
         assertThat(testSaleItem.getQuantity()).isEqualTo(DEFAULT_QUANTITY);
+        assertThat(testSaleItem.getLowStockThreshold()).isEqualTo(DEFAULT_LOW_STOCK_THRESHOLD);
+        assertThat(testSaleItem.getFlashSale()).isEqualTo(DEFAULT_FLASH_SALE);
         assertThat(testSaleItem.getType()).isEqualTo(DEFAULT_TYPE);
-        assertThat(testSaleItem.getImage()).isEqualTo(DEFAULT_IMAGE);
+        assertThat(storedImage(testSaleItem.getId())).isEqualTo(DEFAULT_IMAGE);
         assertThat(testSaleItem.getImageContentType()).isEqualTo(DEFAULT_IMAGE_CONTENT_TYPE);
     }
 
@@ -145,6 +201,92 @@ class SaleItemResourceIT {
         assertThat(saleItemList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    void createSaleItemWithIdempotencyKey() throws Exception {
+        int databaseSizeBeforeCreate = saleItemRepository.findAll().size();
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        // Create the SaleItem
+        MvcResult created = restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.IDEMPOTENT_REPLAYED))
+            .andReturn();
+
+        // Retry the request, as if its response was lost
+        restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true"))
+            .andExpect(header().string(HttpHeaders.LOCATION, created.getResponse().getHeader(HttpHeaders.LOCATION)))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(content().bytes(created.getResponse().getContentAsByteArray()));
+
+        // Validate that the SaleItem was created once
+        assertThat(saleItemRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
+    @Test
+    @Transactional
+    void createSaleItemWithReusedIdempotencyKey() throws Exception {
+        int databaseSizeBeforeCreate = saleItemRepository.findAll().size();
+        String idempotencyKey = UUID.randomUUID().toString();
+        restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem))
+            )
+            .andExpect(status().isCreated());
+
+        // Another SaleItem cannot be created with the same key
+        restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem.name(UPDATED_NAME)))
+            )
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.message").value("error.idempotencykeyreused"));
+
+        // Nor with an invalid key
+        restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, "")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem))
+            )
+            .andExpect(status().isBadRequest());
+
+        // Nor with a body too large to be kept for the retries
+        restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header(IdempotencyFilter.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem.image(TestUtil.createByteArray(4096, "0"))))
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.requesttoolarge"));
+
+        // Validate the SaleItem in the database
+        assertThat(saleItemRepository.findAll()).hasSize(databaseSizeBeforeCreate + 1);
+    }
+
     @Test
     @Transactional
     void checkNameIsRequired() throws Exception {
@@ -201,6 +343,8 @@ class SaleItemResourceIT {
     void getAllSaleItems() throws Exception {
         // Initialize the database
         saleItemRepository.saveAndFlush(saleItem);
+        // Forget the image held by the test instance, it is not part of the stored item
+        em.detach(saleItem);
 
         // Get all the saleItemList
         restSaleItemMockMvc
@@ -209,11 +353,168 @@ class SaleItemResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(saleItem.getId().intValue())))
             .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
-            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE))))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE.toBigDecimal()))))
             .andExpect(jsonPath("$.[*].quantity").value(hasItem(DEFAULT_QUANTITY)))
             .andExpect(jsonPath("$.[*].type").value(hasItem(DEFAULT_TYPE.toString())))
             .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].image").value(hasItem(Base64Utils.encodeToString(DEFAULT_IMAGE))));
+            .andExpect(jsonPath("$.[*].image").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemSummaries() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        em.flush();
+        em.clear();
+
+        // Get all the saleItem summaries
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(saleItem.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE.toBigDecimal()))))
+            .andExpect(jsonPath("$.[*].quantity").value(hasItem(DEFAULT_QUANTITY)))
+            .andExpect(jsonPath("$.[*].type").value(hasItem(DEFAULT_TYPE.toString())))
+            .andExpect(jsonPath("$.[*].imageHash").value(hasItem(saleItem.getImageHash())))
+            .andExpect(
+                jsonPath("$.[*].imageUrl").value(hasItem("api/sale-items/" + saleItem.getId() + "/image?v=" + saleItem.getImageHash()))
+            )
+            .andExpect(jsonPath("$.[*].imageContentType").doesNotExist());
+
+        // The summaries are not entities, so listing them leaves the persistence context empty
+        assertThat(em.contains(saleItem)).isFalse();
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void scrollSaleItemSummariesWithCursor() throws Exception {
+        // Initialize the database
+        SaleItem first = saleItemRepository.saveAndFlush(createEntity(em).image(null).name("A"));
+        SaleItem second = saleItemRepository.saveAndFlush(createEntity(em).image(null).name("B"));
+        SaleItem third = saleItemRepository.saveAndFlush(createEntity(em).image(null).name("B"));
+        saleItemRepository.saveAndFlush(saleItem.image(null).name("C"));
+
+        // Get the first slice, the ties on name are ordered by id
+        MvcResult firstSlice = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries?cursor=&size=3&sort=name,asc"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HEADER_TOTAL_COUNT))
+            .andExpect(jsonPath("$.[*].id").value(contains(first.getId().intValue(), second.getId().intValue(), third.getId().intValue())))
+            .andReturn();
+
+        // Follow the next link
+        String next = firstSlice.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(next).endsWith("; rel=\"next\"").doesNotContain("sort=");
+        restSaleItemMockMvc
+            .perform(get(next.substring(next.indexOf('<') + 1, next.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.[*].id").value(contains(saleItem.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void scrollSaleItemSummariesByPriceWithCursor() throws Exception {
+        // Initialize the database
+        SaleItem cheap = saleItemRepository.saveAndFlush(createEntity(em).image(null).price(Money.valueOf("0.10")));
+        SaleItem first = saleItemRepository.saveAndFlush(createEntity(em).image(null).price(Money.valueOf("2.50")));
+        SaleItem second = saleItemRepository.saveAndFlush(createEntity(em).image(null).price(Money.valueOf("2.50")));
+
+        // Get the first slice, the ties on price are ordered by id
+        MvcResult firstSlice = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries?cursor=&size=2&sort=price,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(second.getId().intValue(), first.getId().intValue())))
+            .andExpect(jsonPath("$.[*].price").value(contains(2.5, 2.5)))
+            .andReturn();
+
+        // Follow the next link
+        String next = firstSlice.getResponse().getHeader(HttpHeaders.LINK);
+        restSaleItemMockMvc
+            .perform(get(next.substring(next.indexOf('<') + 1, next.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(cheap.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void scrollSaleItemSummariesWithInvalidCursor() throws Exception {
+        restSaleItemMockMvc.perform(get(ENTITY_API_URL + "/summaries?cursor=invalid")).andExpect(status().isBadRequest());
+        restSaleItemMockMvc.perform(get(ENTITY_API_URL + "/summaries?cursor=&sort=quantity,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemCatalog() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        em.flush();
+
+        // Get the catalog
+        MvcResult result = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/catalog"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(saleItem.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].imageUrl").value(hasItem("api/sale-items/" + saleItem.getId() + "/image?v=" + saleItem.getImageHash())))
+            .andReturn();
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+
+        // Get the unchanged catalog again
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/catalog").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Get the gzipped catalog
+        MvcResult gzipped = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/catalog").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andReturn();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(result.getResponse().getContentAsByteArray());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemCatalogAfterUpdate() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem.image(null));
+        em.flush();
+        String eTag = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/catalog"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        // Update the saleItem
+        SaleItem partialUpdatedSaleItem = new SaleItem().id(saleItem.getId()).name(UPDATED_NAME);
+        restSaleItemMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSaleItem.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedSaleItem))
+            )
+            .andExpect(status().isOk());
+
+        // The catalog changed
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/catalog").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(UPDATED_NAME)));
     }
 
     @Test
@@ -221,6 +522,8 @@ class SaleItemResourceIT {
     void getSaleItem() throws Exception {
         // Initialize the database
         saleItemRepository.saveAndFlush(saleItem);
+        // Forget the image held by the test instance, it is not part of the stored item
+        em.detach(saleItem);
 
         // Get the saleItem
         restSaleItemMockMvc
@@ -229,39 +532,252 @@ class SaleItemResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(saleItem.getId().intValue()))
             .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
-            .andExpect(jsonPath("$.price").value(sameNumber(DEFAULT_PRICE)))
+            .andExpect(jsonPath("$.price").value(sameNumber(DEFAULT_PRICE.toBigDecimal())))
             .andExpect(jsonPath("$.quantity").value(DEFAULT_QUANTITY))
+            .andExpect(jsonPath("$.lowStockThreshold").value(DEFAULT_LOW_STOCK_THRESHOLD))
+            .andExpect(jsonPath("$.flashSale").value(DEFAULT_FLASH_SALE.booleanValue()))
             .andExpect(jsonPath("$.type").value(DEFAULT_TYPE.toString()))
             .andExpect(jsonPath("$.imageContentType").value(DEFAULT_IMAGE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.image").value(Base64Utils.encodeToString(DEFAULT_IMAGE)));
+            .andExpect(jsonPath("$.image").doesNotExist());
     }
 
     @Test
     @Transactional
-    void getNonExistingSaleItem() throws Exception {
+    void getSaleItemNotModified() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
         // Get the saleItem
-        restSaleItemMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, saleItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""))
+            .andExpect(jsonPath("$.version").value(0));
+
+        // Get the unchanged saleItem again
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID, saleItem.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
     }
 
     @Test
     @Transactional
-    void putExistingSaleItem() throws Exception {
+    void getAllSaleItemsNotModified() throws Exception {
         // Initialize the database
         saleItemRepository.saveAndFlush(saleItem);
 
-        int databaseSizeBeforeUpdate = saleItemRepository.findAll().size();
+        // Get all the saleItemList
+        String eTag = restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("W/");
 
-        // Update the saleItem
+        // Get the unchanged saleItemList again
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // Get the saleItemList after an update
+        saleItemRepository.saveAndFlush(saleItemRepository.findById(saleItem.getId()).get().name(UPDATED_NAME));
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImage() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        String eTag = "\"" + saleItem.getImageHash() + "\"";
+
+        // Get the image of the saleItem
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_IMAGE_CONTENT_TYPE))
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImageWithCurrentVersionIsImmutable() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).param("v", saleItem.getImageHash()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).param("v", "outdated"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImageNotModified() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        String eTag = "\"" + saleItem.getImageHash() + "\"";
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().bytes(new byte[0]));
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImageRange() throws Exception {
+        // Initialize the database
+        byte[] image = TestUtil.createByteArray(16, "0");
+        saleItemService.save(saleItem.image(image));
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).header(HttpHeaders.RANGE, "bytes=4-7"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-7/16"))
+            .andExpect(content().bytes(Arrays.copyOfRange(image, 4, 8)));
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImageNotMigratedToImageStore() throws Exception {
+        // Initialize the database, as before the image store
+        saleItemRepository.saveAndFlush(saleItem.imageHash("0".repeat(64)));
+        saleItemImageRepository.saveAndFlush(new SaleItemImage().id(saleItem.getId()).image(DEFAULT_IMAGE));
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_IMAGE_CONTENT_TYPE))
+            .andExpect(content().bytes(DEFAULT_IMAGE));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingSaleItemImage() throws Exception {
+        // Initialize the database, without an image
+        saleItemRepository.saveAndFlush(saleItem);
+
+        restSaleItemMockMvc.perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId())).andExpect(status().isNotFound());
+        restSaleItemMockMvc.perform(get(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void getSaleItemImageRendition() throws Exception {
+        // Initialize the database, committed as the renditions are generated in their own transactions
+        byte[] image = createPng(600, 300);
+        saleItemService.save(saleItem.image(image).imageContentType("image/png"));
+        try {
+            restSaleItemMockMvc
+                .perform(post(ENTITY_API_URL + "/image-renditions"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.running").value(false))
+                .andExpect(jsonPath("$.failed").value(0));
+            assertThat(saleItemImageRenditionRepository.findAllBySaleItemId(saleItem.getId()))
+                .extracting(SaleItemImageRendition::getWidth)
+                .containsExactlyInAnyOrder(128, 256, 512);
+
+            byte[] rendition = restSaleItemMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).param("v", saleItem.getImageHash()).param("size", "200"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + saleItem.getImageHash() + "-256\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+            assertThat(ImageIO.read(new ByteArrayInputStream(rendition)).getWidth()).isEqualTo(256);
+
+            restSaleItemMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).param("size", "1024"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(image));
+
+            restSaleItemMockMvc
+                .perform(get(ENTITY_API_URL + "/image-renditions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.completed").value(1));
+        } finally {
+            saleItemService.delete(saleItem.getId());
+        }
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemImageRenditionNotGeneratedYet() throws Exception {
+        // Initialize the database, the renditions are generated after commit
+        saleItemService.save(saleItem.image(createPng(600, 300)).imageContentType("image/png"));
+
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/image", saleItem.getId()).param("v", saleItem.getImageHash()).param("size", "128"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.IMAGE_PNG))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + saleItem.getImageHash() + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    @Test
+    void createSaleItemGeneratesImageRenditionsOnceCommitted() throws Exception {
+        // Not in a test transaction, so that the request's transaction commits and the renditions are generated
+        MvcResult result = restSaleItemMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(saleItem.image(createPng(600, 300)).imageContentType("image/png")))
+            )
+            .andExpect(status().isCreated())
+            .andReturn();
+        Long id = objectMapper.readValue(result.getResponse().getContentAsByteArray(), SaleItem.class).getId();
+
+        try {
+            assertThat(saleItemImageRenditionRepository.findAllBySaleItemId(id))
+                .extracting(SaleItemImageRendition::getWidth)
+                .containsExactlyInAnyOrder(128, 256, 512);
+        } finally {
+            saleItemService.delete(id);
+        }
+    }
+
+    @Test
+    @Transactional
+    void regenerateSaleItemImageRenditionsIsForbiddenForUsers() throws Exception {
+        restSaleItemMockMvc.perform(post(ENTITY_API_URL + "/image-renditions")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    void putExistingSaleItemWithoutImageKeepsImage() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        String imageHash = saleItem.getImageHash();
+        em.flush();
+
+        // Update the saleItem without sending its image
         SaleItem updatedSaleItem = saleItemRepository.findById(saleItem.getId()).get();
-        // Disconnect from session so that the updates on updatedSaleItem are not directly saved in db
         em.detach(updatedSaleItem);
-        updatedSaleItem
-            .name(UPDATED_NAME)
-            .price(UPDATED_PRICE)
-            .quantity(UPDATED_QUANTITY)
-            .type(UPDATED_TYPE)
-            .image(UPDATED_IMAGE)
-            .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
+        updatedSaleItem.name(UPDATED_NAME).image(null);
 
         restSaleItemMockMvc
             .perform(
@@ -271,16 +787,554 @@ class SaleItemResourceIT {
             )
             .andExpect(status().isOk());
 
-        // Validate the SaleItem in the database
-        List<SaleItem> saleItemList = saleItemRepository.findAll();
-        assertThat(saleItemList).hasSize(databaseSizeBeforeUpdate);
-        SaleItem testSaleItem = saleItemList.get(saleItemList.size() - 1);
-        assertThat(testSaleItem.getName()).isEqualTo(UPDATED_NAME);
-        assertThat(testSaleItem.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
-        assertThat(testSaleItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
-        assertThat(testSaleItem.getType()).isEqualTo(UPDATED_TYPE);
-        assertThat(testSaleItem.getImage()).isEqualTo(UPDATED_IMAGE);
-        assertThat(testSaleItem.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
+        assertThat(storedImage(saleItem.getId())).isEqualTo(DEFAULT_IMAGE);
+        assertThat(saleItemRepository.findById(saleItem.getId())).get().extracting(SaleItem::getImageHash).isEqualTo(imageHash);
+    }
+
+    @Test
+    @Transactional
+    void getSaleItemsByIdFiltering() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        Long id = saleItem.getId();
+
+        defaultSaleItemShouldBeFound("id.equals=" + id);
+        defaultSaleItemShouldNotBeFound("id.notEquals=" + id);
+
+        defaultSaleItemShouldBeFound("id.greaterThanOrEqual=" + id);
+        defaultSaleItemShouldNotBeFound("id.greaterThan=" + id);
+
+        defaultSaleItemShouldBeFound("id.lessThanOrEqual=" + id);
+        defaultSaleItemShouldNotBeFound("id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByNameIsEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where name equals to DEFAULT_NAME
+        defaultSaleItemShouldBeFound("name.equals=" + DEFAULT_NAME);
+
+        // Get all the saleItemList where name equals to UPDATED_NAME
+        defaultSaleItemShouldNotBeFound("name.equals=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByNameIsInShouldWork() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where name in DEFAULT_NAME or UPDATED_NAME
+        defaultSaleItemShouldBeFound("name.in=" + DEFAULT_NAME + "," + UPDATED_NAME);
+
+        // Get all the saleItemList where name equals to UPDATED_NAME
+        defaultSaleItemShouldNotBeFound("name.in=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByNameIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where name is not null
+        defaultSaleItemShouldBeFound("name.specified=true");
+
+        // Get all the saleItemList where name is null
+        defaultSaleItemShouldNotBeFound("name.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByNameContainsSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where name contains DEFAULT_NAME
+        defaultSaleItemShouldBeFound("name.contains=" + DEFAULT_NAME);
+
+        // Get all the saleItemList where name contains UPDATED_NAME
+        defaultSaleItemShouldNotBeFound("name.contains=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByNameNotContainsSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where name does not contain DEFAULT_NAME
+        defaultSaleItemShouldNotBeFound("name.doesNotContain=" + DEFAULT_NAME);
+
+        // Get all the saleItemList where name does not contain UPDATED_NAME
+        defaultSaleItemShouldBeFound("name.doesNotContain=" + UPDATED_NAME);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price equals to DEFAULT_PRICE
+        defaultSaleItemShouldBeFound("price.equals=" + DEFAULT_PRICE);
+
+        // Get all the saleItemList where price equals to UPDATED_PRICE
+        defaultSaleItemShouldNotBeFound("price.equals=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsInShouldWork() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price in DEFAULT_PRICE or UPDATED_PRICE
+        defaultSaleItemShouldBeFound("price.in=" + DEFAULT_PRICE + "," + UPDATED_PRICE);
+
+        // Get all the saleItemList where price equals to UPDATED_PRICE
+        defaultSaleItemShouldNotBeFound("price.in=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price is not null
+        defaultSaleItemShouldBeFound("price.specified=true");
+
+        // Get all the saleItemList where price is null
+        defaultSaleItemShouldNotBeFound("price.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price is greater than or equal to DEFAULT_PRICE
+        defaultSaleItemShouldBeFound("price.greaterThanOrEqual=" + DEFAULT_PRICE);
+
+        // Get all the saleItemList where price is greater than or equal to UPDATED_PRICE
+        defaultSaleItemShouldNotBeFound("price.greaterThanOrEqual=" + UPDATED_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsLessThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price is less than or equal to DEFAULT_PRICE
+        defaultSaleItemShouldBeFound("price.lessThanOrEqual=" + DEFAULT_PRICE);
+
+        // Get all the saleItemList where price is less than or equal to SMALLER_PRICE
+        defaultSaleItemShouldNotBeFound("price.lessThanOrEqual=" + SMALLER_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsLessThanSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price is less than UPDATED_PRICE
+        defaultSaleItemShouldBeFound("price.lessThan=" + UPDATED_PRICE);
+
+        // Get all the saleItemList where price is less than DEFAULT_PRICE
+        defaultSaleItemShouldNotBeFound("price.lessThan=" + DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByPriceIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where price is greater than SMALLER_PRICE
+        defaultSaleItemShouldBeFound("price.greaterThan=" + SMALLER_PRICE);
+
+        // Get all the saleItemList where price is greater than DEFAULT_PRICE
+        defaultSaleItemShouldNotBeFound("price.greaterThan=" + DEFAULT_PRICE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity equals to DEFAULT_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.equals=" + DEFAULT_QUANTITY);
+
+        // Get all the saleItemList where quantity equals to UPDATED_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.equals=" + UPDATED_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsInShouldWork() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity in DEFAULT_QUANTITY or UPDATED_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.in=" + DEFAULT_QUANTITY + "," + UPDATED_QUANTITY);
+
+        // Get all the saleItemList where quantity equals to UPDATED_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.in=" + UPDATED_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity is not null
+        defaultSaleItemShouldBeFound("quantity.specified=true");
+
+        // Get all the saleItemList where quantity is null
+        defaultSaleItemShouldNotBeFound("quantity.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity is greater than or equal to DEFAULT_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.greaterThanOrEqual=" + DEFAULT_QUANTITY);
+
+        // Get all the saleItemList where quantity is greater than or equal to UPDATED_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.greaterThanOrEqual=" + UPDATED_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsLessThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity is less than or equal to DEFAULT_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.lessThanOrEqual=" + DEFAULT_QUANTITY);
+
+        // Get all the saleItemList where quantity is less than or equal to SMALLER_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.lessThanOrEqual=" + SMALLER_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsLessThanSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity is less than UPDATED_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.lessThan=" + UPDATED_QUANTITY);
+
+        // Get all the saleItemList where quantity is less than DEFAULT_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.lessThan=" + DEFAULT_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByQuantityIsGreaterThanSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where quantity is greater than SMALLER_QUANTITY
+        defaultSaleItemShouldBeFound("quantity.greaterThan=" + SMALLER_QUANTITY);
+
+        // Get all the saleItemList where quantity is greater than DEFAULT_QUANTITY
+        defaultSaleItemShouldNotBeFound("quantity.greaterThan=" + DEFAULT_QUANTITY);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByTypeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where type equals to DEFAULT_TYPE
+        defaultSaleItemShouldBeFound("type.equals=" + DEFAULT_TYPE);
+
+        // Get all the saleItemList where type equals to UPDATED_TYPE
+        defaultSaleItemShouldNotBeFound("type.equals=" + UPDATED_TYPE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByTypeIsInShouldWork() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where type in DEFAULT_TYPE or UPDATED_TYPE
+        defaultSaleItemShouldBeFound("type.in=" + DEFAULT_TYPE + "," + UPDATED_TYPE);
+
+        // Get all the saleItemList where type equals to UPDATED_TYPE
+        defaultSaleItemShouldNotBeFound("type.in=" + UPDATED_TYPE);
+    }
+
+    @Test
+    @Transactional
+    void getAllSaleItemsByTypeIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Get all the saleItemList where type is not null
+        defaultSaleItemShouldBeFound("type.specified=true");
+
+        // Get all the saleItemList where type is null
+        defaultSaleItemShouldNotBeFound("type.specified=false");
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultSaleItemShouldBeFound(String filter) throws Exception {
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(saleItem.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].price").value(hasItem(sameNumber(DEFAULT_PRICE.toBigDecimal()))))
+            .andExpect(jsonPath("$.[*].quantity").value(hasItem(DEFAULT_QUANTITY)))
+            .andExpect(jsonPath("$.[*].type").value(hasItem(DEFAULT_TYPE.toString())))
+            .andExpect(jsonPath("$.[*].imageContentType").value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE)));
+
+        // Check, that the count call also returns 1
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultSaleItemShouldNotBeFound(String filter) throws Exception {
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restSaleItemMockMvc
+            .perform(get(ENTITY_API_URL + "/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingSaleItem() throws Exception {
+        // Get the saleItem
+        restSaleItemMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void putExistingSaleItem() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        int databaseSizeBeforeUpdate = saleItemRepository.findAll().size();
+
+        // Update the saleItem
+        SaleItem updatedSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        // Disconnect from session so that the updates on updatedSaleItem are not directly saved in db
+        em.detach(updatedSaleItem);
+        updatedSaleItem
+            .name(UPDATED_NAME)
+            .price(UPDATED_PRICE)
+            .quantity(UPDATED_QUANTITY)
+            .lowStockThreshold(UPDATED_LOW_STOCK_THRESHOLD)
+            .flashSale(UPDATED_FLASH_SALE)
+            .type(UPDATED_TYPE)
+            .image(UPDATED_IMAGE)
+            .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
+
+        restSaleItemMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedSaleItem.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedSaleItem))
+            )
+            .andExpect(status().isOk());
+
+        // Validate the SaleItem in the database
+        List<SaleItem> saleItemList = saleItemRepository.findAll();
+        assertThat(saleItemList).hasSize(databaseSizeBeforeUpdate);
+        SaleItem testSaleItem = saleItemList.get(saleItemList.size() - 1);
+        assertThat(testSaleItem.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testSaleItem.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
+        assertThat(testSaleItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
+        assertThat(testSaleItem.getLowStockThreshold()).isEqualTo(UPDATED_LOW_STOCK_THRESHOLD);
+        assertThat(testSaleItem.getFlashSale()).isEqualTo(UPDATED_FLASH_SALE);
+        assertThat(testSaleItem.getType()).isEqualTo(UPDATED_TYPE);
+        assertThat(storedImage(testSaleItem.getId())).isEqualTo(UPDATED_IMAGE);
+        assertThat(testSaleItem.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
+    }
+
+    @Test
+    @Transactional
+    void putSaleItemWithIfMatch() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Update the saleItem
+        SaleItem updatedSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        em.detach(updatedSaleItem);
+        updatedSaleItem.name(UPDATED_NAME).version(null);
+
+        restSaleItemMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedSaleItem.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedSaleItem))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+            .andExpect(jsonPath("$.version").value(1));
+
+        // Validate the SaleItem in the database
+        SaleItem testSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        assertThat(testSaleItem.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testSaleItem.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @Transactional
+    void putSaleItemWithOutdatedIfMatch() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Update the saleItem
+        SaleItem updatedSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        em.detach(updatedSaleItem);
+        updatedSaleItem.name(UPDATED_NAME);
+
+        restSaleItemMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedSaleItem.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedSaleItem))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        // Validate the SaleItem in the database
+        SaleItem testSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        assertThat(testSaleItem.getName()).isEqualTo(DEFAULT_NAME);
+        assertThat(testSaleItem.getVersion()).isZero();
+    }
+
+    @Test
+    @Transactional
+    void patchSaleItemWithOutdatedVersion() throws Exception {
+        // Initialize the database
+        saleItemRepository.saveAndFlush(saleItem);
+
+        // Update the saleItem using partial update, from an outdated copy
+        SaleItem partialUpdatedSaleItem = new SaleItem().id(saleItem.getId()).name(UPDATED_NAME).version(1L);
+
+        restSaleItemMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedSaleItem.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedSaleItem))
+            )
+            .andExpect(status().isConflict());
+
+        // Validate the SaleItem in the database
+        assertThat(saleItemRepository.findById(saleItem.getId()).get().getName()).isEqualTo(DEFAULT_NAME);
+    }
+
+    @Test
+    @Transactional
+    void uploadSaleItemImage() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+        em.flush();
+        em.detach(saleItem);
+
+        MockMultipartFile file = new MockMultipartFile("file", "image.png", UPDATED_IMAGE_CONTENT_TYPE, UPDATED_IMAGE);
+        restSaleItemMockMvc
+            .perform(multipart(ENTITY_API_URL_ID + "/image", saleItem.getId()).file(file).with(asPut()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imageContentType").value(UPDATED_IMAGE_CONTENT_TYPE))
+            .andExpect(jsonPath("$.imageHash").value(not(saleItem.getImageHash())));
+
+        SaleItem testSaleItem = saleItemRepository.findById(saleItem.getId()).get();
+        assertThat(testSaleItem.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
+        assertThat(testSaleItem.getImageHash()).isNotEqualTo(saleItem.getImageHash()).hasSize(64);
+        assertThat(storedImage(saleItem.getId())).isEqualTo(UPDATED_IMAGE);
+    }
+
+    @Test
+    @Transactional
+    void uploadInvalidSaleItemImage() throws Exception {
+        // Initialize the database
+        saleItemService.save(saleItem);
+
+        MockMultipartFile tooLarge = new MockMultipartFile("file", "image.png", UPDATED_IMAGE_CONTENT_TYPE, new byte[2048]);
+        restSaleItemMockMvc
+            .perform(multipart(ENTITY_API_URL_ID + "/image", saleItem.getId()).file(tooLarge).with(asPut()))
+            .andExpect(status().isBadRequest());
+
+        MockMultipartFile notAnImage = new MockMultipartFile("file", "image.txt", MediaType.TEXT_PLAIN_VALUE, UPDATED_IMAGE);
+        restSaleItemMockMvc
+            .perform(multipart(ENTITY_API_URL_ID + "/image", saleItem.getId()).file(notAnImage).with(asPut()))
+            .andExpect(status().isBadRequest());
+
+        MockMultipartFile empty = new MockMultipartFile("file", "image.png", UPDATED_IMAGE_CONTENT_TYPE, new byte[0]);
+        restSaleItemMockMvc
+            .perform(multipart(ENTITY_API_URL_ID + "/image", saleItem.getId()).file(empty).with(asPut()))
+            .andExpect(status().isBadRequest());
+
+        assertThat(storedImage(saleItem.getId())).isEqualTo(DEFAULT_IMAGE);
+    }
+
+    @Test
+    @Transactional
+    void uploadNonExistingSaleItemImage() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "image.png", UPDATED_IMAGE_CONTENT_TYPE, UPDATED_IMAGE);
+        restSaleItemMockMvc
+            .perform(multipart(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE).file(file).with(asPut()))
+            .andExpect(status().isNotFound());
+    }
+
+    private byte[] storedImage(Long saleItemId) throws IOException {
+        String imageHash = saleItemRepository.findById(saleItemId).orElseThrow().getImageHash();
+        try (InputStream image = imageStore.find(imageHash).orElseThrow().getInputStream()) {
+            return image.readAllBytes();
+        }
+    }
+
+    private static byte[] createPng(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static RequestPostProcessor asPut() {
+        return request -> {
+            request.setMethod("PUT");
+            return request;
+        };
     }
 
     @Test
@@ -354,6 +1408,8 @@ class SaleItemResourceIT {
         partialUpdatedSaleItem
             .price(UPDATED_PRICE)
             .quantity(UPDATED_QUANTITY)
+            .lowStockThreshold(UPDATED_LOW_STOCK_THRESHOLD)
+            .flashSale(UPDATED_FLASH_SALE)
             .type(UPDATED_TYPE)
             .image(UPDATED_IMAGE)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
@@ -373,8 +1429,10 @@ class SaleItemResourceIT {
         assertThat(testSaleItem.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testSaleItem.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
         assertThat(testSaleItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
+        assertThat(testSaleItem.getLowStockThreshold()).isEqualTo(UPDATED_LOW_STOCK_THRESHOLD);
+        assertThat(testSaleItem.getFlashSale()).isEqualTo(UPDATED_FLASH_SALE);
         assertThat(testSaleItem.getType()).isEqualTo(UPDATED_TYPE);
-        assertThat(testSaleItem.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(storedImage(testSaleItem.getId())).isEqualTo(UPDATED_IMAGE);
         assertThat(testSaleItem.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
@@ -394,6 +1452,8 @@ class SaleItemResourceIT {
             .name(UPDATED_NAME)
             .price(UPDATED_PRICE)
             .quantity(UPDATED_QUANTITY)
+            .lowStockThreshold(UPDATED_LOW_STOCK_THRESHOLD)
+            .flashSale(UPDATED_FLASH_SALE)
             .type(UPDATED_TYPE)
             .image(UPDATED_IMAGE)
             .imageContentType(UPDATED_IMAGE_CONTENT_TYPE);
@@ -413,8 +1473,10 @@ class SaleItemResourceIT {
         assertThat(testSaleItem.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testSaleItem.getPrice()).isEqualByComparingTo(UPDATED_PRICE);
         assertThat(testSaleItem.getQuantity()).isEqualTo(UPDATED_QUANTITY);
+        assertThat(testSaleItem.getLowStockThreshold()).isEqualTo(UPDATED_LOW_STOCK_THRESHOLD);
+        assertThat(testSaleItem.getFlashSale()).isEqualTo(UPDATED_FLASH_SALE);
         assertThat(testSaleItem.getType()).isEqualTo(UPDATED_TYPE);
-        assertThat(testSaleItem.getImage()).isEqualTo(UPDATED_IMAGE);
+        assertThat(storedImage(testSaleItem.getId())).isEqualTo(UPDATED_IMAGE);
         assertThat(testSaleItem.getImageContentType()).isEqualTo(UPDATED_IMAGE_CONTENT_TYPE);
     }
 
@@ -479,6 +1541,7 @@ class SaleItemResourceIT {
     void deleteSaleItem() throws Exception {
         // Initialize the database
         saleItemRepository.saveAndFlush(saleItem);
+        em.detach(saleItemImageRepository.saveAndFlush(new SaleItemImage().id(saleItem.getId()).image(DEFAULT_IMAGE)));
 
         int databaseSizeBeforeDelete = saleItemRepository.findAll().size();
 
@@ -490,5 +1553,6 @@ class SaleItemResourceIT {
         // Validate the database contains one less item
         List<SaleItem> saleItemList = saleItemRepository.findAll();
         assertThat(saleItemList).hasSize(databaseSizeBeforeDelete - 1);
+        assertThat(saleItemImageRepository.findById(saleItem.getId())).isEmpty();
     }
 }
@@ -0,0 +1,128 @@
+package ee.ddd.fundraiser.web.sse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ee.ddd.fundraiser.config.ApplicationProperties.Live.Overflow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Unit tests for the {@link SseSubscription} class.
+ * <p>
+ * The sending tasks are only run when the test says so, as if the client were not reading.
+ */
+class SseSubscriptionTest {
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final List<String> sent = new ArrayList<>();
+
+    private final List<String> closed = new ArrayList<>();
+
+    private MeterRegistry meterRegistry;
+
+    private boolean failing;
+
+    private final SseEmitter emitter = new SseEmitter() {
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            builder.build().forEach(data -> sent.add(data.getData().toString()));
+        }
+    };
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private SseSubscription subscribe(Overflow overflow) {
+        return new SseSubscription(
+            emitter,
+            2,
+            overflow,
+            tasks::add,
+            Timer.builder("lag").register(meterRegistry),
+            Counter.builder("dropped").register(meterRegistry),
+            (subscription, reason) -> closed.add(reason)
+        );
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private double dropped() {
+        return meterRegistry.get("dropped").counter().count();
+    }
+
+    @Test
+    void testSendsInOrder() {
+        SseSubscription subscription = subscribe(Overflow.DISCONNECT);
+
+        subscription.offer(LiveUpdate.of("stock", "first"));
+        subscription.offer(LiveUpdate.of("stock", "second"));
+        assertThat(tasks).hasSize(1);
+        runTasks();
+
+        assertThat(String.join("", sent)).containsSubsequence("first", "second");
+        assertThat(meterRegistry.get("lag").timer().count()).isEqualTo(2);
+        assertThat(closed).isEmpty();
+    }
+
+    @Test
+    void testDropOldest() {
+        SseSubscription subscription = subscribe(Overflow.DROP_OLDEST);
+
+        subscription.offer(LiveUpdate.of("stock", "first"));
+        subscription.offer(LiveUpdate.of("stock", "second"));
+        subscription.offer(LiveUpdate.of("stock", "third"));
+        runTasks();
+
+        assertThat(String.join("", sent)).doesNotContain("first").containsSubsequence("second", "third");
+        assertThat(dropped()).isEqualTo(1);
+        assertThat(closed).isEmpty();
+    }
+
+    @Test
+    void testDisconnect() {
+        SseSubscription subscription = subscribe(Overflow.DISCONNECT);
+
+        subscription.offer(LiveUpdate.of("stock", "first"));
+        subscription.offer(LiveUpdate.of("stock", "second"));
+        subscription.offer(LiveUpdate.of("stock", "third"));
+        runTasks();
+        subscription.offer(LiveUpdate.of("stock", "fourth"));
+        runTasks();
+
+        assertThat(sent).isEmpty();
+        assertThat(dropped()).isEqualTo(3);
+        assertThat(closed).containsExactly(SseSubscription.OVERFLOW);
+        assertThat(subscription.isClosed()).isTrue();
+    }
+
+    @Test
+    void testSendError() {
+        SseSubscription subscription = subscribe(Overflow.DISCONNECT);
+        failing = true;
+
+        subscription.offer(LiveUpdate.of("stock", "first"));
+        runTasks();
+        subscription.offer(LiveUpdate.of("stock", "second"));
+
+        assertThat(tasks).isEmpty();
+        assertThat(closed).containsExactly(SseSubscription.ERROR);
+    }
+}